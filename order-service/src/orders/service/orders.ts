@@ -42,29 +42,31 @@ export class OrdersService {
 
     const catalogResp = await this.safeGet(() => this.fetchEvent(event_id), 'Invalid event-id');
 
-    const availResp = await this.safeGet(() => this.fetchAvailability(event_id), 'Invalid seating availability response');
-    const availableList = availResp?.data?.availableSeatsList;
-    if (!Array.isArray(availableList)) {
-      this.logger.error('Invalid seating availability response format', { eventId: event_id, payload: availResp?.data });
-      throw new BadGatewayException('Invalid seating availability response');
+    const statusResp = await this.safePost(() => this.fetchSeatStatuses(event_id, seats), 'Invalid seating status response');
+    const statusList = statusResp?.data?.seats;
+    if (!Array.isArray(statusList)) {
+      this.logger.error('Invalid seating status response format', { eventId: event_id, payload: statusResp?.data });
+      throw new BadGatewayException('Invalid seating status response');
     }
 
-    const availableById = new Map(availableList.map((s: any) => [Number(s.id), s]));
+    // Each seat comes back as an [id, status, price, seatNumber] tuple
+    const seatsById = new Map(statusList.map((s: any[]) => [Number(s[0]), s]));
 
     const seatSnapshots = seats.map((sid: number) => {
-      const seat = availableById.get(Number(sid));
+      const seat = seatsById.get(Number(sid));
       if (!seat) {
         this.logger.warn(`Seat missing: event=${event_id} seat=${sid}`);
         throw new BadRequestException('Invalid seat selection');
       }
-      if (String(seat.status).toUpperCase() !== 'AVAILABLE') {
-        this.logger.warn(`Seat not available: event=${event_id} seat=${sid} status=${seat.status}`);
+      const [id, status, price, code] = seat;
+      if (String(status).toUpperCase() !== 'AVAILABLE') {
+        this.logger.warn(`Seat not available: event=${event_id} seat=${sid} status=${status}`);
         throw new BadRequestException('Seat not available');
       }
       return {
-        id: Number(seat.id),
-        code: (seat.seatNumber || seat.seat_code || seat.seatCode || '').toString(),
-        priceCents: seat.price_cents ?? toCents(seat.price),
+        id: Number(id),
+        code: (code || '').toString(),
+        priceCents: toCents(price),
       };
     });
 
@@ -105,7 +107,7 @@ export class OrdersService {
     } catch (err) {
       this.logger.error('Payment charge failed: ' + this.stringifyError(err), this.normalizeAxiosError(err));
       try {
-        await this.releaseSeatsArray(seats);
+        await this.releaseSeatsArray(seats, event_id);
       } catch (e) {
         this.logger.warn('Seat release after payment failure also failed: ' + this.stringifyError(e), this.normalizeAxiosError(e));
       }
@@ -129,11 +131,11 @@ export class OrdersService {
       const seats = items.map((r: OrderItem) => r.seatId);
 
       try {
-        await this.allocateSeats(order_id, seats);
+        await this.allocateSeats(order_id, order.eventId, seats);
       } catch (e) {
         this.logger.error('Seat allocation failed after payment: ' + this.stringifyError(e), this.normalizeAxiosError(e));
         try {
-          await this.releaseSeatsArray(seats);
+          await this.releaseSeatsArray(seats, order.eventId);
         } catch (inner) {
           this.logger.warn('Seat release after allocation failure failed: ' + this.stringifyError(inner), this.normalizeAxiosError(inner));
         }
@@ -161,7 +163,7 @@ export class OrdersService {
       const seats = items.map((r: any) => r.seat_id || r.seatId);
 
       try {
-        await this.releaseSeatsObject({ order_id, event_id: order.eventId, seats });
+        await this.releaseSeatsArray(seats, order.eventId);
       } catch (e: any) {
         this.logger.warn('release err: ' + this.stringifyError(e), this.normalizeAxiosError(e));
       }
@@ -246,8 +248,8 @@ export class OrdersService {
     return axios.get(`${CATALOG_URL}/v1/events/${eventId}`);
   }
 
-  private async fetchAvailability(eventId: any): Promise<AxiosResponse<any>> {
-    return axios.get(`${SEATING_URL}/v1/seats/availability`, { params: { eventId }, timeout: 3000 });
+  private async fetchSeatStatuses(eventId: any, seatIds: any[]): Promise<AxiosResponse<any>> {
+    return axios.post(`${SEATING_URL}/v1/seats/status`, { eventId, seatIds }, { timeout: 3000 });
   }
 
   private async reserveSeats(eventId: any, seatIds: any[], userId: any): Promise<AxiosResponse<any>> {
@@ -258,16 +260,13 @@ export class OrdersService {
     );
   }
 
-  private async releaseSeatsArray(seatIds: any[]): Promise<AxiosResponse<any>> {
-    return axios.post(`${SEATING_URL}/v1/seats/release`, seatIds, { timeout: 3000 });
+  // The event id lets seating look the seats up in the event's partition only; a null one is left out
+  private async releaseSeatsArray(seatIds: any[], eventId: any): Promise<AxiosResponse<any>> {
+    return axios.post(`${SEATING_URL}/v1/seats/release`, seatIds, { params: { eventId }, timeout: 3000 });
   }
 
-  private async releaseSeatsObject(payload: any): Promise<AxiosResponse<any>> {
-    return axios.post(`${SEATING_URL}/v1/seats/release`, payload, { timeout: 3000 });
-  }
-
-  private async allocateSeats(orderId: any, seatIds: any[]): Promise<AxiosResponse<any>> {
-    return axios.post(`${SEATING_URL}/v1/seats/allocate`, { orderId, seatIds });
+  private async allocateSeats(orderId: any, eventId: any, seatIds: any[]): Promise<AxiosResponse<any>> {
+    return axios.post(`${SEATING_URL}/v1/seats/allocate`, { orderId, eventId, seatIds });
   }
 
   private async chargePayment(payload: any, idempotencyKey: string): Promise<AxiosResponse<any>> {
@@ -0,0 +1,67 @@
+#!/usr/bin/env bash
+# Bulkhead isolation test: floods the uncached seat list (READ bulkhead) at increasing
+# concurrency while a steady probe releases a few seats (RESERVE bulkhead, a locking write).
+# With the bulkheads the probe's p99 should stay flat while the reads level off and, past
+# their queue, are shed with 503. Needs a running seating-service with seeded seats; the
+# probe seats end up AVAILABLE.
+#
+#   ./run.sh
+#   EVENT_ID=42 SEAT_IDS=7,8 LEVELS="100 400 1600" DURATION=30s ./run.sh
+set -euo pipefail
+
+cd "$(dirname "$0")"
+
+HOST=${HOST:-localhost}
+PORT=${PORT:-8082}
+EVENT_ID=${EVENT_ID:-1}
+SEAT_IDS=${SEAT_IDS:-1,2}
+LEVELS=${LEVELS:-0 50 100 200 400 800 1600}
+DURATION=${DURATION:-20s}
+PROBE_CONCURRENCY=${PROBE_CONCURRENCY:-4}
+OUT=${OUT:-out}
+
+command -v hey > /dev/null || { echo "hey is required" >&2; exit 1; }
+mkdir -p "$OUT"
+
+READ_PATH="/v1/seats?eventId=$EVENT_ID&status=AVAILABLE&fields=id,seatNumber,section,price"
+
+# Prints "rps p99-ms 503s other-errors" from a hey report
+summarize() {
+    awk '/Requests\/sec/ { rps = $2 } /99% in/ { p99 = $3 * 1000 }
+         /Status code distribution/ { section = "status"; next }
+         /Error distribution/ { section = "errors"; next }
+         section == "status" && /\[503\]/ { shed += $2; next }
+         section == "status" && /\[[0-9]+\]/ && $1 !~ /^\[2/ { errors += $2 }
+         section == "errors" && /\[[0-9]+\]/ { errors += substr($1, 2) }
+         END { printf "%.0f %.1f %d %d\n", rps, p99, shed, errors }' "$1"
+}
+
+run() {
+    local concurrency=$1
+    local reads="$OUT/reads-$concurrency.txt" probe="$OUT/probe-$concurrency.txt"
+    local reads_pid=
+    if [ "$concurrency" -gt 0 ]; then
+        hey -z "$DURATION" -c "$concurrency" "http://$HOST:$PORT$READ_PATH" > "$reads" &
+        reads_pid=$!
+    fi
+    hey -z "$DURATION" -c "$PROBE_CONCURRENCY" -m POST -T application/json -d "[$SEAT_IDS]" \
+        "http://$HOST:$PORT/v1/seats/release" > "$probe"
+    
+    local rps=- p99=- shed=- errors=-
+    if [ -n "$reads_pid" ]; then
+        wait "$reads_pid"
+        read -r rps p99 shed errors <<< "$(summarize "$reads")"
+    fi
+    read -r probe_rps probe_p99 probe_shed probe_errors <<< "$(summarize "$probe")"
+    printf "%6s %10s %10s %8s %8s %12s %12s %10s\n" "$concurrency" "$rps" "$p99" "$shed" "$errors" \
+        "$probe_rps" "$probe_p99" "$((probe_shed + probe_errors))"
+}
+
+printf "%6s %10s %10s %8s %8s %12s %12s %10s\n" conc "req/s" "p99 ms" "503" errors "write req/s" "write p99" "write err"
+for concurrency in $LEVELS; do
+    run "$concurrency"
+done
+
+echo
+echo "Rejections per bulkhead:"
+curl -s "http://$HOST:$PORT/actuator/prometheus" | grep '^bulkhead_rejections_total' || true
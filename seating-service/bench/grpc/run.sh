@@ -0,0 +1,62 @@
+#!/usr/bin/env bash
+# REST vs gRPC benchmark for the internal calls: the batch seat-status lookup and the
+# availability listing, against a running seating-service (docker-compose up seating-service).
+# REST is driven with hey, gRPC with ghz; both use the same concurrency and request count.
+#
+#   ./run.sh
+#   EVENT_ID=42 SEAT_IDS=1,2,3,4,5,6 CONCURRENCY=100 REQUESTS=50000 ./run.sh
+set -euo pipefail
+
+cd "$(dirname "$0")"
+
+HOST=${HOST:-localhost}
+HTTP_PORT=${HTTP_PORT:-8082}
+GRPC_PORT=${GRPC_PORT:-9082}
+EVENT_ID=${EVENT_ID:-1}
+SEAT_IDS=${SEAT_IDS:-1,2,3,4}
+CONCURRENCY=${CONCURRENCY:-50}
+REQUESTS=${REQUESTS:-20000}
+OUT=${OUT:-out}
+PROTO=../../src/main/proto/seating.proto
+
+for tool in hey ghz jq; do
+    command -v "$tool" > /dev/null || { echo "$tool is required" >&2; exit 1; }
+done
+mkdir -p "$OUT"
+
+# Prints "p50 p99 rps" from a hey run
+rest() {
+    local name=$1; shift
+    hey -n "$REQUESTS" -c "$CONCURRENCY" "$@" > "$OUT/rest-$name.txt"
+    awk '/50% in/ { p50 = $3 * 1000 } /99% in/ { p99 = $3 * 1000 } /Requests\/sec/ { rps = $2 }
+         END { printf "%.2f %.2f %.0f\n", p50, p99, rps }' "$OUT/rest-$name.txt"
+}
+
+# Prints "p50 p99 rps" from a ghz run
+grpc() {
+    local name=$1 method=$2 data=$3
+    ghz --insecure --proto "$PROTO" --call "ticketing.seating.v1.SeatingService/$method" \
+        -n "$REQUESTS" -c "$CONCURRENCY" -d "$data" --format json \
+        "$HOST:$GRPC_PORT" > "$OUT/grpc-$name.json"
+    jq -r '[(.latencyDistribution[] | select(.percentage == 50) | .latency / 1e6),
+            (.latencyDistribution[] | select(.percentage == 99) | .latency / 1e6),
+            .rps] | "\(.[0] * 100 | round / 100) \(.[1] * 100 | round / 100) \(.[2] | round)"' \
+        "$OUT/grpc-$name.json"
+}
+
+report() {
+    local call=$1 protocol=$2 result=$3
+    read -r p50 p99 rps <<< "$result"
+    printf "%-14s %-6s %10s %10s %10s\n" "$call" "$protocol" "$p50" "$p99" "$rps"
+}
+
+STATUS_JSON="{\"eventId\": $EVENT_ID, \"seatIds\": [$SEAT_IDS]}"
+STATUS_PROTO="{\"event_id\": $EVENT_ID, \"seat_ids\": [$SEAT_IDS]}"
+
+printf "%-14s %-6s %10s %10s %10s\n" call proto "p50 ms" "p99 ms" "req/s"
+report status REST "$(rest status -m POST -T application/json -d "$STATUS_JSON" \
+    "http://$HOST:$HTTP_PORT/v1/seats/status")"
+report status gRPC "$(grpc status GetSeatStatuses "$STATUS_PROTO")"
+report availability REST "$(rest availability \
+    "http://$HOST:$HTTP_PORT/v1/seats/availability?eventId=$EVENT_ID")"
+report availability gRPC "$(grpc availability StreamAvailability "{\"event_id\": $EVENT_ID}")"
@@ -0,0 +1,85 @@
+#!/usr/bin/env bash
+# Logging overhead: the same load against the service started with the default logging
+# (pattern layout, DEBUG for the service, SQL echoed to stdout) and with the prod profile
+# (async JSON appender, sampling and rate limits per endpoint, no SQL echo). stdout, and
+# the log file of the default logging, go to local disk in both runs. Reports throughput, p50 and p99 per endpoint, and the
+# bytes logged per request. Needs the database the service normally uses with seeded seats;
+# the released seats end up AVAILABLE.
+#
+#   ./run.sh
+#   EVENT_ID=42 SEAT_IDS=7,8 CONCURRENCY=100 DURATION=60s ./run.sh
+#   SPRING_DATASOURCE_URL=jdbc:postgresql://localhost:5434/seatingdb ./run.sh
+set -euo pipefail
+
+cd "$(dirname "$0")"
+
+PORT=${PORT:-18082}
+EVENT_ID=${EVENT_ID:-1}
+SEAT_IDS=${SEAT_IDS:-1,2}
+CONCURRENCY=${CONCURRENCY:-50}
+DURATION=${DURATION:-30s}
+OUT=${OUT:-out}
+JAR=../../target/seating-service-1.0.0.jar
+
+command -v hey > /dev/null || { echo "hey is required" >&2; exit 1; }
+if [ "${SKIP_BUILD:-0}" != "1" ]; then
+    (cd ../.. && mvn -q -B package -DskipTests)
+fi
+mkdir -p "$OUT"
+
+URL="http://localhost:$PORT"
+
+# Prints the bytes written to stdout and the log file so far; the prod profile writes no file
+logged() {
+    { cat "$OUT/$1.log" "$OUT/$1-file.log" 2>/dev/null || true; } | wc -c
+}
+
+# Prints "requests rps p50-ms p99-ms" from a hey report
+summarize() {
+    awk '/Requests\/sec/ { rps = $2 } /50% in/ { p50 = $3 * 1000 } /99% in/ { p99 = $3 * 1000 }
+         /\[[0-9]+\]/ && /responses/ { requests += $2 }
+         END { printf "%d %.0f %.1f %.1f\n", requests, rps, p50, p99 }' "$1"
+}
+
+start() {
+    local variant=$1; shift
+    # The log file must not roll over during a run, or the bytes logged come out short
+    java "$@" -jar "$JAR" --server.port="$PORT" --logging.file.name="$OUT/$variant-file.log" \
+        --logging.logback.rollingpolicy.max-file-size=10GB > "$OUT/$variant.log" 2>&1 &
+    PID=$!
+    until curl -sf -o /dev/null "$URL/actuator/health"; do
+        if ! kill -0 "$PID" 2>/dev/null; then
+            echo "$variant failed to start, see $OUT/$variant.log" >&2
+            exit 1
+        fi
+        sleep 0.2
+    done
+    # Warm up, so both runs measure a JIT-compiled service
+    hey -z 10s -c "$CONCURRENCY" -m POST -T application/json -d "{\"eventId\":$EVENT_ID,\"seatIds\":[$SEAT_IDS]}" \
+        "$URL/v1/seats/status" > /dev/null
+}
+
+load() {
+    local variant=$1 name=$2; shift 2
+    local before after
+    before=$(logged "$variant")
+    hey -z "$DURATION" -c "$CONCURRENCY" "$@" > "$OUT/$variant-$name.txt"
+    after=$(logged "$variant")
+    read -r requests rps p50 p99 <<< "$(summarize "$OUT/$variant-$name.txt")"
+    printf "%-8s %-14s %10s %10s %10s %14s\n" "$variant" "$name" "$rps" "$p50" "$p99" \
+        "$(( (after - before) / (requests > 0 ? requests : 1) ))"
+}
+
+run() {
+    local variant=$1; shift
+    start "$variant" "$@"
+    load "$variant" status -m POST -T application/json -d "{\"eventId\":$EVENT_ID,\"seatIds\":[$SEAT_IDS]}" \
+        "$URL/v1/seats/status"
+    load "$variant" availability "$URL/v1/seats/availability?eventId=$EVENT_ID"
+    load "$variant" release -m POST -T application/json -d "[$SEAT_IDS]" "$URL/v1/seats/release"
+    kill "$PID" && wait "$PID" 2>/dev/null || true
+}
+
+printf "%-8s %-14s %10s %10s %10s %14s\n" logging endpoint "req/s" "p50 ms" "p99 ms" "log bytes/req"
+run default
+run prod -Dspring.profiles.active=prod
@@ -0,0 +1,36 @@
+-- Loads :events events with :seats_per_event seats each into both the partitioned
+-- seats table (created by the migrations) and an unpartitioned copy, seats_flat,
+-- which has the same columns and indexes without partitioning.
+--
+--   psql -v events=1000 -v seats_per_event=2000 -f load.sql
+
+DROP TABLE IF EXISTS seats_flat;
+CREATE TABLE seats_flat (LIKE seats INCLUDING DEFAULTS);
+ALTER TABLE seats_flat ADD PRIMARY KEY (id);
+CREATE INDEX seats_flat_reserved_expiry ON seats_flat (reservation_expires_at) WHERE status = 1;
+CREATE INDEX seats_flat_availability ON seats_flat (event_id, status, section) INCLUDE (id, price);
+
+TRUNCATE seats;
+
+SELECT ensure_seat_partition(e) FROM generate_series(1, :events) AS e;
+
+INSERT INTO seats (event_id, seat_number, row_number, section, type, price, status,
+                   reserved_by, reserved_at, reservation_expires_at, version, created_at, updated_at)
+SELECT e,
+       'S' || (s % 50),
+       'R' || (s / 50),
+       chr(65 + (s % 8)),
+       2,  -- REGULAR
+       50.00 + (s % 8) * 10,
+       CASE WHEN s % 10 = 0 THEN 1 WHEN s % 3 = 0 THEN 2 ELSE 0 END,  -- RESERVED, ALLOCATED, AVAILABLE
+       CASE WHEN s % 10 = 0 THEN 1 END,
+       CASE WHEN s % 10 = 0 THEN now() END,
+       CASE WHEN s % 10 = 0 THEN now() + interval '15 minutes' END,
+       0, now(), now()
+FROM generate_series(1, :events) AS e,
+     generate_series(1, :seats_per_event) AS s;
+
+INSERT INTO seats_flat SELECT * FROM seats;
+
+VACUUM ANALYZE seats;
+VACUUM ANALYZE seats_flat;
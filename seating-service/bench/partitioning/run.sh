@@ -0,0 +1,40 @@
+#!/usr/bin/env bash
+# Compares per-event query throughput and VACUUM cost of the partitioned seats table
+# against the old unpartitioned layout as the number of events grows. For the
+# partitioned layout VACUUM is measured on one event's partition, which is the unit
+# autovacuum works on once the table is partitioned.
+#
+# Requires psql and pgbench on PATH and a seatingdb migrated by the service, selected
+# through the usual PGHOST/PGPORT/PGUSER/PGDATABASE variables.
+#
+#   ./run.sh                      # 100, 1000 and 5000 events
+#   EVENT_COUNTS="100 10000" SEATS_PER_EVENT=500 ./run.sh
+set -euo pipefail
+
+cd "$(dirname "$0")"
+
+EVENT_COUNTS=${EVENT_COUNTS:-"100 1000 5000"}
+SEATS_PER_EVENT=${SEATS_PER_EVENT:-1000}
+DURATION=${DURATION:-30}
+CLIENTS=${CLIENTS:-8}
+
+tps() {
+    pgbench -n -c "$CLIENTS" -j "$CLIENTS" -T "$DURATION" -D events="$1" -f "$2" 2>/dev/null \
+        | awk '/^tps/ { print $3; exit }'
+}
+
+vacuum_ms() {
+    psql -qAt -c '\timing on' -c "VACUUM $1" | awk '/^Time:/ { print $2 }'
+}
+
+printf '%-8s %-12s %14s %14s %14s\n' events table select_tps expiry_tps vacuum_ms
+for events in $EVENT_COUNTS; do
+    psql -q -v ON_ERROR_STOP=1 -v events="$events" -v seats_per_event="$SEATS_PER_EVENT" -f load.sql >/dev/null
+
+    printf '%-8s %-12s %14s %14s %14s\n' "$events" partitioned \
+        "$(tps "$events" availability.pgbench)" "$(tps "$events" expiry.pgbench)" "$(vacuum_ms seats_event_1)"
+    printf '%-8s %-12s %14s %14s %14s\n' "$events" flat \
+        "$(tps "$events" availability_flat.pgbench)" "$(tps "$events" expiry_flat.pgbench)" "$(vacuum_ms seats_flat)"
+done
+
+psql -q -c 'DROP TABLE IF EXISTS seats_flat' -c 'TRUNCATE seats'
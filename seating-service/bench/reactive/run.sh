@@ -0,0 +1,58 @@
+#!/usr/bin/env bash
+# Read-path load test: drives the seat list of one event through the servlet stack (8082)
+# and the reactive stack (8083) at increasing concurrency. While each read run is going,
+# a light probe of POST /v1/seats/status on the servlet port shows how much the reads
+# slow down the blocking request path. Needs a running seating-service with seeded seats.
+#
+#   ./run.sh
+#   EVENT_ID=42 LEVELS="100 400 1600" DURATION=30s ./run.sh
+set -euo pipefail
+
+cd "$(dirname "$0")"
+
+HOST=${HOST:-localhost}
+SERVLET_PORT=${SERVLET_PORT:-8082}
+REACTIVE_PORT=${REACTIVE_PORT:-8083}
+EVENT_ID=${EVENT_ID:-1}
+SEAT_IDS=${SEAT_IDS:-1,2,3,4}
+LEVELS=${LEVELS:-50 100 200 400 800 1600}
+DURATION=${DURATION:-20s}
+PROBE_CONCURRENCY=${PROBE_CONCURRENCY:-4}
+OUT=${OUT:-out}
+
+command -v hey > /dev/null || { echo "hey is required" >&2; exit 1; }
+mkdir -p "$OUT"
+
+# The uncached seat list, so every request reaches the database
+PATH_QUERY="/v1/seats?eventId=$EVENT_ID&status=AVAILABLE&fields=id,seatNumber,section,price"
+
+# Prints "rps p99-ms non-2xx" from a hey report
+summarize() {
+    awk '/Requests\/sec/ { rps = $2 } /99% in/ { p99 = $3 * 1000 }
+         /Status code distribution/ { section = "status"; next }
+         /Error distribution/ { section = "errors"; next }
+         section == "status" && /\[[0-9]+\]/ && $1 !~ /^\[2/ { errors += $2 }
+         section == "errors" && /\[[0-9]+\]/ { errors += substr($1, 2) }
+         END { printf "%.0f %.1f %d\n", rps, p99, errors }' "$1"
+}
+
+run() {
+    local stack=$1 port=$2 concurrency=$3
+    local reads="$OUT/$stack-$concurrency.txt" probe="$OUT/$stack-$concurrency-probe.txt"
+    hey -z "$DURATION" -c "$concurrency" "http://$HOST:$port$PATH_QUERY" > "$reads" &
+    local reads_pid=$!
+    hey -z "$DURATION" -c "$PROBE_CONCURRENCY" -m POST -T application/json \
+        -d "{\"eventId\": $EVENT_ID, \"seatIds\": [$SEAT_IDS]}" \
+        "http://$HOST:$SERVLET_PORT/v1/seats/status" > "$probe"
+    wait "$reads_pid"
+    
+    read -r rps p99 errors <<< "$(summarize "$reads")"
+    read -r probe_rps probe_p99 probe_errors <<< "$(summarize "$probe")"
+    printf "%-9s %6s %10s %10s %8s %12s %10s\n" "$stack" "$concurrency" "$rps" "$p99" "$errors" "$probe_p99" "$probe_errors"
+}
+
+printf "%-9s %6s %10s %10s %8s %12s %10s\n" stack conc "req/s" "p99 ms" errors "probe p99" "probe err"
+for concurrency in $LEVELS; do
+    run servlet "$SERVLET_PORT" "$concurrency"
+    run reactive "$REACTIVE_PORT" "$concurrency"
+done
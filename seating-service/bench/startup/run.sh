@@ -0,0 +1,68 @@
+#!/usr/bin/env bash
+# Startup benchmark: time from JVM launch until the first real request succeeds, for the
+# default build (fat jar) and the fast-start build (thin jar + AppCDS archive, fast-start
+# profile). Needs the database the service normally uses (e.g. docker-compose up seatingdb).
+#
+#   ./run.sh
+#   RUNS=10 EVENT_ID=42 ./run.sh
+#   SPRING_DATASOURCE_URL=jdbc:postgresql://localhost:5434/seatingdb ./run.sh
+set -euo pipefail
+
+cd "$(dirname "$0")"
+
+RUNS=${RUNS:-5}
+PORT=${PORT:-18082}
+EVENT_ID=${EVENT_ID:-1}
+OUT=${OUT:-out}
+MODULE=../..
+
+# The default build is copied aside; the fast-start build is run in place, as an AppCDS
+# archive only matches the class path it was dumped with
+build() {
+    echo "Building default and fast-start" >&2
+    (cd "$MODULE" && mvn -q -B clean package -DskipTests)
+    rm -rf "$OUT/default" && mkdir -p "$OUT/default"
+    cp "$MODULE/target/seating-service-1.0.0.jar" "$OUT/default/"
+    (cd "$MODULE" && mvn -q -B clean package -DskipTests -Pfast-start)
+}
+
+# Prints milliseconds from launch until GET /v1/seats answers 200
+measure() {
+    local variant=$1 dir=$2; shift 2
+    local start pid elapsed
+    start=$(date +%s%N)
+    (cd "$dir" && exec java "$@" -jar seating-service-1.0.0.jar --server.port="$PORT" \
+        > "$LOGS/$variant.log" 2>&1) &
+    pid=$!
+    until curl -sf -o /dev/null "http://localhost:$PORT/v1/seats?eventId=$EVENT_ID&fields=id"; do
+        if ! kill -0 "$pid" 2>/dev/null; then
+            echo "$variant failed to start, see $LOGS/$variant.log" >&2
+            exit 1
+        fi
+        sleep 0.05
+    done
+    elapsed=$(( ($(date +%s%N) - start) / 1000000 ))
+    kill "$pid" && wait "$pid" 2>/dev/null || true
+    echo "$elapsed"
+}
+
+report() {
+    local variant=$1 dir=$2; shift 2
+    local samples=()
+    for _ in $(seq "$RUNS"); do
+        samples+=("$(measure "$variant" "$dir" "$@")")
+    done
+    printf '%s\n' "${samples[@]}" | sort -n | awk -v v="$variant" '
+        { s[NR] = $1 }
+        END { printf "%-12s runs=%d min=%dms median=%dms max=%dms\n", v, NR, s[1], s[int((NR + 1) / 2)], s[NR] }'
+}
+
+if [ "${SKIP_BUILD:-0}" != "1" ]; then
+    build
+fi
+
+mkdir -p "$OUT"
+LOGS=$(cd "$OUT" && pwd)
+
+report default "$OUT/default"
+report fast-start "$MODULE/target" -XX:SharedArchiveFile=app.jsa -Dspring.profiles.active=fast-start
@@ -0,0 +1,35 @@
+-- Index sizes and query plans for both layouts built by setup.sql.
+SET search_path = layout_bench;
+
+\echo '== Relation sizes =='
+SELECT c.relname AS relation,
+       CASE c.relkind WHEN 'i' THEN 'index' ELSE 'table' END AS kind,
+       pg_size_pretty(pg_relation_size(c.oid)) AS size
+FROM pg_class c
+WHERE c.relnamespace = 'layout_bench'::regnamespace
+ORDER BY c.relname;
+
+SELECT 'seats_legacy' AS layout, pg_size_pretty(pg_indexes_size('seats_legacy')) AS all_indexes
+UNION ALL
+SELECT 'seats_compact', pg_size_pretty(pg_indexes_size('seats_compact'));
+
+\echo '== Expiry sweep: legacy =='
+EXPLAIN (ANALYZE, BUFFERS, COSTS OFF)
+SELECT DISTINCT event_id FROM seats_legacy WHERE status = 'RESERVED' AND reservation_expires_at < now();
+\echo '== Expiry sweep: compact =='
+EXPLAIN (ANALYZE, BUFFERS, COSTS OFF)
+SELECT DISTINCT event_id FROM seats_compact WHERE status = 1 AND reservation_expires_at < now();
+
+\echo '== Availability by section: legacy =='
+EXPLAIN (ANALYZE, BUFFERS, COSTS OFF)
+SELECT section, count(*) FROM seats_legacy WHERE event_id = 42 AND status = 'AVAILABLE' GROUP BY section;
+\echo '== Availability by section: compact =='
+EXPLAIN (ANALYZE, BUFFERS, COSTS OFF)
+SELECT section, count(*) FROM seats_compact WHERE event_id = 42 AND status = 0 GROUP BY section;
+
+\echo '== Order lookup: legacy =='
+EXPLAIN (ANALYZE, BUFFERS, COSTS OFF)
+SELECT * FROM seats_legacy WHERE order_id = md5('42:300');
+\echo '== Order lookup: compact =='
+EXPLAIN (ANALYZE, BUFFERS, COSTS OFF)
+SELECT * FROM seats_compact WHERE order_id = md5('42:300');
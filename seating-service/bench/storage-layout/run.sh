@@ -0,0 +1,19 @@
+#!/usr/bin/env bash
+# Before/after comparison of the seat storage layout introduced by V5: table and index
+# sizes plus query plans of the expiry sweep, availability and order lookups.
+#
+#   PGHOST=localhost PGPORT=5434 PGUSER=postgres PGDATABASE=seatingdb ./run.sh
+#   EVENTS=1000 SEATS_PER_EVENT=2000 ./run.sh
+set -euo pipefail
+
+cd "$(dirname "$0")"
+
+EVENTS=${EVENTS:-200}
+SEATS_PER_EVENT=${SEATS_PER_EVENT:-5000}
+
+psql -q -v ON_ERROR_STOP=1 -v events="$EVENTS" -v seats_per_event="$SEATS_PER_EVENT" -f setup.sql
+psql -v ON_ERROR_STOP=1 -f report.sql
+
+if [ "${KEEP:-0}" != "1" ]; then
+    psql -q -c 'DROP SCHEMA layout_bench CASCADE'
+fi
@@ -0,0 +1,70 @@
+-- Builds the pre-V5 (legacy) and V5 (compact) seat layouts side by side in a scratch
+-- schema with identical data, without touching the service's own tables.
+--
+--   psql -v events=200 -v seats_per_event=5000 -f setup.sql
+
+DROP SCHEMA IF EXISTS layout_bench CASCADE;
+CREATE SCHEMA layout_bench;
+SET search_path = layout_bench;
+
+CREATE TABLE seats_legacy (
+    id                     BIGINT         NOT NULL PRIMARY KEY,
+    event_id               BIGINT         NOT NULL,
+    seat_number            VARCHAR(255)   NOT NULL,
+    row_number             VARCHAR(255)   NOT NULL,
+    section                VARCHAR(255)   NOT NULL,
+    type                   VARCHAR(255)   NOT NULL,
+    price                  NUMERIC(10, 2) NOT NULL,
+    status                 VARCHAR(255)   NOT NULL,
+    reserved_by            BIGINT,
+    order_id               VARCHAR(255),
+    reserved_at            TIMESTAMP,
+    reservation_expires_at TIMESTAMP,
+    version                BIGINT,
+    created_at             TIMESTAMP      NOT NULL,
+    updated_at             TIMESTAMP
+);
+
+INSERT INTO seats_legacy
+SELECT (e - 1) * :seats_per_event + s,
+       e,
+       'S' || (s % 50),
+       'R' || (s / 50),
+       chr(65 + (s % 8)),
+       (ARRAY['VIP', 'PREMIUM', 'REGULAR', 'ECONOMY'])[1 + s % 4],
+       50.00 + (s % 8) * 10,
+       CASE WHEN s % 20 = 0 THEN 'RESERVED' WHEN s % 3 = 0 THEN 'ALLOCATED' ELSE 'AVAILABLE' END,
+       CASE WHEN s % 20 = 0 OR s % 3 = 0 THEN s END,
+       CASE WHEN s % 3 = 0 AND s % 20 <> 0 THEN md5(e || ':' || (s / 4)) END,
+       CASE WHEN s % 20 = 0 THEN now() END,
+       CASE WHEN s % 20 = 0 THEN now() + (s % 30 - 15) * interval '1 minute' END,
+       0, now(), now()
+FROM generate_series(1, :events) AS e,
+     generate_series(1, :seats_per_event) AS s;
+
+CREATE TABLE seats_compact (LIKE seats_legacy INCLUDING ALL);
+ALTER TABLE seats_compact
+    ALTER COLUMN status TYPE SMALLINT USING (CASE status
+        WHEN 'AVAILABLE' THEN 0 WHEN 'RESERVED' THEN 1 WHEN 'ALLOCATED' THEN 2 WHEN 'BLOCKED' THEN 3 END),
+    ALTER COLUMN type TYPE SMALLINT USING (CASE type
+        WHEN 'VIP' THEN 0 WHEN 'PREMIUM' THEN 1 WHEN 'REGULAR' THEN 2 WHEN 'ECONOMY' THEN 3 END);
+INSERT INTO seats_compact
+SELECT id, event_id, seat_number, row_number, section,
+       CASE type WHEN 'VIP' THEN 0 WHEN 'PREMIUM' THEN 1 WHEN 'REGULAR' THEN 2 ELSE 3 END,
+       price,
+       CASE status WHEN 'AVAILABLE' THEN 0 WHEN 'RESERVED' THEN 1 WHEN 'ALLOCATED' THEN 2 ELSE 3 END,
+       reserved_by, order_id, reserved_at, reservation_expires_at, version, created_at, updated_at
+FROM seats_legacy;
+
+-- Index set before V5
+CREATE INDEX legacy_idx_event_id ON seats_legacy (event_id);
+CREATE INDEX legacy_idx_status ON seats_legacy (status);
+CREATE INDEX legacy_idx_event_status ON seats_legacy (event_id, status);
+
+-- Index set after V5
+CREATE INDEX compact_idx_reserved_expiry ON seats_compact (reservation_expires_at) WHERE status = 1;
+CREATE INDEX compact_idx_availability ON seats_compact (event_id, status, section) INCLUDE (id, price);
+CREATE INDEX compact_idx_order_id ON seats_compact (order_id) WHERE order_id IS NOT NULL;
+
+VACUUM ANALYZE seats_legacy;
+VACUUM ANALYZE seats_compact;
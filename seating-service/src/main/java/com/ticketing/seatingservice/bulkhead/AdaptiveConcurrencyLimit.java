@@ -0,0 +1,118 @@
+package com.ticketing.seatingservice.bulkhead;
+
+/**
+ * Concurrency limit of one bulkhead that follows the latency of its requests, using the
+ * gradient method: the limit shrinks when recent latency rises above the long-term
+ * latency, and grows by a small headroom while latency stays level.
+ *
+ * Latency samples (submit to completion, so queueing counts) are averaged over a window of
+ * at least window-ms and min-window-samples. At the end of each window:
+ *
+ *   gradient = clamp(tolerance * longRtt / shortRtt, 0.5, 1)
+ *   limit    = (1 - smoothing) * limit + smoothing * (limit * gradient + sqrt(limit))
+ *
+ * where shortRtt is the window's average and longRtt an exponential average over
+ * long-window windows. The limit only grows while at least half of it is in use, so a quiet
+ * period does not leave an inflated limit behind. When the database slows down, requests
+ * beyond the limit are refused at once instead of queueing behind the slow ones.
+ */
+public class AdaptiveConcurrencyLimit {
+    
+    private final int minLimit;
+    private final int maxLimit;
+    private final double smoothing;
+    private final double tolerance;
+    private final long windowNanos;
+    private final int minWindowSamples;
+    private final double longWindowFactor;
+    
+    private double limit;
+    private int inFlight;
+    
+    // Current window, guarded by "this"
+    private long windowStart = System.nanoTime();
+    private long windowRttSum;
+    private int windowSamples;
+    private int windowMaxInFlight;
+    
+    // Exponential average of the window averages, 0 until the first window closes
+    private double longRtt;
+    
+    AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, double smoothing, double tolerance,
+                             long windowNanos, int minWindowSamples, int longWindow) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.smoothing = smoothing;
+        this.tolerance = tolerance;
+        this.windowNanos = windowNanos;
+        this.minWindowSamples = minWindowSamples;
+        this.longWindowFactor = 2.0 / (longWindow + 1);
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+    
+    /**
+     * Takes a slot for a request, or returns false when the limit is reached.
+     */
+    public synchronized boolean tryAcquire() {
+        if (inFlight >= (int) limit) {
+            return false;
+        }
+        inFlight++;
+        windowMaxInFlight = Math.max(windowMaxInFlight, inFlight);
+        return true;
+    }
+    
+    /**
+     * Gives the slot back without a latency sample, for requests that never ran.
+     */
+    public synchronized void release() {
+        inFlight--;
+    }
+    
+    /**
+     * Gives the slot back and records how long the request took.
+     */
+    public synchronized void release(long rttNanos) {
+        inFlight--;
+        windowRttSum += rttNanos;
+        windowSamples++;
+        
+        long now = System.nanoTime();
+        if (windowSamples >= minWindowSamples && now - windowStart >= windowNanos) {
+            update((double) windowRttSum / windowSamples);
+            windowStart = now;
+            windowRttSum = 0;
+            windowSamples = 0;
+            windowMaxInFlight = inFlight;
+        }
+    }
+    
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+    
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+    
+    private void update(double shortRtt) {
+        if (longRtt == 0) {
+            longRtt = shortRtt;
+            return;
+        }
+        longRtt = longRtt * (1 - longWindowFactor) + shortRtt * longWindowFactor;
+        // After a long slow period the average lags behind; let it catch up with recovered latency
+        if (longRtt / shortRtt > 2) {
+            longRtt *= 0.95;
+        }
+        
+        // Too little traffic to tell whether more concurrency would help
+        if (windowMaxInFlight < limit / 2) {
+            return;
+        }
+        
+        double gradient = Math.max(0.5, Math.min(1.0, tolerance * longRtt / shortRtt));
+        double target = limit * gradient + Math.sqrt(limit);
+        limit = Math.max(minLimit, Math.min(maxLimit, limit * (1 - smoothing) + target * smoothing));
+    }
+}
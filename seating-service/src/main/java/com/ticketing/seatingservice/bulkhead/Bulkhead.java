@@ -0,0 +1,49 @@
+package com.ticketing.seatingservice.bulkhead;
+
+/**
+ * Isolated compartments of request work. Each has its own bounded executor and its own
+ * database connection pool, so a flood of one kind of call cannot take threads or
+ * connections from the others.
+ *
+ * The defaults are overridden by seating.bulkheads.&lt;name&gt;.threads, .queue and .pool-size.
+ */
+public enum Bulkhead {
+    
+    // Availability, seat lists and price queries
+    READ(16, 200, 8),
+    // Reserve, allocate, release and the reservation lifecycle
+    RESERVE(8, 100, 8),
+    // Seat and layout management, admin endpoints, and all work outside a request
+    // (scheduled jobs, startup), whose connections also come from this pool
+    ADMIN(4, 50, 4);
+    
+    private final int defaultThreads;
+    private final int defaultQueue;
+    private final int defaultPoolSize;
+    
+    Bulkhead(int defaultThreads, int defaultQueue, int defaultPoolSize) {
+        this.defaultThreads = defaultThreads;
+        this.defaultQueue = defaultQueue;
+        this.defaultPoolSize = defaultPoolSize;
+    }
+    
+    public String key() {
+        return name().toLowerCase();
+    }
+    
+    String property(String name) {
+        return "seating.bulkheads." + key() + "." + name;
+    }
+    
+    int getDefaultThreads() {
+        return defaultThreads;
+    }
+    
+    int getDefaultQueue() {
+        return defaultQueue;
+    }
+    
+    int getDefaultPoolSize() {
+        return defaultPoolSize;
+    }
+}
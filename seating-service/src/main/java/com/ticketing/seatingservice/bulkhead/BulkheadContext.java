@@ -0,0 +1,38 @@
+package com.ticketing.seatingservice.bulkhead;
+
+import java.util.function.Supplier;
+
+/**
+ * The bulkhead the current thread works for, which picks the connection pool in
+ * BulkheadRoutingDataSource. Set by BulkheadExecutors for the tasks it runs; threads
+ * without a bulkhead use the ADMIN pool.
+ */
+public final class BulkheadContext {
+    
+    private static final ThreadLocal<Bulkhead> CURRENT = new ThreadLocal<>();
+    
+    private BulkheadContext() {
+    }
+    
+    public static Bulkhead current() {
+        Bulkhead bulkhead = CURRENT.get();
+        return bulkhead != null ? bulkhead : Bulkhead.ADMIN;
+    }
+    
+    /**
+     * Runs work on the current thread on behalf of the given bulkhead.
+     */
+    public static <T> T call(Bulkhead bulkhead, Supplier<T> work) {
+        Bulkhead previous = CURRENT.get();
+        CURRENT.set(bulkhead);
+        try {
+            return work.get();
+        } finally {
+            if (previous != null) {
+                CURRENT.set(previous);
+            } else {
+                CURRENT.remove();
+            }
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.ticketing.seatingservice.bulkhead;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Replaces the auto-configured connection pool with one pool per bulkhead, all built from
+ * spring.datasource.*, behind the routing DataSource the rest of the application uses.
+ * Pools connect on first use. Being HikariDataSource beans, they get the usual hikaricp_*
+ * metrics, tagged pool=seating-read, seating-reserve and seating-admin.
+ */
+@Configuration
+public class BulkheadDataSourceConfig {
+    
+    @Bean
+    @Primary
+    public BulkheadRoutingDataSource dataSource(@Qualifier("readDataSource") HikariDataSource read,
+                                                @Qualifier("reserveDataSource") HikariDataSource reserve,
+                                                @Qualifier("adminDataSource") HikariDataSource admin) {
+        Map<Bulkhead, HikariDataSource> pools = new EnumMap<>(Bulkhead.class);
+        pools.put(Bulkhead.READ, read);
+        pools.put(Bulkhead.RESERVE, reserve);
+        pools.put(Bulkhead.ADMIN, admin);
+        return new BulkheadRoutingDataSource(pools);
+    }
+    
+    @Bean
+    public HikariDataSource readDataSource(DataSourceProperties properties, Environment environment) {
+        return pool(Bulkhead.READ, properties, environment);
+    }
+    
+    @Bean
+    public HikariDataSource reserveDataSource(DataSourceProperties properties, Environment environment) {
+        return pool(Bulkhead.RESERVE, properties, environment);
+    }
+    
+    @Bean
+    public HikariDataSource adminDataSource(DataSourceProperties properties, Environment environment) {
+        return pool(Bulkhead.ADMIN, properties, environment);
+    }
+    
+    private static HikariDataSource pool(Bulkhead bulkhead, DataSourceProperties properties, Environment environment) {
+        HikariDataSource pool = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        pool.setPoolName("seating-" + bulkhead.key());
+        int poolSize = environment.getProperty(bulkhead.property("pool-size"), Integer.class,
+                bulkhead.getDefaultPoolSize());
+        pool.setMaximumPoolSize(poolSize);
+        pool.setMinimumIdle(Math.min(poolSize, environment.getProperty(bulkhead.property("min-idle"), Integer.class, 2)));
+        pool.setConnectionTimeout(environment.getProperty(bulkhead.property("connection-timeout-ms"), Long.class, 5000L));
+        return pool;
+    }
+}
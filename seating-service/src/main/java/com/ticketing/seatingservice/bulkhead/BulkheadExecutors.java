@@ -0,0 +1,213 @@
+package com.ticketing.seatingservice.bulkhead;
+
+import com.ticketing.seatingservice.exception.BulkheadFullException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * One bounded executor per bulkhead. Requests hand their work to the executor of their
+ * bulkhead and release the servlet thread; when all of its threads are busy and its queue
+ * is full, the work is refused with BulkheadFullException instead of waiting, so a burst of
+ * reads cannot hold back reservations and the other way round.
+ *
+ * Tasks run with their bulkhead set in BulkheadContext, so their database work takes
+ * connections from that bulkhead's pool, and with the MDC of the submitting thread, so their
+ * log lines keep the request id and endpoint.
+ *
+ * In front of the executor, an AdaptiveConcurrencyLimit per bulkhead caps the requests in
+ * flight (queued or running) at what the latency of that bulkhead shows the database can
+ * keep up with; requests beyond it are refused the same way as those beyond the queue.
+ */
+@Component
+@Slf4j
+public class BulkheadExecutors {
+    
+    private final Map<Bulkhead, ThreadPoolExecutor> executors = new EnumMap<>(Bulkhead.class);
+    private final Map<Bulkhead, Counter> rejections = new EnumMap<>(Bulkhead.class);
+    private final Map<Bulkhead, Timer> queueWaits = new EnumMap<>(Bulkhead.class);
+    private final Map<Bulkhead, AdaptiveConcurrencyLimit> limits = new EnumMap<>(Bulkhead.class);
+    private final Map<Bulkhead, Counter> limitRejections = new EnumMap<>(Bulkhead.class);
+    
+    public BulkheadExecutors(Environment environment, MeterRegistry meterRegistry) {
+        boolean limitEnabled = environment.getProperty("seating.concurrency-limit.enabled", Boolean.class, true);
+        for (Bulkhead bulkhead : Bulkhead.values()) {
+            int threads = environment.getProperty(bulkhead.property("threads"), Integer.class,
+                    bulkhead.getDefaultThreads());
+            int queue = environment.getProperty(bulkhead.property("queue"), Integer.class,
+                    bulkhead.getDefaultQueue());
+            ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                    new ArrayBlockingQueue<>(queue), threadFactory(bulkhead), new ThreadPoolExecutor.AbortPolicy());
+            executor.allowCoreThreadTimeOut(true);
+            executors.put(bulkhead, executor);
+            
+            rejections.put(bulkhead, Counter.builder("bulkhead_rejections")
+                    .description("Requests refused because the bulkhead was full")
+                    .tag("bulkhead", bulkhead.key())
+                    .register(meterRegistry));
+            queueWaits.put(bulkhead, Timer.builder("bulkhead_queue_wait")
+                    .description("Time requests waited for a bulkhead thread")
+                    .tag("bulkhead", bulkhead.key())
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+            Gauge.builder("bulkhead_active_threads", executor, ThreadPoolExecutor::getActiveCount)
+                    .description("Bulkhead threads running a request")
+                    .tag("bulkhead", bulkhead.key())
+                    .register(meterRegistry);
+            Gauge.builder("bulkhead_queued", executor, e -> e.getQueue().size())
+                    .description("Requests waiting for a bulkhead thread")
+                    .tag("bulkhead", bulkhead.key())
+                    .register(meterRegistry);
+            Gauge.builder("bulkhead_queue_capacity", executor, e -> queue)
+                    .description("Requests a bulkhead queues before refusing more")
+                    .tag("bulkhead", bulkhead.key())
+                    .register(meterRegistry);
+            
+            if (limitEnabled) {
+                AdaptiveConcurrencyLimit limit = createLimit(environment, threads, threads + queue);
+                limits.put(bulkhead, limit);
+                limitRejections.put(bulkhead, Counter.builder("concurrency_limit_rejections")
+                        .description("Requests refused because the bulkhead's adaptive concurrency limit was reached")
+                        .tag("bulkhead", bulkhead.key())
+                        .register(meterRegistry));
+                Gauge.builder("concurrency_limit", limit, AdaptiveConcurrencyLimit::getLimit)
+                        .description("Requests a bulkhead currently admits at once")
+                        .tag("bulkhead", bulkhead.key())
+                        .register(meterRegistry);
+                Gauge.builder("concurrency_limit_in_flight", limit, AdaptiveConcurrencyLimit::getInFlight)
+                        .description("Requests of a bulkhead queued or running")
+                        .tag("bulkhead", bulkhead.key())
+                        .register(meterRegistry);
+            }
+            log.debug("Bulkhead {}: {} threads, queue of {}", bulkhead.key(), threads, queue);
+        }
+    }
+    
+    /**
+     * Runs the work on the bulkhead's executor. The returned future completes with the work's
+     * result or with the exception it threw, unwrapped.
+     *
+     * @throws BulkheadFullException if the bulkhead cannot take more work
+     */
+    public <T> CompletableFuture<T> submit(Bulkhead bulkhead, Callable<T> work) {
+        AdaptiveConcurrencyLimit limit = limits.get(bulkhead);
+        if (limit != null && !limit.tryAcquire()) {
+            limitRejections.get(bulkhead).increment();
+            throw new BulkheadFullException(bulkhead.key());
+        }
+        
+        CompletableFuture<T> future = new CompletableFuture<>();
+        long queuedAt = System.nanoTime();
+        Map<String, String> mdc = MDC.getCopyOfContextMap();
+        if (limit != null) {
+            future.whenComplete((result, error) -> limit.release(System.nanoTime() - queuedAt));
+        }
+        try {
+            executors.get(bulkhead).execute(() -> {
+                queueWaits.get(bulkhead).record(System.nanoTime() - queuedAt, TimeUnit.NANOSECONDS);
+                if (mdc != null) {
+                    MDC.setContextMap(mdc);
+                }
+                try {
+                    future.complete(BulkheadContext.call(bulkhead, () -> {
+                        try {
+                            return work.call();
+                        } catch (RuntimeException e) {
+                            throw e;
+                        } catch (Exception e) {
+                            throw new WorkFailedException(e);
+                        }
+                    }));
+                } catch (WorkFailedException e) {
+                    future.completeExceptionally(e.getCause());
+                } catch (Throwable e) {
+                    future.completeExceptionally(e);
+                } finally {
+                    MDC.clear();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            if (limit != null) {
+                limit.release();
+            }
+            rejections.get(bulkhead).increment();
+            throw new BulkheadFullException(bulkhead.key());
+        }
+        return future;
+    }
+    
+    /**
+     * Same as submit, for work without a result.
+     */
+    public CompletableFuture<Void> run(Bulkhead bulkhead, CheckedRunnable work) {
+        return submit(bulkhead, () -> {
+            work.run();
+            return null;
+        });
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        executors.values().forEach(ThreadPoolExecutor::shutdown);
+        for (Map.Entry<Bulkhead, ThreadPoolExecutor> entry : executors.entrySet()) {
+            try {
+                if (!entry.getValue().awaitTermination(10, TimeUnit.SECONDS)) {
+                    log.warn("Bulkhead {} did not finish its requests in time", entry.getKey().key());
+                    entry.getValue().shutdownNow();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                entry.getValue().shutdownNow();
+            }
+        }
+    }
+    
+    private static AdaptiveConcurrencyLimit createLimit(Environment environment, int initialLimit, int maxLimit) {
+        return new AdaptiveConcurrencyLimit(initialLimit,
+                environment.getProperty("seating.concurrency-limit.min-limit", Integer.class, 2),
+                maxLimit,
+                environment.getProperty("seating.concurrency-limit.smoothing", Double.class, 0.2),
+                environment.getProperty("seating.concurrency-limit.tolerance", Double.class, 1.5),
+                TimeUnit.MILLISECONDS.toNanos(environment.getProperty("seating.concurrency-limit.window-ms", Long.class, 1000L)),
+                environment.getProperty("seating.concurrency-limit.min-window-samples", Integer.class, 10),
+                environment.getProperty("seating.concurrency-limit.long-window", Integer.class, 60));
+    }
+    
+    private static ThreadFactory threadFactory(Bulkhead bulkhead) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "bulkhead-" + bulkhead.key() + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+    
+    @FunctionalInterface
+    public interface CheckedRunnable {
+        void run() throws Exception;
+    }
+    
+    // Carries a checked exception of the work out of BulkheadContext.call
+    private static class WorkFailedException extends RuntimeException {
+        WorkFailedException(Exception cause) {
+            super(cause);
+        }
+    }
+}
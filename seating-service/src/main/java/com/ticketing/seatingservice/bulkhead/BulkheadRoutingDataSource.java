@@ -0,0 +1,24 @@
+package com.ticketing.seatingservice.bulkhead;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The application's DataSource: one Hikari pool per bulkhead, chosen by the bulkhead of the
+ * calling thread (BulkheadContext). A transaction keeps the connection it started with.
+ */
+public class BulkheadRoutingDataSource extends AbstractRoutingDataSource {
+    
+    public BulkheadRoutingDataSource(Map<Bulkhead, HikariDataSource> pools) {
+        setTargetDataSources(new HashMap<>(pools));
+        setDefaultTargetDataSource(pools.get(Bulkhead.ADMIN));
+    }
+    
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return BulkheadContext.current();
+    }
+}
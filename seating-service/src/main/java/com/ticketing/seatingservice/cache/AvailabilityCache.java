@@ -0,0 +1,269 @@
+package com.ticketing.seatingservice.cache;
+
+import com.ticketing.seatingservice.event.SeatsChangedEvent;
+import com.ticketing.seatingservice.json.SeatFieldSet;
+import com.ticketing.seatingservice.json.SeatJsonWriter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.annotation.PostConstruct;
+import java.io.ByteArrayOutputStream;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cache of serialised seat availability responses, keyed by event and requested seat fields.
+ *
+ * - Bounded by the total size of the cached JSON, evicting the least recently used events
+ * - Concurrent misses for the same event share a single database load (single flight)
+ * - Entries are dropped after the seat mutation that affects them has committed, on this
+ *   replica directly and on the others through SeatChangeSubscriber; the TTL is a safety net
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AvailabilityCache {
+    
+    private final SeatJsonWriter seatJsonWriter;
+    private final MeterRegistry meterRegistry;
+    
+    @Value("${seating.availability-cache.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${seating.availability-cache.max-bytes:67108864}")
+    private long maxBytes;
+    
+    @Value("${seating.availability-cache.max-entry-bytes:4194304}")
+    private long maxEntryBytes;
+    
+    @Value("${seating.availability-cache.ttl-ms:2000}")
+    private long ttlMs;
+    
+    // Access-ordered by event, guarded by "this". Each event holds one entry per field set.
+    private final LinkedHashMap<Long, Map<SeatFieldSet, Entry>> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private long totalBytes;
+    private int entryCount;
+    
+    private final Map<Key, CompletableFuture<byte[]>> inFlight = new ConcurrentHashMap<>();
+    
+    private Counter hits;
+    private Counter misses;
+    private Counter coalesced;
+    private Counter evictions;
+    private Timer loadTimer;
+    
+    @PostConstruct
+    void registerMetrics() {
+        hits = requestCounter("hit");
+        misses = requestCounter("miss");
+        coalesced = requestCounter("coalesced");
+        evictions = Counter.builder("availability_cache_evictions")
+                .description("Availability responses evicted to stay within the size bound")
+                .register(meterRegistry);
+        loadTimer = Timer.builder("availability_cache_load")
+                .description("Time to load and serialise an availability response")
+                .register(meterRegistry);
+        Gauge.builder("availability_cache_size_bytes", this, AvailabilityCache::sizeInBytes)
+                .description("Bytes of cached availability responses")
+                .register(meterRegistry);
+        Gauge.builder("availability_cache_entries", this, AvailabilityCache::entryCount)
+                .description("Cached availability responses")
+                .register(meterRegistry);
+    }
+    
+    /**
+     * Returns the JSON availability response of the event, loading it on a miss.
+     */
+    public byte[] get(Long eventId) {
+        return get(eventId, SeatFieldSet.ALL);
+    }
+    
+    /**
+     * Returns the JSON availability response of the event with the seats in
+     * availableSeatsList restricted to the given fields, loading it on a miss.
+     */
+    public byte[] get(Long eventId, SeatFieldSet fields) {
+        if (!enabled) {
+            return load(eventId, fields);
+        }
+        
+        byte[] cached = lookup(eventId, fields);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+        
+        Key key = new Key(eventId, fields);
+        CompletableFuture<byte[]> loading = new CompletableFuture<>();
+        CompletableFuture<byte[]> existing = inFlight.putIfAbsent(key, loading);
+        if (existing != null) {
+            coalesced.increment();
+            return join(existing);
+        }
+        
+        misses.increment();
+        try {
+            byte[] value = load(eventId, fields);
+            // Only cache the result if no mutation invalidated the event while it was loading
+            synchronized (this) {
+                if (inFlight.remove(key, loading)) {
+                    store(eventId, fields, value);
+                }
+            }
+            loading.complete(value);
+            return value;
+        } catch (RuntimeException e) {
+            inFlight.remove(key, loading);
+            loading.completeExceptionally(e);
+            throw e;
+        }
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSeatsChanged(SeatsChangedEvent event) {
+        event.getEventIds().forEach(this::evict);
+    }
+    
+    public synchronized void evict(Long eventId) {
+        inFlight.keySet().removeIf(key -> key.eventId.equals(eventId));
+        Map<SeatFieldSet, Entry> variants = entries.remove(eventId);
+        if (variants != null) {
+            variants.values().forEach(this::forget);
+        }
+    }
+    
+    public synchronized void evictAll() {
+        log.info("Evicting all {} cached availability responses", entryCount);
+        inFlight.clear();
+        entries.clear();
+        totalBytes = 0;
+        entryCount = 0;
+    }
+    
+    private byte[] load(Long eventId, SeatFieldSet fields) {
+        long start = System.nanoTime();
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(8192);
+            seatJsonWriter.writeAvailability(eventId, fields, out);
+            return out.toByteArray();
+        } finally {
+            loadTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+    
+    private synchronized byte[] lookup(Long eventId, SeatFieldSet fields) {
+        Map<SeatFieldSet, Entry> variants = entries.get(eventId);
+        Entry entry = variants != null ? variants.get(fields) : null;
+        if (entry == null) {
+            return null;
+        }
+        if (System.currentTimeMillis() - entry.loadedAt > ttlMs) {
+            variants.remove(fields);
+            forget(entry);
+            if (variants.isEmpty()) {
+                entries.remove(eventId);
+            }
+            return null;
+        }
+        return entry.value;
+    }
+    
+    // Called with the lock held
+    private void store(Long eventId, SeatFieldSet fields, byte[] value) {
+        if (value.length > maxEntryBytes) {
+            return;
+        }
+        
+        Entry previous = entries.computeIfAbsent(eventId, id -> new HashMap<>(4))
+                .put(fields, new Entry(value, System.currentTimeMillis()));
+        totalBytes += value.length;
+        entryCount++;
+        if (previous != null) {
+            forget(previous);
+        }
+        
+        // Evicts whole events, least recently used first
+        Iterator<Map<SeatFieldSet, Entry>> eldest = entries.values().iterator();
+        while (totalBytes > maxBytes && eldest.hasNext()) {
+            eldest.next().values().forEach(this::forget);
+            eldest.remove();
+            evictions.increment();
+        }
+    }
+    
+    // Called with the lock held
+    private void forget(Entry entry) {
+        totalBytes -= entry.value.length;
+        entryCount--;
+    }
+    
+    private byte[] join(CompletableFuture<byte[]> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+    
+    private synchronized double sizeInBytes() {
+        return totalBytes;
+    }
+    
+    private synchronized double entryCount() {
+        return entryCount;
+    }
+    
+    private Counter requestCounter(String result) {
+        return Counter.builder("availability_cache_requests")
+                .description("Availability cache lookups")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+    
+    private static class Key {
+        private final Long eventId;
+        private final SeatFieldSet fields;
+        
+        Key(Long eventId, SeatFieldSet fields) {
+            this.eventId = eventId;
+            this.fields = fields;
+        }
+        
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return eventId.equals(other.eventId) && fields.equals(other.fields);
+        }
+        
+        @Override
+        public int hashCode() {
+            return 31 * eventId.hashCode() + fields.hashCode();
+        }
+    }
+    
+    private static class Entry {
+        private final byte[] value;
+        private final long loadedAt;
+        
+        Entry(byte[] value, long loadedAt) {
+            this.value = value;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package com.ticketing.seatingservice.capture;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes captured requests to gzipped NDJSON files off the request path.
+ *
+ * Requests hand their record to a bounded queue and never wait: when the writer falls
+ * behind, records are dropped and counted. A single thread drains the queue into
+ * seating-&lt;start time&gt;-&lt;n&gt;.ndjson.gz under seating.capture.dir, flushing whenever the queue
+ * runs empty so a file is readable up to its last flush even if the process dies. A file is
+ * rolled after max-file-bytes of uncompressed records, and only the newest max-files are kept.
+ */
+@Component
+@ConditionalOnProperty(name = "seating.capture.enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class TrafficCaptureWriter implements SmartLifecycle {
+    
+    private static final String PREFIX = "seating-";
+    private static final String SUFFIX = ".ndjson.gz";
+    private static final DateTimeFormatter FILE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+    
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    
+    @Value("${seating.capture.dir:data/traffic-capture}")
+    private String dir;
+    
+    @Value("${seating.capture.queue-size:10000}")
+    private int queueSize;
+    
+    @Value("${seating.capture.max-file-bytes:268435456}")
+    private long maxFileBytes;
+    
+    @Value("${seating.capture.max-files:20}")
+    private int maxFiles;
+    
+    private BlockingQueue<TrafficRecord> queue;
+    private volatile boolean running;
+    private Thread writer;
+    
+    private Counter written;
+    private Counter dropped;
+    
+    @PostConstruct
+    void registerMetrics() {
+        queue = new ArrayBlockingQueue<>(queueSize);
+        written = Counter.builder("traffic_capture_records")
+                .description("Requests written to the traffic capture")
+                .register(meterRegistry);
+        dropped = Counter.builder("traffic_capture_dropped")
+                .description("Captured requests dropped because the writer fell behind")
+                .register(meterRegistry);
+    }
+    
+    /**
+     * Queues a record, or drops it when the queue is full.
+     */
+    public void submit(TrafficRecord record) {
+        if (!running || !queue.offer(record)) {
+            dropped.increment();
+        }
+    }
+    
+    @Override
+    public void start() {
+        running = true;
+        writer = new Thread(this::drain, "traffic-capture-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+    
+    @Override
+    public void stop() {
+        running = false;
+        writer.interrupt();
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+    
+    private void drain() {
+        Path directory = Paths.get(dir);
+        String runPrefix = PREFIX + LocalDateTime.now().format(FILE_TIME) + "-";
+        int fileIndex = 0;
+        OutputStream out = null;
+        long fileBytes = 0;
+        try {
+            Files.createDirectories(directory);
+            while (running || !queue.isEmpty()) {
+                TrafficRecord record;
+                try {
+                    record = queue.poll(1, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    // Stopping; write out what is left
+                    record = queue.poll();
+                }
+                if (record == null) {
+                    if (out != null) {
+                        out.flush();
+                    }
+                    continue;
+                }
+                
+                if (out == null || fileBytes >= maxFileBytes) {
+                    if (out != null) {
+                        out.close();
+                    }
+                    Path file = directory.resolve(runPrefix + (++fileIndex) + SUFFIX);
+                    out = new GZIPOutputStream(Files.newOutputStream(file), 65536, true);
+                    fileBytes = 0;
+                    log.info("Capturing traffic to {}", file);
+                    pruneOldFiles(directory);
+                }
+                byte[] line = objectMapper.writeValueAsBytes(record);
+                out.write(line);
+                out.write('\n');
+                fileBytes += line.length + 1;
+                written.increment();
+                if (queue.isEmpty()) {
+                    out.flush();
+                }
+            }
+        } catch (IOException e) {
+            log.error("Traffic capture stopped: {}", e.getMessage());
+            running = false;
+        } finally {
+            if (out != null) {
+                try {
+                    out.close();
+                } catch (IOException e) {
+                    log.warn("Failed to close traffic capture file: {}", e.getMessage());
+                }
+            }
+        }
+    }
+    
+    private void pruneOldFiles(Path directory) throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, PREFIX + "*" + SUFFIX)) {
+            stream.forEach(files::add);
+        }
+        if (files.size() <= maxFiles) {
+            return;
+        }
+        files.sort((a, b) -> {
+            try {
+                return Files.getLastModifiedTime(a).compareTo(Files.getLastModifiedTime(b));
+            } catch (IOException e) {
+                return a.compareTo(b);
+            }
+        });
+        for (Path file : files.subList(0, files.size() - maxFiles)) {
+            Files.deleteIfExists(file);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.ticketing.seatingservice.capture;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One captured request, written as a line of NDJSON. The body is kept when it is small
+ * enough (seating.capture.max-body-bytes), otherwise only its hash and size; hashes are
+ * the first 16 bytes of SHA-256, hex encoded. The replay tool in traffic-replay/ reads
+ * these files.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TrafficRecord {
+    // Arrival time, epoch milliseconds
+    private long ts;
+    private String method;
+    private String path;
+    private String query;
+    private String contentType;
+    private String idempotencyKey;
+    private String body;
+    private String bodyHash;
+    private long bodyBytes;
+    private int status;
+    private String responseHash;
+    private long responseBytes;
+    private long durationMicros;
+}
@@ -0,0 +1,100 @@
+package com.ticketing.seatingservice.cluster;
+
+import com.ticketing.seatingservice.model.ClusterNode;
+import com.ticketing.seatingservice.repository.ClusterNodeRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import javax.annotation.PostConstruct;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Tracks the live seating-service replicas through database heartbeats and maintains the
+ * consistent hash ring built from them.
+ */
+@Component
+@ConditionalOnProperty(name = "seating.cluster.enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class ClusterMembership {
+    
+    private final ClusterNodeRepository clusterNodeRepository;
+    
+    @Value("${seating.cluster.node-id:}")
+    private String configuredNodeId;
+    
+    @Value("${seating.cluster.advertised-url:http://localhost:${server.port}}")
+    private String advertisedUrl;
+    
+    @Value("${seating.cluster.node-ttl-ms:10000}")
+    private long nodeTtlMs;
+    
+    @Value("${seating.cluster.virtual-nodes:64}")
+    private int virtualNodes;
+    
+    private String nodeId;
+    private volatile ConsistentHashRing ring = ConsistentHashRing.empty();
+    private volatile Map<String, String> nodeUrls = Map.of();
+    
+    @PostConstruct
+    void init() {
+        nodeId = StringUtils.hasText(configuredNodeId) ? configuredNodeId : UUID.randomUUID().toString();
+        log.info("Cluster mode enabled, node: {}, url: {}", nodeId, advertisedUrl);
+    }
+    
+    public String getNodeId() {
+        return nodeId;
+    }
+    
+    public String getBaseUrl() {
+        return advertisedUrl;
+    }
+    
+    public ConsistentHashRing getRing() {
+        return ring;
+    }
+    
+    public String urlOf(String node) {
+        return nodeUrls.get(node);
+    }
+    
+    public boolean isSelf(String node) {
+        return nodeId.equals(node);
+    }
+    
+    /**
+     * Records our heartbeat and refreshes the ring from the live nodes.
+     * Returns true if the set of live nodes changed.
+     */
+    public boolean heartbeat() {
+        clusterNodeRepository.heartbeat(nodeId, advertisedUrl);
+        
+        List<ClusterNode> liveNodes = clusterNodeRepository.findLiveNodes(nodeTtlMs);
+        Map<String, String> urls = liveNodes.stream()
+                .collect(Collectors.toMap(ClusterNode::getNodeId, ClusterNode::getBaseUrl));
+        nodeUrls = urls;
+        
+        if (urls.keySet().equals(ring.getNodeIds())) {
+            return false;
+        }
+        
+        log.info("Cluster membership changed: {} -> {}", ring.getNodeIds(), urls.keySet());
+        ring = new ConsistentHashRing(urls.keySet(), virtualNodes);
+        
+        // Forget nodes that have been gone for a while
+        clusterNodeRepository.deleteDeadNodes(nodeTtlMs * 10);
+        return true;
+    }
+    
+    public void leave() {
+        log.info("Leaving cluster, node: {}", nodeId);
+        clusterNodeRepository.deleteById(nodeId);
+    }
+}
@@ -0,0 +1,67 @@
+package com.ticketing.seatingservice.cluster;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Immutable consistent hash ring mapping event ids to node ids. Each node is placed on the
+ * ring at several virtual points so that events spread evenly and only ~1/N of them move
+ * when a node joins or leaves.
+ */
+public final class ConsistentHashRing {
+    
+    private final NavigableMap<Long, String> ring = new TreeMap<>();
+    private final Set<String> nodeIds;
+    
+    public ConsistentHashRing(Collection<String> nodeIds, int virtualNodes) {
+        this.nodeIds = Collections.unmodifiableSet(new TreeSet<>(nodeIds));
+        for (String nodeId : this.nodeIds) {
+            for (int i = 0; i < virtualNodes; i++) {
+                ring.put(hash((nodeId + "#" + i).getBytes(StandardCharsets.UTF_8)), nodeId);
+            }
+        }
+    }
+    
+    public static ConsistentHashRing empty() {
+        return new ConsistentHashRing(Collections.emptySet(), 0);
+    }
+    
+    public Set<String> getNodeIds() {
+        return nodeIds;
+    }
+    
+    public boolean isEmpty() {
+        return ring.isEmpty();
+    }
+    
+    /**
+     * Returns the node owning the event, or null if the ring has no nodes.
+     */
+    public String nodeFor(long eventId) {
+        if (ring.isEmpty()) {
+            return null;
+        }
+        Map.Entry<Long, String> entry = ring.ceilingEntry(mix(eventId));
+        return entry != null ? entry.getValue() : ring.firstEntry().getValue();
+    }
+    
+    // 64-bit FNV-1a followed by a finalizer so that similar node names spread over the ring
+    private static long hash(byte[] bytes) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : bytes) {
+            h ^= b;
+            h *= 0x100000001b3L;
+        }
+        return mix(h);
+    }
+    
+    // MurmurHash3 fmix64
+    private static long mix(long k) {
+        k ^= k >>> 33;
+        k *= 0xff51afd7ed558ccdL;
+        k ^= k >>> 33;
+        k *= 0xc4ceb9fe1a85ec53L;
+        k ^= k >>> 33;
+        return k;
+    }
+}
@@ -0,0 +1,75 @@
+package com.ticketing.seatingservice.cluster;
+
+import com.ticketing.seatingservice.layout.TemplateSeatId;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Finds the event of a write that names seats or a reservation instead of the event, so
+ * EventRoutingFilter and the gRPC writes can send it to the event's owner as well.
+ */
+@Component
+@ConditionalOnProperty(name = "seating.cluster.enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class EventLookup {
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final MeterRegistry meterRegistry;
+    
+    /**
+     * The event all the seats belong to, or null if they are unknown or span several events.
+     * Template seat ids carry their event; the others are looked up by primary key, one index
+     * probe per partition. Only reached when the caller passed no eventId, and counted in
+     * seat_lookups_unpruned like the lookup the controller then makes.
+     */
+    public Long eventOfSeats(Collection<Long> seatIds) {
+        Set<Long> eventIds = new HashSet<>();
+        List<Long> stored = new ArrayList<>();
+        for (Long seatId : seatIds) {
+            if (seatId == null) {
+                continue;
+            }
+            if (TemplateSeatId.isTemplate(seatId)) {
+                eventIds.add(TemplateSeatId.eventId(seatId));
+            } else {
+                stored.add(seatId);
+            }
+        }
+        if (!stored.isEmpty()) {
+            Counter.builder("seat_lookups_unpruned")
+                    .description("Seat lookups by id that probed every event's partition")
+                    .tag("operation", "route")
+                    .register(meterRegistry)
+                    .increment();
+            eventIds.addAll(jdbcTemplate.queryForList(
+                    "SELECT DISTINCT event_id FROM seats WHERE id IN (" +
+                            stored.stream().map(id -> "?").collect(Collectors.joining(",")) + ")",
+                    Long.class, stored.toArray()));
+        }
+        return eventIds.size() == 1 ? eventIds.iterator().next() : null;
+    }
+    
+    Long eventOfReservation(String reservationId) {
+        UUID id;
+        try {
+            id = UUID.fromString(reservationId);
+        } catch (IllegalArgumentException e) {
+            // Let the controller report the malformed id
+            return null;
+        }
+        List<Long> eventIds = jdbcTemplate.queryForList("SELECT event_id FROM reservations WHERE id = ?", Long.class, id);
+        return eventIds.isEmpty() ? null : eventIds.get(0);
+    }
+}
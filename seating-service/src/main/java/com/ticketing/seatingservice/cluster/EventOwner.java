@@ -0,0 +1,13 @@
+package com.ticketing.seatingservice.cluster;
+
+import lombok.Value;
+
+/**
+ * The replica currently responsible for an event.
+ */
+@Value
+public class EventOwner {
+    String nodeId;
+    String baseUrl;
+    boolean local;
+}
@@ -0,0 +1,201 @@
+package com.ticketing.seatingservice.cluster;
+
+import com.ticketing.seatingservice.model.EventLease;
+import com.ticketing.seatingservice.repository.EventLeaseRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Decides which replica owns an event in cluster mode.
+ *
+ * The consistent hash ring names the preferred owner of every event, but a replica only
+ * serves an event while it holds the event's lease in the database. Leases are taken
+ * lazily on the first request, renewed by the heartbeat while the event is in use, and
+ * handed back when the ring assigns the event elsewhere or the event goes idle.
+ */
+@Service
+@ConditionalOnProperty(name = "seating.cluster.enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class EventOwnershipService {
+    
+    private final ClusterMembership membership;
+    private final EventLeaseRepository eventLeaseRepository;
+    
+    @Value("${seating.cluster.lease-ttl-ms:15000}")
+    private long leaseTtlMs;
+    
+    @Value("${seating.cluster.heartbeat-interval-ms:2000}")
+    private long heartbeatIntervalMs;
+    
+    @Value("${seating.cluster.owner-cache-ms:1000}")
+    private long ownerCacheMs;
+    
+    // Events leased by this node -> local time until which the lease is known to be valid
+    private final Map<Long, Long> ownedLeases = new ConcurrentHashMap<>();
+    
+    // Events leased by this node -> last time a request for them was served
+    private final Map<Long, Long> lastAccess = new ConcurrentHashMap<>();
+    
+    // Short-lived cache of remote owners so that routing does not hit the database per request
+    private final Map<Long, CachedOwner> remoteOwners = new ConcurrentHashMap<>();
+    
+    public EventOwner resolveOwner(Long eventId) {
+        long now = System.currentTimeMillis();
+        
+        Long validUntil = ownedLeases.get(eventId);
+        if (validUntil != null && validUntil > now) {
+            lastAccess.put(eventId, now);
+            return localOwner();
+        }
+        
+        CachedOwner cached = remoteOwners.get(eventId);
+        if (cached != null && cached.validUntil > now) {
+            return cached.owner;
+        }
+        
+        String preferred = membership.getRing().nodeFor(eventId);
+        if (preferred == null || membership.isSelf(preferred)) {
+            if (acquire(eventId, now)) {
+                return localOwner();
+            }
+        }
+        
+        // Either the ring prefers another node, or another node still holds the lease
+        // (e.g. while ownership moves after a membership change)
+        EventOwner owner = eventLeaseRepository.findActiveLease(eventId)
+                .map(this::toOwner)
+                .orElseGet(() -> toOwner(preferred));
+        
+        if (owner.isLocal()) {
+            return acquire(eventId, now) ? owner : toOwner(preferred);
+        }
+        
+        remoteOwners.put(eventId, new CachedOwner(owner, now + ownerCacheMs));
+        return owner;
+    }
+    
+    public String getNodeId() {
+        return membership.getNodeId();
+    }
+    
+    public boolean isLocalOwner(Long eventId) {
+        Long validUntil = ownedLeases.get(eventId);
+        return validUntil != null && validUntil > System.currentTimeMillis();
+    }
+    
+    @Scheduled(fixedDelayString = "${seating.cluster.heartbeat-interval-ms:2000}")
+    public void heartbeat() {
+        try {
+            if (membership.heartbeat()) {
+                remoteOwners.clear();
+            }
+            maintainLeases();
+        } catch (Exception e) {
+            log.error("Cluster heartbeat failed: {}", e.getMessage());
+        }
+    }
+    
+    private void maintainLeases() {
+        if (ownedLeases.isEmpty()) {
+            return;
+        }
+        
+        long now = System.currentTimeMillis();
+        ConsistentHashRing ring = membership.getRing();
+        List<Long> toRelease = new ArrayList<>();
+        List<Long> toRenew = new ArrayList<>();
+        
+        for (Long eventId : ownedLeases.keySet()) {
+            boolean reassigned = !ring.isEmpty() && !membership.isSelf(ring.nodeFor(eventId));
+            boolean idle = now - lastAccess.getOrDefault(eventId, 0L) > leaseTtlMs;
+            (reassigned || idle ? toRelease : toRenew).add(eventId);
+        }
+        
+        if (!toRelease.isEmpty()) {
+            log.info("Releasing leases for {} events", toRelease.size());
+            toRelease.forEach(this::forget);
+            eventLeaseRepository.releaseLeases(membership.getNodeId(), toRelease);
+        }
+        
+        if (!toRenew.isEmpty()) {
+            Set<Long> renewed = new HashSet<>();
+            eventLeaseRepository.renewLeases(membership.getNodeId(), toRenew, leaseTtlMs)
+                    .forEach(eventId -> renewed.add(eventId.longValue()));
+            
+            long validUntil = now + leaseTtlMs - heartbeatIntervalMs;
+            for (Long eventId : toRenew) {
+                if (renewed.contains(eventId)) {
+                    ownedLeases.put(eventId, validUntil);
+                } else {
+                    log.warn("Lost lease for event: {}", eventId);
+                    forget(eventId);
+                }
+            }
+        }
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        try {
+            eventLeaseRepository.releaseAllLeases(membership.getNodeId());
+            membership.leave();
+        } catch (Exception e) {
+            log.warn("Failed to leave cluster cleanly: {}", e.getMessage());
+        }
+        ownedLeases.clear();
+    }
+    
+    private boolean acquire(Long eventId, long now) {
+        if (eventLeaseRepository.tryAcquire(eventId, membership.getNodeId(), membership.getBaseUrl(), leaseTtlMs) == 0) {
+            return false;
+        }
+        
+        if (ownedLeases.put(eventId, now + leaseTtlMs - heartbeatIntervalMs) == null) {
+            log.info("Acquired lease for event: {}", eventId);
+        }
+        lastAccess.put(eventId, now);
+        remoteOwners.remove(eventId);
+        return true;
+    }
+    
+    private void forget(Long eventId) {
+        ownedLeases.remove(eventId);
+        lastAccess.remove(eventId);
+    }
+    
+    private EventOwner localOwner() {
+        return new EventOwner(membership.getNodeId(), membership.getBaseUrl(), true);
+    }
+    
+    private EventOwner toOwner(EventLease lease) {
+        return new EventOwner(lease.getOwnerNodeId(), lease.getOwnerUrl(),
+                membership.isSelf(lease.getOwnerNodeId()));
+    }
+    
+    private EventOwner toOwner(String nodeId) {
+        String url = nodeId != null ? membership.urlOf(nodeId) : null;
+        if (url == null || membership.isSelf(nodeId)) {
+            return localOwner();
+        }
+        return new EventOwner(nodeId, url, false);
+    }
+    
+    private static class CachedOwner {
+        private final EventOwner owner;
+        private final long validUntil;
+        
+        CachedOwner(EventOwner owner, long validUntil) {
+            this.owner = owner;
+            this.validUntil = validUntil;
+        }
+    }
+}
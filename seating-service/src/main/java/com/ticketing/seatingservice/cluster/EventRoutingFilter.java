@@ -0,0 +1,292 @@
+package com.ticketing.seatingservice.cluster;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.*;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.DefaultResponseErrorHandler;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.annotation.PostConstruct;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.URI;
+import java.net.UnknownHostException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Routes event-scoped seat requests to the replica owning the event in cluster mode.
+ *
+ * The event is taken from the eventId query parameter or, for JSON bodies, from the body's
+ * eventId field. Writes that name seats or a reservation instead (POST /release, POST
+ * /allocate without eventId, POST /reservations/{id}/allocate|release|extend and PATCH
+ * /{id}/block|unblock) are routed by the event those belong to, looked up in the database.
+ * Reads by seat, order or reservation id (GET /{id}, /order/{id}, /reservations/{id}) are
+ * not routed: they take no locks, so serving them anywhere costs no contention.
+ *
+ * Requests for events owned elsewhere are forwarded to the owner (or redirected with 307
+ * when seating.cluster.routing=redirect). A request is forwarded at most once. It is served
+ * locally instead only when the owner surely never saw it (connection refused, no route,
+ * unknown host) or when it is a GET or HEAD. Anything else that failed on the way, a read
+ * timeout above all, may have been carried out by the owner already; running it again here
+ * could book seats twice, so the client gets 503 with Retry-After and decides.
+ */
+@Component
+@ConditionalOnProperty(name = "seating.cluster.enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class EventRoutingFilter extends OncePerRequestFilter {
+    
+    static final String FORWARDED_BY_HEADER = "X-Seating-Forwarded-By";
+    
+    private static final Set<String> HOP_BY_HOP_HEADERS = Set.of(
+            "connection", "keep-alive", "transfer-encoding", "te", "trailer", "upgrade",
+            "proxy-authorization", "proxy-authenticate", "host", "content-length");
+    
+    private static final Pattern RESERVATION_WRITE = Pattern.compile("^/v1/seats/reservations/([^/]+)/(allocate|release|extend)$");
+    private static final Pattern SEAT_WRITE = Pattern.compile("^/v1/seats/(\\d+)/(block|unblock)$");
+    
+    private final EventOwnershipService eventOwnershipService;
+    private final EventLookup eventLookup;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    
+    @Value("${seating.cluster.routing:forward}")
+    private String routing;
+    
+    @Value("${seating.cluster.forward-connect-timeout-ms:1000}")
+    private int connectTimeoutMs;
+    
+    @Value("${seating.cluster.forward-read-timeout-ms:10000}")
+    private int readTimeoutMs;
+    
+    @Value("${seating.cluster.retry-after-seconds:1}")
+    private int retryAfterSeconds;
+    
+    private RestTemplate restTemplate;
+    
+    @PostConstruct
+    void init() {
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(connectTimeoutMs);
+        requestFactory.setReadTimeout(readTimeoutMs);
+        
+        restTemplate = new RestTemplate(requestFactory);
+        // Relay the owner's error responses as they are
+        restTemplate.setErrorHandler(new DefaultResponseErrorHandler() {
+            @Override
+            public boolean hasError(ClientHttpResponse response) {
+                return false;
+            }
+        });
+    }
+    
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        return !path.startsWith("/v1/seats")
+                || path.startsWith("/v1/seats/admin")
+                || request.getHeader(FORWARDED_BY_HEADER) != null;
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        HttpServletRequest routedRequest = request;
+        Long eventId = parseId(request.getParameter("eventId"));
+        
+        if (eventId == null && hasJsonBody(request)) {
+            CachedBodyHttpServletRequest cachedRequest = new CachedBodyHttpServletRequest(request);
+            routedRequest = cachedRequest;
+            eventId = eventIdFromBody(request.getRequestURI(), cachedRequest.getBody());
+        }
+        
+        if (eventId == null) {
+            eventId = eventIdFromPath(request);
+        }
+        
+        if (eventId == null) {
+            filterChain.doFilter(routedRequest, response);
+            return;
+        }
+        
+        EventOwner owner = eventOwnershipService.resolveOwner(eventId);
+        if (owner.isLocal()) {
+            filterChain.doFilter(routedRequest, response);
+            return;
+        }
+        
+        URI target = targetUri(owner, request);
+        if ("redirect".equalsIgnoreCase(routing)) {
+            countRouted("redirected");
+            response.setStatus(HttpStatus.TEMPORARY_REDIRECT.value());
+            response.setHeader(HttpHeaders.LOCATION, target.toString());
+            return;
+        }
+        
+        if (!(routedRequest instanceof CachedBodyHttpServletRequest)) {
+            routedRequest = new CachedBodyHttpServletRequest(request);
+        }
+        
+        try {
+            forward(target, (CachedBodyHttpServletRequest) routedRequest, response);
+            countRouted("forwarded");
+        } catch (ResourceAccessException e) {
+            if (neverSent(e) || isSafe(request)) {
+                log.warn("Owner {} of event {} unreachable, serving locally: {}", owner.getNodeId(), eventId, e.getMessage());
+                countRouted("fallback_local");
+                filterChain.doFilter(routedRequest, response);
+            } else {
+                log.warn("Forwarding {} {} to owner {} of event {} failed, outcome unknown: {}",
+                        request.getMethod(), request.getRequestURI(), owner.getNodeId(), eventId, e.getMessage());
+                countRouted("unavailable");
+                writeUnavailable(response, "Owner of event " + eventId + " did not answer, the request may or may not have been applied");
+            }
+        }
+    }
+    
+    // Connection refused and no route to host are ConnectExceptions; neither sent a byte
+    private boolean neverSent(ResourceAccessException e) {
+        return e.getCause() instanceof ConnectException || e.getCause() instanceof UnknownHostException;
+    }
+    
+    private boolean isSafe(HttpServletRequest request) {
+        return HttpMethod.GET.matches(request.getMethod()) || HttpMethod.HEAD.matches(request.getMethod());
+    }
+    
+    private void writeUnavailable(HttpServletResponse response, String message) throws IOException {
+        Map<String, Object> error = new LinkedHashMap<>();
+        error.put("status", HttpStatus.SERVICE_UNAVAILABLE.value());
+        error.put("message", message);
+        error.put("timestamp", LocalDateTime.now());
+        
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        objectMapper.writeValue(response.getOutputStream(), error);
+    }
+    
+    private void forward(URI target, CachedBodyHttpServletRequest request, HttpServletResponse response) throws IOException {
+        HttpHeaders headers = new HttpHeaders();
+        for (String name : Collections.list(request.getHeaderNames())) {
+            if (!HOP_BY_HOP_HEADERS.contains(name.toLowerCase())) {
+                headers.put(name, Collections.list(request.getHeaders(name)));
+            }
+        }
+        headers.set(FORWARDED_BY_HEADER, eventOwnershipService.getNodeId());
+        
+        byte[] body = request.getBody();
+        ResponseEntity<byte[]> upstream = restTemplate.exchange(target, HttpMethod.valueOf(request.getMethod()),
+                new HttpEntity<>(body.length > 0 ? body : null, headers), byte[].class);
+        
+        response.setStatus(upstream.getStatusCodeValue());
+        upstream.getHeaders().forEach((name, values) -> {
+            if (!HOP_BY_HOP_HEADERS.contains(name.toLowerCase())) {
+                values.forEach(value -> response.addHeader(name, value));
+            }
+        });
+        if (upstream.getBody() != null) {
+            response.getOutputStream().write(upstream.getBody());
+        }
+    }
+    
+    private URI targetUri(EventOwner owner, HttpServletRequest request) {
+        String query = request.getQueryString();
+        return URI.create(owner.getBaseUrl() + request.getRequestURI() + (query != null ? "?" + query : ""));
+    }
+    
+    private boolean hasJsonBody(HttpServletRequest request) {
+        String contentType = request.getContentType();
+        return contentType != null && contentType.contains("json") && request.getContentLength() != 0;
+    }
+    
+    private Long eventIdFromBody(String path, byte[] body) {
+        JsonNode node;
+        try {
+            node = objectMapper.readTree(body);
+        } catch (IOException e) {
+            // Let the controller report the malformed body
+            return null;
+        }
+        if (node == null) {
+            return null;
+        }
+        if (node.hasNonNull("eventId") && node.get("eventId").canConvertToLong()) {
+            return node.get("eventId").asLong();
+        }
+        if (path.equals("/v1/seats/release") && node.isArray()) {
+            return eventLookup.eventOfSeats(seatIds(node));
+        }
+        if (path.equals("/v1/seats/allocate") && node.path("seatIds").isArray()) {
+            return eventLookup.eventOfSeats(seatIds(node.get("seatIds")));
+        }
+        return null;
+    }
+    
+    private List<Long> seatIds(JsonNode array) {
+        List<Long> seatIds = new ArrayList<>(array.size());
+        for (JsonNode element : array) {
+            if (element.canConvertToLong()) {
+                seatIds.add(element.asLong());
+            }
+        }
+        return seatIds;
+    }
+    
+    private Long eventIdFromPath(HttpServletRequest request) {
+        if (isSafe(request)) {
+            return null;
+        }
+        String path = request.getRequestURI();
+        Matcher reservation = RESERVATION_WRITE.matcher(path);
+        if (reservation.matches()) {
+            return eventLookup.eventOfReservation(reservation.group(1));
+        }
+        Matcher seat = SEAT_WRITE.matcher(path);
+        if (seat.matches()) {
+            Long seatId = parseId(seat.group(1));
+            return seatId != null ? eventLookup.eventOfSeats(List.of(seatId)) : null;
+        }
+        return null;
+    }
+    
+    private Long parseId(String value) {
+        try {
+            return value != null ? Long.valueOf(value) : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+    
+    private void countRouted(String outcome) {
+        Counter.builder("seating_cluster_routed_requests")
+                .description("Requests routed to the replica owning the event")
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment();
+    }
+}
@@ -0,0 +1,54 @@
+package com.ticketing.seatingservice.coherence;
+
+import com.ticketing.seatingservice.event.SeatTransition;
+import com.ticketing.seatingservice.model.SeatStatus;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Text form of the transitions of one event in seat_change_log and in notifications:
+ * seatId:status:version entries separated by ';', or '*' when the event has to be
+ * invalidated as a whole.
+ */
+final class SeatChangeCodec {
+    
+    static final String INVALIDATE = "*";
+    
+    private SeatChangeCodec() {
+    }
+    
+    // Falls back to invalidation beyond maxTransitions, notification payloads are limited to 8000 bytes
+    static String encode(List<SeatTransition> transitions, int maxTransitions) {
+        if (transitions == null || transitions.size() > maxTransitions) {
+            return INVALIDATE;
+        }
+        StringBuilder text = new StringBuilder(transitions.size() * 32);
+        for (SeatTransition transition : transitions) {
+            if (text.length() > 0) {
+                text.append(';');
+            }
+            text.append(transition.getSeatId())
+                    .append(':').append(transition.getStatus().getCode())
+                    .append(':').append(transition.getVersion());
+        }
+        return text.toString();
+    }
+    
+    // Returns null for INVALIDATE
+    static List<SeatTransition> decode(long eventId, String text) {
+        if (INVALIDATE.equals(text)) {
+            return null;
+        }
+        List<SeatTransition> transitions = new ArrayList<>();
+        if (text.isEmpty()) {
+            return transitions;
+        }
+        for (String entry : text.split(";")) {
+            String[] parts = entry.split(":");
+            transitions.add(new SeatTransition(eventId, Long.parseLong(parts[0]),
+                    SeatStatus.fromCode(Short.parseShort(parts[1])), Long.parseLong(parts[2])));
+        }
+        return transitions;
+    }
+}
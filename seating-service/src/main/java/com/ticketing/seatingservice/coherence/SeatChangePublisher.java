@@ -0,0 +1,77 @@
+package com.ticketing.seatingservice.coherence;
+
+import com.ticketing.seatingservice.event.SeatTransition;
+import com.ticketing.seatingservice.event.SeatsChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.annotation.PostConstruct;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Announces the seat changes of this replica to the others: each affected event gets a row
+ * in seat_change_log and a notification on the seat_changes channel, see
+ * V8__create_seat_change_log.sql.
+ *
+ * Runs inside the transaction that changed the seats, right before it commits, so the row
+ * and the notification commit or roll back together with the seats.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SeatChangePublisher {
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final MeterRegistry meterRegistry;
+    
+    @Value("${seating.coherence.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${seating.coherence.max-transitions:100}")
+    private int maxTransitions;
+    
+    // Identifies this replica's changes, which it has already applied locally
+    private final String origin = UUID.randomUUID().toString();
+    
+    private Counter published;
+    
+    @PostConstruct
+    void registerMetrics() {
+        published = Counter.builder("seat_changes_published")
+                .description("Seat changes of this replica announced to the other replicas")
+                .register(meterRegistry);
+    }
+    
+    public String getOrigin() {
+        return origin;
+    }
+    
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onSeatsChanged(SeatsChangedEvent event) {
+        if (!enabled || event.isRemote()) {
+            return;
+        }
+        
+        Map<Long, List<SeatTransition>> transitionsByEvent = event.hasTransitions()
+                ? event.getTransitions().stream().collect(Collectors.groupingBy(SeatTransition::getEventId))
+                : null;
+        for (Long eventId : event.getEventIds()) {
+            List<SeatTransition> transitions = transitionsByEvent != null
+                    ? transitionsByEvent.getOrDefault(eventId, List.of())
+                    : null;
+            jdbcTemplate.queryForObject("SELECT record_seat_change(?, ?, ?)", Long.class,
+                    eventId, origin, SeatChangeCodec.encode(transitions, maxTransitions));
+            published.increment();
+        }
+    }
+}
@@ -0,0 +1,298 @@
+package com.ticketing.seatingservice.coherence;
+
+import com.ticketing.seatingservice.event.SeatsChangedEvent;
+import com.ticketing.seatingservice.state.SeatStateStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Applies the seat changes committed by other replicas to this one.
+ *
+ * A daemon thread holds its own database connection and LISTENs on seat_changes. Every
+ * change is published again locally as a remote SeatsChangedEvent, so AvailabilityCache,
+ * SeatStateStore and SeatPriceIndex handle it like a local one: transitions patch, anything
+ * else invalidates the event. A query every keepalive interval detects a dead connection,
+ * which is then reopened with exponential backoff.
+ *
+ * While the thread is not listening, seat_change_log is polled instead, and once it listens
+ * again the gap is read from the log. Polling reads back seating.coherence.poll-overlap-ms
+ * beyond the newest change seen, to catch transactions that committed out of order; a change
+ * that arrives both ways is applied once. The log is first read from when this replica
+ * started, or from the oldest seat state snapshot it recovered if that is earlier, so the
+ * recovered events also catch up with what the other replicas changed meanwhile.
+ */
+@Component
+@ConditionalOnProperty(name = "seating.coherence.enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class SeatChangeSubscriber implements SmartLifecycle {
+    
+    private static final String CHANNEL = "seat_changes";
+    private static final int SEEN_CHANGES = 10_000;
+    
+    private final SeatChangePublisher seatChangePublisher;
+    private final SeatStateStore seatStateStore;
+    private final ApplicationEventPublisher eventPublisher;
+    private final JdbcTemplate jdbcTemplate;
+    private final MeterRegistry meterRegistry;
+    
+    @Value("${spring.datasource.url}")
+    private String url;
+    
+    @Value("${spring.datasource.username}")
+    private String username;
+    
+    @Value("${spring.datasource.password}")
+    private String password;
+    
+    @Value("${seating.coherence.keepalive-ms:5000}")
+    private long keepaliveMs;
+    
+    @Value("${seating.coherence.reconnect-initial-backoff-ms:500}")
+    private long initialBackoffMs;
+    
+    @Value("${seating.coherence.reconnect-max-backoff-ms:30000}")
+    private long maxBackoffMs;
+    
+    @Value("${seating.coherence.poll-overlap-ms:5000}")
+    private long pollOverlapMs;
+    
+    @Value("${seating.coherence.retention-ms:600000}")
+    private long retentionMs;
+    
+    private volatile boolean running;
+    private volatile boolean listening;
+    private volatile Connection connection;
+    private Thread listener;
+    
+    // created_at of the newest change read from the log, guarded by "this"
+    private Timestamp pollCursor;
+    
+    // Ids of the changes already handled, guarded by "this"
+    private final Map<Long, Boolean> seen = new LinkedHashMap<>(1024, 0.75f, false) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Boolean> eldest) {
+            return size() > SEEN_CHANGES;
+        }
+    };
+    
+    private Counter notified;
+    private Counter polled;
+    private Counter disconnects;
+    private Timer propagation;
+    
+    @PostConstruct
+    void init() {
+        // Set before the web server starts, so changes made while the channel is still opening are read too
+        Instant recoveredAsOf = seatStateStore.getRecoveredAsOf();
+        long now = System.currentTimeMillis();
+        synchronized (this) {
+            pollCursor = new Timestamp(recoveredAsOf != null ? Math.min(recoveredAsOf.toEpochMilli(), now) : now);
+        }
+        
+        notified = Counter.builder("seat_changes_received")
+                .description("Seat changes of other replicas applied to this one")
+                .tag("source", "notify")
+                .register(meterRegistry);
+        polled = Counter.builder("seat_changes_received")
+                .description("Seat changes of other replicas applied to this one")
+                .tag("source", "poll")
+                .register(meterRegistry);
+        disconnects = Counter.builder("seat_change_channel_disconnects")
+                .description("Times the seat change channel was lost and polling took over")
+                .register(meterRegistry);
+        propagation = Timer.builder("seat_change_propagation")
+                .description("Time from a seat change being recorded to it being applied on this replica")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        Gauge.builder("seat_change_channel_listening", this, subscriber -> subscriber.listening ? 1 : 0)
+                .description("1 while listening for seat changes, 0 while polling")
+                .register(meterRegistry);
+    }
+    
+    @Override
+    public void start() {
+        running = true;
+        listener = new Thread(this::listen, "seat-change-listener");
+        listener.setDaemon(true);
+        listener.start();
+    }
+    
+    @Override
+    public void stop() {
+        running = false;
+        Connection current = connection;
+        if (current != null) {
+            try {
+                current.close();
+            } catch (SQLException e) {
+                log.debug("Failed to close seat change connection: {}", e.getMessage());
+            }
+        }
+        listener.interrupt();
+        try {
+            listener.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+    
+    public boolean isListening() {
+        return listening;
+    }
+    
+    /**
+     * Polls the log while the channel is down.
+     */
+    @Scheduled(fixedDelayString = "${seating.coherence.poll-interval-ms:1000}")
+    public void pollWhileDisconnected() {
+        if (!running || listening) {
+            return;
+        }
+        try {
+            poll();
+        } catch (RuntimeException e) {
+            log.debug("Polling seat changes failed: {}", e.getMessage());
+        }
+    }
+    
+    @Scheduled(fixedDelayString = "${seating.coherence.prune-interval-ms:60000}")
+    public void prune() {
+        try {
+            int deleted = jdbcTemplate.update("DELETE FROM seat_change_log " +
+                    "WHERE created_at < CAST(clock_timestamp() AS TIMESTAMP) - (? * interval '1 millisecond')", retentionMs);
+            if (deleted > 0) {
+                log.debug("Pruned {} seat changes", deleted);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Pruning seat changes failed: {}", e.getMessage());
+        }
+    }
+    
+    private void listen() {
+        long backoffMs = initialBackoffMs;
+        while (running) {
+            try (Connection conn = DriverManager.getConnection(url, username, password);
+                 Statement statement = conn.createStatement()) {
+                connection = conn;
+                statement.execute("LISTEN " + CHANNEL);
+                // Listening first, then reading the log, leaves no gap; overlaps are applied once
+                poll();
+                listening = true;
+                backoffMs = initialBackoffMs;
+                log.info("Listening for seat changes of other replicas");
+                
+                PGConnection pgConnection = conn.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications((int) keepaliveMs);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            handleNotification(notification.getParameter());
+                        }
+                    } else {
+                        statement.execute("SELECT 1");
+                    }
+                }
+            } catch (SQLException | RuntimeException e) {
+                if (!running) {
+                    break;
+                }
+                if (listening) {
+                    disconnects.increment();
+                    log.warn("Lost the seat change channel, polling until it is back: {}", e.getMessage());
+                } else {
+                    log.debug("Seat change channel unavailable, retrying in {} ms: {}", backoffMs, e.getMessage());
+                }
+            } finally {
+                listening = false;
+                connection = null;
+            }
+            
+            try {
+                Thread.sleep(backoffMs);
+            } catch (InterruptedException e) {
+                break;
+            }
+            backoffMs = Math.min(backoffMs * 2, maxBackoffMs);
+        }
+    }
+    
+    // id|event_id|origin|epoch millis|transitions, see V8__create_seat_change_log.sql
+    private void handleNotification(String payload) {
+        String[] parts = payload.split("\\|", 5);
+        if (parts.length != 5) {
+            log.warn("Ignoring malformed seat change notification: {}", payload);
+            return;
+        }
+        long recordedAt = Long.parseLong(parts[3]);
+        if (handle(Long.parseLong(parts[0]), Long.parseLong(parts[1]), parts[2], parts[4])) {
+            notified.increment();
+            propagation.record(Math.max(0, System.currentTimeMillis() - recordedAt), TimeUnit.MILLISECONDS);
+        }
+        // The JDBC driver runs the session in the JVM's time zone, so this matches created_at
+        advanceCursor(new Timestamp(recordedAt));
+    }
+    
+    private synchronized void poll() {
+        Timestamp from = new Timestamp(pollCursor.getTime() - pollOverlapMs);
+        jdbcTemplate.query("SELECT id, event_id, origin, transitions, created_at FROM seat_change_log " +
+                        "WHERE created_at > ? ORDER BY id",
+                rs -> {
+                    if (handle(rs.getLong(1), rs.getLong(2), rs.getString(3), rs.getString(4))) {
+                        polled.increment();
+                    }
+                    advanceCursor(rs.getTimestamp(5));
+                }, from);
+    }
+    
+    private synchronized void advanceCursor(Timestamp createdAt) {
+        if (createdAt.after(pollCursor)) {
+            pollCursor = createdAt;
+        }
+    }
+    
+    // Returns true if the change came from another replica and was applied
+    private boolean handle(long changeId, long eventId, String origin, String transitions) {
+        synchronized (this) {
+            if (seen.put(changeId, Boolean.TRUE) != null) {
+                return false;
+            }
+        }
+        if (origin.equals(seatChangePublisher.getOrigin())) {
+            return false;
+        }
+        
+        eventPublisher.publishEvent(SeatsChangedEvent.remote(Set.of(eventId), SeatChangeCodec.decode(eventId, transitions)));
+        return true;
+    }
+}
@@ -0,0 +1,44 @@
+package com.ticketing.seatingservice.config;
+
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.util.ReflectionUtils;
+
+import java.util.Arrays;
+
+/**
+ * Startup support for the fast-start profile (see application.yml).
+ */
+@Configuration
+public class StartupConfig {
+    
+    // With spring.main.lazy-initialization, beans are only created on first use. Scheduled
+    // jobs and lifecycle beans (cluster membership, servers) have no caller, so they would
+    // never start; keep them eager.
+    @Bean
+    static LazyInitializationExcludeFilter backgroundBeansExcludeFilter() {
+        return (beanName, beanDefinition, beanType) -> beanType != null
+                && (SmartLifecycle.class.isAssignableFrom(beanType) || hasScheduledMethods(beanType));
+    }
+    
+    // Used by the class-data-sharing training run (profile cds-training), which only has to
+    // load the application's classes
+    @Bean
+    @ConditionalOnProperty(name = "startup.exit-on-ready", havingValue = "true")
+    ApplicationListener<ApplicationReadyEvent> exitOnReady() {
+        return event -> System.exit(SpringApplication.exit(event.getApplicationContext()));
+    }
+    
+    private static boolean hasScheduledMethods(Class<?> beanType) {
+        return Arrays.stream(ReflectionUtils.getUniqueDeclaredMethods(beanType, ReflectionUtils.USER_DECLARED_METHODS))
+                .anyMatch(method -> AnnotatedElementUtils.hasAnnotation(method, Scheduled.class));
+    }
+}
@@ -0,0 +1,124 @@
+package com.ticketing.seatingservice.config;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ticketing.seatingservice.dto.SeatDTO;
+import com.ticketing.seatingservice.dto.SeatStatusDTO;
+import com.ticketing.seatingservice.dto.SeatStatusResponse;
+import com.ticketing.seatingservice.exception.ResourceNotFoundException;
+import com.ticketing.seatingservice.json.SeatFieldSet;
+import com.ticketing.seatingservice.json.SeatJsonWriter;
+import com.ticketing.seatingservice.model.SeatStatus;
+import com.ticketing.seatingservice.repository.ReservationRepository;
+import com.ticketing.seatingservice.repository.SeatRepository;
+import com.ticketing.seatingservice.service.SeatingService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.EntityManagerFactory;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Warms the application up before it reports ready. Runners complete before
+ * ApplicationReadyEvent, which is what flips /actuator/health/readiness to UP.
+ *
+ * Touching the repositories builds the Hibernate metamodel and compiles their JPQL into the
+ * query plan cache (even when bootstrapping lazily). With execute-queries the hot read paths
+ * (SeatJsonWriter and the seat status lookup) are then run a few times against an event that
+ * does not exist, which opens the connection pool and gets the JIT going on the request path.
+ */
+@Component
+@ConditionalOnProperty(name = "startup.warmup.enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class WarmupRunner implements ApplicationRunner {
+    
+    private static final long MISSING_EVENT_ID = -1L;
+    
+    private final EntityManagerFactory entityManagerFactory;
+    private final SeatRepository seatRepository;
+    private final ReservationRepository reservationRepository;
+    private final SeatJsonWriter seatJsonWriter;
+    private final SeatingService seatingService;
+    private final ObjectMapper objectMapper;
+    
+    @Value("${startup.warmup.execute-queries:true}")
+    private boolean executeQueries;
+    
+    @Value("${startup.warmup.iterations:5}")
+    private int iterations;
+    
+    @Override
+    public void run(ApplicationArguments args) {
+        long start = System.nanoTime();
+        
+        int entities = entityManagerFactory.getMetamodel().getEntities().size();
+        log.debug("Hibernate metamodel ready with {} entities, repositories {} and {}", entities,
+                seatRepository.getClass().getSimpleName(), reservationRepository.getClass().getSimpleName());
+        
+        warm("serialisation", () -> {
+            for (int i = 0; i < iterations; i++) {
+                warmSerialisation();
+            }
+        });
+        if (executeQueries) {
+            warm("seat queries", () -> {
+                for (int i = 0; i < iterations; i++) {
+                    warmQueries();
+                }
+            });
+        }
+        
+        log.info("Warm-up finished in {} ms", (System.nanoTime() - start) / 1_000_000);
+    }
+    
+    // The paths requests take: seat lists, order lookups and availability are streamed by
+    // SeatJsonWriter, seat statuses go through the seat state store
+    private void warmQueries() {
+        OutputStream discard = OutputStream.nullOutputStream();
+        seatJsonWriter.writeSeatsByEvent(MISSING_EVENT_ID, null, SeatFieldSet.ALL, discard);
+        seatJsonWriter.writeSeatsByEvent(MISSING_EVENT_ID, SeatStatus.AVAILABLE, SeatFieldSet.ALL, discard);
+        seatJsonWriter.writeSeatsByOrder(null, "", SeatFieldSet.ALL, discard);
+        seatJsonWriter.writeEventAvailability(List.of(MISSING_EVENT_ID), discard);
+        try {
+            seatJsonWriter.writeAvailability(MISSING_EVENT_ID, SeatFieldSet.ALL, discard);
+        } catch (ResourceNotFoundException e) {
+            // Expected, the counts query has run
+        }
+        seatingService.getSeatStatuses(MISSING_EVENT_ID, List.of(0L));
+        reservationRepository.findById(new UUID(0, 0));
+    }
+    
+    private void warmSerialisation() {
+        try {
+            objectMapper.writeValueAsBytes(SeatStatusResponse.builder()
+                    .eventId(MISSING_EVENT_ID)
+                    .seats(List.of(new SeatStatusDTO(0L, SeatStatus.AVAILABLE, BigDecimal.ZERO, "")))
+                    .build());
+            objectMapper.writeValueAsBytes(SeatDTO.builder()
+                    .id(0L)
+                    .eventId(MISSING_EVENT_ID)
+                    .status(SeatStatus.AVAILABLE)
+                    .build());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+    
+    // Warming up is best effort, the service works without it
+    private void warm(String step, Runnable warmup) {
+        try {
+            warmup.run();
+        } catch (Exception e) {
+            log.warn("Warm-up of {} failed: {}", step, e.getMessage());
+        }
+    }
+}
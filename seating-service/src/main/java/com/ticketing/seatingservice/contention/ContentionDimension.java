@@ -0,0 +1,13 @@
+package com.ticketing.seatingservice.contention;
+
+/**
+ * Granularity at which seat conflicts are counted. Keys are the event id followed by
+ * section, row and seat number as far as the dimension goes, e.g. 42/B/7.
+ */
+public enum ContentionDimension {
+    EVENT, SECTION, ROW, SEAT;
+    
+    String tag() {
+        return name().toLowerCase();
+    }
+}
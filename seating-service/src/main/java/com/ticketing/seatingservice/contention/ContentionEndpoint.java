@@ -0,0 +1,56 @@
+package com.ticketing.seatingservice.contention;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Recent reservation conflicts at /actuator/contention:
+ *
+ *   GET    /actuator/contention?limit=20   most conflicted events, sections, rows and seats
+ *   GET    /actuator/contention/{eventId}  the event's estimated conflicts and its hot spots
+ *   DELETE /actuator/contention            starts counting afresh
+ */
+@Component
+@Endpoint(id = "contention")
+@RequiredArgsConstructor
+public class ContentionEndpoint {
+    
+    private static final int DEFAULT_LIMIT = 20;
+    
+    private final ContentionTracker contentionTracker;
+    
+    @ReadOperation
+    public Map<String, Object> contention(@Nullable Integer limit) {
+        int top = limit != null && limit > 0 ? limit : DEFAULT_LIMIT;
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("enabled", contentionTracker.isEnabled());
+        for (ContentionDimension dimension : ContentionDimension.values()) {
+            result.put(dimension.tag() + "s", contentionTracker.top(dimension, top));
+        }
+        return result;
+    }
+    
+    @ReadOperation
+    public Map<String, Object> event(@Selector long eventId) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("eventId", eventId);
+        result.put("conflicts", contentionTracker.estimate(ContentionDimension.EVENT, String.valueOf(eventId)));
+        result.put("sections", contentionTracker.top(ContentionDimension.SECTION, eventId, DEFAULT_LIMIT));
+        result.put("rows", contentionTracker.top(ContentionDimension.ROW, eventId, DEFAULT_LIMIT));
+        result.put("seats", contentionTracker.top(ContentionDimension.SEAT, eventId, DEFAULT_LIMIT));
+        return result;
+    }
+    
+    @DeleteOperation
+    public void reset() {
+        contentionTracker.reset();
+    }
+}
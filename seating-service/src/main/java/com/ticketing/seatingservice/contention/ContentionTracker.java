@@ -0,0 +1,195 @@
+package com.ticketing.seatingservice.contention;
+
+import com.ticketing.seatingservice.model.Seat;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.MultiGauge;
+import io.micrometer.core.instrument.Tags;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Where reservations collide: counts conflicts (seats that were no longer available when a
+ * reservation asked for them, or that another reservation was locking or writing at the same
+ * time) per event, section, row and seat, in fixed memory.
+ *
+ * Each dimension keeps the seating.contention.capacity most conflicted keys in a space-saving
+ * top-K; a count-min sketch shared by all dimensions estimates the count of any key, including
+ * those that fell out of the top-K. All counts are halved every decay interval, so they follow
+ * the current on-sale rather than the whole uptime.
+ *
+ * A failed reservation counts once for its event and once for every section, row and seat it
+ * conflicted on; one by quantity counts for its event and section. One that lost a lock or
+ * serialization conflict (ConcurrencyFailureException) counts for its event only, as the
+ * database does not say which seat it collided on.
+ *
+ * The top seating.contention.metrics-top keys per dimension are exported as
+ * seat_contention_conflicts{dimension,key}, so the number of series stays bounded.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ContentionTracker {
+    
+    private final MeterRegistry meterRegistry;
+    
+    @Value("${seating.contention.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${seating.contention.capacity:256}")
+    private int capacity;
+    
+    @Value("${seating.contention.sketch-width:4096}")
+    private int sketchWidth;
+    
+    @Value("${seating.contention.sketch-depth:4}")
+    private int sketchDepth;
+    
+    @Value("${seating.contention.metrics-top:10}")
+    private int metricsTop;
+    
+    // Guarded by "this"
+    private final Map<ContentionDimension, SpaceSaving> topKeys = new EnumMap<>(ContentionDimension.class);
+    private CountMinSketch sketch;
+    
+    private MultiGauge topGauge;
+    
+    @PostConstruct
+    void init() {
+        for (ContentionDimension dimension : ContentionDimension.values()) {
+            topKeys.put(dimension, new SpaceSaving(capacity));
+        }
+        sketch = new CountMinSketch(sketchWidth, sketchDepth);
+        topGauge = MultiGauge.builder("seat_contention_conflicts")
+                .description("Recent reservation conflicts of the most contended events, sections, rows and seats")
+                .register(meterRegistry);
+    }
+    
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    /**
+     * Records a reservation of the event that failed because of the given seats.
+     */
+    public void recordConflict(Long eventId, Collection<Seat> conflicting) {
+        if (!enabled || conflicting.isEmpty()) {
+            return;
+        }
+        // Several seats of one request count their section and row once
+        Set<String> sections = new LinkedHashSet<>();
+        Set<String> rows = new LinkedHashSet<>();
+        List<String> seats = new ArrayList<>(conflicting.size());
+        for (Seat seat : conflicting) {
+            String section = eventId + "/" + seat.getSection();
+            String row = section + "/" + seat.getRowNumber();
+            sections.add(section);
+            rows.add(row);
+            seats.add(row + "/" + seat.getSeatNumber());
+        }
+        
+        synchronized (this) {
+            add(ContentionDimension.EVENT, String.valueOf(eventId));
+            sections.forEach(key -> add(ContentionDimension.SECTION, key));
+            rows.forEach(key -> add(ContentionDimension.ROW, key));
+            seats.forEach(key -> add(ContentionDimension.SEAT, key));
+        }
+    }
+    
+    /**
+     * Records a reservation by quantity that found too few free seats in the section.
+     */
+    public void recordConflict(Long eventId, String section) {
+        if (!enabled) {
+            return;
+        }
+        synchronized (this) {
+            add(ContentionDimension.EVENT, String.valueOf(eventId));
+            add(ContentionDimension.SECTION, eventId + "/" + section);
+        }
+    }
+    
+    /**
+     * Records a reservation of the event that failed on a lock or serialization conflict
+     * with a concurrent one.
+     */
+    public void recordConflict(Long eventId) {
+        if (!enabled) {
+            return;
+        }
+        synchronized (this) {
+            add(ContentionDimension.EVENT, String.valueOf(eventId));
+        }
+    }
+    
+    /**
+     * The most conflicted keys of a dimension, most conflicted first.
+     */
+    public synchronized List<HeavyHitter> top(ContentionDimension dimension, int limit) {
+        return topKeys.get(dimension).top(limit);
+    }
+    
+    /**
+     * The most conflicted keys of a dimension that belong to the event.
+     */
+    public synchronized List<HeavyHitter> top(ContentionDimension dimension, long eventId, int limit) {
+        String prefix = eventId + "/";
+        return topKeys.get(dimension).top(capacity).stream()
+                .filter(hitter -> hitter.getKey().startsWith(prefix))
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+    
+    /**
+     * Estimated recent conflicts of any key, never below the true count.
+     */
+    public synchronized long estimate(ContentionDimension dimension, String key) {
+        return sketch.estimate(sketchKey(dimension, key));
+    }
+    
+    public synchronized void reset() {
+        topKeys.values().forEach(SpaceSaving::clear);
+        sketch.clear();
+        publishMetrics();
+    }
+    
+    @Scheduled(fixedDelayString = "${seating.contention.decay-interval-ms:300000}",
+            initialDelayString = "${seating.contention.decay-interval-ms:300000}")
+    public synchronized void decay() {
+        topKeys.values().forEach(SpaceSaving::decay);
+        sketch.decay();
+    }
+    
+    @Scheduled(fixedDelayString = "${seating.contention.metrics-interval-ms:15000}")
+    public void publishMetrics() {
+        List<MultiGauge.Row<?>> rows = new ArrayList<>();
+        synchronized (this) {
+            topKeys.forEach((dimension, keys) -> keys.top(metricsTop).forEach(hitter ->
+                    rows.add(MultiGauge.Row.of(Tags.of("dimension", dimension.tag(), "key", hitter.getKey()),
+                            hitter.getCount()))));
+        }
+        topGauge.register(rows, true);
+    }
+    
+    private void add(ContentionDimension dimension, String key) {
+        topKeys.get(dimension).add(key, 1);
+        sketch.add(sketchKey(dimension, key), 1);
+    }
+    
+    // Dimensions share the sketch, so keys carry the dimension
+    private static String sketchKey(ContentionDimension dimension, String key) {
+        return dimension.ordinal() + ":" + key;
+    }
+}
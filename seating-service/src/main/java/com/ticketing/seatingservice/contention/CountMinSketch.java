@@ -0,0 +1,71 @@
+package com.ticketing.seatingservice.contention;
+
+import java.util.Arrays;
+
+/**
+ * Count-min sketch: approximate counts for any number of keys in depth x width counters.
+ * An estimate is never below the true count and exceeds it by at most 2/width of the total
+ * with probability 1 - (1/2)^depth.
+ */
+class CountMinSketch {
+    
+    private final int width;
+    private final long[][] counters;
+    private long total;
+    
+    CountMinSketch(int width, int depth) {
+        this.width = width;
+        this.counters = new long[depth][width];
+    }
+    
+    void add(String key, long count) {
+        int hash = key.hashCode();
+        for (int row = 0; row < counters.length; row++) {
+            counters[row][slot(hash, row)] += count;
+        }
+        total += count;
+    }
+    
+    long estimate(String key) {
+        int hash = key.hashCode();
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < counters.length; row++) {
+            estimate = Math.min(estimate, counters[row][slot(hash, row)]);
+        }
+        return estimate;
+    }
+    
+    long getTotal() {
+        return total;
+    }
+    
+    /**
+     * Halves every counter, so older conflicts weigh less than recent ones.
+     */
+    void decay() {
+        for (long[] row : counters) {
+            for (int i = 0; i < row.length; i++) {
+                row[i] >>>= 1;
+            }
+        }
+        total >>>= 1;
+    }
+    
+    void clear() {
+        for (long[] row : counters) {
+            Arrays.fill(row, 0);
+        }
+        total = 0;
+    }
+    
+    // One independent hash per row, from the key's hash mixed with the row number (murmur3 finalizer)
+    private int slot(int hash, int row) {
+        long h = hash * 0x9E3779B97F4A7C15L + row * 0xC2B2AE3D27D4EB4FL;
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB2A8F9A9C95BL;
+        h ^= h >>> 33;
+        return (int) Math.floorMod(h, (long) width);
+    }
+}
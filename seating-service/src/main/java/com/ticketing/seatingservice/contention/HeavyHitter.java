@@ -0,0 +1,24 @@
+package com.ticketing.seatingservice.contention;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * A key among the most contended ones: its estimated conflict count and how much of that
+ * count may be overestimated.
+ */
+@Getter
+@AllArgsConstructor
+public class HeavyHitter {
+    
+    private final String key;
+    private final long count;
+    private final long error;
+    
+    /**
+     * Conflicts the key has had at least.
+     */
+    public long getGuaranteed() {
+        return count - error;
+    }
+}
@@ -0,0 +1,102 @@
+package com.ticketing.seatingservice.contention;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Space-saving top-K: the most frequent keys of a stream in a fixed number of counters.
+ *
+ * A new key that finds all counters taken replaces the key with the lowest count and
+ * inherits that count as its possible overestimate (error). Every key more frequent than
+ * total / capacity is guaranteed to hold a counter, and count - error is a lower bound of
+ * its true frequency.
+ */
+class SpaceSaving {
+    
+    private static final Comparator<Counter> BY_COUNT = Comparator.<Counter>comparingLong(c -> c.count)
+            .thenComparingLong(c -> c.seq);
+    
+    private final int capacity;
+    private final Map<String, Counter> counters = new HashMap<>();
+    private final TreeSet<Counter> byCount = new TreeSet<>(BY_COUNT);
+    private long seq;
+    
+    SpaceSaving(int capacity) {
+        this.capacity = capacity;
+    }
+    
+    void add(String key, long count) {
+        Counter counter = counters.get(key);
+        if (counter != null) {
+            byCount.remove(counter);
+            counter.count += count;
+        } else if (counters.size() < capacity) {
+            counter = new Counter(key, count, 0);
+            counters.put(key, counter);
+        } else {
+            Counter evicted = byCount.pollFirst();
+            counters.remove(evicted.key);
+            counter = new Counter(key, evicted.count + count, evicted.count);
+            counters.put(key, counter);
+        }
+        counter.seq = seq++;
+        byCount.add(counter);
+    }
+    
+    /**
+     * Up to limit keys, most frequent first.
+     */
+    List<HeavyHitter> top(int limit) {
+        List<HeavyHitter> top = new ArrayList<>(Math.min(limit, counters.size()));
+        Iterator<Counter> it = byCount.descendingIterator();
+        while (it.hasNext() && top.size() < limit) {
+            Counter counter = it.next();
+            top.add(new HeavyHitter(counter.key, counter.count, counter.error));
+        }
+        return top;
+    }
+    
+    int size() {
+        return counters.size();
+    }
+    
+    /**
+     * Halves every count and drops the keys that reach zero.
+     */
+    void decay() {
+        List<Counter> all = new ArrayList<>(byCount);
+        byCount.clear();
+        for (Counter counter : all) {
+            counter.count >>>= 1;
+            counter.error >>>= 1;
+            if (counter.count == 0) {
+                counters.remove(counter.key);
+            } else {
+                byCount.add(counter);
+            }
+        }
+    }
+    
+    void clear() {
+        counters.clear();
+        byCount.clear();
+    }
+    
+    private static class Counter {
+        final String key;
+        long count;
+        long error;
+        long seq;
+        
+        Counter(String key, long count, long error) {
+            this.key = key;
+            this.count = count;
+            this.error = error;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.ticketing.seatingservice.controller;
+
+import com.ticketing.seatingservice.bulkhead.Bulkhead;
+import com.ticketing.seatingservice.bulkhead.BulkheadExecutors;
+import com.ticketing.seatingservice.cache.AvailabilityCache;
+import com.ticketing.seatingservice.dto.VenueLayoutDTO;
+import com.ticketing.seatingservice.dto.VenueLayoutRequest;
+import com.ticketing.seatingservice.exception.ResourceNotFoundException;
+import com.ticketing.seatingservice.service.SeatArchiveService;
+import com.ticketing.seatingservice.service.SeatPartitionService;
+import com.ticketing.seatingservice.service.VenueLayoutService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import javax.validation.Valid;
+import java.util.concurrent.CompletableFuture;
+
+@RestController
+@RequestMapping("/v1/seats/admin")
+@RequiredArgsConstructor
+@Slf4j
+public class AdminController {
+    
+    private final SeatPartitionService seatPartitionService;
+    private final SeatArchiveService seatArchiveService;
+    private final AvailabilityCache availabilityCache;
+    private final VenueLayoutService venueLayoutService;
+    private final BulkheadExecutors bulkheadExecutors;
+    
+    @PostMapping("/events/{eventId}/partition")
+    public CompletableFuture<ResponseEntity<Void>> createPartition(@PathVariable Long eventId) {
+        log.info("POST /v1/seats/admin/events/{}/partition", eventId);
+        
+        return bulkheadExecutors.submit(Bulkhead.ADMIN, () -> {
+            seatPartitionService.ensurePartition(eventId);
+            return ResponseEntity.ok().build();
+        });
+    }
+    
+    @PostMapping("/events/{eventId}/partition/detach")
+    public CompletableFuture<ResponseEntity<Void>> detachPartition(@PathVariable Long eventId) {
+        log.info("POST /v1/seats/admin/events/{}/partition/detach", eventId);
+        
+        return bulkheadExecutors.submit(Bulkhead.ADMIN, () -> {
+            if (!seatPartitionService.detachPartition(eventId)) {
+                throw new ResourceNotFoundException("No attached seat partition for event: " + eventId);
+            }
+            return ResponseEntity.ok().build();
+        });
+    }
+    
+    @PostMapping("/events/{eventId}/archive")
+    public CompletableFuture<ResponseEntity<Void>> archiveEvent(@PathVariable Long eventId) {
+        log.info("POST /v1/seats/admin/events/{}/archive", eventId);
+        
+        return bulkheadExecutors.submit(Bulkhead.ADMIN, () -> {
+            seatArchiveService.requestArchive(eventId);
+            return ResponseEntity.accepted().build();
+        });
+    }
+    
+    @PostMapping("/layouts")
+    public CompletableFuture<ResponseEntity<VenueLayoutDTO>> createLayout(@Valid @RequestBody VenueLayoutRequest request) {
+        log.info("POST /v1/seats/admin/layouts - name: {}, seats: {}", request.getName(), request.getSeats().size());
+        
+        return bulkheadExecutors.submit(Bulkhead.ADMIN, () ->
+                new ResponseEntity<>(venueLayoutService.createLayout(request), HttpStatus.CREATED));
+    }
+    
+    @GetMapping("/layouts/{layoutId}")
+    public CompletableFuture<ResponseEntity<VenueLayoutDTO>> getLayout(@PathVariable Long layoutId) {
+        log.info("GET /v1/seats/admin/layouts/{}", layoutId);
+        
+        return bulkheadExecutors.submit(Bulkhead.ADMIN, () -> ResponseEntity.ok(venueLayoutService.getLayout(layoutId)));
+    }
+    
+    @PutMapping("/events/{eventId}/layout/{layoutId}")
+    public CompletableFuture<ResponseEntity<Void>> attachLayout(@PathVariable Long eventId, @PathVariable Long layoutId) {
+        log.info("PUT /v1/seats/admin/events/{}/layout/{}", eventId, layoutId);
+        
+        return bulkheadExecutors.submit(Bulkhead.ADMIN, () -> {
+            venueLayoutService.attachLayout(eventId, layoutId);
+            return ResponseEntity.ok().build();
+        });
+    }
+    
+    @DeleteMapping("/cache/availability/{eventId}")
+    public CompletableFuture<ResponseEntity<Void>> evictAvailability(@PathVariable Long eventId) {
+        log.info("DELETE /v1/seats/admin/cache/availability/{}", eventId);
+        
+        return bulkheadExecutors.submit(Bulkhead.ADMIN, () -> {
+            availabilityCache.evict(eventId);
+            return ResponseEntity.noContent().build();
+        });
+    }
+    
+    @DeleteMapping("/cache/availability")
+    public CompletableFuture<ResponseEntity<Void>> evictAllAvailability() {
+        log.info("DELETE /v1/seats/admin/cache/availability");
+        
+        return bulkheadExecutors.submit(Bulkhead.ADMIN, () -> {
+            availabilityCache.evictAll();
+            return ResponseEntity.noContent().build();
+        });
+    }
+}
@@ -1,16 +1,30 @@
 package com.ticketing.seatingservice.controller;
 
+import com.ticketing.seatingservice.bulkhead.Bulkhead;
+import com.ticketing.seatingservice.bulkhead.BulkheadExecutors;
+import com.ticketing.seatingservice.cache.AvailabilityCache;
+import com.ticketing.seatingservice.contention.ContentionTracker;
 import com.ticketing.seatingservice.dto.*;
+import com.ticketing.seatingservice.json.SeatFieldSet;
+import com.ticketing.seatingservice.json.SeatJsonWriter;
+import com.ticketing.seatingservice.model.SeatStatus;
+import com.ticketing.seatingservice.model.SeatType;
+import com.ticketing.seatingservice.service.ReservationService;
 import com.ticketing.seatingservice.service.SeatingService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.ConcurrencyFailureException;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
+import java.math.BigDecimal;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/v1/seats")
@@ -20,86 +34,253 @@ import java.util.List;
 public class SeatingController {
     
     private final SeatingService seatingService;
+    private final ReservationService reservationService;
+    private final AvailabilityCache availabilityCache;
+    private final SeatJsonWriter seatJsonWriter;
+    private final BulkheadExecutors bulkheadExecutors;
+    private final ContentionTracker contentionTracker;
+    
+    // Requests run on the executor of their bulkhead (see BulkheadExecutors): reads on READ,
+    // reservations on RESERVE, seat management on ADMIN. A full bulkhead answers 503.
+    
+    // The seat list endpoints accept fields=id,seatNumber,... to return only those seat
+    // fields, and stream their JSON straight from the query results (see SeatJsonWriter)
     
     @GetMapping("/availability")
-    public ResponseEntity<SeatAvailabilityResponse> getSeatAvailability(
-            @RequestParam Long eventId) {
-        log.info("GET /v1/seats/availability - eventId: {}", eventId);
-        SeatAvailabilityResponse response = seatingService.getSeatAvailability(eventId);
-        return ResponseEntity.ok(response);
+    public CompletableFuture<ResponseEntity<byte[]>> getSeatAvailability(
+            @RequestParam Long eventId,
+            @RequestParam(required = false) String fields) {
+        log.info("GET /v1/seats/availability - eventId: {}, fields: {}", eventId, fields);
+        // Served from the cache of serialised SeatAvailabilityResponse documents
+        SeatFieldSet fieldSet = SeatFieldSet.parse(fields);
+        return bulkheadExecutors.submit(Bulkhead.READ, () -> ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(availabilityCache.get(eventId, fieldSet)));
+    }
+    
+    @PostMapping("/availability/events")
+    public CompletableFuture<Void> getEventAvailability(
+            @Valid @RequestBody EventAvailabilityRequest request,
+            HttpServletResponse response) {
+        log.info("POST /v1/seats/availability/events - events: {}", request.getEventIds().size());
+        
+        return bulkheadExecutors.run(Bulkhead.READ, () -> {
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            seatJsonWriter.writeEventAvailability(request.getEventIds(), response.getOutputStream());
+        });
     }
     
     @GetMapping
-    public ResponseEntity<List<SeatDTO>> getSeats(
+    public CompletableFuture<Void> getSeats(
             @RequestParam Long eventId,
-            @RequestParam(required = false) String status) {
-        log.info("GET /v1/seats - eventId: {}, status: {}", eventId, status);
-        List<SeatDTO> seats = seatingService.getSeatsByEventId(eventId, status);
-        return ResponseEntity.ok(seats);
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String fields,
+            HttpServletResponse response) {
+        log.info("GET /v1/seats - eventId: {}, status: {}, fields: {}", eventId, status, fields);
+        
+        SeatStatus seatStatus = status != null && !status.isEmpty() ? SeatStatus.valueOf(status.toUpperCase()) : null;
+        SeatFieldSet fieldSet = SeatFieldSet.parse(fields);
+        
+        return bulkheadExecutors.run(Bulkhead.READ, () -> {
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            seatJsonWriter.writeSeatsByEvent(eventId, seatStatus, fieldSet, response.getOutputStream());
+        });
     }
     
     @GetMapping("/{id}")
-    public ResponseEntity<SeatDTO> getSeatById(@PathVariable Long id) {
-        log.info("GET /v1/seats/{}", id);
-        SeatDTO seat = seatingService.getSeatById(id);
-        return ResponseEntity.ok(seat);
+    public CompletableFuture<ResponseEntity<SeatDTO>> getSeatById(
+            @PathVariable Long id,
+            @RequestParam(required = false) Long eventId) {
+        log.info("GET /v1/seats/{} - eventId: {}", id, eventId);
+        return bulkheadExecutors.submit(Bulkhead.READ, () -> ResponseEntity.ok(seatingService.getSeatById(eventId, id)));
     }
     
     @GetMapping("/order/{orderId}")
-    public ResponseEntity<List<SeatDTO>> getSeatsByOrderId(@PathVariable String orderId) {
-        log.info("GET /v1/seats/order/{}", orderId);
-        List<SeatDTO> seats = seatingService.getSeatsByOrderId(orderId);
-        return ResponseEntity.ok(seats);
+    public CompletableFuture<Void> getSeatsByOrderId(
+            @PathVariable String orderId,
+            @RequestParam(required = false) Long eventId,
+            @RequestParam(required = false) String fields,
+            HttpServletResponse response) {
+        log.info("GET /v1/seats/order/{} - eventId: {}, fields: {}", orderId, eventId, fields);
+        
+        SeatFieldSet fieldSet = SeatFieldSet.parse(fields);
+        
+        return bulkheadExecutors.run(Bulkhead.READ, () -> {
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            seatJsonWriter.writeSeatsByOrder(eventId, orderId, fieldSet, response.getOutputStream());
+        });
+    }
+    
+    @PostMapping("/status")
+    public CompletableFuture<ResponseEntity<SeatStatusResponse>> getSeatStatuses(@Valid @RequestBody SeatStatusRequest request) {
+        log.info("POST /v1/seats/status - eventId: {}, seats: {}", request.getEventId(), request.getSeatIds().size());
+        
+        return bulkheadExecutors.submit(Bulkhead.READ, () ->
+                ResponseEntity.ok(seatingService.getSeatStatuses(request.getEventId(), request.getSeatIds())));
+    }
+    
+    // Price queries, answered from the in-memory price index (see SeatPriceIndex)
+    
+    @GetMapping("/cheapest")
+    public CompletableFuture<ResponseEntity<List<SeatDTO>>> getCheapestSeats(
+            @RequestParam Long eventId,
+            @RequestParam(defaultValue = "10") int count,
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) String section,
+            @RequestParam(required = false) BigDecimal maxPrice) {
+        log.info("GET /v1/seats/cheapest - eventId: {}, count: {}, type: {}, section: {}, maxPrice: {}",
+                eventId, count, type, section, maxPrice);
+        
+        SeatType seatType = parseType(type);
+        return bulkheadExecutors.submit(Bulkhead.READ, () ->
+                ResponseEntity.ok(seatingService.getCheapestSeats(eventId, count, seatType, section, maxPrice)));
+    }
+    
+    @GetMapping("/prices/count")
+    public CompletableFuture<ResponseEntity<PriceRangeCountResponse>> countSeatsInPriceRange(
+            @RequestParam Long eventId,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) String section) {
+        log.info("GET /v1/seats/prices/count - eventId: {}, minPrice: {}, maxPrice: {}, type: {}, section: {}",
+                eventId, minPrice, maxPrice, type, section);
+        
+        SeatType seatType = parseType(type);
+        return bulkheadExecutors.submit(Bulkhead.READ, () -> ResponseEntity.ok(
+                seatingService.countSeatsInPriceRange(eventId, minPrice, maxPrice, seatType, section)));
+    }
+    
+    @GetMapping("/prices/sections")
+    public CompletableFuture<ResponseEntity<SectionPriceResponse>> getMinPricePerSection(
+            @RequestParam Long eventId,
+            @RequestParam(required = false) String type) {
+        log.info("GET /v1/seats/prices/sections - eventId: {}, type: {}", eventId, type);
+        
+        SeatType seatType = parseType(type);
+        return bulkheadExecutors.submit(Bulkhead.READ, () ->
+                ResponseEntity.ok(seatingService.getMinPricePerSection(eventId, seatType)));
     }
     
     @PostMapping("/reserve")
-    public ResponseEntity<SeatReservationResponse> reserveSeats(
+    public CompletableFuture<ResponseEntity<SeatReservationResponse>> reserveSeats(
             @Valid @RequestBody SeatReservationRequest request,
             @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
-        log.info("POST /v1/seats/reserve - request: {}, idempotencyKey: {}", request, idempotencyKey);
+        log.info("POST /v1/seats/reserve - eventId: {}, seats: {}, idempotencyKey: {}",
+                request.getEventId(), request.getSeatIds().size(), idempotencyKey);
         
-        SeatReservationResponse response = seatingService.reserveSeats(request);
-        return ResponseEntity.ok(response);
+        return bulkheadExecutors.submit(Bulkhead.RESERVE, () -> {
+            try {
+                return ResponseEntity.ok(seatingService.reserveSeats(request));
+            } catch (ConcurrencyFailureException e) {
+                // Raised as late as the commit, so only the caller sees it
+                contentionTracker.recordConflict(request.getEventId());
+                throw e;
+            }
+        });
+    }
+    
+    @PostMapping("/reserve/quantity")
+    public CompletableFuture<ResponseEntity<SeatReservationResponse>> reserveByQuantity(
+            @Valid @RequestBody SeatQuantityReservationRequest request) {
+        log.info("POST /v1/seats/reserve/quantity - eventId: {}, section: {}, quantity: {}",
+                request.getEventId(), request.getSection(), request.getQuantity());
+        
+        return bulkheadExecutors.submit(Bulkhead.RESERVE, () -> ResponseEntity.ok(seatingService.reserveByQuantity(request)));
     }
     
     @PostMapping("/allocate")
-    public ResponseEntity<Void> allocateSeats(
+    public CompletableFuture<ResponseEntity<Void>> allocateSeats(
             @Valid @RequestBody SeatAllocationRequest request) {
-        log.info("POST /v1/seats/allocate - request: {}", request);
+        log.info("POST /v1/seats/allocate - eventId: {}, seats: {}, orderId: {}",
+                request.getEventId(), request.getSeatIds().size(), request.getOrderId());
         
-        seatingService.allocateSeats(request);
-        return ResponseEntity.ok().build();
+        return bulkheadExecutors.submit(Bulkhead.RESERVE, () -> {
+            seatingService.allocateSeats(request);
+            return ResponseEntity.ok().build();
+        });
     }
     
     @PostMapping("/release")
-    public ResponseEntity<Void> releaseSeats(@RequestBody List<Long> seatIds) {
-        log.info("POST /v1/seats/release - seatIds: {}", seatIds);
+    public CompletableFuture<ResponseEntity<Void>> releaseSeats(
+            @RequestBody List<Long> seatIds,
+            @RequestParam(required = false) Long eventId) {
+        log.info("POST /v1/seats/release - eventId: {}, seats: {}", eventId, seatIds.size());
         
-        seatingService.releaseSeats(seatIds);
-        return ResponseEntity.ok().build();
+        return bulkheadExecutors.submit(Bulkhead.RESERVE, () -> {
+            seatingService.releaseSeats(eventId, seatIds);
+            return ResponseEntity.ok().build();
+        });
+    }
+    
+    @GetMapping("/reservations/{reservationId}")
+    public CompletableFuture<ResponseEntity<ReservationDTO>> getReservation(@PathVariable String reservationId) {
+        log.info("GET /v1/seats/reservations/{}", reservationId);
+        return bulkheadExecutors.submit(Bulkhead.RESERVE, () ->
+                ResponseEntity.ok(reservationService.getReservation(reservationId)));
+    }
+    
+    @PostMapping("/reservations/{reservationId}/allocate")
+    public CompletableFuture<ResponseEntity<ReservationDTO>> allocateReservation(
+            @PathVariable String reservationId,
+            @Valid @RequestBody ReservationAllocationRequest request) {
+        log.info("POST /v1/seats/reservations/{}/allocate - orderId: {}", reservationId, request.getOrderId());
+        
+        return bulkheadExecutors.submit(Bulkhead.RESERVE, () ->
+                ResponseEntity.ok(reservationService.allocateReservation(reservationId, request.getOrderId())));
+    }
+    
+    @PostMapping("/reservations/{reservationId}/release")
+    public CompletableFuture<ResponseEntity<ReservationDTO>> releaseReservation(@PathVariable String reservationId) {
+        log.info("POST /v1/seats/reservations/{}/release", reservationId);
+        
+        return bulkheadExecutors.submit(Bulkhead.RESERVE, () ->
+                ResponseEntity.ok(reservationService.releaseReservation(reservationId)));
+    }
+    
+    @PostMapping("/reservations/{reservationId}/extend")
+    public CompletableFuture<ResponseEntity<ReservationDTO>> extendReservation(
+            @PathVariable String reservationId,
+            @RequestParam(defaultValue = "15") int minutes) {
+        log.info("POST /v1/seats/reservations/{}/extend - minutes: {}", reservationId, minutes);
+        
+        return bulkheadExecutors.submit(Bulkhead.RESERVE, () ->
+                ResponseEntity.ok(reservationService.extendReservation(reservationId, minutes)));
     }
     
     @PostMapping
-    public ResponseEntity<SeatDTO> createSeat(@Valid @RequestBody SeatDTO seatDTO) {
-        log.info("POST /v1/seats - creating seat: {}", seatDTO);
+    public CompletableFuture<ResponseEntity<SeatDTO>> createSeat(@Valid @RequestBody SeatDTO seatDTO) {
+        log.info("POST /v1/seats - creating seat for event: {}", seatDTO.getEventId());
         
-        SeatDTO createdSeat = seatingService.createSeat(seatDTO);
-        return new ResponseEntity<>(createdSeat, HttpStatus.CREATED);
+        return bulkheadExecutors.submit(Bulkhead.ADMIN, () ->
+                new ResponseEntity<>(seatingService.createSeat(seatDTO), HttpStatus.CREATED));
     }
     
     @PatchMapping("/{id}/block")
-    public ResponseEntity<Void> blockSeat(@PathVariable Long id) {
-        log.info("PATCH /v1/seats/{}/block", id);
+    public CompletableFuture<ResponseEntity<Void>> blockSeat(
+            @PathVariable Long id,
+            @RequestParam(required = false) Long eventId) {
+        log.info("PATCH /v1/seats/{}/block - eventId: {}", id, eventId);
         
-        seatingService.blockSeat(id);
-        return ResponseEntity.ok().build();
+        return bulkheadExecutors.submit(Bulkhead.ADMIN, () -> {
+            seatingService.blockSeat(eventId, id);
+            return ResponseEntity.ok().build();
+        });
     }
     
     @PatchMapping("/{id}/unblock")
-    public ResponseEntity<Void> unblockSeat(@PathVariable Long id) {
-        log.info("PATCH /v1/seats/{}/unblock", id);
+    public CompletableFuture<ResponseEntity<Void>> unblockSeat(
+            @PathVariable Long id,
+            @RequestParam(required = false) Long eventId) {
+        log.info("PATCH /v1/seats/{}/unblock - eventId: {}", id, eventId);
         
-        seatingService.unblockSeat(id);
-        return ResponseEntity.ok().build();
+        return bulkheadExecutors.submit(Bulkhead.ADMIN, () -> {
+            seatingService.unblockSeat(eventId, id);
+            return ResponseEntity.ok().build();
+        });
+    }
+    
+    private static SeatType parseType(String type) {
+        return type != null && !type.isEmpty() ? SeatType.valueOf(type.toUpperCase()) : null;
     }
 }
@@ -0,0 +1,19 @@
+package com.ticketing.seatingservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.constraints.NotEmpty;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EventAvailabilityRequest {
+    
+    @NotEmpty(message = "At least one event ID is required")
+    private List<Long> eventIds;
+}
@@ -0,0 +1,22 @@
+package com.ticketing.seatingservice.dto;
+
+import com.ticketing.seatingservice.model.SeatType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PriceRangeCountResponse {
+    private Long eventId;
+    private BigDecimal minPrice;
+    private BigDecimal maxPrice;
+    private SeatType type;
+    private String section;
+    private Long availableSeats;
+}
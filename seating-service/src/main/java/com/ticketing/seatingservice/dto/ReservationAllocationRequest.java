@@ -0,0 +1,18 @@
+package com.ticketing.seatingservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.constraints.NotBlank;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReservationAllocationRequest {
+    
+    @NotBlank(message = "Order ID is required")
+    private String orderId;
+}
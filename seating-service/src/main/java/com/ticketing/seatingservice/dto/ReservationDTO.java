@@ -0,0 +1,29 @@
+package com.ticketing.seatingservice.dto;
+
+import com.ticketing.seatingservice.model.ReservationStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReservationDTO {
+    private String reservationId;
+    private Long eventId;
+    private Long holderId;
+    private ReservationStatus status;
+    private Integer seatCount;
+    private BigDecimal totalPrice;
+    private String orderId;
+    private LocalDateTime expiresAt;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private List<SeatDTO> seats; // Only filled in by the reservation lookup
+}
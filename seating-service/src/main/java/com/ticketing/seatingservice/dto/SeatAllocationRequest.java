@@ -20,4 +20,6 @@ public class SeatAllocationRequest {
     
     @NotBlank(message = "Order ID is required")
     private String orderId;
+    
+    private Long eventId; // Optional, prunes the seat lookup to the event's partition
 }
\ No newline at end of file
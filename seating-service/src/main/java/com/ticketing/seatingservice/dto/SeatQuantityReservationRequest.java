@@ -0,0 +1,33 @@
+package com.ticketing.seatingservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotNull;
+
+/**
+ * Any quantity seats of a section, for general admission and standing areas.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SeatQuantityReservationRequest {
+    
+    @NotNull(message = "Event ID is required")
+    private Long eventId;
+    
+    @NotBlank(message = "Section is required")
+    private String section;
+    
+    @NotNull(message = "Quantity is required")
+    @Min(value = 1, message = "Quantity must be at least 1")
+    private Integer quantity;
+    
+    @NotNull(message = "User ID is required")
+    private Long userId;
+}
@@ -0,0 +1,25 @@
+package com.ticketing.seatingservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.ticketing.seatingservice.model.SeatStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+// Written as a compact [id, status, price, seatNumber] tuple
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonFormat(shape = JsonFormat.Shape.ARRAY)
+@JsonPropertyOrder({"id", "status", "price", "seatNumber"})
+public class SeatStatusDTO {
+    private Long id;
+    private SeatStatus status;
+    private BigDecimal price;
+    private String seatNumber;
+}
@@ -0,0 +1,17 @@
+package com.ticketing.seatingservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SeatStatusResponse {
+    private Long eventId;
+    private List<SeatStatusDTO> seats;
+}
@@ -0,0 +1,20 @@
+package com.ticketing.seatingservice.dto;
+
+import com.ticketing.seatingservice.model.SeatType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SectionPriceResponse {
+    private Long eventId;
+    private SeatType type;
+    private Map<String, BigDecimal> minPriceBySection;
+}
@@ -0,0 +1,19 @@
+package com.ticketing.seatingservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class VenueLayoutDTO {
+    private Long id;
+    private String name;
+    private Integer seatCount;
+    private LocalDateTime createdAt;
+}
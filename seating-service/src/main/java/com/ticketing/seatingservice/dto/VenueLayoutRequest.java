@@ -0,0 +1,54 @@
+package com.ticketing.seatingservice.dto;
+
+import com.ticketing.seatingservice.model.SeatType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.Valid;
+import javax.validation.constraints.DecimalMin;
+import javax.validation.constraints.Digits;
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class VenueLayoutRequest {
+    
+    @NotBlank(message = "Layout name is required")
+    private String name;
+    
+    // Seat indexes follow the list order
+    @NotEmpty(message = "At least one seat is required")
+    private List<@Valid LayoutSeat> seats;
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class LayoutSeat {
+        
+        @NotBlank(message = "Seat number is required")
+        private String seatNumber;
+        
+        @NotBlank(message = "Row number is required")
+        private String rowNumber;
+        
+        @NotBlank(message = "Section is required")
+        private String section;
+        
+        @NotNull(message = "Seat type is required")
+        private SeatType type;
+        
+        @NotNull(message = "Price is required")
+        @DecimalMin(value = "0.00", message = "Price must not be negative")
+        @Digits(integer = 8, fraction = 2, message = "Price must fit NUMERIC(10, 2)")
+        private BigDecimal price;
+    }
+}
@@ -0,0 +1,23 @@
+package com.ticketing.seatingservice.event;
+
+import com.ticketing.seatingservice.model.Seat;
+import com.ticketing.seatingservice.model.SeatStatus;
+import lombok.Value;
+
+/**
+ * A committed seat status change. The seat version orders transitions of the same seat,
+ * so listeners can apply them in any order.
+ */
+@Value
+public class SeatTransition {
+    long eventId;
+    long seatId;
+    SeatStatus status;
+    long version;
+    
+    // Only valid once the seat's update has been flushed, which is when its version is bumped
+    public static SeatTransition of(Seat seat) {
+        return new SeatTransition(seat.getEventId(), seat.getId(), seat.getStatus(),
+                seat.getVersion() != null ? seat.getVersion() : 0);
+    }
+}
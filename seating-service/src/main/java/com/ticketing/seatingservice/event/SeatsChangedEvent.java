@@ -0,0 +1,53 @@
+package com.ticketing.seatingservice.event;
+
+import lombok.Value;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Published by SeatingService whenever seats of the given events change state.
+ * Listeners that keep derived per-event state (caches, indexes) use it to stay in sync.
+ *
+ * Mutations that know exactly which seats changed also carry the transitions; for the
+ * others (bulk updates, new seats) the transitions are null and listeners have to assume
+ * that anything about the events may have changed.
+ *
+ * Changes committed by other replicas are published again locally by SeatChangeSubscriber,
+ * marked as remote so that they are not broadcast a second time.
+ */
+@Value
+public class SeatsChangedEvent {
+    Set<Long> eventIds;
+    List<SeatTransition> transitions;
+    boolean remote;
+    
+    public SeatsChangedEvent(Set<Long> eventIds) {
+        this(eventIds, null);
+    }
+    
+    public SeatsChangedEvent(Set<Long> eventIds, List<SeatTransition> transitions) {
+        this(eventIds, transitions, false);
+    }
+    
+    private SeatsChangedEvent(Set<Long> eventIds, List<SeatTransition> transitions, boolean remote) {
+        this.eventIds = eventIds;
+        this.transitions = transitions;
+        this.remote = remote;
+    }
+    
+    public static SeatsChangedEvent remote(Set<Long> eventIds, List<SeatTransition> transitions) {
+        return new SeatsChangedEvent(eventIds, transitions, true);
+    }
+    
+    public static SeatsChangedEvent of(List<SeatTransition> transitions) {
+        return new SeatsChangedEvent(transitions.stream()
+                .map(SeatTransition::getEventId)
+                .collect(Collectors.toSet()), transitions);
+    }
+    
+    public boolean hasTransitions() {
+        return transitions != null;
+    }
+}
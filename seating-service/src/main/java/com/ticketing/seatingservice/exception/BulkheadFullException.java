@@ -0,0 +1,19 @@
+package com.ticketing.seatingservice.exception;
+
+/**
+ * Thrown when a bulkhead's threads are busy and its queue is full. Answered with
+ * 503 Service Unavailable and a Retry-After header.
+ */
+public class BulkheadFullException extends RuntimeException {
+    
+    private final String bulkhead;
+    
+    public BulkheadFullException(String bulkhead) {
+        super("Too many concurrent " + bulkhead + " requests, try again later");
+        this.bulkhead = bulkhead;
+    }
+    
+    public String getBulkhead() {
+        return bulkhead;
+    }
+}
@@ -0,0 +1,46 @@
+package com.ticketing.seatingservice.grpc;
+
+import io.grpc.ForwardingServerCall;
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.Status;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times every gRPC call by method and status code, the gRPC counterpart of http_server_requests.
+ */
+@Component
+@ConditionalOnProperty(name = "seating.grpc.enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+public class GrpcMetricsInterceptor implements ServerInterceptor {
+    
+    private final MeterRegistry meterRegistry;
+    
+    @Override
+    public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(ServerCall<ReqT, RespT> call, Metadata headers,
+                                                                 ServerCallHandler<ReqT, RespT> next) {
+        long start = System.nanoTime();
+        String method = call.getMethodDescriptor().getBareMethodName();
+        
+        return next.startCall(new ForwardingServerCall.SimpleForwardingServerCall<ReqT, RespT>(call) {
+            @Override
+            public void close(Status status, Metadata trailers) {
+                Timer.builder("grpc_server_calls")
+                        .description("gRPC calls handled by the server")
+                        .tag("method", method)
+                        .tag("status", status.getCode().name())
+                        .register(meterRegistry)
+                        .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                super.close(status, trailers);
+            }
+        }, headers);
+    }
+}
@@ -0,0 +1,92 @@
+package com.ticketing.seatingservice.grpc;
+
+import io.grpc.Server;
+import io.grpc.ServerInterceptors;
+import io.grpc.health.v1.HealthCheckResponse;
+import io.grpc.netty.shaded.io.grpc.netty.NettyServerBuilder;
+import io.grpc.protobuf.services.HealthStatusManager;
+import io.grpc.protobuf.services.ProtoReflectionService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the gRPC server next to the embedded web server. It starts once the application
+ * context is ready and, on shutdown, stops taking new calls and gives running calls
+ * seating.grpc.shutdown-grace-ms to finish.
+ *
+ * Besides the seating API it serves the standard gRPC health service and server
+ * reflection, so grpcurl and ghz work without the .proto file.
+ */
+@Component
+@ConditionalOnProperty(name = "seating.grpc.enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class GrpcServer implements SmartLifecycle {
+    
+    private final SeatingGrpcService seatingGrpcService;
+    private final GrpcMetricsInterceptor metricsInterceptor;
+    
+    @Value("${seating.grpc.port:9082}")
+    private int port;
+    
+    @Value("${seating.grpc.max-inbound-message-bytes:4194304}")
+    private int maxInboundMessageBytes;
+    
+    @Value("${seating.grpc.shutdown-grace-ms:10000}")
+    private long shutdownGraceMs;
+    
+    private final HealthStatusManager health = new HealthStatusManager();
+    private volatile Server server;
+    
+    @Override
+    public void start() {
+        try {
+            server = NettyServerBuilder.forPort(port)
+                    .maxInboundMessageSize(maxInboundMessageBytes)
+                    .addService(ServerInterceptors.intercept(seatingGrpcService, metricsInterceptor))
+                    .addService(health.getHealthService())
+                    .addService(ProtoReflectionService.newInstance())
+                    .build()
+                    .start();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to start gRPC server on port " + port, e);
+        }
+        health.setStatus("", HealthCheckResponse.ServingStatus.SERVING);
+        log.info("gRPC server started on port {}", server.getPort());
+    }
+    
+    @Override
+    public void stop() {
+        Server running = server;
+        if (running == null) {
+            return;
+        }
+        
+        health.enterTerminalState();
+        running.shutdown();
+        try {
+            if (!running.awaitTermination(shutdownGraceMs, TimeUnit.MILLISECONDS)) {
+                log.warn("gRPC calls still running after {} ms, cancelling them", shutdownGraceMs);
+                running.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running.shutdownNow();
+        }
+        server = null;
+        log.info("gRPC server stopped");
+    }
+    
+    @Override
+    public boolean isRunning() {
+        return server != null;
+    }
+}
@@ -0,0 +1,368 @@
+package com.ticketing.seatingservice.grpc;
+
+import com.google.protobuf.Timestamp;
+import com.ticketing.seatingservice.bulkhead.Bulkhead;
+import com.ticketing.seatingservice.bulkhead.BulkheadExecutors;
+import com.ticketing.seatingservice.cluster.EventLookup;
+import com.ticketing.seatingservice.cluster.EventOwner;
+import com.ticketing.seatingservice.cluster.EventOwnershipService;
+import com.ticketing.seatingservice.contention.ContentionTracker;
+import com.ticketing.seatingservice.dto.SeatAllocationRequest;
+import com.ticketing.seatingservice.dto.SeatAvailabilityResponse;
+import com.ticketing.seatingservice.dto.SeatDTO;
+import com.ticketing.seatingservice.dto.SeatReservationRequest;
+import com.ticketing.seatingservice.dto.SeatReservationResponse;
+import com.ticketing.seatingservice.dto.SeatStatusDTO;
+import com.ticketing.seatingservice.dto.SeatStatusResponse;
+import com.ticketing.seatingservice.exception.BulkheadFullException;
+import com.ticketing.seatingservice.exception.ResourceNotFoundException;
+import com.ticketing.seatingservice.exception.SeatNotAvailableException;
+import com.ticketing.seatingservice.grpc.v1.AllocateSeatsRequest;
+import com.ticketing.seatingservice.grpc.v1.AllocateSeatsResponse;
+import com.ticketing.seatingservice.grpc.v1.AvailabilityChunk;
+import com.ticketing.seatingservice.grpc.v1.AvailabilityRequest;
+import com.ticketing.seatingservice.grpc.v1.AvailabilitySummary;
+import com.ticketing.seatingservice.grpc.v1.ReleaseSeatsRequest;
+import com.ticketing.seatingservice.grpc.v1.ReleaseSeatsResponse;
+import com.ticketing.seatingservice.grpc.v1.ReserveSeatsRequest;
+import com.ticketing.seatingservice.grpc.v1.ReserveSeatsResponse;
+import com.ticketing.seatingservice.grpc.v1.Seat;
+import com.ticketing.seatingservice.grpc.v1.SeatStatusesRequest;
+import com.ticketing.seatingservice.grpc.v1.SeatStatusesResponse;
+import com.ticketing.seatingservice.grpc.v1.SeatingServiceGrpc;
+import com.ticketing.seatingservice.service.SeatingService;
+import io.grpc.Metadata;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * gRPC binding of the seating API for internal callers. It is a thin translation layer over
+ * SeatingService, so both APIs share validation, transactions and events; only the wire
+ * format differs. Prices travel as integer cents.
+ *
+ * Errors map to status codes the way GlobalExceptionHandler maps them to HTTP statuses:
+ * NOT_FOUND, FAILED_PRECONDITION for seats that are not available, INVALID_ARGUMENT and
+ * INTERNAL. Lock conflicts come back as ABORTED, which callers may retry.
+ *
+ * Calls run on the same bulkhead executors as the HTTP endpoints (see BulkheadExecutors);
+ * a full bulkhead answers RESOURCE_EXHAUSTED.
+ *
+ * In cluster mode the writes are only served by the replica owning the event, as
+ * EventRoutingFilter does for REST. A write for an event owned elsewhere is answered with
+ * UNAVAILABLE before it runs, with the owner's node id and URL in the trailers
+ * (seating-owner-node, seating-owner-url), so the caller can retry against the owner.
+ */
+@Component
+@ConditionalOnProperty(name = "seating.grpc.enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class SeatingGrpcService extends SeatingServiceGrpc.SeatingServiceImplBase {
+    
+    // How long a stream waits between checks while the client is not reading
+    private static final long READY_POLL_MS = 5;
+    
+    private static final Metadata.Key<String> OWNER_NODE_KEY = Metadata.Key.of("seating-owner-node", Metadata.ASCII_STRING_MARSHALLER);
+    private static final Metadata.Key<String> OWNER_URL_KEY = Metadata.Key.of("seating-owner-url", Metadata.ASCII_STRING_MARSHALLER);
+    
+    private final SeatingService seatingService;
+    private final BulkheadExecutors bulkheadExecutors;
+    private final MeterRegistry meterRegistry;
+    private final ContentionTracker contentionTracker;
+    // Only present in cluster mode
+    private final ObjectProvider<EventOwnershipService> eventOwnershipService;
+    private final ObjectProvider<EventLookup> eventLookup;
+    
+    @Value("${seating.grpc.availability-chunk-size:500}")
+    private int availabilityChunkSize;
+    
+    // How long a stream may wait for a client that stopped reading before it is cancelled
+    @Value("${seating.grpc.stall-timeout-ms:30000}")
+    private long stallTimeoutMs;
+    
+    @Override
+    public void reserveSeats(ReserveSeatsRequest request, StreamObserver<ReserveSeatsResponse> responseObserver) {
+        unary(Bulkhead.RESERVE, responseObserver, () -> {
+            requirePositive(request.getEventId(), "Event ID");
+            requireSeatIds(request.getSeatIdsList());
+            requirePositive(request.getUserId(), "User ID");
+            requireLocalOwner(request.getEventId(), request.getSeatIdsList());
+            
+            SeatReservationResponse reservation;
+            try {
+                reservation = seatingService.reserveSeats(SeatReservationRequest.builder()
+                        .eventId(request.getEventId())
+                        .seatIds(request.getSeatIdsList())
+                        .userId(request.getUserId())
+                        .orderId(request.getOrderId().isEmpty() ? null : request.getOrderId())
+                        .build());
+            } catch (ConcurrencyFailureException e) {
+                // Raised as late as the commit, so only the caller sees it
+                contentionTracker.recordConflict(request.getEventId());
+                throw e;
+            }
+            
+            ReserveSeatsResponse.Builder response = ReserveSeatsResponse.newBuilder()
+                    .setReservationId(reservation.getReservationId())
+                    .setTotalPriceCents(toCents(reservation.getTotalPrice()))
+                    .setExpiresAt(toTimestamp(reservation.getExpiresAt()));
+            reservation.getReservedSeats().forEach(seat -> response.addSeats(toSeat(seat)));
+            return response.build();
+        });
+    }
+    
+    @Override
+    public void allocateSeats(AllocateSeatsRequest request, StreamObserver<AllocateSeatsResponse> responseObserver) {
+        unary(Bulkhead.RESERVE, responseObserver, () -> {
+            requireSeatIds(request.getSeatIdsList());
+            if (request.getOrderId().isEmpty()) {
+                throw new IllegalArgumentException("Order ID is required");
+            }
+            requireLocalOwner(request.getEventId(), request.getSeatIdsList());
+            
+            seatingService.allocateSeats(SeatAllocationRequest.builder()
+                    .eventId(request.getEventId() > 0 ? request.getEventId() : null)
+                    .seatIds(request.getSeatIdsList())
+                    .orderId(request.getOrderId())
+                    .build());
+            return AllocateSeatsResponse.getDefaultInstance();
+        });
+    }
+    
+    @Override
+    public void releaseSeats(ReleaseSeatsRequest request, StreamObserver<ReleaseSeatsResponse> responseObserver) {
+        unary(Bulkhead.RESERVE, responseObserver, () -> {
+            requireSeatIds(request.getSeatIdsList());
+            requireLocalOwner(request.getEventId(), request.getSeatIdsList());
+            
+            seatingService.releaseSeats(request.getEventId() > 0 ? request.getEventId() : null,
+                    request.getSeatIdsList());
+            return ReleaseSeatsResponse.getDefaultInstance();
+        });
+    }
+    
+    @Override
+    public void getSeatStatuses(SeatStatusesRequest request, StreamObserver<SeatStatusesResponse> responseObserver) {
+        unary(Bulkhead.READ, responseObserver, () -> {
+            requirePositive(request.getEventId(), "Event ID");
+            
+            SeatStatusResponse statuses = seatingService.getSeatStatuses(request.getEventId(), request.getSeatIdsList());
+            
+            SeatStatusesResponse.Builder response = SeatStatusesResponse.newBuilder()
+                    .setEventId(statuses.getEventId());
+            for (SeatStatusDTO seat : statuses.getSeats()) {
+                response.addSeats(SeatStatusesResponse.Entry.newBuilder()
+                        .setId(seat.getId())
+                        .setStatus(toStatus(seat.getStatus()))
+                        .setPriceCents(toCents(seat.getPrice()))
+                        .setSeatNumber(seat.getSeatNumber()));
+            }
+            return response.build();
+        });
+    }
+    
+    /**
+     * Streams the summary first, then the available seats in chunks straight from the
+     * database cursor. The cursor is only advanced while the client keeps up, so a slow
+     * reader holds one chunk in memory instead of the whole seat list.
+     */
+    @Override
+    public void streamAvailability(AvailabilityRequest request, StreamObserver<AvailabilityChunk> responseObserver) {
+        ServerCallStreamObserver<AvailabilityChunk> call = (ServerCallStreamObserver<AvailabilityChunk>) responseObserver;
+        call.setOnCancelHandler(() -> log.debug("Availability stream for event {} cancelled", request.getEventId()));
+        
+        try {
+            bulkheadExecutors.run(Bulkhead.READ, () -> {
+                try {
+                    requirePositive(request.getEventId(), "Event ID");
+                    
+                    seatingService.streamAvailability(request.getEventId(), availabilityChunkSize,
+                            summary -> send(call, AvailabilityChunk.newBuilder().setSummary(toSummary(summary)).build()),
+                            seats -> {
+                                AvailabilityChunk.Builder chunk = AvailabilityChunk.newBuilder();
+                                seats.forEach(seat -> chunk.addSeats(toSeat(seat)));
+                                send(call, chunk.build());
+                            });
+                    call.onCompleted();
+                } catch (RuntimeException e) {
+                    if (!call.isCancelled()) {
+                        call.onError(toStatusException(e));
+                    }
+                }
+            });
+        } catch (BulkheadFullException e) {
+            call.onError(toStatusException(e));
+        }
+    }
+    
+    private <T> void unary(Bulkhead bulkhead, StreamObserver<T> responseObserver, Callable<T> handler) {
+        try {
+            bulkheadExecutors.submit(bulkhead, handler).whenComplete((response, error) -> {
+                if (error != null) {
+                    responseObserver.onError(toStatusException(error instanceof RuntimeException
+                            ? (RuntimeException) error : new IllegalStateException(error)));
+                    return;
+                }
+                responseObserver.onNext(response);
+                responseObserver.onCompleted();
+            });
+        } catch (BulkheadFullException e) {
+            responseObserver.onError(toStatusException(e));
+        }
+    }
+    
+    /**
+     * Answers UNAVAILABLE when another replica owns the event of the write. The event is the
+     * one given, else the one the seats belong to, as EventRoutingFilter finds it; a write whose
+     * event is unknown runs here.
+     */
+    private void requireLocalOwner(long eventId, List<Long> seatIds) {
+        EventOwnershipService ownership = eventOwnershipService.getIfAvailable();
+        if (ownership == null) {
+            return;
+        }
+        Long ownedEventId = eventId > 0 ? Long.valueOf(eventId) : eventLookup.getObject().eventOfSeats(seatIds);
+        if (ownedEventId == null) {
+            return;
+        }
+        EventOwner owner = ownership.resolveOwner(ownedEventId);
+        if (owner.isLocal()) {
+            return;
+        }
+        
+        Counter.builder("seating_cluster_routed_requests")
+                .description("Requests routed to the replica owning the event")
+                .tag("outcome", "grpc_unavailable")
+                .register(meterRegistry)
+                .increment();
+        Metadata trailers = new Metadata();
+        trailers.put(OWNER_NODE_KEY, owner.getNodeId());
+        trailers.put(OWNER_URL_KEY, owner.getBaseUrl());
+        throw Status.UNAVAILABLE
+                .withDescription("Event " + ownedEventId + " is served by " + owner.getNodeId())
+                .asRuntimeException(trailers);
+    }
+    
+    // Blocks while the transport buffer is full, for at most stallTimeoutMs: the stream holds a
+    // read bulkhead thread and a database transaction meanwhile. Polls rather than waiting for
+    // the onReady callback, which is delivered on the call's serialized executor.
+    private void send(ServerCallStreamObserver<AvailabilityChunk> call, AvailabilityChunk chunk) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(stallTimeoutMs);
+        while (!call.isReady()) {
+            if (call.isCancelled()) {
+                throw Status.CANCELLED.withDescription("Client cancelled the stream").asRuntimeException();
+            }
+            if (System.nanoTime() - deadline > 0) {
+                log.warn("Availability stream stalled for {} ms, cancelling it", stallTimeoutMs);
+                throw Status.CANCELLED
+                        .withDescription("Client did not read for " + stallTimeoutMs + " ms")
+                        .asRuntimeException();
+            }
+            try {
+                Thread.sleep(READY_POLL_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw Status.CANCELLED.withDescription("Interrupted").asRuntimeException();
+            }
+        }
+        call.onNext(chunk);
+    }
+    
+    private static StatusRuntimeException toStatusException(RuntimeException e) {
+        if (e instanceof StatusRuntimeException) {
+            return (StatusRuntimeException) e;
+        }
+        if (e instanceof ResourceNotFoundException) {
+            return Status.NOT_FOUND.withDescription(e.getMessage()).asRuntimeException();
+        }
+        if (e instanceof SeatNotAvailableException) {
+            return Status.FAILED_PRECONDITION.withDescription(e.getMessage()).asRuntimeException();
+        }
+        if (e instanceof IllegalArgumentException) {
+            return Status.INVALID_ARGUMENT.withDescription(e.getMessage()).asRuntimeException();
+        }
+        if (e instanceof BulkheadFullException) {
+            return Status.RESOURCE_EXHAUSTED.withDescription(e.getMessage()).asRuntimeException();
+        }
+        if (e instanceof ConcurrencyFailureException) {
+            log.warn("Seat update conflict: {}", e.getMessage());
+            return Status.ABORTED.withDescription("Concurrent update, retry the call").asRuntimeException();
+        }
+        log.error("Unexpected error in gRPC call", e);
+        return Status.INTERNAL.withDescription("An unexpected error occurred").asRuntimeException();
+    }
+    
+    private static void requirePositive(long value, String field) {
+        if (value <= 0) {
+            throw new IllegalArgumentException(field + " is required");
+        }
+    }
+    
+    private static void requireSeatIds(List<Long> seatIds) {
+        if (seatIds.isEmpty()) {
+            throw new IllegalArgumentException("At least one seat ID is required");
+        }
+    }
+    
+    private static Seat toSeat(SeatDTO seat) {
+        Seat.Builder builder = Seat.newBuilder()
+                .setId(seat.getId())
+                .setSeatNumber(seat.getSeatNumber())
+                .setType(com.ticketing.seatingservice.grpc.v1.SeatType.forNumber(seat.getType().getCode()))
+                .setPriceCents(toCents(seat.getPrice()))
+                .setStatus(toStatus(seat.getStatus()));
+        if (seat.getRowNumber() != null) {
+            builder.setRowNumber(seat.getRowNumber());
+        }
+        if (seat.getSection() != null) {
+            builder.setSection(seat.getSection());
+        }
+        return builder.build();
+    }
+    
+    private static AvailabilitySummary toSummary(SeatAvailabilityResponse summary) {
+        return AvailabilitySummary.newBuilder()
+                .setEventId(summary.getEventId())
+                .setTotalSeats(summary.getTotalSeats())
+                .setAvailableSeats(summary.getAvailableSeats())
+                .setReservedSeats(summary.getReservedSeats())
+                .setAllocatedSeats(summary.getAllocatedSeats())
+                .build();
+    }
+    
+    private static com.ticketing.seatingservice.grpc.v1.SeatStatus toStatus(
+            com.ticketing.seatingservice.model.SeatStatus status) {
+        return com.ticketing.seatingservice.grpc.v1.SeatStatus.forNumber(status.getCode());
+    }
+    
+    private static long toCents(BigDecimal price) {
+        return price.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+    
+    private static Timestamp toTimestamp(LocalDateTime time) {
+        Instant instant = time.atZone(ZoneId.systemDefault()).toInstant();
+        return Timestamp.newBuilder()
+                .setSeconds(instant.getEpochSecond())
+                .setNanos(instant.getNano())
+                .build();
+    }
+}
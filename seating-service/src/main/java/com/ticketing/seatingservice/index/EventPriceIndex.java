@@ -0,0 +1,229 @@
+package com.ticketing.seatingservice.index;
+
+import com.ticketing.seatingservice.dto.SeatDTO;
+import com.ticketing.seatingservice.model.SeatStatus;
+import com.ticketing.seatingservice.model.SeatType;
+import com.ticketing.seatingservice.state.LoadedEvent;
+import lombok.Value;
+
+import java.math.BigDecimal;
+import java.util.*;
+
+/**
+ * Available seats of one event ordered by price, for every combination of seat type and
+ * section (either may be "any").
+ *
+ * Each group keeps its available seats in a tree ordered by price and seat id, which
+ * answers cheapest-N and the minimum price, and a Fenwick tree of available seats per
+ * distinct price, which answers price-range counts. A status change moves a seat in or out
+ * of its four groups in O(log n). Versions order the changes as in the seat state, so
+ * transitions can arrive in any order. All access is synchronized on the instance.
+ */
+class EventPriceIndex extends LoadedEvent {
+    
+    private static final short AVAILABLE = SeatStatus.AVAILABLE.getCode();
+    
+    final long loadedAt;
+    
+    // Seat attributes in parallel arrays sorted by id; only versions and statuses change
+    private long[] ids = new long[0];
+    private long[] versions;
+    private short[] statuses;
+    private long[] pricesInCents;
+    private int[] priceLevels;
+    private SeatType[] types;
+    private String[] sections;
+    private String[] rowNumbers;
+    private String[] seatNumbers;
+    
+    // Distinct prices in cents, ascending; a seat's price level is its index in here
+    private long[] levels;
+    
+    private final Map<GroupKey, Group> groups = new HashMap<>();
+    
+    EventPriceIndex(long eventId, long loadedAt) {
+        super(eventId);
+        this.loadedAt = loadedAt;
+    }
+    
+    /**
+     * Builds the index from the seats read from the database (sorted by id) and applies
+     * the transitions that arrived while they were being read.
+     */
+    synchronized void load(List<SeatRow> rows) {
+        int size = rows.size();
+        ids = new long[size];
+        versions = new long[size];
+        statuses = new short[size];
+        pricesInCents = new long[size];
+        priceLevels = new int[size];
+        types = new SeatType[size];
+        sections = new String[size];
+        rowNumbers = new String[size];
+        seatNumbers = new String[size];
+        for (int i = 0; i < size; i++) {
+            SeatRow row = rows.get(i);
+            ids[i] = row.id;
+            versions[i] = row.version;
+            statuses[i] = row.status;
+            pricesInCents[i] = row.priceInCents;
+            types[i] = row.type;
+            sections[i] = row.section;
+            rowNumbers[i] = row.rowNumber;
+            seatNumbers[i] = row.seatNumber;
+        }
+        
+        levels = Arrays.stream(pricesInCents).distinct().sorted().toArray();
+        for (int i = 0; i < size; i++) {
+            priceLevels[i] = Arrays.binarySearch(levels, pricesInCents[i]);
+            for (GroupKey key : groupsOf(i)) {
+                groups.computeIfAbsent(key, k -> new Group());
+            }
+            if (statuses[i] == AVAILABLE) {
+                enter(i);
+            }
+        }
+        
+        markLoaded();
+    }
+    
+    @Override
+    protected synchronized ApplyResult apply(long seatId, short status, long version) {
+        if (defer(seatId, status, version)) {
+            return ApplyResult.DEFERRED;
+        }
+        int index = Arrays.binarySearch(ids, seatId);
+        if (index < 0) {
+            return ApplyResult.UNKNOWN_SEAT;
+        }
+        if (versions[index] >= version) {
+            return ApplyResult.STALE;
+        }
+        boolean wasAvailable = statuses[index] == AVAILABLE;
+        versions[index] = version;
+        statuses[index] = status;
+        if (!wasAvailable && status == AVAILABLE) {
+            enter(index);
+        } else if (wasAvailable && status != AVAILABLE) {
+            leave(index);
+        }
+        return ApplyResult.APPLIED;
+    }
+    
+    /**
+     * Returns up to limit available seats of the group, cheapest first (ties by seat id),
+     * that cost at most maxPriceInCents.
+     */
+    synchronized List<SeatDTO> cheapest(int limit, SeatType type, String section, long maxPriceInCents) {
+        Group group = groups.get(new GroupKey(type, section));
+        if (group == null) {
+            return Collections.emptyList();
+        }
+        List<SeatDTO> seats = new ArrayList<>(Math.min(limit, group.available.size()));
+        for (Integer index : group.available) {
+            if (seats.size() == limit || pricesInCents[index] > maxPriceInCents) {
+                break;
+            }
+            seats.add(toDto(index));
+        }
+        return seats;
+    }
+    
+    /**
+     * Number of available seats of the group priced between the bounds, inclusive.
+     */
+    synchronized long countInRange(long minPriceInCents, long maxPriceInCents, SeatType type, String section) {
+        Group group = groups.get(new GroupKey(type, section));
+        if (group == null || minPriceInCents > maxPriceInCents) {
+            return 0;
+        }
+        // First level at or above the minimum, last level at or below the maximum
+        int from = Arrays.binarySearch(levels, minPriceInCents);
+        from = from >= 0 ? from : -from - 1;
+        int to = Arrays.binarySearch(levels, maxPriceInCents);
+        to = to >= 0 ? to : -to - 2;
+        return group.counts.rangeSum(from, to);
+    }
+    
+    /**
+     * Cheapest available price per section, in cents, for seats of the given type (or of
+     * any type when null). Sections without available seats are left out.
+     */
+    synchronized SortedMap<String, Long> minPricePerSection(SeatType type) {
+        SortedMap<String, Long> minimums = new TreeMap<>();
+        groups.forEach((key, group) -> {
+            if (key.section != null && key.type == type && !group.available.isEmpty()) {
+                minimums.put(key.section, pricesInCents[group.available.first()]);
+            }
+        });
+        return minimums;
+    }
+    
+    private void enter(int index) {
+        for (GroupKey key : groupsOf(index)) {
+            Group group = groups.get(key);
+            group.available.add(index);
+            group.counts.add(priceLevels[index], 1);
+        }
+    }
+    
+    private void leave(int index) {
+        for (GroupKey key : groupsOf(index)) {
+            Group group = groups.get(key);
+            group.available.remove(index);
+            group.counts.add(priceLevels[index], -1);
+        }
+    }
+    
+    private GroupKey[] groupsOf(int index) {
+        return new GroupKey[] {
+                new GroupKey(null, null),
+                new GroupKey(types[index], null),
+                new GroupKey(null, sections[index]),
+                new GroupKey(types[index], sections[index])
+        };
+    }
+    
+    private SeatDTO toDto(int index) {
+        return SeatDTO.builder()
+                .id(ids[index])
+                .eventId(getEventId())
+                .seatNumber(seatNumbers[index])
+                .rowNumber(rowNumbers[index])
+                .section(sections[index])
+                .type(types[index])
+                .price(BigDecimal.valueOf(pricesInCents[index], 2))
+                .status(SeatStatus.AVAILABLE)
+                .build();
+    }
+    
+    /**
+     * A seat as read from the database.
+     */
+    @Value
+    static class SeatRow {
+        long id;
+        long version;
+        short status;
+        long priceInCents;
+        SeatType type;
+        String section;
+        String rowNumber;
+        String seatNumber;
+    }
+    
+    // A null type or section stands for any
+    @Value
+    private static class GroupKey {
+        SeatType type;
+        String section;
+    }
+    
+    private class Group {
+        // Seat indexes ordered by price, then seat id
+        final TreeSet<Integer> available = new TreeSet<>((a, b) -> pricesInCents[a] != pricesInCents[b]
+                ? Long.compare(pricesInCents[a], pricesInCents[b])
+                : Long.compare(ids[a], ids[b]));
+        final FenwickTree counts = new FenwickTree(levels.length);
+    }
+}
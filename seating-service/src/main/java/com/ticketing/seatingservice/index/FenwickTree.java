@@ -0,0 +1,41 @@
+package com.ticketing.seatingservice.index;
+
+/**
+ * Binary indexed tree over a fixed number of slots: point updates and prefix sums in
+ * O(log n).
+ */
+class FenwickTree {
+    
+    private final long[] tree;
+    
+    FenwickTree(int size) {
+        this.tree = new long[size + 1];
+    }
+    
+    void add(int slot, long delta) {
+        for (int i = slot + 1; i < tree.length; i += i & -i) {
+            tree[i] += delta;
+        }
+    }
+    
+    /**
+     * Sum of the slots 0 to slot, inclusive.
+     */
+    long prefixSum(int slot) {
+        long sum = 0;
+        for (int i = Math.min(slot + 1, tree.length - 1); i > 0; i -= i & -i) {
+            sum += tree[i];
+        }
+        return sum;
+    }
+    
+    /**
+     * Sum of the slots from to to, inclusive.
+     */
+    long rangeSum(int from, int to) {
+        if (from > to) {
+            return 0;
+        }
+        return prefixSum(to) - (from > 0 ? prefixSum(from - 1) : 0);
+    }
+}
@@ -0,0 +1,156 @@
+package com.ticketing.seatingservice.index;
+
+import com.ticketing.seatingservice.dto.SeatDTO;
+import com.ticketing.seatingservice.event.SeatTransition;
+import com.ticketing.seatingservice.event.SeatsChangedEvent;
+import com.ticketing.seatingservice.exception.ResourceNotFoundException;
+import com.ticketing.seatingservice.index.EventPriceIndex.SeatRow;
+import com.ticketing.seatingservice.layout.EventSeatLoader;
+import com.ticketing.seatingservice.model.SeatType;
+import com.ticketing.seatingservice.state.EventLoadingCache;
+import com.ticketing.seatingservice.state.LoadedEvent.ApplyResult;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.annotation.PostConstruct;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.*;
+
+/**
+ * Price-ordered index of the available seats of the most recently used events.
+ *
+ * An event is indexed the first time it is queried and then follows the seat transitions
+ * carried by SeatsChangedEvent; mutations that do not report their transitions drop the
+ * event, which is indexed again on next use. Changes made by other replicas arrive through
+ * SeatChangeSubscriber; as a safety net an index is also rebuilt once it is older than
+ * seating.price-index.max-age-ms.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SeatPriceIndex {
+    
+    private static final BigDecimal MAX_PRICE = BigDecimal.valueOf(Long.MAX_VALUE, 2);
+    private static final BigDecimal MIN_PRICE = BigDecimal.valueOf(Long.MIN_VALUE, 2);
+    
+    private final EventSeatLoader eventSeatLoader;
+    private final MeterRegistry meterRegistry;
+    
+    @Value("${seating.price-index.max-events:32}")
+    private int maxEvents;
+    
+    @Value("${seating.price-index.max-age-ms:60000}")
+    private long maxAgeMs;
+    
+    private EventLoadingCache<EventPriceIndex> indexes;
+    
+    private Counter loads;
+    
+    @PostConstruct
+    void registerMetrics() {
+        indexes = new EventLoadingCache<>(maxEvents, eventId -> new EventPriceIndex(eventId, System.currentTimeMillis()),
+                this::load, index -> { });
+        loads = Counter.builder("seat_price_index_loads")
+                .description("Events read into the seat price index from the database")
+                .register(meterRegistry);
+        Gauge.builder("seat_price_index_events", this, SeatPriceIndex::eventCount)
+                .description("Events held in the seat price index")
+                .register(meterRegistry);
+    }
+    
+    /**
+     * Returns up to limit available seats of the event, cheapest first, optionally
+     * restricted to a seat type, a section and a maximum price (any of them may be null).
+     */
+    public List<SeatDTO> findCheapest(Long eventId, int limit, SeatType type, String section, BigDecimal maxPrice) {
+        long maxPriceInCents = maxPrice != null ? toCents(maxPrice, RoundingMode.FLOOR) : Long.MAX_VALUE;
+        return acquire(eventId).cheapest(limit, type, section, maxPriceInCents);
+    }
+    
+    /**
+     * Counts the available seats of the event priced between the bounds, inclusive. Null
+     * bounds, type or section are unrestricted.
+     */
+    public long countInPriceRange(Long eventId, BigDecimal minPrice, BigDecimal maxPrice, SeatType type, String section) {
+        long minPriceInCents = minPrice != null ? toCents(minPrice, RoundingMode.CEILING) : Long.MIN_VALUE;
+        long maxPriceInCents = maxPrice != null ? toCents(maxPrice, RoundingMode.FLOOR) : Long.MAX_VALUE;
+        return acquire(eventId).countInRange(minPriceInCents, maxPriceInCents, type, section);
+    }
+    
+    /**
+     * Returns the cheapest available price of each section of the event, for seats of the
+     * given type or of any type when null. Sections without available seats are left out.
+     */
+    public SortedMap<String, BigDecimal> findMinPricePerSection(Long eventId, SeatType type) {
+        SortedMap<String, BigDecimal> minimums = new TreeMap<>();
+        acquire(eventId).minPricePerSection(type)
+                .forEach((section, cents) -> minimums.put(section, BigDecimal.valueOf(cents, 2)));
+        return minimums;
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSeatsChanged(SeatsChangedEvent event) {
+        if (!event.hasTransitions()) {
+            event.getEventIds().forEach(this::invalidate);
+            return;
+        }
+        
+        for (SeatTransition transition : event.getTransitions()) {
+            EventPriceIndex index = indexes.get(transition.getEventId());
+            if (index != null && index.apply(transition.getSeatId(), transition.getStatus().getCode(),
+                    transition.getVersion()) == ApplyResult.UNKNOWN_SEAT) {
+                invalidate(transition.getEventId());
+            }
+        }
+    }
+    
+    public void invalidate(Long eventId) {
+        indexes.remove(eventId);
+    }
+    
+    // Throws ResourceNotFoundException when the event has no seats
+    private EventPriceIndex acquire(Long eventId) {
+        EventPriceIndex index = indexes.acquire(eventId,
+                cached -> System.currentTimeMillis() - cached.loadedAt > maxAgeMs);
+        if (index == null) {
+            throw new ResourceNotFoundException("No seats found for event: " + eventId);
+        }
+        return index;
+    }
+    
+    private boolean load(EventPriceIndex index) {
+        List<SeatRow> rows = new ArrayList<>();
+        eventSeatLoader.load(index.getEventId(), (id, version, status, priceInCents, type, section, rowNumber, seatNumber) ->
+                rows.add(new SeatRow(id, version, status, priceInCents, SeatType.fromCode(type),
+                        section, rowNumber, seatNumber)));
+        if (rows.isEmpty()) {
+            return false;
+        }
+        index.load(rows);
+        loads.increment();
+        return true;
+    }
+    
+    private double eventCount() {
+        return indexes.size();
+    }
+    
+    // Bounds beyond the range of a long are clamped to it, no seat price lies outside anyway.
+    // Compared before scaling, which would build a huge number for a bound like 1E+999999999.
+    private static long toCents(BigDecimal price, RoundingMode rounding) {
+        if (price.compareTo(MAX_PRICE) > 0) {
+            return Long.MAX_VALUE;
+        }
+        if (price.compareTo(MIN_PRICE) < 0) {
+            return Long.MIN_VALUE;
+        }
+        return price.setScale(2, rounding).unscaledValue().longValueExact();
+    }
+}
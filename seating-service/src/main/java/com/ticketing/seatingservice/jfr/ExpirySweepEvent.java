@@ -0,0 +1,46 @@
+package com.ticketing.seatingservice.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One run of a scheduled expiry sweep: expired reservations, or expired seat holds
+ * without a reservation.
+ */
+@Name("com.ticketing.seating.ExpirySweep")
+@Label("Expiry Sweep")
+@Category({"Ticketing", "Seating"})
+@Description("Scheduled release of expired reservations and seat holds")
+@StackTrace(false)
+public class ExpirySweepEvent extends Event {
+    
+    @Label("Sweep")
+    String sweep;
+    
+    @Label("Reservations Expired")
+    int reservations;
+    
+    @Label("Seats Released")
+    int seats;
+    
+    public static ExpirySweepEvent begin(String sweep) {
+        ExpirySweepEvent event = new ExpirySweepEvent();
+        if (event.isEnabled()) {
+            event.sweep = sweep;
+            event.begin();
+        }
+        return event;
+    }
+    
+    public void end(int reservations, int seats) {
+        if (shouldCommit()) {
+            this.reservations = reservations;
+            this.seats = seats;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.ticketing.seatingservice.jfr;
+
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * JpaTransactionManager that records each commit as a TransactionCommitEvent.
+ */
+public class JfrJpaTransactionManager extends JpaTransactionManager {
+    
+    @Override
+    protected void doCommit(DefaultTransactionStatus status) throws TransactionException {
+        TransactionCommitEvent event = new TransactionCommitEvent();
+        if (!event.isEnabled()) {
+            super.doCommit(status);
+            return;
+        }
+        
+        event.begin();
+        try {
+            super.doCommit(status);
+            event.succeeded = true;
+        } finally {
+            if (event.shouldCommit()) {
+                event.transaction = TransactionSynchronizationManager.getCurrentTransactionName();
+                event.readOnly = status.isReadOnly();
+                event.commit();
+            }
+        }
+    }
+}
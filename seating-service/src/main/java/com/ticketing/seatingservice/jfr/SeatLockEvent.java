@@ -0,0 +1,56 @@
+package com.ticketing.seatingservice.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Time spent acquiring row locks on seats or a reservation, which is where concurrent
+ * reservations of the same seats queue up.
+ *
+ * Usage, cheap enough for the hot path when the event is disabled:
+ *
+ *   SeatLockEvent lock = SeatLockEvent.begin("reserve", eventId, seatIds.size());
+ *   List&lt;Seat&gt; seats = seatRepository.findByEventIdAndIdInWithLock(eventId, seatIds);
+ *   lock.end(seats.size());
+ */
+@Name("com.ticketing.seating.SeatLock")
+@Label("Seat Lock")
+@Category({"Ticketing", "Seating"})
+@Description("Acquisition of seat or reservation row locks")
+@StackTrace(false)
+public class SeatLockEvent extends Event {
+    
+    @Label("Operation")
+    String operation;
+    
+    @Label("Event Id")
+    long eventId;
+    
+    @Label("Rows Requested")
+    int requested;
+    
+    @Label("Rows Locked")
+    int locked;
+    
+    public static SeatLockEvent begin(String operation, Long eventId, int requested) {
+        SeatLockEvent event = new SeatLockEvent();
+        if (event.isEnabled()) {
+            event.operation = operation;
+            event.eventId = eventId != null ? eventId : 0;
+            event.requested = requested;
+            event.begin();
+        }
+        return event;
+    }
+    
+    public void end(int locked) {
+        if (shouldCommit()) {
+            this.locked = locked;
+            commit();
+        }
+    }
+}
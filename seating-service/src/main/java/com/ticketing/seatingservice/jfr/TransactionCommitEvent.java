@@ -0,0 +1,29 @@
+package com.ticketing.seatingservice.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Commit of a JPA transaction, including Hibernate's flush of pending changes. Slow
+ * commits under load usually mean contention on the rows the transaction wrote.
+ */
+@Name("com.ticketing.seating.TransactionCommit")
+@Label("Transaction Commit")
+@Category({"Ticketing", "Seating"})
+@Description("Commit of a JPA transaction")
+@StackTrace(false)
+public class TransactionCommitEvent extends Event {
+    
+    @Label("Transaction")
+    String transaction;
+    
+    @Label("Read Only")
+    boolean readOnly;
+    
+    @Label("Succeeded")
+    boolean succeeded;
+}
@@ -0,0 +1,47 @@
+package com.ticketing.seatingservice.json;
+
+/**
+ * Fields of a seat that can be requested through the fields= parameter, in the order
+ * they appear in SeatDTO. Each maps to the seats column it is read from.
+ */
+public enum SeatField {
+    ID("id", "id"),
+    EVENT_ID("eventId", "event_id"),
+    SEAT_NUMBER("seatNumber", "seat_number"),
+    ROW_NUMBER("rowNumber", "row_number"),
+    SECTION("section", "section"),
+    TYPE("type", "type"),
+    PRICE("price", "price"),
+    STATUS("status", "status"),
+    RESERVED_BY("reservedBy", "reserved_by"),
+    ORDER_ID("orderId", "order_id"),
+    RESERVED_AT("reservedAt", "reserved_at"),
+    RESERVATION_EXPIRES_AT("reservationExpiresAt", "reservation_expires_at"),
+    CREATED_AT("createdAt", "created_at"),
+    UPDATED_AT("updatedAt", "updated_at");
+    
+    private final String jsonName;
+    private final String column;
+    
+    SeatField(String jsonName, String column) {
+        this.jsonName = jsonName;
+        this.column = column;
+    }
+    
+    public String getJsonName() {
+        return jsonName;
+    }
+    
+    public String getColumn() {
+        return column;
+    }
+    
+    public static SeatField fromJsonName(String name) {
+        for (SeatField field : values()) {
+            if (field.jsonName.equals(name)) {
+                return field;
+            }
+        }
+        throw new IllegalArgumentException("Unknown seat field: " + name);
+    }
+}
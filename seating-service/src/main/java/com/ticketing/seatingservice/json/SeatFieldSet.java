@@ -0,0 +1,78 @@
+package com.ticketing.seatingservice.json;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Immutable set of seat fields, parsed from a comma separated fields= parameter.
+ * The bit mask identifies the field set in cache keys.
+ */
+public final class SeatFieldSet {
+    
+    public static final SeatFieldSet ALL = new SeatFieldSet((1 << SeatField.values().length) - 1);
+    
+    private final int mask;
+    private final List<SeatField> fields;
+    
+    private SeatFieldSet(int mask) {
+        this.mask = mask;
+        List<SeatField> selected = new ArrayList<>();
+        for (SeatField field : SeatField.values()) {
+            if ((mask & (1 << field.ordinal())) != 0) {
+                selected.add(field);
+            }
+        }
+        this.fields = Collections.unmodifiableList(selected);
+    }
+    
+    /**
+     * Parses e.g. "id,seatNumber,status". A missing or blank parameter selects all fields.
+     */
+    public static SeatFieldSet parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return ALL;
+        }
+        
+        int mask = 0;
+        for (String name : fields.split(",")) {
+            if (!name.isBlank()) {
+                mask |= 1 << SeatField.fromJsonName(name.trim()).ordinal();
+            }
+        }
+        return mask == 0 ? ALL : new SeatFieldSet(mask);
+    }
+    
+    public int getMask() {
+        return mask;
+    }
+    
+    public List<SeatField> getFields() {
+        return fields;
+    }
+    
+    // Column list for a SELECT, in the same order as getFields()
+    public String columns() {
+        return fields.stream()
+                .map(SeatField::getColumn)
+                .collect(Collectors.joining(", "));
+    }
+    
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof SeatFieldSet && ((SeatFieldSet) o).mask == mask;
+    }
+    
+    @Override
+    public int hashCode() {
+        return mask;
+    }
+    
+    @Override
+    public String toString() {
+        return fields.stream()
+                .map(SeatField::getJsonName)
+                .collect(Collectors.joining(","));
+    }
+}
@@ -0,0 +1,341 @@
+package com.ticketing.seatingservice.json;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ticketing.seatingservice.exception.ResourceNotFoundException;
+import com.ticketing.seatingservice.model.SeatStatus;
+import com.ticketing.seatingservice.model.SeatType;
+import com.ticketing.seatingservice.state.SeatStateStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Writes seat JSON straight from JDBC result sets to an output stream.
+ *
+ * Only the columns of the requested fields are selected, rows are fetched from a cursor in
+ * chunks and each row is written as soon as it is read, so no entity, SeatDTO or response
+ * object is ever built. The output matches what Jackson writes for SeatDTO and
+ * SeatAvailabilityResponse, restricted to the requested fields. Reads by event go through
+ * effective_seats, which includes the untouched seats of events created from a venue layout.
+ */
+@Component
+@Slf4j
+public class SeatJsonWriter {
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final SeatStateStore seatStateStore;
+    private final Counter unprunedOrderLookups;
+    private final int maxAvailabilityEvents;
+    private final int availabilityQueryEvents;
+    
+    public SeatJsonWriter(DataSource dataSource, ObjectMapper objectMapper, SeatStateStore seatStateStore,
+                          MeterRegistry meterRegistry,
+                          @Value("${seating.streaming.fetch-size:500}") int fetchSize,
+                          @Value("${seating.event-availability.max-events:1000}") int maxAvailabilityEvents,
+                          @Value("${seating.event-availability.query-events:100}") int availabilityQueryEvents) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        this.objectMapper = objectMapper;
+        this.seatStateStore = seatStateStore;
+        this.unprunedOrderLookups = Counter.builder("seat_lookups_unpruned")
+                .description("Seat lookups by id that probed every event's partition")
+                .tag("operation", "order")
+                .register(meterRegistry);
+        this.maxAvailabilityEvents = maxAvailabilityEvents;
+        this.availabilityQueryEvents = availabilityQueryEvents;
+    }
+    
+    @Transactional(readOnly = true)
+    public void writeSeatsByEvent(Long eventId, SeatStatus status, SeatFieldSet fields, OutputStream out) {
+        write(out, json -> {
+            json.writeStartArray();
+            if (status != null) {
+                writeRows(json, fields, "SELECT " + fields.columns() + " FROM effective_seats WHERE event_id = ? AND status = ?",
+                        eventId, status.getCode());
+            } else {
+                writeRows(json, fields, "SELECT " + fields.columns() + " FROM effective_seats WHERE event_id = ?", eventId);
+            }
+            json.writeEndArray();
+        });
+    }
+    
+    /**
+     * Writes the seats of an order. The lookup is scoped to the order's event, given by the
+     * caller or recorded on the order's allocated reservation, so it only probes that event's
+     * partition. An order whose event neither tells probes the partitions of every event.
+     */
+    @Transactional(readOnly = true)
+    public void writeSeatsByOrder(Long eventId, String orderId, SeatFieldSet fields, OutputStream out) {
+        Long orderEventId = eventId != null ? eventId : findOrderEvent(orderId);
+        if (orderEventId == null) {
+            unprunedOrderLookups.increment();
+        }
+        write(out, json -> {
+            json.writeStartArray();
+            long written = orderEventId != null
+                    ? writeRows(json, fields, "SELECT " + fields.columns() + " FROM seats WHERE event_id = ? AND order_id = ?",
+                            orderEventId, orderId)
+                    : writeRows(json, fields, "SELECT " + fields.columns() + " FROM seats WHERE order_id = ?", orderId);
+            if (written == 0) {
+                // Seats of finished events only live in the archive, which is slower to query
+                log.debug("No live seats for order: {}, checking archive", orderId);
+                writeRows(json, fields,
+                        "SELECT " + archiveColumns(fields) + " FROM seats_archive WHERE order_id = ?", orderId);
+            }
+            json.writeEndArray();
+        });
+    }
+    
+    // Through idx_reservations_order_id; null unless the order's reservations are all of one event
+    private Long findOrderEvent(String orderId) {
+        List<Long> eventIds = jdbcTemplate.queryForList(
+                "SELECT DISTINCT event_id FROM reservations WHERE order_id = ? LIMIT 2", Long.class, orderId);
+        return eventIds.size() == 1 ? eventIds.get(0) : null;
+    }
+    
+    /**
+     * Writes an event's availability document. The counts come from one grouped query over
+     * idx_seats_availability; both queries read the same snapshot.
+     */
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public void writeAvailability(Long eventId, SeatFieldSet fields, OutputStream out) {
+        long[] countsByStatus = new long[SeatStatus.values().length];
+        Map<String, Long> availableBySection = new LinkedHashMap<>();
+        
+        jdbcTemplate.query("SELECT status, section, count(*) FROM effective_seats WHERE event_id = ? GROUP BY status, section",
+                rs -> {
+                    SeatStatus status = SeatStatus.fromCode(rs.getShort(1));
+                    long count = rs.getLong(3);
+                    countsByStatus[status.ordinal()] += count;
+                    if (status == SeatStatus.AVAILABLE) {
+                        availableBySection.put(rs.getString(2), count);
+                    }
+                }, eventId);
+        
+        long total = 0;
+        for (long count : countsByStatus) {
+            total += count;
+        }
+        if (total == 0) {
+            throw new ResourceNotFoundException("No seats found for event: " + eventId);
+        }
+        long totalSeats = total;
+        
+        write(out, json -> {
+            json.writeStartObject();
+            json.writeNumberField("eventId", eventId);
+            json.writeNumberField("totalSeats", totalSeats);
+            json.writeNumberField("availableSeats", countsByStatus[SeatStatus.AVAILABLE.ordinal()]);
+            json.writeNumberField("reservedSeats", countsByStatus[SeatStatus.RESERVED.ordinal()]);
+            json.writeNumberField("allocatedSeats", countsByStatus[SeatStatus.ALLOCATED.ordinal()]);
+            
+            json.writeArrayFieldStart("availableSeatsList");
+            writeRows(json, fields, "SELECT " + fields.columns() + " FROM effective_seats WHERE event_id = ? AND status = ?",
+                    eventId, SeatStatus.AVAILABLE.getCode());
+            json.writeEndArray();
+            
+            json.writeObjectFieldStart("availabilityBySection");
+            for (Map.Entry<String, Long> entry : availableBySection.entrySet()) {
+                json.writeNumberField(entry.getKey(), entry.getValue());
+            }
+            json.writeEndObject();
+            json.writeEndObject();
+        });
+    }
+    
+    /**
+     * Writes the seat counts of many events as a JSON array with one object per event
+     * that has seats, in no particular order. Events held in the in-memory seat state are
+     * answered from its counters; the others are counted with one grouped query per
+     * seating.event-availability.query-events ids, and each batch is flushed as soon as
+     * it is written.
+     */
+    @Transactional(readOnly = true)
+    public void writeEventAvailability(Collection<Long> eventIds, OutputStream out) {
+        Set<Long> ids = new LinkedHashSet<>(eventIds);
+        ids.remove(null);
+        if (ids.isEmpty()) {
+            throw new IllegalArgumentException("At least one event ID is required");
+        }
+        if (ids.size() > maxAvailabilityEvents) {
+            throw new IllegalArgumentException("At most " + maxAvailabilityEvents + " events can be looked up at once");
+        }
+        
+        write(out, json -> {
+            json.writeStartArray();
+            List<Long> batch = new ArrayList<>(availabilityQueryEvents);
+            for (Long eventId : ids) {
+                long[] counts = seatStateStore.countByStatus(eventId);
+                if (counts != null) {
+                    writeEventCounts(json, eventId, counts);
+                    continue;
+                }
+                batch.add(eventId);
+                if (batch.size() == availabilityQueryEvents) {
+                    writeEventCounts(json, batch);
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) {
+                writeEventCounts(json, batch);
+            }
+            json.writeEndArray();
+        });
+    }
+    
+    // Counts the events with one grouped query; rows come ordered by event
+    private void writeEventCounts(JsonGenerator json, List<Long> eventIds) throws IOException {
+        String placeholders = String.join(", ", Collections.nCopies(eventIds.size(), "?"));
+        long[] current = {-1};
+        long[] counts = new long[SeatStatus.values().length];
+        
+        jdbcTemplate.query("SELECT event_id, status, count(*) FROM effective_seats WHERE event_id IN (" + placeholders + ") " +
+                        "GROUP BY event_id, status ORDER BY event_id",
+                rs -> {
+                    long eventId = rs.getLong(1);
+                    try {
+                        if (eventId != current[0] && current[0] != -1) {
+                            writeEventCounts(json, current[0], counts);
+                            Arrays.fill(counts, 0);
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    current[0] = eventId;
+                    counts[SeatStatus.fromCode(rs.getShort(2)).ordinal()] += rs.getLong(3);
+                }, eventIds.toArray());
+        if (current[0] != -1) {
+            writeEventCounts(json, current[0], counts);
+        }
+        json.flush();
+    }
+    
+    private void writeEventCounts(JsonGenerator json, long eventId, long[] countsByStatus) throws IOException {
+        long total = 0;
+        for (long count : countsByStatus) {
+            total += count;
+        }
+        json.writeStartObject();
+        json.writeNumberField("eventId", eventId);
+        json.writeNumberField("totalSeats", total);
+        json.writeNumberField("availableSeats", countsByStatus[SeatStatus.AVAILABLE.ordinal()]);
+        json.writeNumberField("reservedSeats", countsByStatus[SeatStatus.RESERVED.ordinal()]);
+        json.writeNumberField("allocatedSeats", countsByStatus[SeatStatus.ALLOCATED.ordinal()]);
+        json.writeEndObject();
+    }
+    
+    private long writeRows(JsonGenerator json, SeatFieldSet fields, String sql, Object... args) {
+        List<SeatField> selected = fields.getFields();
+        long[] written = new long[1];
+        
+        jdbcTemplate.query(sql, rs -> {
+            try {
+                json.writeStartObject();
+                for (int i = 0; i < selected.size(); i++) {
+                    writeField(json, selected.get(i), rs, i + 1);
+                }
+                json.writeEndObject();
+                written[0]++;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, args);
+        return written[0];
+    }
+    
+    private void writeField(JsonGenerator json, SeatField field, ResultSet rs, int column)
+            throws IOException, SQLException {
+        json.writeFieldName(field.getJsonName());
+        switch (field) {
+            case ID:
+            case EVENT_ID:
+            case RESERVED_BY:
+                long number = rs.getLong(column);
+                if (rs.wasNull()) {
+                    json.writeNull();
+                } else {
+                    json.writeNumber(number);
+                }
+                break;
+            case TYPE:
+                json.writeString(SeatType.fromCode(rs.getShort(column)).name());
+                break;
+            case STATUS:
+                json.writeString(SeatStatus.fromCode(rs.getShort(column)).name());
+                break;
+            case PRICE:
+                BigDecimal price = rs.getBigDecimal(column);
+                if (price == null) {
+                    json.writeNull();
+                } else {
+                    json.writeNumber(price);
+                }
+                break;
+            case RESERVED_AT:
+            case RESERVATION_EXPIRES_AT:
+            case CREATED_AT:
+            case UPDATED_AT:
+                LocalDateTime timestamp = rs.getObject(column, LocalDateTime.class);
+                if (timestamp == null) {
+                    json.writeNull();
+                } else {
+                    // Same format Jackson uses for LocalDateTime with WRITE_DATES_AS_TIMESTAMPS disabled
+                    json.writeString(DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(timestamp));
+                }
+                break;
+            default:
+                json.writeString(rs.getString(column));
+        }
+    }
+    
+    // seats_archive does not keep the reservation timestamps
+    private String archiveColumns(SeatFieldSet fields) {
+        return fields.getFields().stream()
+                .map(field -> field == SeatField.RESERVED_AT || field == SeatField.RESERVATION_EXPIRES_AT
+                        ? "NULL::timestamp" : field.getColumn())
+                .collect(Collectors.joining(", "));
+    }
+    
+    private void write(OutputStream out, JsonWriterCallback callback) {
+        try (JsonGenerator json = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8)) {
+            // The caller owns the stream
+            json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            callback.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    @FunctionalInterface
+    private interface JsonWriterCallback {
+        void write(JsonGenerator json) throws IOException;
+    }
+}
@@ -0,0 +1,196 @@
+package com.ticketing.seatingservice.layout;
+
+import com.ticketing.seatingservice.model.SeatStatus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+/**
+ * Reads every seat of an event in ascending id order, for the in-memory views that hold
+ * whole events (SeatStateStore, SeatPriceIndex).
+ *
+ * For an event created from a venue layout only the seats that have been reserved or
+ * blocked at some point have a row. Those rows are read from the event's partition and
+ * merged with the layout, which is read once and then kept in memory, so loading such an
+ * event costs its few touched rows instead of one row per seat.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class EventSeatLoader {
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final MeterRegistry meterRegistry;
+    
+    @Value("${seating.layouts.cache-size:16}")
+    private int cacheSize;
+    
+    // Access-ordered, guarded by "this"
+    private final LinkedHashMap<Long, LayoutSeats> layouts = new LinkedHashMap<>(16, 0.75f, true);
+    
+    private Counter layoutLoads;
+    
+    @PostConstruct
+    void registerMetrics() {
+        layoutLoads = Counter.builder("venue_layout_loads")
+                .description("Venue layouts read into memory from the database")
+                .register(meterRegistry);
+        Gauge.builder("venue_layouts_cached", this, EventSeatLoader::cachedLayouts)
+                .description("Venue layouts held in memory")
+                .register(meterRegistry);
+    }
+    
+    /**
+     * Calls the handler for each seat of the event, in ascending id order, and returns the
+     * number of seats.
+     */
+    public int load(long eventId, SeatRowHandler handler) {
+        List<SeatRow> rows = jdbcTemplate.query(
+                "SELECT id, COALESCE(version, 0), status, price, type, section, row_number, seat_number " +
+                        "FROM seats WHERE event_id = ? ORDER BY id",
+                (rs, rowNum) -> new SeatRow(
+                        rs.getLong(1),
+                        rs.getLong(2),
+                        rs.getShort(3),
+                        toCents(rs.getBigDecimal(4)),
+                        rs.getShort(5),
+                        rs.getString(6),
+                        rs.getString(7),
+                        rs.getString(8)),
+                eventId);
+        
+        List<Long> layoutIds = jdbcTemplate.queryForList(
+                "SELECT layout_id FROM event_layouts WHERE event_id = ?", Long.class, eventId);
+        if (layoutIds.isEmpty()) {
+            rows.forEach(row -> row.emit(handler));
+            return rows.size();
+        }
+        
+        // Template ids ascend with the seat index, and a touched seat's row keeps its template id
+        LayoutSeats layout = layout(layoutIds.get(0));
+        int seats = 0;
+        int next = 0;
+        for (SeatRow row : rows) {
+            while (next < layout.size() && TemplateSeatId.of(eventId, layout.indexes[next]) < row.id) {
+                emitTemplateSeat(eventId, layout, next++, handler);
+                seats++;
+            }
+            if (next < layout.size() && TemplateSeatId.of(eventId, layout.indexes[next]) == row.id) {
+                next++;
+            }
+            row.emit(handler);
+            seats++;
+        }
+        while (next < layout.size()) {
+            emitTemplateSeat(eventId, layout, next++, handler);
+            seats++;
+        }
+        return seats;
+    }
+    
+    private static void emitTemplateSeat(long eventId, LayoutSeats layout, int i, SeatRowHandler handler) {
+        handler.seat(TemplateSeatId.of(eventId, layout.indexes[i]), 0, SeatStatus.AVAILABLE.getCode(),
+                layout.pricesInCents[i], layout.types[i], layout.sections[i], layout.rowNumbers[i],
+                layout.seatNumbers[i]);
+    }
+    
+    private LayoutSeats layout(long layoutId) {
+        synchronized (this) {
+            LayoutSeats layout = layouts.get(layoutId);
+            if (layout != null) {
+                return layout;
+            }
+        }
+        
+        // Read outside the lock; two threads loading the same layout just read it twice
+        List<SeatRow> seats = jdbcTemplate.query(
+                "SELECT seat_index, price, type, section, row_number, seat_number " +
+                        "FROM venue_layout_seats WHERE layout_id = ? ORDER BY seat_index",
+                (rs, rowNum) -> new SeatRow(
+                        rs.getInt(1),
+                        0,
+                        SeatStatus.AVAILABLE.getCode(),
+                        toCents(rs.getBigDecimal(2)),
+                        rs.getShort(3),
+                        rs.getString(4),
+                        rs.getString(5),
+                        rs.getString(6)),
+                layoutId);
+        
+        LayoutSeats layout = new LayoutSeats(seats.size());
+        for (int i = 0; i < seats.size(); i++) {
+            SeatRow seat = seats.get(i);
+            layout.indexes[i] = (int) seat.id;
+            layout.pricesInCents[i] = seat.priceInCents;
+            layout.types[i] = seat.type;
+            layout.sections[i] = seat.section;
+            layout.rowNumbers[i] = seat.rowNumber;
+            layout.seatNumbers[i] = seat.seatNumber;
+        }
+        layoutLoads.increment();
+        log.debug("Read venue layout {} with {} seats", layoutId, layout.size());
+        
+        synchronized (this) {
+            layouts.put(layoutId, layout);
+            while (layouts.size() > cacheSize) {
+                Long eldest = layouts.keySet().iterator().next();
+                layouts.remove(eldest);
+            }
+        }
+        return layout;
+    }
+    
+    private synchronized double cachedLayouts() {
+        return layouts.size();
+    }
+    
+    // seats.price and venue_layout_seats.price are NUMERIC(10, 2)
+    private static long toCents(BigDecimal price) {
+        return price.setScale(2, RoundingMode.UNNECESSARY).unscaledValue().longValueExact();
+    }
+    
+    @FunctionalInterface
+    public interface SeatRowHandler {
+        void seat(long id, long version, short status, long priceInCents, short type,
+                  String section, String rowNumber, String seatNumber);
+    }
+    
+    private static final class SeatRow {
+        final long id;
+        final long version;
+        final short status;
+        final long priceInCents;
+        final short type;
+        final String section;
+        final String rowNumber;
+        final String seatNumber;
+        
+        SeatRow(long id, long version, short status, long priceInCents, short type,
+                String section, String rowNumber, String seatNumber) {
+            this.id = id;
+            this.version = version;
+            this.status = status;
+            this.priceInCents = priceInCents;
+            this.type = type;
+            this.section = section;
+            this.rowNumber = rowNumber;
+            this.seatNumber = seatNumber;
+        }
+        
+        void emit(SeatRowHandler handler) {
+            handler.seat(id, version, status, priceInCents, type, section, rowNumber, seatNumber);
+        }
+    }
+}
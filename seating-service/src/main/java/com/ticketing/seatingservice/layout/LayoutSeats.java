@@ -0,0 +1,28 @@
+package com.ticketing.seatingservice.layout;
+
+/**
+ * Seats of a venue layout in seat index order, in parallel arrays. Layouts never change,
+ * so one instance is shared by every event created from the layout.
+ */
+final class LayoutSeats {
+    
+    final int[] indexes;
+    final String[] seatNumbers;
+    final String[] rowNumbers;
+    final String[] sections;
+    final short[] types;
+    final long[] pricesInCents;
+    
+    LayoutSeats(int size) {
+        indexes = new int[size];
+        seatNumbers = new String[size];
+        rowNumbers = new String[size];
+        sections = new String[size];
+        types = new short[size];
+        pricesInCents = new long[size];
+    }
+    
+    int size() {
+        return indexes.length;
+    }
+}
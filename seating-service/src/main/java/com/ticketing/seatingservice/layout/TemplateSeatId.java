@@ -0,0 +1,37 @@
+package com.ticketing.seatingservice.layout;
+
+/**
+ * Ids of the seats of events created from a venue layout, see V7__create_venue_layouts.sql:
+ *
+ *   2^52 | event id << 24 | seat index
+ *
+ * They sort after every id handed out by the seats sequence and stay below 2^53, so they
+ * survive JSON clients that parse numbers as doubles.
+ */
+public final class TemplateSeatId {
+    
+    private static final long FLAG = 1L << 52;
+    private static final int INDEX_BITS = 24;
+    
+    public static final int MAX_SEAT_INDEX = (1 << INDEX_BITS) - 1;
+    public static final long MAX_EVENT_ID = (1L << 28) - 1;
+    
+    private TemplateSeatId() {
+    }
+    
+    public static long of(long eventId, int seatIndex) {
+        return FLAG | eventId << INDEX_BITS | seatIndex;
+    }
+    
+    public static boolean isTemplate(long seatId) {
+        return seatId >>> (INDEX_BITS + 28) == 1;
+    }
+    
+    public static long eventId(long seatId) {
+        return (seatId & ~FLAG) >>> INDEX_BITS;
+    }
+    
+    public static int seatIndex(long seatId) {
+        return (int) (seatId & MAX_SEAT_INDEX);
+    }
+}
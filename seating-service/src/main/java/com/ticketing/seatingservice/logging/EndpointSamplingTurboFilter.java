@@ -0,0 +1,160 @@
+package com.ticketing.seatingservice.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.MDC;
+import org.slf4j.Marker;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Thins out the INFO and DEBUG log events of request threads, configured in
+ * logback-spring.xml for the prod profile.
+ *
+ * Events are kept for a share of the requests of each endpoint: the rule for the endpoint
+ * in the MDC (see RequestLogContextFilter), or the default rate. The decision is taken per
+ * request id, so a request is logged either completely or not at all. On top of that, each
+ * endpoint may log at most maxPerSecond events a second. WARN and above, and events outside
+ * of a request, always pass.
+ *
+ * Rules are "METHOD /path=rate" entries separated by commas, with paths as in the endpoint
+ * MDC value, e.g. "GET /v1/seats/availability=0.01,POST /v1/seats/reserve=0.1".
+ */
+public class EndpointSamplingTurboFilter extends TurboFilter {
+    
+    private static final int MAX_BUCKETS = 1024;
+    
+    private volatile double defaultRate = 1.0;
+    private volatile Map<String, Double> rates = Map.of();
+    private volatile int maxPerSecond;
+    
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final AtomicLong sampledOut = new AtomicLong();
+    private final AtomicLong rateLimited = new AtomicLong();
+    
+    public void setDefaultRate(double defaultRate) {
+        if (defaultRate < 0 || defaultRate > 1) {
+            throw new IllegalArgumentException("defaultRate must be between 0 and 1: " + defaultRate);
+        }
+        this.defaultRate = defaultRate;
+    }
+    
+    public void setRules(String rules) {
+        Map<String, Double> parsed = new HashMap<>();
+        if (rules != null) {
+            for (String rule : rules.split(",")) {
+                if (rule.isBlank()) {
+                    continue;
+                }
+                int separator = rule.lastIndexOf('=');
+                if (separator < 0) {
+                    throw new IllegalArgumentException("Sampling rule must be \"METHOD /path=rate\": " + rule);
+                }
+                double rate = Double.parseDouble(rule.substring(separator + 1).trim());
+                if (rate < 0 || rate > 1) {
+                    throw new IllegalArgumentException("Sampling rate must be between 0 and 1: " + rule);
+                }
+                parsed.put(rule.substring(0, separator).trim().replaceAll("\\s+", " "), rate);
+            }
+        }
+        rates = Map.copyOf(parsed);
+    }
+    
+    /**
+     * Events each endpoint may log per second after sampling, 0 for no limit.
+     */
+    public void setMaxPerSecond(int maxPerSecond) {
+        this.maxPerSecond = Math.max(0, maxPerSecond);
+        buckets.clear();
+    }
+    
+    public long getSampledOut() {
+        return sampledOut.get();
+    }
+    
+    public long getRateLimited() {
+        return rateLimited.get();
+    }
+    
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (!isStarted() || level.isGreaterOrEqual(Level.WARN) || !level.isGreaterOrEqual(logger.getEffectiveLevel())) {
+            return FilterReply.NEUTRAL;
+        }
+        String endpoint = MDC.get(RequestLogContextFilter.ENDPOINT);
+        if (endpoint == null) {
+            return FilterReply.NEUTRAL;
+        }
+        
+        double rate = rates.getOrDefault(endpoint, defaultRate);
+        if (rate < 1.0 && !sampled(MDC.get(RequestLogContextFilter.REQUEST_ID), rate)) {
+            if (format != null) {
+                sampledOut.incrementAndGet();
+            }
+            return FilterReply.DENY;
+        }
+        
+        int limit = maxPerSecond;
+        if (limit > 0 && format != null) {
+            // isDebugEnabled() and the like arrive without a format and do not take a token
+            if (!bucket(endpoint, limit).tryTake()) {
+                rateLimited.incrementAndGet();
+                return FilterReply.DENY;
+            }
+        }
+        return FilterReply.NEUTRAL;
+    }
+    
+    private static boolean sampled(String requestId, double rate) {
+        if (requestId == null) {
+            return true;
+        }
+        // Spread the hash bits, String.hashCode alone is poorly distributed for similar ids
+        int hash = requestId.hashCode() * 0x9E3779B9;
+        hash ^= hash >>> 16;
+        return (hash & 0x7FFFFFFF) < rate * Integer.MAX_VALUE;
+    }
+    
+    private TokenBucket bucket(String endpoint, int limit) {
+        TokenBucket bucket = buckets.get(endpoint);
+        if (bucket == null) {
+            if (buckets.size() >= MAX_BUCKETS) {
+                // Paths that are not routes, e.g. scanners probing URLs, share one bucket
+                endpoint = "other";
+            }
+            bucket = buckets.computeIfAbsent(endpoint, key -> new TokenBucket(limit));
+        }
+        return bucket;
+    }
+    
+    private static class TokenBucket {
+        private final int capacity;
+        private final double tokensPerNano;
+        private double tokens;
+        private long refilledAt;
+        
+        TokenBucket(int perSecond) {
+            this.capacity = perSecond;
+            this.tokensPerNano = perSecond / (double) TimeUnit.SECONDS.toNanos(1);
+            this.tokens = perSecond;
+            this.refilledAt = System.nanoTime();
+        }
+        
+        synchronized boolean tryTake() {
+            long now = System.nanoTime();
+            tokens = Math.min(capacity, tokens + (now - refilledAt) * tokensPerNano);
+            refilledAt = now;
+            if (tokens < 1) {
+                return false;
+            }
+            tokens--;
+            return true;
+        }
+    }
+}
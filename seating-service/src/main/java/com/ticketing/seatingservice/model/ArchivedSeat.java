@@ -0,0 +1,66 @@
+package com.ticketing.seatingservice.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import javax.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Seat of a finished event, moved out of the hot seats table by the archiver.
+ * Rows are written by the archive_seat_batch() database function and are read-only here.
+ */
+@Entity
+@Immutable
+@Table(name = "seats_archive")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ArchivedSeat {
+    
+    @Id
+    private Long id;
+    
+    @Column(name = "event_id", nullable = false)
+    private Long eventId;
+    
+    @Column(name = "seat_number", nullable = false)
+    private String seatNumber;
+    
+    @Column(name = "row_number", nullable = false)
+    private String rowNumber;
+    
+    @Column(name = "section", nullable = false)
+    private String section;
+    
+    @Convert(converter = SeatTypeConverter.class)
+    @Column(nullable = false)
+    private SeatType type;
+    
+    @Column(nullable = false, precision = 10, scale = 2)
+    private BigDecimal price;
+    
+    @Convert(converter = SeatStatusConverter.class)
+    @Column(nullable = false)
+    private SeatStatus status;
+    
+    @Column(name = "reserved_by")
+    private Long reservedBy;
+    
+    @Column(name = "order_id")
+    private String orderId;
+    
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+    
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+    
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+}
@@ -0,0 +1,72 @@
+package com.ticketing.seatingservice.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import javax.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Seat as seen through the effective_seats view: a row of seats, or the layout seat of an
+ * event created from a venue layout that has not been written as a row yet. Queries must
+ * filter by event id, the view can only use indexes through it.
+ */
+@Entity
+@Immutable
+@Table(name = "effective_seats")
+@Data
+@NoArgsConstructor
+public class EffectiveSeat {
+    
+    @Id
+    private Long id;
+    
+    @Column(name = "event_id", nullable = false)
+    private Long eventId;
+    
+    @Column(name = "seat_number", nullable = false)
+    private String seatNumber;
+    
+    @Column(name = "row_number", nullable = false)
+    private String rowNumber;
+    
+    @Column(name = "section", nullable = false)
+    private String section;
+    
+    @Convert(converter = SeatTypeConverter.class)
+    @Column(nullable = false)
+    private SeatType type;
+    
+    @Column(nullable = false, precision = 10, scale = 2)
+    private BigDecimal price;
+    
+    @Convert(converter = SeatStatusConverter.class)
+    @Column(nullable = false)
+    private SeatStatus status;
+    
+    @Column(name = "reserved_by")
+    private Long reservedBy;
+    
+    @Column(name = "order_id")
+    private String orderId;
+    
+    @Column(name = "reserved_at")
+    private LocalDateTime reservedAt;
+    
+    @Column(name = "reservation_expires_at")
+    private LocalDateTime reservationExpiresAt;
+    
+    private Long version;
+    
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+    
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+    
+    @Column(name = "reservation_id")
+    private UUID reservationId;
+}
@@ -0,0 +1,37 @@
+package com.ticketing.seatingservice.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Time-bounded ownership of an event by one replica in cluster mode.
+ */
+@Entity
+@Table(name = "event_leases")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EventLease {
+    
+    @Id
+    @Column(name = "event_id")
+    private Long eventId;
+    
+    @Column(name = "owner_node_id", nullable = false)
+    private String ownerNodeId;
+    
+    @Column(name = "owner_url", nullable = false)
+    private String ownerUrl;
+    
+    @Column(name = "acquired_at", nullable = false)
+    private LocalDateTime acquiredAt;
+    
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+}
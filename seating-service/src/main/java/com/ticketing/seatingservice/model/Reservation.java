@@ -0,0 +1,69 @@
+package com.ticketing.seatingservice.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A hold on a set of seats of one event. The seats reference it through seats.reservation_id.
+ */
+@Entity
+@Table(name = "reservations")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class Reservation {
+    
+    @Id
+    private UUID id;
+    
+    @Column(name = "event_id", nullable = false)
+    private Long eventId;
+    
+    @Column(name = "holder_id", nullable = false)
+    private Long holderId; // User ID holding the seats
+    
+    @Convert(converter = ReservationStatusConverter.class)
+    @Column(nullable = false)
+    private ReservationStatus status;
+    
+    @Column(name = "seat_count", nullable = false)
+    private Integer seatCount;
+    
+    @Column(name = "total_price", nullable = false, precision = 12, scale = 2)
+    private BigDecimal totalPrice;
+    
+    @Column(name = "order_id")
+    private String orderId; // Order ID (UUID) once allocated
+    
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+    
+    @Version
+    @Column(name = "version")
+    private Long version;
+    
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+    
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+    
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        updatedAt = LocalDateTime.now();
+    }
+    
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,28 @@
+package com.ticketing.seatingservice.model;
+
+public enum ReservationStatus {
+    ACTIVE(0),      // Seats are held until the reservation expires
+    ALLOCATED(1),   // Seats were allocated to an order
+    RELEASED(2),    // Seats were given back before expiry
+    EXPIRED(3);     // Hold ran out and the seats were released
+    
+    // Stored in the SMALLINT reservations.status column; never renumber existing values
+    private final short code;
+    
+    ReservationStatus(int code) {
+        this.code = (short) code;
+    }
+    
+    public short getCode() {
+        return code;
+    }
+    
+    public static ReservationStatus fromCode(short code) {
+        for (ReservationStatus status : values()) {
+            if (status.code == code) {
+                return status;
+            }
+        }
+        throw new IllegalArgumentException("Unknown reservation status code: " + code);
+    }
+}
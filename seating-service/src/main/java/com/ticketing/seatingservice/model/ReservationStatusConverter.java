@@ -0,0 +1,18 @@
+package com.ticketing.seatingservice.model;
+
+import javax.persistence.AttributeConverter;
+import javax.persistence.Converter;
+
+@Converter
+public class ReservationStatusConverter implements AttributeConverter<ReservationStatus, Short> {
+    
+    @Override
+    public Short convertToDatabaseColumn(ReservationStatus status) {
+        return status != null ? status.getCode() : null;
+    }
+    
+    @Override
+    public ReservationStatus convertToEntityAttribute(Short code) {
+        return code != null ? ReservationStatus.fromCode(code) : null;
+    }
+}
@@ -9,13 +9,11 @@ import javax.persistence.*;
 import javax.validation.constraints.NotNull;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.UUID;
 
+// Schema (LIST-partitioned by event_id, indexes) is managed by the Flyway migrations in db/migration
 @Entity
-@Table(name = "seats", indexes = {
-    @Index(name = "idx_event_id", columnList = "event_id"),
-    @Index(name = "idx_status", columnList = "status"),
-    @Index(name = "idx_event_status", columnList = "event_id,status")
-})
+@Table(name = "seats")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -42,7 +40,7 @@ public class Seat {
     @Column(name = "section", nullable = false)
     private String section;
     
-    @Enumerated(EnumType.STRING)
+    @Convert(converter = SeatTypeConverter.class)
     @Column(nullable = false)
     private SeatType type = SeatType.REGULAR;
     
@@ -50,7 +48,7 @@ public class Seat {
     @Column(nullable = false, precision = 10, scale = 2)
     private BigDecimal price;
     
-    @Enumerated(EnumType.STRING)
+    @Convert(converter = SeatStatusConverter.class)
     @Column(nullable = false)
     private SeatStatus status = SeatStatus.AVAILABLE;
     
@@ -66,6 +64,9 @@ public class Seat {
     @Column(name = "reservation_expires_at")
     private LocalDateTime reservationExpiresAt;
     
+    @Column(name = "reservation_id")
+    private UUID reservationId; // Reservation currently holding or allocated this seat
+    
     @Version
     @Column(name = "version")
     private Long version; // For optimistic locking
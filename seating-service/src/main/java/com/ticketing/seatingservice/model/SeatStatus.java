@@ -1,8 +1,28 @@
 package com.ticketing.seatingservice.model;
 
 public enum SeatStatus {
-    AVAILABLE,      // Seat is available for booking
-    RESERVED,       // Seat is temporarily reserved (15 min hold)
-    ALLOCATED,      // Seat is permanently allocated to confirmed order
-    BLOCKED         // Seat is blocked (maintenance, VIP, etc.)
+    AVAILABLE(0),   // Seat is available for booking
+    RESERVED(1),    // Seat is temporarily reserved (15 min hold)
+    ALLOCATED(2),   // Seat is permanently allocated to confirmed order
+    BLOCKED(3);     // Seat is blocked (maintenance, VIP, etc.)
+    
+    // Stored in the SMALLINT seats.status column; never renumber existing values
+    private final short code;
+    
+    SeatStatus(int code) {
+        this.code = (short) code;
+    }
+    
+    public short getCode() {
+        return code;
+    }
+    
+    public static SeatStatus fromCode(short code) {
+        for (SeatStatus status : values()) {
+            if (status.code == code) {
+                return status;
+            }
+        }
+        throw new IllegalArgumentException("Unknown seat status code: " + code);
+    }
 }
@@ -0,0 +1,18 @@
+package com.ticketing.seatingservice.model;
+
+import javax.persistence.AttributeConverter;
+import javax.persistence.Converter;
+
+@Converter
+public class SeatStatusConverter implements AttributeConverter<SeatStatus, Short> {
+    
+    @Override
+    public Short convertToDatabaseColumn(SeatStatus status) {
+        return status != null ? status.getCode() : null;
+    }
+    
+    @Override
+    public SeatStatus convertToEntityAttribute(Short code) {
+        return code != null ? SeatStatus.fromCode(code) : null;
+    }
+}
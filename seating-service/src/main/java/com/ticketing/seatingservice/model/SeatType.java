@@ -1,8 +1,28 @@
 package com.ticketing.seatingservice.model;
 
 public enum SeatType {
-    VIP,
-    PREMIUM,
-    REGULAR,
-    ECONOMY
+    VIP(0),
+    PREMIUM(1),
+    REGULAR(2),
+    ECONOMY(3);
+    
+    // Stored in the SMALLINT seats.type column; never renumber existing values
+    private final short code;
+    
+    SeatType(int code) {
+        this.code = (short) code;
+    }
+    
+    public short getCode() {
+        return code;
+    }
+    
+    public static SeatType fromCode(short code) {
+        for (SeatType type : values()) {
+            if (type.code == code) {
+                return type;
+            }
+        }
+        throw new IllegalArgumentException("Unknown seat type code: " + code);
+    }
 }
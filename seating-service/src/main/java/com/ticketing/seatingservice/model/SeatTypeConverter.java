@@ -0,0 +1,18 @@
+package com.ticketing.seatingservice.model;
+
+import javax.persistence.AttributeConverter;
+import javax.persistence.Converter;
+
+@Converter
+public class SeatTypeConverter implements AttributeConverter<SeatType, Short> {
+    
+    @Override
+    public Short convertToDatabaseColumn(SeatType type) {
+        return type != null ? type.getCode() : null;
+    }
+    
+    @Override
+    public SeatType convertToEntityAttribute(Short code) {
+        return code != null ? SeatType.fromCode(code) : null;
+    }
+}
@@ -0,0 +1,40 @@
+package com.ticketing.seatingservice.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * A reusable seat map. Its seats live in venue_layout_seats, keyed by seat index, and never
+ * change once the layout is created; events are linked to it through event_layouts.
+ */
+@Entity
+@Table(name = "venue_layouts")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class VenueLayout {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(nullable = false)
+    private String name;
+    
+    @Column(name = "seat_count", nullable = false)
+    private Integer seatCount;
+    
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+    
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+}
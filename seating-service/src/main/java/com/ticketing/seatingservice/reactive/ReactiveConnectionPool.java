@@ -0,0 +1,88 @@
+package com.ticketing.seatingservice.reactive;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.pool.PoolMetrics;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * R2DBC connection pool of the reactive read path, built from the JDBC datasource settings.
+ *
+ * The pool is deliberately not a ConnectionFactory bean: one in the context makes Spring
+ * Boot back off from configuring the JDBC DataSource, and the R2DBC auto-configuration
+ * (excluded in application.yml) would add a second transaction manager next to the JPA
+ * one. It is also separate from Hikari, so read storms on the reactive port cannot take
+ * the connections the reservation path needs.
+ */
+@Component
+@ConditionalOnProperty(name = "seating.reactive.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class ReactiveConnectionPool {
+    
+    private final ConnectionPool pool;
+    
+    public ReactiveConnectionPool(@Value("${spring.datasource.url}") String jdbcUrl,
+                                  @Value("${spring.datasource.username}") String username,
+                                  @Value("${spring.datasource.password}") String password,
+                                  @Value("${seating.reactive.pool.initial-size:2}") int initialSize,
+                                  @Value("${seating.reactive.pool.max-size:10}") int maxSize,
+                                  @Value("${seating.reactive.pool.max-acquire-time-ms:2000}") long maxAcquireTimeMs,
+                                  MeterRegistry meterRegistry) {
+        ConnectionFactoryOptions options = ConnectionFactoryOptions.parse(toR2dbcUrl(jdbcUrl)).mutate()
+                .option(ConnectionFactoryOptions.USER, username)
+                .option(ConnectionFactoryOptions.PASSWORD, password)
+                .build();
+        
+        // Connections are opened on first use
+        this.pool = new ConnectionPool(ConnectionPoolConfiguration.builder(ConnectionFactories.get(options))
+                .name("reactive-read")
+                .initialSize(initialSize)
+                .maxSize(maxSize)
+                .maxAcquireTime(Duration.ofMillis(maxAcquireTimeMs))
+                .validationQuery("SELECT 1")
+                .build());
+        
+        registerGauge(meterRegistry, "reactive_read_pool_acquired", "Connections in use by the reactive read path",
+                PoolMetrics::acquiredSize);
+        registerGauge(meterRegistry, "reactive_read_pool_pending", "Reactive reads waiting for a connection",
+                PoolMetrics::pendingAcquireSize);
+    }
+    
+    ConnectionPool get() {
+        return pool;
+    }
+    
+    @PreDestroy
+    void close() {
+        pool.dispose();
+    }
+    
+    // jdbc:postgresql://host:port/db?params -> r2dbc:postgresql://host:port/db; JDBC-only
+    // parameters mean nothing to the R2DBC driver
+    static String toR2dbcUrl(String jdbcUrl) {
+        if (!jdbcUrl.startsWith("jdbc:postgresql:")) {
+            throw new IllegalArgumentException("Reactive reads need a PostgreSQL datasource, got: " + jdbcUrl);
+        }
+        String url = "r2dbc:" + jdbcUrl.substring("jdbc:".length());
+        int query = url.indexOf('?');
+        return query >= 0 ? url.substring(0, query) : url;
+    }
+    
+    private void registerGauge(MeterRegistry meterRegistry, String name, String description,
+                               ToDoubleFunction<PoolMetrics> value) {
+        Gauge.builder(name, pool, p -> p.getMetrics().map(value::applyAsDouble).orElse(0.0))
+                .description(description)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,126 @@
+package com.ticketing.seatingservice.reactive;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ticketing.seatingservice.exception.ResourceNotFoundException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.server.reactive.HttpHandler;
+import org.springframework.http.server.reactive.ReactorHttpHandlerAdapter;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.HandlerStrategies;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Runs the reactive read path on its own Reactor Netty port (seating.reactive.port) next to
+ * the servlet container, which keeps serving every endpoint including the writes.
+ *
+ * Requests here are handled on Netty's event loop and only hold a connection of the
+ * reactive pool while rows are being read, so a storm of availability reads is bounded by
+ * that pool instead of taking Tomcat threads and Hikari connections from reservations.
+ */
+@Component
+@ConditionalOnProperty(name = "seating.reactive.enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class ReactiveReadServer implements SmartLifecycle {
+    
+    private final ReactiveSeatHandler reactiveSeatHandler;
+    private final ObjectMapper objectMapper;
+    
+    @Value("${seating.reactive.port:8083}")
+    private int port;
+    
+    @Value("${seating.reactive.shutdown-grace-ms:10000}")
+    private long shutdownGraceMs;
+    
+    private volatile DisposableServer server;
+    
+    @Override
+    public void start() {
+        HttpHandler httpHandler = RouterFunctions.toHttpHandler(reactiveSeatHandler.routes(), HandlerStrategies.builder()
+                .codecs(codecs -> codecs.defaultCodecs().jackson2JsonEncoder(new Jackson2JsonEncoder(objectMapper)))
+                .exceptionHandler(this::handleError)
+                .build());
+        
+        server = HttpServer.create()
+                .port(port)
+                .handle(new ReactorHttpHandlerAdapter(httpHandler))
+                .bindNow();
+        log.info("Reactive read server started on port {}", server.port());
+    }
+    
+    @Override
+    public void stop() {
+        DisposableServer running = server;
+        if (running != null) {
+            running.disposeNow(Duration.ofMillis(shutdownGraceMs));
+            server = null;
+            log.info("Reactive read server stopped");
+        }
+    }
+    
+    @Override
+    public boolean isRunning() {
+        return server != null;
+    }
+    
+    // Same statuses and body as GlobalExceptionHandler. Once seats have been streamed the
+    // status is sent already, and the connection is closed instead.
+    private Mono<Void> handleError(ServerWebExchange exchange, Throwable error) {
+        ServerHttpResponse response = exchange.getResponse();
+        if (response.isCommitted()) {
+            log.warn("Reactive read of {} failed after the response started: {}",
+                    exchange.getRequest().getURI(), error.getMessage());
+            return Mono.error(error);
+        }
+        
+        HttpStatus status;
+        String message;
+        if (error instanceof ResourceNotFoundException) {
+            status = HttpStatus.NOT_FOUND;
+            message = error.getMessage();
+        } else if (error instanceof IllegalArgumentException) {
+            status = HttpStatus.BAD_REQUEST;
+            message = error.getMessage();
+        } else if (error instanceof ResponseStatusException) {
+            status = ((ResponseStatusException) error).getStatus();
+            message = status.getReasonPhrase();
+        } else {
+            log.error("Reactive read of {} failed: {}", exchange.getRequest().getURI(), error.getMessage(), error);
+            status = HttpStatus.INTERNAL_SERVER_ERROR;
+            message = "An unexpected error occurred: " + error.getMessage();
+        }
+        
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("status", status.value());
+        body.put("message", message);
+        body.put("timestamp", LocalDateTime.now());
+        
+        response.setStatusCode(status);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        try {
+            DataBuffer buffer = response.bufferFactory().wrap(objectMapper.writeValueAsBytes(body));
+            return response.writeWith(Mono.just(buffer));
+        } catch (Exception e) {
+            return Mono.error(e);
+        }
+    }
+}
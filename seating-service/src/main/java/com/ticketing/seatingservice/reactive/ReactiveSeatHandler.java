@@ -0,0 +1,76 @@
+package com.ticketing.seatingservice.reactive;
+
+import com.ticketing.seatingservice.json.SeatFieldSet;
+import com.ticketing.seatingservice.model.SeatStatus;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+import static org.springframework.web.reactive.function.server.RequestPredicates.GET;
+
+/**
+ * Read-only seat endpoints of the reactive port. They take the same parameters as their
+ * SeatingController counterparts and answer with newline-delimited JSON, one seat per
+ * line, so clients can process seats while the rest is still being read.
+ *
+ *   GET /v1/seats/availability?eventId=&fields=   summary line, then the available seats
+ *   GET /v1/seats?eventId=&status=&fields=         the event's seats
+ */
+@Component
+@ConditionalOnProperty(name = "seating.reactive.enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class ReactiveSeatHandler {
+    
+    private final ReactiveSeatReader reactiveSeatReader;
+    
+    public RouterFunction<ServerResponse> routes() {
+        return RouterFunctions.route()
+                .add(RouterFunctions.route(GET("/v1/seats/availability"), this::getSeatAvailability))
+                .add(RouterFunctions.route(GET("/v1/seats"), this::getSeats))
+                .build();
+    }
+    
+    Mono<ServerResponse> getSeatAvailability(ServerRequest request) {
+        Long eventId = eventId(request);
+        SeatFieldSet fields = SeatFieldSet.parse(request.queryParam("fields").orElse(null));
+        log.debug("Reactive GET /v1/seats/availability - eventId: {}, fields: {}", eventId, fields);
+        
+        return ServerResponse.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(reactiveSeatReader.findAvailability(eventId, fields), Object.class);
+    }
+    
+    Mono<ServerResponse> getSeats(ServerRequest request) {
+        Long eventId = eventId(request);
+        SeatStatus status = request.queryParam("status")
+                .filter(value -> !value.isEmpty())
+                .map(value -> SeatStatus.valueOf(value.toUpperCase()))
+                .orElse(null);
+        SeatFieldSet fields = SeatFieldSet.parse(request.queryParam("fields").orElse(null));
+        log.debug("Reactive GET /v1/seats - eventId: {}, status: {}, fields: {}", eventId, status, fields);
+        
+        return ServerResponse.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(reactiveSeatReader.findSeats(eventId, status, fields), Map.class);
+    }
+    
+    private static Long eventId(ServerRequest request) {
+        String eventId = request.queryParam("eventId")
+                .orElseThrow(() -> new IllegalArgumentException("eventId is required"));
+        try {
+            return Long.valueOf(eventId);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("eventId must be a number: " + eventId);
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.ticketing.seatingservice.reactive;
+
+import com.ticketing.seatingservice.exception.ResourceNotFoundException;
+import com.ticketing.seatingservice.json.SeatField;
+import com.ticketing.seatingservice.json.SeatFieldSet;
+import com.ticketing.seatingservice.model.SeatStatus;
+import com.ticketing.seatingservice.model.SeatType;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.spi.Row;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Non-blocking counterpart of SeatJsonWriter for the reactive read path. Rows are read
+ * through R2DBC in batches of seating.reactive.fetch-size and only as fast as the client
+ * consumes them, so a slow reader holds neither a thread nor more than a batch of rows.
+ * Each seat becomes a map with the requested fields, in the same form SeatJsonWriter
+ * writes them.
+ */
+@Component
+@ConditionalOnProperty(name = "seating.reactive.enabled", havingValue = "true", matchIfMissing = true)
+public class ReactiveSeatReader {
+    
+    private final DatabaseClient databaseClient;
+    private final TransactionalOperator snapshotTransaction;
+    private final int fetchSize;
+    
+    public ReactiveSeatReader(ReactiveConnectionPool reactiveConnectionPool,
+                              @Value("${seating.reactive.fetch-size:500}") int fetchSize) {
+        ConnectionPool readConnectionPool = reactiveConnectionPool.get();
+        this.databaseClient = DatabaseClient.create(readConnectionPool);
+        this.fetchSize = fetchSize;
+        
+        // Kept out of the application context, where it would compete with the JPA transaction manager
+        DefaultTransactionDefinition definition = new DefaultTransactionDefinition();
+        definition.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        definition.setReadOnly(true);
+        this.snapshotTransaction = TransactionalOperator.create(new R2dbcTransactionManager(readConnectionPool), definition);
+    }
+    
+    /**
+     * Seats of the event, optionally only those with the given status.
+     */
+    public Flux<Map<String, Object>> findSeats(Long eventId, SeatStatus status, SeatFieldSet fields) {
+        DatabaseClient.GenericExecuteSpec query = status != null
+                ? databaseClient.sql("SELECT " + fields.columns() + " FROM effective_seats WHERE event_id = :eventId AND status = :status")
+                        .bind("eventId", eventId)
+                        .bind("status", status.getCode())
+                : databaseClient.sql("SELECT " + fields.columns() + " FROM effective_seats WHERE event_id = :eventId")
+                        .bind("eventId", eventId);
+        return rows(query, fields);
+    }
+    
+    /**
+     * The event's availability summary (counts only) followed by each available seat, all
+     * from the same snapshot. Fails with ResourceNotFoundException before emitting anything
+     * if the event has no seats.
+     */
+    public Flux<Object> findAvailability(Long eventId, SeatFieldSet fields) {
+        Flux<Object> availability = databaseClient
+                .sql("SELECT status, section, count(*) FROM effective_seats WHERE event_id = :eventId GROUP BY status, section")
+                .bind("eventId", eventId)
+                .map((row, metadata) -> new Object[] {
+                        SeatStatus.fromCode(row.get(0, Short.class)), row.get(1, String.class), row.get(2, Long.class)
+                })
+                .all()
+                .collectList()
+                .flatMapMany(counts -> {
+                    Map<String, Object> summary = summarize(eventId, counts);
+                    if ((long) summary.get("totalSeats") == 0) {
+                        return Flux.error(new ResourceNotFoundException("No seats found for event: " + eventId));
+                    }
+                    return Flux.concat(Mono.just(summary), findSeats(eventId, SeatStatus.AVAILABLE, fields));
+                });
+        return snapshotTransaction.transactional(availability);
+    }
+    
+    private Flux<Map<String, Object>> rows(DatabaseClient.GenericExecuteSpec query, SeatFieldSet fields) {
+        List<SeatField> selected = fields.getFields();
+        return query.filter(statement -> statement.fetchSize(fetchSize))
+                .map((row, metadata) -> toSeat(row, selected))
+                .all();
+    }
+    
+    // Same layout as SeatAvailabilityResponse, without the seat list
+    private static Map<String, Object> summarize(Long eventId, List<Object[]> counts) {
+        long[] countsByStatus = new long[SeatStatus.values().length];
+        Map<String, Long> availableBySection = new LinkedHashMap<>();
+        for (Object[] count : counts) {
+            SeatStatus status = (SeatStatus) count[0];
+            long seats = (Long) count[2];
+            countsByStatus[status.ordinal()] += seats;
+            if (status == SeatStatus.AVAILABLE) {
+                availableBySection.put((String) count[1], seats);
+            }
+        }
+        
+        long total = 0;
+        for (long count : countsByStatus) {
+            total += count;
+        }
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("eventId", eventId);
+        summary.put("totalSeats", total);
+        summary.put("availableSeats", countsByStatus[SeatStatus.AVAILABLE.ordinal()]);
+        summary.put("reservedSeats", countsByStatus[SeatStatus.RESERVED.ordinal()]);
+        summary.put("allocatedSeats", countsByStatus[SeatStatus.ALLOCATED.ordinal()]);
+        summary.put("availabilityBySection", availableBySection);
+        return summary;
+    }
+    
+    private static Map<String, Object> toSeat(Row row, List<SeatField> selected) {
+        Map<String, Object> seat = new LinkedHashMap<>();
+        for (int i = 0; i < selected.size(); i++) {
+            SeatField field = selected.get(i);
+            seat.put(field.getJsonName(), readField(row, field, i));
+        }
+        return seat;
+    }
+    
+    private static Object readField(Row row, SeatField field, int column) {
+        switch (field) {
+            case ID:
+            case EVENT_ID:
+            case RESERVED_BY:
+                return row.get(column, Long.class);
+            case TYPE:
+                return SeatType.fromCode(row.get(column, Short.class)).name();
+            case STATUS:
+                return SeatStatus.fromCode(row.get(column, Short.class)).name();
+            case PRICE:
+                return row.get(column, BigDecimal.class);
+            case RESERVED_AT:
+            case RESERVATION_EXPIRES_AT:
+            case CREATED_AT:
+            case UPDATED_AT:
+                LocalDateTime timestamp = row.get(column, LocalDateTime.class);
+                return timestamp != null ? DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(timestamp) : null;
+            default:
+                return row.get(column, String.class);
+        }
+    }
+}
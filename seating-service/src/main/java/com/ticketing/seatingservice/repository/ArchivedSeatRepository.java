@@ -0,0 +1,15 @@
+package com.ticketing.seatingservice.repository;
+
+import com.ticketing.seatingservice.model.ArchivedSeat;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ArchivedSeatRepository extends JpaRepository<ArchivedSeat, Long> {
+    
+    List<ArchivedSeat> findByOrderId(String orderId);
+    
+    long countByEventId(Long eventId);
+}
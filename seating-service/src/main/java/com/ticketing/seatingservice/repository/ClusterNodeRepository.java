@@ -0,0 +1,35 @@
+package com.ticketing.seatingservice.repository;
+
+import com.ticketing.seatingservice.model.ClusterNode;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Repository
+public interface ClusterNodeRepository extends JpaRepository<ClusterNode, String> {
+    
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO seating_nodes (node_id, base_url, started_at, heartbeat_at) " +
+                   "VALUES (:nodeId, :baseUrl, now(), now()) " +
+                   "ON CONFLICT (node_id) DO UPDATE SET base_url = EXCLUDED.base_url, heartbeat_at = now()",
+           nativeQuery = true)
+    int heartbeat(@Param("nodeId") String nodeId, @Param("baseUrl") String baseUrl);
+    
+    @Query(value = "SELECT * FROM seating_nodes " +
+                   "WHERE heartbeat_at > now() - (:ttlMs * interval '1 millisecond') ORDER BY node_id",
+           nativeQuery = true)
+    List<ClusterNode> findLiveNodes(@Param("ttlMs") long ttlMs);
+    
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM seating_nodes " +
+                   "WHERE heartbeat_at < now() - (:ttlMs * interval '1 millisecond')",
+           nativeQuery = true)
+    int deleteDeadNodes(@Param("ttlMs") long ttlMs);
+}
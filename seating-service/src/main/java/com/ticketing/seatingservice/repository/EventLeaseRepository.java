@@ -0,0 +1,57 @@
+package com.ticketing.seatingservice.repository;
+
+import com.ticketing.seatingservice.model.EventLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface EventLeaseRepository extends JpaRepository<EventLease, Long> {
+    
+    // Takes the lease if it is free, expired or already ours; returns 0 if another node holds it
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO event_leases (event_id, owner_node_id, owner_url, acquired_at, expires_at) " +
+                   "VALUES (:eventId, :nodeId, :ownerUrl, now(), now() + (:ttlMs * interval '1 millisecond')) " +
+                   "ON CONFLICT (event_id) DO UPDATE SET " +
+                   "owner_node_id = EXCLUDED.owner_node_id, owner_url = EXCLUDED.owner_url, " +
+                   "expires_at = EXCLUDED.expires_at, " +
+                   "acquired_at = CASE WHEN event_leases.owner_node_id = EXCLUDED.owner_node_id " +
+                   "                   THEN event_leases.acquired_at ELSE now() END " +
+                   "WHERE event_leases.owner_node_id = EXCLUDED.owner_node_id OR event_leases.expires_at < now()",
+           nativeQuery = true)
+    int tryAcquire(@Param("eventId") Long eventId, @Param("nodeId") String nodeId,
+                   @Param("ownerUrl") String ownerUrl, @Param("ttlMs") long ttlMs);
+    
+    @Query(value = "SELECT * FROM event_leases WHERE event_id = :eventId AND expires_at > now()",
+           nativeQuery = true)
+    Optional<EventLease> findActiveLease(@Param("eventId") Long eventId);
+    
+    // Extends our leases and returns the events we still own
+    @Transactional
+    @Query(value = "WITH renewed AS (" +
+                   "  UPDATE event_leases SET expires_at = now() + (:ttlMs * interval '1 millisecond') " +
+                   "  WHERE owner_node_id = :nodeId AND event_id IN (:eventIds) RETURNING event_id" +
+                   ") SELECT event_id FROM renewed",
+           nativeQuery = true)
+    List<Number> renewLeases(@Param("nodeId") String nodeId, @Param("eventIds") Collection<Long> eventIds,
+                             @Param("ttlMs") long ttlMs);
+    
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM event_leases WHERE owner_node_id = :nodeId AND event_id IN (:eventIds)",
+           nativeQuery = true)
+    int releaseLeases(@Param("nodeId") String nodeId, @Param("eventIds") Collection<Long> eventIds);
+    
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM event_leases WHERE owner_node_id = :nodeId", nativeQuery = true)
+    int releaseAllLeases(@Param("nodeId") String nodeId);
+}
@@ -0,0 +1,51 @@
+package com.ticketing.seatingservice.repository;
+
+import com.ticketing.seatingservice.model.Reservation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.LockModeType;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface ReservationRepository extends JpaRepository<Reservation, UUID> {
+    
+    // Serialises allocate, release, extend and expiry of one reservation
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM Reservation r WHERE r.id = :id")
+    Optional<Reservation> findByIdWithLock(@Param("id") UUID id);
+    
+    // Locks in id order, so two callers locking overlapping sets cannot deadlock each other
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM Reservation r WHERE r.id IN :ids ORDER BY r.id")
+    List<Reservation> findAllByIdWithLock(@Param("ids") Collection<UUID> ids);
+    
+    // Active reservations past their expiry; rows locked by a concurrent allocate are skipped
+    @Query(value = "SELECT * FROM reservations WHERE status = 0 AND expires_at < :now " +
+                   "ORDER BY expires_at LIMIT :limit FOR UPDATE SKIP LOCKED",
+           nativeQuery = true)
+    List<Reservation> findExpiredWithLock(@Param("now") LocalDateTime now, @Param("limit") int limit);
+    
+    // Keeps reservations in step with the seat-id API: once none of its seats is still held, a
+    // reservation counts as allocated if any of them went to an order, and as released otherwise
+    @Modifying
+    @Query(value = "UPDATE reservations r SET " +
+                   "order_id = (SELECT s.order_id FROM seats s " +
+                   "            WHERE s.event_id = r.event_id AND s.reservation_id = r.id AND s.status = 2 LIMIT 1), " +
+                   "status = CASE WHEN EXISTS (SELECT 1 FROM seats s " +
+                   "                           WHERE s.event_id = r.event_id AND s.reservation_id = r.id AND s.status = 2) " +
+                   "              THEN 1 ELSE 2 END, " +
+                   "version = COALESCE(r.version, 0) + 1, updated_at = now() " +
+                   "WHERE r.id IN (:ids) AND r.status = 0 AND NOT EXISTS (" +
+                   "  SELECT 1 FROM seats s WHERE s.event_id = r.event_id AND s.reservation_id = r.id AND s.status = 1)",
+           nativeQuery = true)
+    int settleWhenNoSeatsHeld(@Param("ids") Collection<UUID> ids);
+}
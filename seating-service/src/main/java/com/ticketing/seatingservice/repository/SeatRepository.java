@@ -1,18 +1,28 @@
 package com.ticketing.seatingservice.repository;
 
+import com.ticketing.seatingservice.dto.SeatDTO;
+import com.ticketing.seatingservice.dto.SeatStatusDTO;
 import com.ticketing.seatingservice.model.Seat;
 import com.ticketing.seatingservice.model.SeatStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
 
 @Repository
 public interface SeatRepository extends JpaRepository<Seat, Long> {
@@ -21,8 +31,135 @@ public interface SeatRepository extends JpaRepository<Seat, Long> {
     
     List<Seat> findByEventIdAndStatus(Long eventId, SeatStatus status);
     
-    @Query("SELECT s FROM Seat s WHERE s.eventId = :eventId AND s.status = 'AVAILABLE'")
-    List<Seat> findAvailableSeatsByEventId(@Param("eventId") Long eventId);
+    boolean existsByEventId(Long eventId);
+    
+    // Pruned to the event's partition, unlike findById
+    Optional<Seat> findByEventIdAndId(Long eventId, Long id);
+    
+    // Probes every partition; only for telling seats of another event from missing ones
+    boolean existsByIdIn(Collection<Long> ids);
+    
+    // Read-only projections straight into SeatDTO, bypassing entity hydration and dirty-checking
+    // snapshots. Arguments follow the field order of SeatDTO's all-args constructor.
+    String SEAT_DTO_PROJECTION = "SELECT new com.ticketing.seatingservice.dto.SeatDTO(" +
+            "s.id, s.eventId, s.seatNumber, s.rowNumber, s.section, s.type, s.price, s.status, " +
+            "s.reservedBy, s.orderId, s.reservedAt, s.reservationExpiresAt, s.createdAt, s.updatedAt) " +
+            "FROM Seat s ";
+    
+    // The same projection over effective_seats, which includes the untouched seats of events
+    // created from a venue layout. Every query through it filters by event id.
+    String EFFECTIVE_SEAT_DTO_PROJECTION = "SELECT new com.ticketing.seatingservice.dto.SeatDTO(" +
+            "s.id, s.eventId, s.seatNumber, s.rowNumber, s.section, s.type, s.price, s.status, " +
+            "s.reservedBy, s.orderId, s.reservedAt, s.reservationExpiresAt, s.createdAt, s.updatedAt) " +
+            "FROM EffectiveSeat s ";
+    
+    @Query(EFFECTIVE_SEAT_DTO_PROJECTION + "WHERE s.eventId = :eventId AND s.id = :seatId")
+    Optional<SeatDTO> findEffectiveDtoByEventIdAndId(@Param("eventId") Long eventId, @Param("seatId") Long seatId);
+    
+    @Query(SEAT_DTO_PROJECTION + "WHERE s.eventId = :eventId AND s.reservationId = :reservationId")
+    List<SeatDTO> findDtosByReservation(@Param("eventId") Long eventId, @Param("reservationId") UUID reservationId);
+    
+    // Rows are read from a cursor while the stream is consumed, inside a transaction
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query(EFFECTIVE_SEAT_DTO_PROJECTION + "WHERE s.eventId = :eventId AND s.status = :status")
+    Stream<SeatDTO> streamDtosByEventIdAndStatus(@Param("eventId") Long eventId, @Param("status") SeatStatus status);
+    
+    // Goes through the primary key of the event's partition, and the event's layout if it has one
+    @Query("SELECT new com.ticketing.seatingservice.dto.SeatStatusDTO(s.id, s.status, s.price, s.seatNumber) " +
+           "FROM EffectiveSeat s WHERE s.eventId = :eventId AND s.id IN :seatIds")
+    List<SeatStatusDTO> findStatusesByEventIdAndIdIn(@Param("eventId") Long eventId,
+                                                     @Param("seatIds") Collection<Long> seatIds);
+    
+    // (status code, seat count) pairs of an event
+    @Query(value = "SELECT status, count(*) FROM effective_seats WHERE event_id = :eventId GROUP BY status",
+           nativeQuery = true)
+    List<Object[]> countByEventIdGroupByStatus(@Param("eventId") Long eventId);
+    
+    // Reservation-scoped bulk updates. All of them use idx_seats_reservation_id within the
+    // event's partition and bump version like a JPA update would. They return the id and new
+    // version of every updated seat, so the change can be published as seat transitions
+    // (UPDATE ... RETURNING runs as a query, hence no @Modifying).
+    
+    @Query(value = "UPDATE seats SET status = 2, order_id = :orderId, reservation_expires_at = NULL, " +
+                   "version = COALESCE(version, 0) + 1, updated_at = now() " +
+                   "WHERE event_id = :eventId AND reservation_id = :reservationId AND status = 1 " +
+                   "RETURNING id, version",
+           nativeQuery = true)
+    List<Object[]> allocateReservation(@Param("eventId") Long eventId, @Param("reservationId") UUID reservationId,
+                                       @Param("orderId") String orderId);
+    
+    @Query(value = "UPDATE seats SET status = 0, reserved_by = NULL, order_id = NULL, reserved_at = NULL, " +
+                   "reservation_expires_at = NULL, reservation_id = NULL, " +
+                   "version = COALESCE(version, 0) + 1, updated_at = now() " +
+                   "WHERE event_id = :eventId AND reservation_id = :reservationId AND status IN (1, 2) " +
+                   "RETURNING id, version",
+           nativeQuery = true)
+    List<Object[]> releaseReservation(@Param("eventId") Long eventId, @Param("reservationId") UUID reservationId);
+    
+    // Expiry only gives back seats that are still held
+    @Query(value = "UPDATE seats SET status = 0, reserved_by = NULL, reserved_at = NULL, " +
+                   "reservation_expires_at = NULL, reservation_id = NULL, " +
+                   "version = COALESCE(version, 0) + 1, updated_at = now() " +
+                   "WHERE event_id = :eventId AND reservation_id IN (:reservationIds) AND status = 1 " +
+                   "RETURNING id, version",
+           nativeQuery = true)
+    List<Object[]> expireReservations(@Param("eventId") Long eventId,
+                                      @Param("reservationIds") Collection<UUID> reservationIds);
+    
+    @Query(value = "UPDATE seats SET reservation_expires_at = :expiresAt, " +
+                   "version = COALESCE(version, 0) + 1, updated_at = now() " +
+                   "WHERE event_id = :eventId AND reservation_id = :reservationId AND status = 1 " +
+                   "RETURNING id, version",
+           nativeQuery = true)
+    List<Object[]> extendReservation(@Param("eventId") Long eventId, @Param("reservationId") UUID reservationId,
+                                     @Param("expiresAt") LocalDateTime expiresAt);
+    
+    default List<Seat> findAvailableSeatsByEventId(Long eventId) {
+        return findByEventIdAndStatus(eventId, SeatStatus.AVAILABLE);
+    }
+    
+    // Writes the rows of seats of an event created from a venue layout that have none yet,
+    // under their template ids (see TemplateSeatId). Returns the number of rows written.
+    @Modifying
+    @Query(value = "INSERT INTO seats (id, event_id, seat_number, row_number, section, type, price, status, " +
+                   "                   version, created_at, updated_at) " +
+                   "SELECT template_seat_id(el.event_id, ls.seat_index), el.event_id, ls.seat_number, ls.row_number, " +
+                   "       ls.section, ls.type, ls.price, 0, 0, el.created_at, now() " +
+                   "FROM event_layouts el JOIN venue_layout_seats ls ON ls.layout_id = el.layout_id " +
+                   "WHERE el.event_id = :eventId AND ls.seat_index IN (:seatIndexes) " +
+                   "ON CONFLICT DO NOTHING",
+           nativeQuery = true)
+    int materializeTemplateSeats(@Param("eventId") Long eventId, @Param("seatIndexes") Collection<Integer> seatIndexes);
+    
+    // Reservations by quantity (see V9__claim_seats_by_quantity.sql). Both claim up to quantity
+    // available seats of a section for the reservation and return the id and new version of each.
+    
+    // Rows another transaction has locked are skipped rather than waited for. The CTE locks its
+    // rows exactly once; as an IN subquery it could be rescanned and claim more than quantity.
+    @Query(value = "WITH claimable AS (" +
+                   "    SELECT id FROM seats WHERE event_id = :eventId AND status = 0 AND section = :section " +
+                   "    LIMIT :quantity FOR UPDATE SKIP LOCKED) " +
+                   "UPDATE seats s SET status = 1, reserved_by = :holderId, reserved_at = :reservedAt, " +
+                   "reservation_expires_at = :expiresAt, reservation_id = :reservationId, " +
+                   "version = COALESCE(s.version, 0) + 1, updated_at = now() " +
+                   "FROM claimable c WHERE s.event_id = :eventId AND s.id = c.id " +
+                   "RETURNING s.id, s.version",
+           nativeQuery = true)
+    List<Object[]> claimAvailableSeats(@Param("eventId") Long eventId, @Param("section") String section,
+                                       @Param("quantity") int quantity, @Param("holderId") Long holderId,
+                                       @Param("reservationId") UUID reservationId,
+                                       @Param("reservedAt") LocalDateTime reservedAt,
+                                       @Param("expiresAt") LocalDateTime expiresAt);
+    
+    // Seats of the event's venue layout that have no row yet, written as reserved rows
+    @Query(value = "SELECT seat_id, seat_version FROM claim_template_seats(:eventId, :section, :quantity, " +
+                   ":holderId, :reservationId, :reservedAt, :expiresAt)",
+           nativeQuery = true)
+    List<Object[]> claimTemplateSeats(@Param("eventId") Long eventId, @Param("section") String section,
+                                      @Param("quantity") int quantity, @Param("holderId") Long holderId,
+                                      @Param("reservationId") UUID reservationId,
+                                      @Param("reservedAt") LocalDateTime reservedAt,
+                                      @Param("expiresAt") LocalDateTime expiresAt);
     
     @Lock(LockModeType.PESSIMISTIC_WRITE)
     @Query("SELECT s FROM Seat s WHERE s.id = :seatId")
@@ -32,23 +169,71 @@ public interface SeatRepository extends JpaRepository<Seat, Long> {
     @Query("SELECT s FROM Seat s WHERE s.id IN :seatIds")
     List<Seat> findByIdInWithLock(@Param("seatIds") List<Long> seatIds);
     
-    @Query("SELECT COUNT(s) FROM Seat s WHERE s.eventId = :eventId AND s.status = :status")
-    Long countByEventIdAndStatus(@Param("eventId") Long eventId, @Param("status") SeatStatus status);
+    // Event-scoped variant, lets Postgres prune the lookup to the event's partition
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM Seat s WHERE s.eventId = :eventId AND s.id IN :seatIds")
+    List<Seat> findByEventIdAndIdInWithLock(@Param("eventId") Long eventId, @Param("seatIds") List<Long> seatIds);
+    
+    // Reservations the seats belong to, read without locking so they can be locked before the seats
+    @Query("SELECT DISTINCT s.reservationId FROM Seat s WHERE s.id IN :seatIds AND s.reservationId IS NOT NULL")
+    List<UUID> findReservationIdsByIdIn(@Param("seatIds") List<Long> seatIds);
+    
+    @Query("SELECT DISTINCT s.reservationId FROM Seat s " +
+           "WHERE s.eventId = :eventId AND s.id IN :seatIds AND s.reservationId IS NOT NULL")
+    List<UUID> findReservationIdsByEventIdAndIdIn(@Param("eventId") Long eventId, @Param("seatIds") List<Long> seatIds);
     
-    @Query("SELECT s FROM Seat s WHERE s.status = 'RESERVED' AND s.reservationExpiresAt < :now")
+    // The expiry queries spell out the status codes (1 = RESERVED, 0 = AVAILABLE) so that the
+    // planner can always match them against the partial index idx_seats_reserved_expiry.
+    // Seats held by a reservation expire with it (see ReservationService); these only cover
+    // holds made before reservations were persisted.
+    @Query(value = "SELECT * FROM seats WHERE status = 1 AND reservation_expires_at < :now " +
+                   "AND reservation_id IS NULL",
+           nativeQuery = true)
     List<Seat> findExpiredReservations(@Param("now") LocalDateTime now);
     
+    @Query(value = "SELECT DISTINCT event_id FROM seats WHERE status = 1 AND reservation_expires_at < :now " +
+                   "AND reservation_id IS NULL",
+           nativeQuery = true)
+    List<Number> findEventIdsWithExpiredReservations(@Param("now") LocalDateTime now);
+    
     @Modifying
-    @Query("UPDATE Seat s SET s.status = 'AVAILABLE', s.reservedBy = null, " +
-           "s.reservedAt = null, s.reservationExpiresAt = null " +
-           "WHERE s.status = 'RESERVED' AND s.reservationExpiresAt < :now")
+    @Query(value = "UPDATE seats SET status = 0, reserved_by = NULL, reserved_at = NULL, " +
+                   "reservation_expires_at = NULL, version = COALESCE(version, 0) + 1, updated_at = now() " +
+                   "WHERE status = 1 AND reservation_expires_at < :now AND reservation_id IS NULL",
+           nativeQuery = true)
     int releaseExpiredReservations(@Param("now") LocalDateTime now);
     
     List<Seat> findByOrderId(String orderId);
     
     @Query("SELECT s FROM Seat s WHERE s.eventId = :eventId AND s.section = :section " +
-           "AND s.status = 'AVAILABLE' ORDER BY s.rowNumber, s.seatNumber")
-    List<Seat> findAvailableSeatsByEventIdAndSection(
+           "AND s.status = :status ORDER BY s.rowNumber, s.seatNumber")
+    List<Seat> findByEventIdAndSectionAndStatus(
             @Param("eventId") Long eventId, 
-            @Param("section") String section);
+            @Param("section") String section,
+            @Param("status") SeatStatus status);
+    
+    default List<Seat> findAvailableSeatsByEventIdAndSection(Long eventId, String section) {
+        return findByEventIdAndSectionAndStatus(eventId, section, SeatStatus.AVAILABLE);
+    }
+    
+    @Transactional
+    @Query(value = "SELECT ensure_seat_partition(:eventId)", nativeQuery = true)
+    boolean ensureEventPartition(@Param("eventId") Long eventId);
+    
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO finished_events (event_id, finished_at) VALUES (:eventId, CAST(now() AS TIMESTAMP)) " +
+            "ON CONFLICT (event_id) DO NOTHING", nativeQuery = true)
+    int markEventFinished(@Param("eventId") Long eventId);
+    
+    @Query(value = "SELECT find_seat_archive_candidates(:limit)", nativeQuery = true)
+    List<Number> findArchiveCandidates(@Param("limit") int limit);
+    
+    @Transactional
+    @Query(value = "SELECT archive_seat_batch(:eventId, :batchSize)", nativeQuery = true)
+    int archiveSeatBatch(@Param("eventId") Long eventId, @Param("batchSize") int batchSize);
+    
+    @Transactional
+    @Query(value = "SELECT finish_seat_archive(:eventId)", nativeQuery = true)
+    boolean finishEventArchive(@Param("eventId") Long eventId);
 }
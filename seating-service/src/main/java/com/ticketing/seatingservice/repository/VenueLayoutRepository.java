@@ -0,0 +1,19 @@
+package com.ticketing.seatingservice.repository;
+
+import com.ticketing.seatingservice.model.VenueLayout;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface VenueLayoutRepository extends JpaRepository<VenueLayout, Long> {
+    
+    // Returns 0 when the event already has a layout
+    @Modifying
+    @Query(value = "INSERT INTO event_layouts (event_id, layout_id, created_at) VALUES (:eventId, :layoutId, now()) " +
+                   "ON CONFLICT (event_id) DO NOTHING",
+           nativeQuery = true)
+    int attachToEvent(@Param("eventId") Long eventId, @Param("layoutId") Long layoutId);
+}
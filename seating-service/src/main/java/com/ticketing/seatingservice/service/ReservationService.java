@@ -0,0 +1,222 @@
+package com.ticketing.seatingservice.service;
+
+import com.ticketing.seatingservice.dto.ReservationDTO;
+import com.ticketing.seatingservice.event.SeatTransition;
+import com.ticketing.seatingservice.event.SeatsChangedEvent;
+import com.ticketing.seatingservice.exception.ResourceNotFoundException;
+import com.ticketing.seatingservice.exception.SeatNotAvailableException;
+import com.ticketing.seatingservice.jfr.ExpirySweepEvent;
+import com.ticketing.seatingservice.jfr.SeatLockEvent;
+import com.ticketing.seatingservice.model.Reservation;
+import com.ticketing.seatingservice.model.ReservationStatus;
+import com.ticketing.seatingservice.model.SeatStatus;
+import com.ticketing.seatingservice.repository.ReservationRepository;
+import com.ticketing.seatingservice.repository.SeatRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Operations on persisted reservations. Each one locks the reservation row by primary key
+ * and then updates the event's seats through idx_seats_reservation_id, so callers only
+ * need the reservation id instead of the full list of seat ids.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ReservationService {
+    
+    private final ReservationRepository reservationRepository;
+    private final SeatRepository seatRepository;
+    private final MeterRegistry meterRegistry;
+    private final ApplicationEventPublisher eventPublisher;
+    
+    @Value("${seating.reservations.max-extension-minutes:30}")
+    private int maxExtensionMinutes;
+    
+    @Value("${seating.reservations.expiry-batch-size:1000}")
+    private int expiryBatchSize;
+    
+    @Transactional(readOnly = true)
+    public ReservationDTO getReservation(String reservationId) {
+        log.info("Fetching reservation: {}", reservationId);
+        
+        Reservation reservation = reservationRepository.findById(parseId(reservationId))
+                .orElseThrow(() -> new ResourceNotFoundException("Reservation not found: " + reservationId));
+        
+        ReservationDTO dto = convertToDTO(reservation);
+        dto.setSeats(seatRepository.findDtosByReservation(reservation.getEventId(), reservation.getId()));
+        return dto;
+    }
+    
+    @Transactional
+    public ReservationDTO allocateReservation(String reservationId, String orderId) {
+        log.info("Allocating reservation: {} for order: {}", reservationId, orderId);
+        
+        Reservation reservation = lockReservation(reservationId);
+        
+        if (reservation.getStatus() == ReservationStatus.ALLOCATED && orderId.equals(reservation.getOrderId())) {
+            // Retried allocation for the same order
+            return convertToDTO(reservation);
+        }
+        requireActive(reservation);
+        
+        List<Object[]> allocated = seatRepository.allocateReservation(reservation.getEventId(), reservation.getId(), orderId);
+        if (allocated.size() != reservation.getSeatCount()) {
+            throw new SeatNotAvailableException("Some seats of reservation " + reservationId + " are no longer reserved");
+        }
+        
+        reservation.setStatus(ReservationStatus.ALLOCATED);
+        reservation.setOrderId(orderId);
+        publishTransitions(reservation.getEventId(), allocated, SeatStatus.ALLOCATED);
+        
+        log.info("Successfully allocated {} seats of reservation: {}", allocated.size(), reservationId);
+        return convertToDTO(reservation);
+    }
+    
+    @Transactional
+    public ReservationDTO releaseReservation(String reservationId) {
+        log.info("Releasing reservation: {}", reservationId);
+        
+        Reservation reservation = lockReservation(reservationId);
+        
+        if (reservation.getStatus() == ReservationStatus.RELEASED
+                || reservation.getStatus() == ReservationStatus.EXPIRED) {
+            // Seats were already given back
+            return convertToDTO(reservation);
+        }
+        
+        List<Object[]> released = seatRepository.releaseReservation(reservation.getEventId(), reservation.getId());
+        
+        reservation.setStatus(ReservationStatus.RELEASED);
+        publishTransitions(reservation.getEventId(), released, SeatStatus.AVAILABLE);
+        
+        log.info("Successfully released {} seats of reservation: {}", released.size(), reservationId);
+        return convertToDTO(reservation);
+    }
+    
+    @Transactional
+    public ReservationDTO extendReservation(String reservationId, int minutes) {
+        log.info("Extending reservation: {} by {} minutes", reservationId, minutes);
+        
+        if (minutes < 1 || minutes > maxExtensionMinutes) {
+            throw new IllegalArgumentException("Extension must be between 1 and " + maxExtensionMinutes + " minutes");
+        }
+        
+        Reservation reservation = lockReservation(reservationId);
+        requireActive(reservation);
+        
+        LocalDateTime expiresAt = LocalDateTime.now().plusMinutes(minutes);
+        // Seats carry a copy of the expiry for clients reading seat lists
+        List<Object[]> extended = seatRepository.extendReservation(reservation.getEventId(), reservation.getId(), expiresAt);
+        
+        reservation.setExpiresAt(expiresAt);
+        publishTransitions(reservation.getEventId(), extended, SeatStatus.RESERVED);
+        
+        return convertToDTO(reservation);
+    }
+    
+    @Scheduled(fixedRate = 60000) // Run every minute
+    @Transactional
+    public void expireReservations() {
+        ExpirySweepEvent sweep = ExpirySweepEvent.begin("reservations");
+        List<Reservation> expired = reservationRepository.findExpiredWithLock(LocalDateTime.now(), expiryBatchSize);
+        if (expired.isEmpty()) {
+            sweep.end(0, 0);
+            return;
+        }
+        
+        Map<Long, List<UUID>> byEvent = expired.stream()
+                .collect(Collectors.groupingBy(Reservation::getEventId,
+                        Collectors.mapping(Reservation::getId, Collectors.toList())));
+        
+        List<SeatTransition> transitions = new ArrayList<>();
+        for (Map.Entry<Long, List<UUID>> entry : byEvent.entrySet()) {
+            transitions.addAll(toTransitions(entry.getKey(),
+                    seatRepository.expireReservations(entry.getKey(), entry.getValue()), SeatStatus.AVAILABLE));
+        }
+        int releasedSeats = transitions.size();
+        expired.forEach(reservation -> reservation.setStatus(ReservationStatus.EXPIRED));
+        eventPublisher.publishEvent(new SeatsChangedEvent(byEvent.keySet(), transitions));
+        sweep.end(expired.size(), releasedSeats);
+        
+        log.info("Expired {} reservations, released {} seats", expired.size(), releasedSeats);
+        
+        Counter.builder("reservations_expired")
+                .description("Number of reservations that expired")
+                .register(meterRegistry)
+                .increment(expired.size());
+        
+        Counter.builder("expired_reservations_released")
+                .description("Number of expired reservations released")
+                .register(meterRegistry)
+                .increment(releasedSeats);
+    }
+    
+    private Reservation lockReservation(String reservationId) {
+        SeatLockEvent lock = SeatLockEvent.begin("reservation", null, 1);
+        Optional<Reservation> reservation = reservationRepository.findByIdWithLock(parseId(reservationId));
+        lock.end(reservation.isPresent() ? 1 : 0);
+        return reservation.orElseThrow(() -> new ResourceNotFoundException("Reservation not found: " + reservationId));
+    }
+    
+    private void requireActive(Reservation reservation) {
+        if (reservation.getStatus() != ReservationStatus.ACTIVE) {
+            throw new SeatNotAvailableException(
+                    "Reservation " + reservation.getId() + " is " + reservation.getStatus());
+        }
+        if (reservation.getExpiresAt().isBefore(LocalDateTime.now())) {
+            throw new SeatNotAvailableException("Reservation " + reservation.getId() + " has expired");
+        }
+    }
+    
+    private UUID parseId(String reservationId) {
+        try {
+            return UUID.fromString(reservationId);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid reservation id: " + reservationId);
+        }
+    }
+    
+    // rows are the (id, version) pairs returned by the bulk seat updates
+    private void publishTransitions(Long eventId, List<Object[]> rows, SeatStatus status) {
+        eventPublisher.publishEvent(new SeatsChangedEvent(Set.of(eventId), toTransitions(eventId, rows, status)));
+    }
+    
+    private List<SeatTransition> toTransitions(Long eventId, List<Object[]> rows, SeatStatus status) {
+        return rows.stream()
+                .map(row -> new SeatTransition(eventId, ((Number) row[0]).longValue(), status,
+                        ((Number) row[1]).longValue()))
+                .collect(Collectors.toList());
+    }
+    
+    private ReservationDTO convertToDTO(Reservation reservation) {
+        return ReservationDTO.builder()
+                .reservationId(reservation.getId().toString())
+                .eventId(reservation.getEventId())
+                .holderId(reservation.getHolderId())
+                .status(reservation.getStatus())
+                .seatCount(reservation.getSeatCount())
+                .totalPrice(reservation.getTotalPrice())
+                .orderId(reservation.getOrderId())
+                .expiresAt(reservation.getExpiresAt())
+                .createdAt(reservation.getCreatedAt())
+                .updatedAt(reservation.getUpdatedAt())
+                .build();
+    }
+}
@@ -0,0 +1,136 @@
+package com.ticketing.seatingservice.service;
+
+import com.ticketing.seatingservice.event.SeatsChangedEvent;
+import com.ticketing.seatingservice.repository.SeatRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Background pipeline that moves seats of finished events from the hot seats table into
+ * the seats_archive cold store. Work is throttled: seats are moved in small batches, each
+ * in its own short transaction, with a pause in between, and only a bounded number of
+ * events is processed per run.
+ *
+ * Only events marked finished (requestArchive, kept in finished_events) and partitions that
+ * were detached are archived; an event without recent seat changes may just not be selling
+ * yet. Every batch is published as a SeatsChangedEvent, so caches, indexes and the seat
+ * state of this and the other replicas drop the archived seats.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SeatArchiveService {
+    
+    private final SeatRepository seatRepository;
+    private final SeatPartitionService seatPartitionService;
+    private final MeterRegistry meterRegistry;
+    private final ApplicationEventPublisher eventPublisher;
+    
+    @Value("${seating.archive.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${seating.archive.batch-size:500}")
+    private int batchSize;
+    
+    @Value("${seating.archive.batch-pause-ms:200}")
+    private long batchPauseMs;
+    
+    @Value("${seating.archive.max-events-per-run:10}")
+    private int maxEventsPerRun;
+    
+    /**
+     * Marks the event finished, e.g. by the catalog once it is over; its seats are archived
+     * on the next run.
+     */
+    public void requestArchive(Long eventId) {
+        log.info("Event marked finished, queued for archiving: {}", eventId);
+        seatRepository.markEventFinished(eventId);
+    }
+    
+    @Scheduled(fixedDelayString = "${seating.archive.interval-ms:3600000}",
+               initialDelayString = "${seating.archive.initial-delay-ms:300000}")
+    public void archiveFinishedEvents() {
+        if (!enabled) {
+            return;
+        }
+        
+        List<Number> eventIds = seatRepository.findArchiveCandidates(maxEventsPerRun);
+        if (eventIds.isEmpty()) {
+            return;
+        }
+        
+        log.info("Archiving seats of {} finished events", eventIds.size());
+        for (Number eventId : eventIds) {
+            try {
+                if (!archiveEvent(eventId.longValue())) {
+                    break;
+                }
+            } catch (DataAccessException e) {
+                // The failed batch was rolled back, its seats are still live
+                Counter.builder("seat_archive_failures")
+                        .description("Events whose seats could not be archived")
+                        .register(meterRegistry)
+                        .increment();
+                log.error("Archiving seats of event {} failed: {}", eventId, e.getMostSpecificCause().getMessage());
+            }
+        }
+    }
+    
+    private boolean archiveEvent(Long eventId) {
+        long movedTotal = 0;
+        int moved;
+        
+        do {
+            moved = seatRepository.archiveSeatBatch(eventId, batchSize);
+            movedTotal += moved;
+            if (moved > 0) {
+                eventPublisher.publishEvent(new SeatsChangedEvent(Set.of(eventId)));
+            }
+            
+            if (moved > 0 && !pause()) {
+                log.warn("Seat archiving interrupted for event: {} after {} seats", eventId, movedTotal);
+                return false;
+            }
+        } while (moved > 0);
+        
+        if (movedTotal > 0) {
+            Counter.builder("seats_archived")
+                    .description("Seats moved to the archive")
+                    .register(meterRegistry)
+                    .increment(movedTotal);
+        }
+        
+        if (seatRepository.existsByEventId(eventId)) {
+            log.info("Archived {} seats of event: {}, seats with open reservations remain", movedTotal, eventId);
+            return true;
+        }
+        // Detached concurrently here, so finishing the archive only drops the empty table
+        seatPartitionService.detachPartition(eventId);
+        if (seatRepository.finishEventArchive(eventId)) {
+            log.info("Archived {} seats of event: {}", movedTotal, eventId);
+        } else {
+            log.info("Archived {} seats of event: {}, seats written meanwhile remain", movedTotal, eventId);
+        }
+        return true;
+    }
+    
+    private boolean pause() {
+        try {
+            Thread.sleep(batchPauseMs);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.ticketing.seatingservice.service;
+
+import com.ticketing.seatingservice.repository.SeatRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Manages the per-event partitions of the seats table.
+ * Every seat insert path creates its event's partition first; seats has no default partition.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SeatPartitionService {
+    
+    private final SeatRepository seatRepository;
+    private final JdbcTemplate jdbcTemplate;
+    
+    // Events whose partition is known to exist, saves a round trip per seat insert
+    private final Set<Long> knownPartitions = ConcurrentHashMap.newKeySet();
+    
+    @Transactional
+    public void ensurePartition(Long eventId) {
+        if (knownPartitions.contains(eventId)) {
+            return;
+        }
+        
+        if (seatRepository.ensureEventPartition(eventId)) {
+            log.info("Created seat partition for event: {}", eventId);
+        }
+        // Only once committed: a partition rolled back with the caller would otherwise never be created again
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                knownPartitions.add(eventId);
+            }
+        });
+    }
+    
+    /**
+     * Detaches the event's partition with DETACH PARTITION ... CONCURRENTLY, so readers and
+     * writers of other events are not blocked. That cannot run inside a transaction, so this
+     * must not be called from one. A detach interrupted earlier is finalized instead.
+     * Returns false if the event has no attached partition.
+     */
+    public boolean detachPartition(Long eventId) {
+        log.info("Detaching seat partition for event: {}", eventId);
+        
+        String partition = "seats_event_" + eventId;
+        List<Boolean> pending = jdbcTemplate.queryForList(
+                "SELECT inhdetachpending FROM pg_inherits " +
+                "WHERE inhparent = 'seats'::regclass AND inhrelid = to_regclass(quote_ident(?))",
+                Boolean.class, partition);
+        if (pending.isEmpty()) {
+            return false;
+        }
+        
+        knownPartitions.remove(eventId);
+        jdbcTemplate.execute("ALTER TABLE seats DETACH PARTITION \"" + partition + "\""
+                + (pending.get(0) ? " FINALIZE" : " CONCURRENTLY"));
+        
+        log.info("Seat partition detached for event: {}", eventId);
+        return true;
+    }
+}
@@ -1,16 +1,30 @@
 package com.ticketing.seatingservice.service;
 
+import com.ticketing.seatingservice.contention.ContentionTracker;
 import com.ticketing.seatingservice.dto.*;
+import com.ticketing.seatingservice.event.SeatTransition;
+import com.ticketing.seatingservice.event.SeatsChangedEvent;
 import com.ticketing.seatingservice.exception.ResourceNotFoundException;
 import com.ticketing.seatingservice.exception.SeatNotAvailableException;
+import com.ticketing.seatingservice.index.SeatPriceIndex;
+import com.ticketing.seatingservice.jfr.ExpirySweepEvent;
+import com.ticketing.seatingservice.jfr.SeatLockEvent;
+import com.ticketing.seatingservice.layout.TemplateSeatId;
+import com.ticketing.seatingservice.model.Reservation;
+import com.ticketing.seatingservice.model.ReservationStatus;
 import com.ticketing.seatingservice.model.Seat;
 import com.ticketing.seatingservice.model.SeatStatus;
+import com.ticketing.seatingservice.model.SeatType;
+import com.ticketing.seatingservice.repository.ReservationRepository;
 import com.ticketing.seatingservice.repository.SeatRepository;
+import com.ticketing.seatingservice.state.SeatStateStore;
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.modelmapper.ModelMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Isolation;
@@ -19,7 +33,9 @@ import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -27,67 +43,159 @@ import java.util.stream.Collectors;
 public class SeatingService {
     
     private final SeatRepository seatRepository;
+    private final ReservationRepository reservationRepository;
+    private final SeatPartitionService seatPartitionService;
     private final ModelMapper modelMapper;
     private final MeterRegistry meterRegistry;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SeatStateStore seatStateStore;
+    private final SeatPriceIndex seatPriceIndex;
+    private final ContentionTracker contentionTracker;
     
     private static final int RESERVATION_TTL_MINUTES = 15;
     
-    @Transactional(readOnly = true)
-    public SeatAvailabilityResponse getSeatAvailability(Long eventId) {
-        log.info("Fetching seat availability for event: {}", eventId);
-        
-        List<Seat> allSeats = seatRepository.findByEventId(eventId);
-        
-        if (allSeats.isEmpty()) {
+    @Value("${seating.status-lookup.max-seats:200}")
+    private int maxStatusLookupSeats;
+    
+    @Value("${seating.price-index.max-results:100}")
+    private int maxCheapestSeats;
+    
+    @Value("${seating.reservations.max-quantity:10}")
+    private int maxReservationQuantity;
+    
+    /**
+     * Streams the event's available seats to the consumer in chunks of up to chunkSize seats,
+     * reading them from a cursor. The summary (counts only, no seat list) is handed over first
+     * and comes from the same snapshot. Throws ResourceNotFoundException if the event has no seats.
+     */
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public void streamAvailability(Long eventId, int chunkSize,
+                                   Consumer<SeatAvailabilityResponse> summaryConsumer,
+                                   Consumer<List<SeatDTO>> chunkConsumer) {
+        log.info("Streaming seat availability for event: {}", eventId);
+        
+        long[] countsByStatus = new long[SeatStatus.values().length];
+        for (Object[] row : seatRepository.countByEventIdGroupByStatus(eventId)) {
+            countsByStatus[SeatStatus.fromCode(((Number) row[0]).shortValue()).ordinal()] += ((Number) row[1]).longValue();
+        }
+        long total = Arrays.stream(countsByStatus).sum();
+        if (total == 0) {
             throw new ResourceNotFoundException("No seats found for event: " + eventId);
         }
         
-        List<Seat> availableSeats = allSeats.stream()
-                .filter(seat -> seat.getStatus() == SeatStatus.AVAILABLE)
-                .collect(Collectors.toList());
-        
-        long reservedCount = allSeats.stream()
-                .filter(seat -> seat.getStatus() == SeatStatus.RESERVED)
-                .count();
+        summaryConsumer.accept(SeatAvailabilityResponse.builder()
+                .eventId(eventId)
+                .totalSeats(total)
+                .availableSeats(countsByStatus[SeatStatus.AVAILABLE.ordinal()])
+                .reservedSeats(countsByStatus[SeatStatus.RESERVED.ordinal()])
+                .allocatedSeats(countsByStatus[SeatStatus.ALLOCATED.ordinal()])
+                .build());
+        
+        try (Stream<SeatDTO> seats = seatRepository.streamDtosByEventIdAndStatus(eventId, SeatStatus.AVAILABLE)) {
+            List<SeatDTO> chunk = new ArrayList<>(chunkSize);
+            Iterator<SeatDTO> iterator = seats.iterator();
+            while (iterator.hasNext()) {
+                chunk.add(iterator.next());
+                if (chunk.size() == chunkSize) {
+                    chunkConsumer.accept(chunk);
+                    chunk = new ArrayList<>(chunkSize);
+                }
+            }
+            if (!chunk.isEmpty()) {
+                chunkConsumer.accept(chunk);
+            }
+        }
+    }
+    
+    /**
+     * Returns the status, price and seat number of a few seats of an event, from the
+     * in-memory seat state when it is enabled. Seats that do not belong to the event are
+     * left out.
+     */
+    @Transactional(readOnly = true)
+    public SeatStatusResponse getSeatStatuses(Long eventId, List<Long> seatIds) {
+        Set<Long> ids = new LinkedHashSet<>(seatIds);
+        ids.remove(null);
+        if (ids.isEmpty()) {
+            throw new IllegalArgumentException("At least one seat ID is required");
+        }
+        if (ids.size() > maxStatusLookupSeats) {
+            throw new IllegalArgumentException("At most " + maxStatusLookupSeats + " seats can be looked up at once");
+        }
         
-        long allocatedCount = allSeats.stream()
-                .filter(seat -> seat.getStatus() == SeatStatus.ALLOCATED)
-                .count();
+        List<SeatStatusDTO> seats = new ArrayList<>(ids.size());
+        boolean fromMemory = seatStateStore.forEachSeat(eventId, ids,
+                (id, status, price, seatNumber) -> seats.add(new SeatStatusDTO(id, status, price, seatNumber)));
+        if (!fromMemory) {
+            seats.addAll(seatRepository.findStatusesByEventIdAndIdIn(eventId, ids));
+        }
         
-        Map<String, Long> availabilityBySection = availableSeats.stream()
-                .collect(Collectors.groupingBy(Seat::getSection, Collectors.counting()));
+        return SeatStatusResponse.builder()
+                .eventId(eventId)
+                .seats(seats)
+                .build();
+    }
+    
+    /**
+     * Returns up to count available seats of the event, cheapest first, optionally only of
+     * one type or section and up to a maximum price. Served from the price index.
+     */
+    public List<SeatDTO> getCheapestSeats(Long eventId, int count, SeatType type, String section, BigDecimal maxPrice) {
+        if (count < 1 || count > maxCheapestSeats) {
+            throw new IllegalArgumentException("Count must be between 1 and " + maxCheapestSeats);
+        }
+        return seatPriceIndex.findCheapest(eventId, count, type, section, maxPrice);
+    }
+    
+    /**
+     * Counts the available seats of the event priced between minPrice and maxPrice,
+     * inclusive, optionally only of one type or section. Served from the price index.
+     */
+    public PriceRangeCountResponse countSeatsInPriceRange(Long eventId, BigDecimal minPrice, BigDecimal maxPrice,
+                                                          SeatType type, String section) {
+        if (minPrice != null && maxPrice != null && minPrice.compareTo(maxPrice) > 0) {
+            throw new IllegalArgumentException("minPrice must not be greater than maxPrice");
+        }
         
-        return SeatAvailabilityResponse.builder()
+        return PriceRangeCountResponse.builder()
                 .eventId(eventId)
-                .totalSeats((long) allSeats.size())
-                .availableSeats((long) availableSeats.size())
-                .reservedSeats(reservedCount)
-                .allocatedSeats(allocatedCount)
-                .availableSeatsList(availableSeats.stream()
-                        .map(this::convertToDTO)
-                        .collect(Collectors.toList()))
-                .availabilityBySection(availabilityBySection)
+                .minPrice(minPrice)
+                .maxPrice(maxPrice)
+                .type(type)
+                .section(section)
+                .availableSeats(seatPriceIndex.countInPriceRange(eventId, minPrice, maxPrice, type, section))
+                .build();
+    }
+    
+    /**
+     * Returns the cheapest available price of every section of the event that still has
+     * available seats, optionally only for one seat type. Served from the price index.
+     */
+    public SectionPriceResponse getMinPricePerSection(Long eventId, SeatType type) {
+        return SectionPriceResponse.builder()
+                .eventId(eventId)
+                .type(type)
+                .minPriceBySection(seatPriceIndex.findMinPricePerSection(eventId, type))
                 .build();
     }
     
     @Transactional(isolation = Isolation.SERIALIZABLE)
     public SeatReservationResponse reserveSeats(SeatReservationRequest request) {
-        log.info("Reserving seats for event: {}, seatIds: {}, userId: {}", 
-                request.getEventId(), request.getSeatIds(), request.getUserId());
+        log.info("Reserving {} seats for event: {}, userId: {}",
+                request.getSeatIds().size(), request.getEventId(), request.getUserId());
         
-        // Fetch seats with pessimistic locking to prevent concurrent modifications
-        List<Seat> seats = seatRepository.findByIdInWithLock(request.getSeatIds());
+        materializeTemplateSeats(request.getEventId(), request.getSeatIds());
         
-        if (seats.size() != request.getSeatIds().size()) {
-            throw new ResourceNotFoundException("Some seats not found");
-        }
-        
-        // Validate all seats belong to the same event
-        boolean allSameEvent = seats.stream()
-                .allMatch(seat -> seat.getEventId().equals(request.getEventId()));
+        // Fetch seats with pessimistic locking to prevent concurrent modifications.
+        // Scoping by event prunes the lookup to the event's partition and guarantees
+        // that all seats belong to the requested event.
+        SeatLockEvent lock = SeatLockEvent.begin("reserve", request.getEventId(), request.getSeatIds().size());
+        List<Seat> seats = seatRepository.findByEventIdAndIdInWithLock(
+                request.getEventId(), request.getSeatIds());
+        lock.end(seats.size());
         
-        if (!allSameEvent) {
-            throw new IllegalArgumentException("All seats must belong to the same event");
+        if (seats.size() != request.getSeatIds().size()) {
+            throw missingSeats(request.getEventId(), request.getSeatIds(), seats);
         }
         
         // Check if all seats are available
@@ -101,6 +209,7 @@ public class SeatingService {
                     .tag("reason", "seats_unavailable")
                     .register(meterRegistry)
                     .increment();
+            contentionTracker.recordConflict(request.getEventId(), unavailableSeats);
             
             throw new SeatNotAvailableException(
                     "Seats are not available: " + 
@@ -113,21 +222,35 @@ public class SeatingService {
         // Reserve the seats
         LocalDateTime now = LocalDateTime.now();
         LocalDateTime expiresAt = now.plusMinutes(RESERVATION_TTL_MINUTES);
-        String reservationId = UUID.randomUUID().toString();
+        UUID reservationId = UUID.randomUUID();
         
         seats.forEach(seat -> {
             seat.setStatus(SeatStatus.RESERVED);
             seat.setReservedBy(request.getUserId());
             seat.setReservedAt(now);
             seat.setReservationExpiresAt(expiresAt);
+            seat.setReservationId(reservationId);
         });
         
-        List<Seat> reservedSeats = seatRepository.saveAll(seats);
+        // Flushed here so the seats carry their new versions into the published transitions
+        List<Seat> reservedSeats = seatRepository.saveAllAndFlush(seats);
         
         BigDecimal totalPrice = reservedSeats.stream()
                 .map(Seat::getPrice)
                 .reduce(BigDecimal.ZERO, BigDecimal::add);
         
+        // Allocation, release and extension can then address the seats by reservation id
+        reservationRepository.save(Reservation.builder()
+                .id(reservationId)
+                .eventId(request.getEventId())
+                .holderId(request.getUserId())
+                .status(ReservationStatus.ACTIVE)
+                .seatCount(reservedSeats.size())
+                .totalPrice(totalPrice)
+                .expiresAt(expiresAt)
+                .build());
+        publishTransitions(reservedSeats);
+        
         Counter.builder("seat_reservations_total")
                 .description("Total seat reservations")
                 .register(meterRegistry)
@@ -143,15 +266,93 @@ public class SeatingService {
                         .collect(Collectors.toList()))
                 .totalPrice(totalPrice)
                 .expiresAt(expiresAt)
-                .reservationId(reservationId)
+                .reservationId(reservationId.toString())
+                .build();
+    }
+    
+    /**
+     * Reserves any quantity available seats of a section. Concurrent requests for the same
+     * section never wait for each other: each skips the seats another one is claiming, and
+     * fails when too few are left. Seats of a venue layout are claimed by writing their rows.
+     */
+    @Transactional
+    public SeatReservationResponse reserveByQuantity(SeatQuantityReservationRequest request) {
+        log.info("Reserving {} seats for event: {}, section: {}, userId: {}",
+                request.getQuantity(), request.getEventId(), request.getSection(), request.getUserId());
+        
+        int quantity = request.getQuantity();
+        if (quantity > maxReservationQuantity) {
+            throw new IllegalArgumentException("At most " + maxReservationQuantity + " seats can be reserved at once");
+        }
+        
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime expiresAt = now.plusMinutes(RESERVATION_TTL_MINUTES);
+        UUID reservationId = UUID.randomUUID();
+        
+        SeatLockEvent lock = SeatLockEvent.begin("claim", request.getEventId(), quantity);
+        List<Object[]> claimed = new ArrayList<>(seatRepository.claimAvailableSeats(request.getEventId(),
+                request.getSection(), quantity, request.getUserId(), reservationId, now, expiresAt));
+        if (claimed.size() < quantity) {
+            claimed.addAll(seatRepository.claimTemplateSeats(request.getEventId(), request.getSection(),
+                    quantity - claimed.size(), request.getUserId(), reservationId, now, expiresAt));
+        }
+        lock.end(claimed.size());
+        
+        if (claimed.size() < quantity) {
+            Counter.builder("seat_reservations_failed")
+                    .description("Failed seat reservations")
+                    .tag("reason", "insufficient_seats")
+                    .register(meterRegistry)
+                    .increment();
+            contentionTracker.recordConflict(request.getEventId(), request.getSection());
+            
+            // Rolling back gives the seats claimed so far back
+            throw new SeatNotAvailableException("Only " + claimed.size() + " of " + quantity
+                    + " seats are available in section " + request.getSection());
+        }
+        
+        List<SeatDTO> reservedSeats = seatRepository.findDtosByReservation(request.getEventId(), reservationId);
+        BigDecimal totalPrice = reservedSeats.stream()
+                .map(SeatDTO::getPrice)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        
+        reservationRepository.save(Reservation.builder()
+                .id(reservationId)
+                .eventId(request.getEventId())
+                .holderId(request.getUserId())
+                .status(ReservationStatus.ACTIVE)
+                .seatCount(reservedSeats.size())
+                .totalPrice(totalPrice)
+                .expiresAt(expiresAt)
+                .build());
+        eventPublisher.publishEvent(new SeatsChangedEvent(Set.of(request.getEventId()), claimed.stream()
+                .map(row -> new SeatTransition(request.getEventId(), ((Number) row[0]).longValue(),
+                        SeatStatus.RESERVED, ((Number) row[1]).longValue()))
+                .collect(Collectors.toList())));
+        
+        Counter.builder("seat_reservations_total")
+                .description("Total seat reservations")
+                .register(meterRegistry)
+                .increment();
+        
+        log.info("Successfully reserved {} seats in section {} for user: {}",
+                reservedSeats.size(), request.getSection(), request.getUserId());
+        
+        return SeatReservationResponse.builder()
+                .success(true)
+                .message("Seats reserved successfully")
+                .reservedSeats(reservedSeats)
+                .totalPrice(totalPrice)
+                .expiresAt(expiresAt)
+                .reservationId(reservationId.toString())
                 .build();
     }
     
     @Transactional
     public void allocateSeats(SeatAllocationRequest request) {
-        log.info("Allocating seats: {} for order: {}", request.getSeatIds(), request.getOrderId());
+        log.info("Allocating {} seats for order: {}", request.getSeatIds().size(), request.getOrderId());
         
-        List<Seat> seats = seatRepository.findByIdInWithLock(request.getSeatIds());
+        List<Seat> seats = lockWithReservations("allocate", request.getEventId(), request.getSeatIds());
         
         if (seats.size() != request.getSeatIds().size()) {
             throw new ResourceNotFoundException("Some seats not found");
@@ -173,16 +374,34 @@ public class SeatingService {
             seat.setReservationExpiresAt(null);
         });
         
-        seatRepository.saveAll(seats);
+        seatRepository.saveAllAndFlush(seats);
+        
+        Set<UUID> reservationIds = seats.stream()
+                .map(Seat::getReservationId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        if (!reservationIds.isEmpty()) {
+            reservationRepository.settleWhenNoSeatsHeld(reservationIds);
+        }
+        publishTransitions(seats);
         
         log.info("Successfully allocated {} seats for order: {}", seats.size(), request.getOrderId());
     }
     
+    /**
+     * Releases the seats. With an event id only that event's seats are looked up; without one
+     * the event is taken from template seat ids, and failing that every partition is probed.
+     */
     @Transactional
-    public void releaseSeats(List<Long> seatIds) {
-        log.info("Releasing seats: {}", seatIds);
+    public void releaseSeats(Long eventId, List<Long> seatIds) {
+        log.info("Releasing {} seats", seatIds.size());
         
-        List<Seat> seats = seatRepository.findByIdInWithLock(seatIds);
+        List<Seat> seats = lockWithReservations("release", eventId, seatIds);
+        
+        Set<UUID> reservationIds = seats.stream()
+                .map(Seat::getReservationId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
         
         seats.forEach(seat -> {
             seat.setStatus(SeatStatus.AVAILABLE);
@@ -190,20 +409,106 @@ public class SeatingService {
             seat.setOrderId(null);
             seat.setReservedAt(null);
             seat.setReservationExpiresAt(null);
+            seat.setReservationId(null);
         });
         
-        seatRepository.saveAll(seats);
+        seatRepository.saveAllAndFlush(seats);
+        if (!reservationIds.isEmpty()) {
+            reservationRepository.settleWhenNoSeatsHeld(reservationIds);
+        }
+        publishTransitions(seats);
         
         log.info("Successfully released {} seats", seats.size());
     }
     
+    /**
+     * Locks the seats for a seat-id write, after locking the reservations they belong to.
+     * ReservationService locks a reservation before its seats; taking them in the same order
+     * keeps the two paths from deadlocking, and serialises concurrent partial releases of one
+     * reservation so the last of them sees that no seat is held any more and settles it.
+     */
+    private List<Seat> lockWithReservations(String operation, Long requestedEventId, List<Long> seatIds) {
+        Long eventId = scopeEvent(operation, requestedEventId, seatIds);
+        Set<UUID> reservationIds = new HashSet<>(eventId != null
+                ? seatRepository.findReservationIdsByEventIdAndIdIn(eventId, seatIds)
+                : seatRepository.findReservationIdsByIdIn(seatIds));
+        if (!reservationIds.isEmpty()) {
+            SeatLockEvent lock = SeatLockEvent.begin("reservation", eventId, reservationIds.size());
+            lock.end(reservationRepository.findAllByIdWithLock(reservationIds).size());
+        }
+        
+        SeatLockEvent lock = SeatLockEvent.begin(operation, eventId, seatIds.size());
+        List<Seat> seats = eventId != null
+                ? seatRepository.findByEventIdAndIdInWithLock(eventId, seatIds)
+                : seatRepository.findByIdInWithLock(seatIds);
+        lock.end(seats.size());
+        
+        // A seat reserved again between the two reads belongs to a reservation that is not locked
+        boolean moved = seats.stream()
+                .map(Seat::getReservationId)
+                .anyMatch(id -> id != null && !reservationIds.contains(id));
+        if (moved) {
+            throw new SeatNotAvailableException("Seats were reserved again meanwhile, please retry");
+        }
+        return seats;
+    }
+    
+    /**
+     * The event a seat-id lookup is scoped to, so that Postgres prunes it to the event's
+     * partition: the one given by the caller, else the one all the seat ids carry as template
+     * ids. Null when neither tells; the lookup then probes the partitions of every event and
+     * is counted in seat_lookups_unpruned.
+     */
+    private Long scopeEvent(String operation, Long eventId, Collection<Long> seatIds) {
+        if (eventId != null) {
+            return eventId;
+        }
+        Set<Long> templateEvents = seatIds.stream()
+                .map(id -> TemplateSeatId.isTemplate(id) ? TemplateSeatId.eventId(id) : null)
+                .collect(Collectors.toSet());
+        if (templateEvents.size() == 1 && !templateEvents.contains(null)) {
+            return templateEvents.iterator().next();
+        }
+        Counter.builder("seat_lookups_unpruned")
+                .description("Seat lookups by id that probed every event's partition")
+                .tag("operation", operation)
+                .register(meterRegistry)
+                .increment();
+        return null;
+    }
+    
+    // Only on the failure path: seats of another event are a bad request, missing ones are not found
+    private RuntimeException missingSeats(Long eventId, List<Long> seatIds, List<Seat> found) {
+        Set<Long> foundIds = found.stream().map(Seat::getId).collect(Collectors.toSet());
+        List<Long> missing = seatIds.stream()
+                .filter(id -> !foundIds.contains(id))
+                .collect(Collectors.toList());
+        boolean otherEvent = missing.stream()
+                .anyMatch(id -> TemplateSeatId.isTemplate(id) && TemplateSeatId.eventId(id) != eventId);
+        if (otherEvent || (!missing.isEmpty() && seatRepository.existsByIdIn(missing))) {
+            return new IllegalArgumentException("All seats must belong to the same event");
+        }
+        return new ResourceNotFoundException("Some seats not found for event: " + eventId);
+    }
+    
     @Scheduled(fixedRate = 60000) // Run every minute
     @Transactional
     public void releaseExpiredReservations() {
         log.info("Checking for expired reservations");
         
+        ExpirySweepEvent sweep = ExpirySweepEvent.begin("seats");
         LocalDateTime now = LocalDateTime.now();
+        Set<Long> affectedEvents = seatRepository.findEventIdsWithExpiredReservations(now).stream()
+                .map(Number::longValue)
+                .collect(Collectors.toSet());
+        if (affectedEvents.isEmpty()) {
+            sweep.end(0, 0);
+            return;
+        }
+        
         int releasedCount = seatRepository.releaseExpiredReservations(now);
+        publishSeatsChanged(affectedEvents);
+        sweep.end(0, releasedCount);
         
         if (releasedCount > 0) {
             log.info("Released {} expired reservations", releasedCount);
@@ -216,43 +521,22 @@ public class SeatingService {
     }
     
     @Transactional(readOnly = true)
-    public List<SeatDTO> getSeatsByEventId(Long eventId, String status) {
-        log.info("Fetching seats for event: {}, status: {}", eventId, status);
-        
-        List<Seat> seats;
-        if (status != null && !status.isEmpty()) {
-            SeatStatus seatStatus = SeatStatus.valueOf(status.toUpperCase());
-            seats = seatRepository.findByEventIdAndStatus(eventId, seatStatus);
-        } else {
-            seats = seatRepository.findByEventId(eventId);
-        }
-        
-        return seats.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
-    }
-    
-    @Transactional(readOnly = true)
-    public SeatDTO getSeatById(Long seatId) {
+    public SeatDTO getSeatById(Long eventId, Long seatId) {
         log.info("Fetching seat by ID: {}", seatId);
-        Seat seat = seatRepository.findById(seatId)
-                .orElseThrow(() -> new ResourceNotFoundException("Seat not found with id: " + seatId));
-        return convertToDTO(seat);
-    }
-    
-    @Transactional(readOnly = true)
-    public List<SeatDTO> getSeatsByOrderId(String orderId) {
-        log.info("Fetching seats for order: {}", orderId);
-        List<Seat> seats = seatRepository.findByOrderId(orderId);
-        return seats.stream()
+        return findSeat("get", eventId, seatId)
                 .map(this::convertToDTO)
-                .collect(Collectors.toList());
+                .or(() -> TemplateSeatId.isTemplate(seatId)
+                        ? seatRepository.findEffectiveDtoByEventIdAndId(TemplateSeatId.eventId(seatId), seatId)
+                        : Optional.empty())
+                .orElseThrow(() -> new ResourceNotFoundException("Seat not found with id: " + seatId));
     }
     
     @Transactional
     public SeatDTO createSeat(SeatDTO seatDTO) {
         log.info("Creating new seat for event: {}", seatDTO.getEventId());
         
+        seatPartitionService.ensurePartition(seatDTO.getEventId());
+        
         Seat seat = Seat.builder()
                 .eventId(seatDTO.getEventId())
                 .seatNumber(seatDTO.getSeatNumber())
@@ -264,37 +548,75 @@ public class SeatingService {
                 .build();
         
         Seat savedSeat = seatRepository.save(seat);
+        publishSeatsChanged(Set.of(savedSeat.getEventId()));
         log.info("Seat created with ID: {}", savedSeat.getId());
         
         return convertToDTO(savedSeat);
     }
     
     @Transactional
-    public void blockSeat(Long seatId) {
+    public void blockSeat(Long eventId, Long seatId) {
         log.info("Blocking seat: {}", seatId);
         
-        Seat seat = seatRepository.findById(seatId)
+        if (TemplateSeatId.isTemplate(seatId)) {
+            materializeTemplateSeats(TemplateSeatId.eventId(seatId), List.of(seatId));
+        }
+        Seat seat = findSeat("block", eventId, seatId)
                 .orElseThrow(() -> new ResourceNotFoundException("Seat not found with id: " + seatId));
         
         seat.setStatus(SeatStatus.BLOCKED);
-        seatRepository.save(seat);
+        seatRepository.saveAndFlush(seat);
+        publishTransitions(List.of(seat));
         
         log.info("Seat blocked: {}", seatId);
     }
     
     @Transactional
-    public void unblockSeat(Long seatId) {
+    public void unblockSeat(Long eventId, Long seatId) {
         log.info("Unblocking seat: {}", seatId);
         
-        Seat seat = seatRepository.findById(seatId)
+        if (TemplateSeatId.isTemplate(seatId)) {
+            materializeTemplateSeats(TemplateSeatId.eventId(seatId), List.of(seatId));
+        }
+        Seat seat = findSeat("unblock", eventId, seatId)
                 .orElseThrow(() -> new ResourceNotFoundException("Seat not found with id: " + seatId));
         
         seat.setStatus(SeatStatus.AVAILABLE);
-        seatRepository.save(seat);
+        seatRepository.saveAndFlush(seat);
+        publishTransitions(List.of(seat));
         
         log.info("Seat unblocked: {}", seatId);
     }
     
+    // Within the event's partition when the caller or the seat id tells the event, see scopeEvent
+    private Optional<Seat> findSeat(String operation, Long eventId, Long seatId) {
+        Long scope = scopeEvent(operation, eventId, List.of(seatId));
+        return scope != null ? seatRepository.findByEventIdAndId(scope, seatId) : seatRepository.findById(seatId);
+    }
+    
+    // Seats of events created from a venue layout get their row the first time they are written
+    private void materializeTemplateSeats(Long eventId, Collection<Long> seatIds) {
+        List<Integer> seatIndexes = seatIds.stream()
+                .filter(id -> TemplateSeatId.isTemplate(id) && TemplateSeatId.eventId(id) == eventId)
+                .map(TemplateSeatId::seatIndex)
+                .collect(Collectors.toList());
+        if (!seatIndexes.isEmpty()) {
+            seatRepository.materializeTemplateSeats(eventId, seatIndexes);
+        }
+    }
+    
+    // Delivered to listeners once the surrounding transaction has committed
+    private void publishSeatsChanged(Set<Long> eventIds) {
+        eventPublisher.publishEvent(new SeatsChangedEvent(eventIds));
+    }
+    
+    // The seats must have been flushed, see SeatTransition.of
+    private void publishTransitions(List<Seat> seats) {
+        eventPublisher.publishEvent(SeatsChangedEvent.of(seats.stream()
+                .map(SeatTransition::of)
+                .collect(Collectors.toList())));
+    }
+    
     private SeatDTO convertToDTO(Seat seat) {
         return modelMapper.map(seat, SeatDTO.class);
     }
@@ -0,0 +1,118 @@
+package com.ticketing.seatingservice.service;
+
+import com.ticketing.seatingservice.dto.VenueLayoutDTO;
+import com.ticketing.seatingservice.dto.VenueLayoutRequest;
+import com.ticketing.seatingservice.dto.VenueLayoutRequest.LayoutSeat;
+import com.ticketing.seatingservice.event.SeatsChangedEvent;
+import com.ticketing.seatingservice.exception.ResourceNotFoundException;
+import com.ticketing.seatingservice.layout.TemplateSeatId;
+import com.ticketing.seatingservice.model.VenueLayout;
+import com.ticketing.seatingservice.repository.SeatRepository;
+import com.ticketing.seatingservice.repository.VenueLayoutRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Venue layouts: seat maps defined once and shared by the events created from them.
+ *
+ * Attaching a layout to an event writes no seat rows. The event's seats are served from the
+ * layout until they are first reserved or blocked, at which point SeatingService writes
+ * their row (see V7__create_venue_layouts.sql).
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class VenueLayoutService {
+    
+    private static final int INSERT_BATCH_SIZE = 1000;
+    
+    private final VenueLayoutRepository venueLayoutRepository;
+    private final SeatRepository seatRepository;
+    private final SeatPartitionService seatPartitionService;
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    
+    @Transactional
+    public VenueLayoutDTO createLayout(VenueLayoutRequest request) {
+        List<LayoutSeat> seats = request.getSeats();
+        log.info("Creating venue layout '{}' with {} seats", request.getName(), seats.size());
+        
+        if (seats.size() > TemplateSeatId.MAX_SEAT_INDEX + 1) {
+            throw new IllegalArgumentException("A layout holds at most " + (TemplateSeatId.MAX_SEAT_INDEX + 1) + " seats");
+        }
+        
+        VenueLayout layout = venueLayoutRepository.save(VenueLayout.builder()
+                .name(request.getName())
+                .seatCount(seats.size())
+                .build());
+        
+        // Seat index = position in the request
+        List<Integer> indexes = IntStream.range(0, seats.size()).boxed().collect(Collectors.toList());
+        jdbcTemplate.batchUpdate("INSERT INTO venue_layout_seats " +
+                        "(layout_id, seat_index, seat_number, row_number, section, type, price) " +
+                        "VALUES (?, ?, ?, ?, ?, ?, ?)",
+                indexes, INSERT_BATCH_SIZE, (ps, index) -> {
+                    LayoutSeat seat = seats.get(index);
+                    ps.setLong(1, layout.getId());
+                    ps.setInt(2, index);
+                    ps.setString(3, seat.getSeatNumber());
+                    ps.setString(4, seat.getRowNumber());
+                    ps.setString(5, seat.getSection());
+                    ps.setShort(6, seat.getType().getCode());
+                    ps.setBigDecimal(7, seat.getPrice());
+                });
+        
+        log.info("Venue layout created with ID: {}", layout.getId());
+        return convertToDTO(layout);
+    }
+    
+    @Transactional(readOnly = true)
+    public VenueLayoutDTO getLayout(Long layoutId) {
+        return venueLayoutRepository.findById(layoutId)
+                .map(this::convertToDTO)
+                .orElseThrow(() -> new ResourceNotFoundException("Venue layout not found with id: " + layoutId));
+    }
+    
+    /**
+     * Gives an event without seats the seats of a layout, all of them AVAILABLE.
+     */
+    @Transactional
+    public void attachLayout(Long eventId, Long layoutId) {
+        log.info("Attaching venue layout {} to event: {}", layoutId, eventId);
+        
+        if (eventId < 0 || eventId > TemplateSeatId.MAX_EVENT_ID) {
+            throw new IllegalArgumentException("Event IDs of layout events must be between 0 and " + TemplateSeatId.MAX_EVENT_ID);
+        }
+        if (!venueLayoutRepository.existsById(layoutId)) {
+            throw new ResourceNotFoundException("Venue layout not found with id: " + layoutId);
+        }
+        if (seatRepository.existsByEventId(eventId)) {
+            throw new IllegalArgumentException("Event already has seats: " + eventId);
+        }
+        
+        // Seats written on first touch then land in the event's own partition
+        seatPartitionService.ensurePartition(eventId);
+        if (venueLayoutRepository.attachToEvent(eventId, layoutId) == 0) {
+            throw new IllegalArgumentException("Event already has a venue layout: " + eventId);
+        }
+        eventPublisher.publishEvent(new SeatsChangedEvent(Set.of(eventId)));
+    }
+    
+    private VenueLayoutDTO convertToDTO(VenueLayout layout) {
+        return VenueLayoutDTO.builder()
+                .id(layout.getId())
+                .name(layout.getName())
+                .seatCount(layout.getSeatCount())
+                .createdAt(layout.getCreatedAt())
+                .build();
+    }
+}
@@ -0,0 +1,145 @@
+package com.ticketing.seatingservice.state;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+import java.util.function.LongFunction;
+import java.util.function.Predicate;
+
+/**
+ * The most recently used events of an in-memory view of the seats (SeatStateStore,
+ * SeatPriceIndex), each read from the database the first time it is asked for.
+ *
+ * An event is registered before its seats are read, so transitions committed meanwhile
+ * are not missed: the entry buffers them until it is loaded (see LoadedEvent). Callers
+ * asking for an event that is being read wait for that read. Beyond maxEvents the least
+ * recently used events are dropped and handed to the eviction callback.
+ */
+public class EventLoadingCache<E extends LoadedEvent> {
+    
+    /**
+     * Reads the event's seats into the entry. Returns false when the event has none.
+     */
+    @FunctionalInterface
+    public interface Loader<E> {
+        boolean load(E entry);
+    }
+    
+    private final int maxEvents;
+    private final LongFunction<E> factory;
+    private final Loader<E> loader;
+    private final Consumer<E> onEvict;
+    
+    // Access-ordered, guarded by "this"
+    private final LinkedHashMap<Long, E> entries = new LinkedHashMap<>(32, 0.75f, true);
+    
+    public EventLoadingCache(int maxEvents, LongFunction<E> factory, Loader<E> loader, Consumer<E> onEvict) {
+        this.maxEvents = maxEvents;
+        this.factory = factory;
+        this.loader = loader;
+        this.onEvict = onEvict;
+    }
+    
+    /**
+     * Returns the event, reading it if it is not held or expired. Returns null when the
+     * event has no seats; a failed read is rethrown to every caller waiting for it.
+     */
+    public E acquire(Long eventId, Predicate<E> expired) {
+        E entry;
+        boolean load = false;
+        List<E> evicted = new ArrayList<>();
+        synchronized (this) {
+            entry = entries.get(eventId);
+            if (entry == null || expired.test(entry)) {
+                entry = factory.apply(eventId);
+                entries.put(eventId, entry);
+                load = true;
+                
+                Iterator<E> eldest = entries.values().iterator();
+                while (entries.size() > maxEvents && eldest.hasNext()) {
+                    evicted.add(eldest.next());
+                    eldest.remove();
+                }
+            }
+        }
+        evicted.forEach(onEvict);
+        
+        if (load) {
+            try {
+                if (loader.load(entry)) {
+                    entry.ready.complete(true);
+                } else {
+                    remove(eventId, entry);
+                    entry.ready.complete(false);
+                }
+            } catch (RuntimeException e) {
+                remove(eventId, entry);
+                entry.ready.completeExceptionally(e);
+                throw e;
+            }
+        }
+        
+        try {
+            return entry.ready.join() ? entry : null;
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+    
+    public E acquire(Long eventId) {
+        return acquire(eventId, entry -> false);
+    }
+    
+    /**
+     * The event if it is held, loaded or not; never reads it.
+     */
+    public synchronized E get(Long eventId) {
+        return entries.get(eventId);
+    }
+    
+    /**
+     * Adds an event that is already loaded, such as one recovered from disk, unless the
+     * cache is full or holds the event already.
+     */
+    public synchronized boolean addIfRoom(E entry) {
+        if (entries.size() >= maxEvents || entries.containsKey(entry.getEventId())) {
+            return false;
+        }
+        entries.put(entry.getEventId(), entry);
+        return true;
+    }
+    
+    /**
+     * Drops the event; the returned entry, if any, is not handed to the eviction callback.
+     */
+    public synchronized E remove(Long eventId) {
+        return entries.remove(eventId);
+    }
+    
+    /**
+     * The events that have been read and have seats, least recently used first.
+     */
+    public synchronized List<E> loaded() {
+        List<E> loaded = new ArrayList<>(entries.size());
+        for (E entry : entries.values()) {
+            if (entry.hasSeats()) {
+                loaded.add(entry);
+            }
+        }
+        return loaded;
+    }
+    
+    public synchronized int size() {
+        return entries.size();
+    }
+    
+    private synchronized void remove(Long eventId, E entry) {
+        entries.remove(eventId, entry);
+    }
+}
@@ -0,0 +1,279 @@
+package com.ticketing.seatingservice.state;
+
+import com.ticketing.seatingservice.model.SeatStatus;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+/**
+ * In-memory status of every seat of one event, in parallel arrays sorted by seat id.
+ *
+ * Each seat keeps the version it was last seen at, so transitions, database reads and
+ * journal replay can be merged in any order: a change only wins over a newer version.
+ * All access is synchronized on the instance.
+ */
+class EventSeatState extends LoadedEvent {
+    
+    private long[] ids = new long[0];
+    private long[] versions = new long[0];
+    private short[] statuses = new short[0];
+    private long[] pricesInCents = new long[0];
+    private String[] seatNumbers = new String[0];
+    
+    // Seats per status, indexed by SeatStatus ordinal
+    private final long[] countsByStatus = new long[SeatStatus.values().length];
+    
+    // Journal sequence of the last transition applied to this event
+    private long lastSeq;
+    private boolean dirty;
+    private boolean discarded;
+    
+    // False while the seats come from a snapshot and journal that were not compared with the database yet
+    private boolean verified;
+    
+    EventSeatState(long eventId) {
+        super(eventId);
+    }
+    
+    synchronized int size() {
+        return ids.length;
+    }
+    
+    synchronized long getLastSeq() {
+        return lastSeq;
+    }
+    
+    synchronized boolean isDirty() {
+        return dirty;
+    }
+    
+    synchronized boolean isVerified() {
+        return verified;
+    }
+    
+    synchronized boolean isDiscarded() {
+        return discarded;
+    }
+    
+    synchronized void discard() {
+        discarded = true;
+    }
+    
+    /**
+     * Installs the seats read from the database (rows sorted by id) and applies the
+     * transitions that arrived while they were being read.
+     */
+    synchronized void load(Rows rows) {
+        install(rows);
+        verified = true;
+        dirty = true;
+        markLoaded();
+    }
+    
+    /**
+     * Compares the state with fresh database rows (sorted by id) and adopts them, except
+     * for seats whose in-memory version is newer than the row. Returns the number of seats
+     * that were missing, extra or different at the same or an older version.
+     */
+    synchronized int reconcile(Rows rows) {
+        int mismatches = 0;
+        for (int i = 0; i < rows.size; i++) {
+            int current = Arrays.binarySearch(ids, rows.ids[i]);
+            if (current < 0) {
+                mismatches++;
+            } else if (versions[current] > rows.versions[i]) {
+                rows.versions[i] = versions[current];
+                rows.statuses[i] = statuses[current];
+            } else if (versions[current] != rows.versions[i] || statuses[current] != rows.statuses[i]) {
+                mismatches++;
+            }
+        }
+        for (long id : ids) {
+            if (Arrays.binarySearch(rows.ids, 0, rows.size, id) < 0) {
+                mismatches++;
+            }
+        }
+        
+        install(rows);
+        verified = true;
+        if (mismatches > 0) {
+            dirty = true;
+        }
+        return mismatches;
+    }
+    
+    private void install(Rows rows) {
+        ids = Arrays.copyOf(rows.ids, rows.size);
+        versions = Arrays.copyOf(rows.versions, rows.size);
+        statuses = Arrays.copyOf(rows.statuses, rows.size);
+        pricesInCents = Arrays.copyOf(rows.pricesInCents, rows.size);
+        seatNumbers = Arrays.copyOf(rows.seatNumbers, rows.size);
+        Arrays.fill(countsByStatus, 0);
+        for (short status : statuses) {
+            countsByStatus[SeatStatus.fromCode(status).ordinal()]++;
+        }
+    }
+    
+    @Override
+    protected synchronized ApplyResult apply(long seatId, short status, long version) {
+        if (defer(seatId, status, version)) {
+            return ApplyResult.DEFERRED;
+        }
+        int index = Arrays.binarySearch(ids, seatId);
+        if (index < 0) {
+            return ApplyResult.UNKNOWN_SEAT;
+        }
+        if (versions[index] >= version) {
+            return ApplyResult.STALE;
+        }
+        countsByStatus[SeatStatus.fromCode(statuses[index]).ordinal()]--;
+        countsByStatus[SeatStatus.fromCode(status).ordinal()]++;
+        versions[index] = version;
+        statuses[index] = status;
+        dirty = true;
+        return ApplyResult.APPLIED;
+    }
+    
+    synchronized void advanceTo(long seq) {
+        lastSeq = Math.max(lastSeq, seq);
+    }
+    
+    /**
+     * Number of seats per status, indexed by SeatStatus ordinal.
+     */
+    synchronized long[] countByStatus() {
+        return countsByStatus.clone();
+    }
+    
+    /**
+     * Calls the visitor for each of the given seats that belongs to the event.
+     */
+    synchronized void forEachSeat(Iterable<Long> seatIds, SeatStateStore.SeatVisitor visitor) {
+        for (Long seatId : seatIds) {
+            int index = Arrays.binarySearch(ids, seatId);
+            if (index >= 0) {
+                visitor.visit(ids[index], SeatStatus.fromCode(statuses[index]),
+                        BigDecimal.valueOf(pricesInCents[index], 2), seatNumbers[index]);
+            }
+        }
+    }
+    
+    /**
+     * Copies the state for a snapshot and clears the dirty flag. Returns null once the
+     * state has been discarded.
+     */
+    synchronized Snapshot takeSnapshot() {
+        if (discarded) {
+            return null;
+        }
+        dirty = false;
+        Rows rows = new Rows(ids.length);
+        System.arraycopy(ids, 0, rows.ids, 0, ids.length);
+        System.arraycopy(versions, 0, rows.versions, 0, ids.length);
+        System.arraycopy(statuses, 0, rows.statuses, 0, ids.length);
+        System.arraycopy(pricesInCents, 0, rows.pricesInCents, 0, ids.length);
+        System.arraycopy(seatNumbers, 0, rows.seatNumbers, 0, ids.length);
+        rows.size = ids.length;
+        return new Snapshot(getEventId(), lastSeq, rows);
+    }
+    
+    synchronized void markDirty() {
+        dirty = true;
+    }
+    
+    static EventSeatState fromSnapshot(Snapshot snapshot) {
+        EventSeatState state = new EventSeatState(snapshot.eventId);
+        state.install(snapshot.rows);
+        state.markLoaded();
+        state.lastSeq = snapshot.lastSeq;
+        state.ready.complete(true);
+        return state;
+    }
+    
+    /**
+     * Growable column buffers for seat rows, in ascending id order.
+     */
+    static class Rows {
+        long[] ids;
+        long[] versions;
+        short[] statuses;
+        long[] pricesInCents;
+        String[] seatNumbers;
+        int size;
+        
+        Rows(int capacity) {
+            ids = new long[capacity];
+            versions = new long[capacity];
+            statuses = new short[capacity];
+            pricesInCents = new long[capacity];
+            seatNumbers = new String[capacity];
+        }
+        
+        void add(long id, long version, short status, long priceInCents, String seatNumber) {
+            if (size == ids.length) {
+                int capacity = Math.max(16, size * 2);
+                ids = Arrays.copyOf(ids, capacity);
+                versions = Arrays.copyOf(versions, capacity);
+                statuses = Arrays.copyOf(statuses, capacity);
+                pricesInCents = Arrays.copyOf(pricesInCents, capacity);
+                seatNumbers = Arrays.copyOf(seatNumbers, capacity);
+            }
+            ids[size] = id;
+            versions[size] = version;
+            statuses[size] = status;
+            pricesInCents[size] = priceInCents;
+            seatNumbers[size] = seatNumber;
+            size++;
+        }
+    }
+    
+    /**
+     * Point-in-time copy of an event's state, written to and read from snapshot files.
+     *
+     * Layout: event id, last journal sequence, seat count, then per seat its id, version,
+     * status code, price in cents and seat number.
+     */
+    static class Snapshot {
+        final long eventId;
+        final long lastSeq;
+        final Rows rows;
+        
+        Snapshot(long eventId, long lastSeq, Rows rows) {
+            this.eventId = eventId;
+            this.lastSeq = lastSeq;
+            this.rows = rows;
+        }
+        
+        void writeTo(DataOutput out) throws IOException {
+            out.writeLong(eventId);
+            out.writeLong(lastSeq);
+            out.writeInt(rows.size);
+            for (int i = 0; i < rows.size; i++) {
+                out.writeLong(rows.ids[i]);
+                out.writeLong(rows.versions[i]);
+                out.writeShort(rows.statuses[i]);
+                out.writeLong(rows.pricesInCents[i]);
+                out.writeUTF(rows.seatNumbers[i]);
+            }
+        }
+        
+        static Snapshot readFrom(DataInput in) throws IOException {
+            long eventId = in.readLong();
+            long lastSeq = in.readLong();
+            int size = in.readInt();
+            Rows rows = new Rows(size);
+            for (int i = 0; i < size; i++) {
+                rows.ids[i] = in.readLong();
+                rows.versions[i] = in.readLong();
+                rows.statuses[i] = in.readShort();
+                rows.pricesInCents[i] = in.readLong();
+                rows.seatNumbers[i] = in.readUTF();
+            }
+            rows.size = size;
+            return new Snapshot(eventId, lastSeq, rows);
+        }
+    }
+}
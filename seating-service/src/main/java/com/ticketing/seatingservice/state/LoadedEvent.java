@@ -0,0 +1,75 @@
+package com.ticketing.seatingservice.state;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * An event held by an EventLoadingCache, whose seats are read from the database after it
+ * has been registered. Transitions that arrive in between are buffered and applied once
+ * the seats are in. Subclasses synchronize on the instance, as this class does.
+ */
+public abstract class LoadedEvent {
+    
+    private final long eventId;
+    
+    private boolean loaded;
+    private List<long[]> pending = new ArrayList<>();
+    
+    // Completed once the seats have been read; false when the event turned out to have none
+    final CompletableFuture<Boolean> ready = new CompletableFuture<>();
+    
+    protected LoadedEvent(long eventId) {
+        this.eventId = eventId;
+    }
+    
+    public long getEventId() {
+        return eventId;
+    }
+    
+    /**
+     * Applies a status change. Returns APPLIED, STALE when the seat is already at that
+     * version or newer, UNKNOWN_SEAT when the seat is not part of the event, or DEFERRED
+     * while the seats are still being read (the change is applied once they are loaded).
+     */
+    protected abstract ApplyResult apply(long seatId, short status, long version);
+    
+    /**
+     * Buffers the change while the seats are still being read. For apply, which returns
+     * DEFERRED when this does.
+     */
+    protected synchronized boolean defer(long seatId, short status, long version) {
+        if (loaded) {
+            return false;
+        }
+        pending.add(new long[] {seatId, status, version});
+        return true;
+    }
+    
+    /**
+     * Marks the seats as loaded and applies the changes buffered while they were read. For
+     * the end of a subclass's load.
+     */
+    protected synchronized void markLoaded() {
+        if (loaded) {
+            return;
+        }
+        loaded = true;
+        List<long[]> deferred = pending;
+        pending = null;
+        for (long[] transition : deferred) {
+            apply(transition[0], (short) transition[1], transition[2]);
+        }
+    }
+    
+    /**
+     * True once the seats have been read and the event has some. Never waits for a read.
+     */
+    public boolean hasSeats() {
+        return ready.isDone() && !ready.isCompletedExceptionally() && ready.join();
+    }
+    
+    public enum ApplyResult {
+        APPLIED, STALE, UNKNOWN_SEAT, DEFERRED
+    }
+}
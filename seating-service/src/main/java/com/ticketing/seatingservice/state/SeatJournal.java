@@ -0,0 +1,180 @@
+package com.ticketing.seatingservice.state;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only journal of seat transitions in memory-mapped segment files.
+ *
+ * Every record has the same size and carries its own sequence number and checksum:
+ *
+ *   seq (8) | event id (8) | seat id (8) | seat version (8) | status (2) | unused (2) | crc32 (4)
+ *
+ * Segments are preallocated and zero-filled, so replay stops at the first record with
+ * sequence 0 or a bad checksum, which is where a crash cut the journal short. Writes go
+ * to the page cache and survive a crash of the process; they are forced to disk when a
+ * segment is rolled or closed. The database stays the source of truth, so losing the tail
+ * of the journal to a power failure only means the verification has more to repair.
+ */
+@Slf4j
+class SeatJournal implements Closeable {
+    
+    static final int RECORD_BYTES = 40;
+    
+    private static final String PREFIX = "journal-";
+    private static final String SUFFIX = ".log";
+    
+    private final Path dir;
+    private final int segmentRecords;
+    private final CRC32 crc = new CRC32();
+    private final byte[] record = new byte[RECORD_BYTES];
+    
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private long segmentFirstSeq;
+    private long nextSeq = 1;
+    private long appended;
+    
+    SeatJournal(Path dir, int segmentBytes) {
+        this.dir = dir;
+        this.segmentRecords = Math.max(1, segmentBytes / RECORD_BYTES);
+    }
+    
+    /**
+     * Replays the records of all existing segments in sequence order and returns the
+     * number of records read. Appending continues after the highest sequence seen.
+     */
+    synchronized long replay(RecordHandler handler) throws IOException {
+        long records = 0;
+        for (Path segment : segments()) {
+            try (FileChannel in = FileChannel.open(segment, StandardOpenOption.READ)) {
+                ByteBuffer segmentBuffer = in.map(FileChannel.MapMode.READ_ONLY, 0, in.size());
+                while (segmentBuffer.remaining() >= RECORD_BYTES) {
+                    segmentBuffer.get(record);
+                    ByteBuffer view = ByteBuffer.wrap(record);
+                    long seq = view.getLong(0);
+                    if (seq == 0 || view.getInt(36) != checksum()) {
+                        break;
+                    }
+                    handler.handle(seq, view.getLong(8), view.getLong(16), view.getShort(32), view.getLong(24));
+                    nextSeq = Math.max(nextSeq, seq + 1);
+                    records++;
+                }
+            }
+        }
+        return records;
+    }
+    
+    /**
+     * Opens a new segment for appending.
+     */
+    synchronized void start() throws IOException {
+        roll();
+    }
+    
+    /**
+     * Appends a transition and returns its sequence number.
+     */
+    synchronized long append(long eventId, long seatId, short status, long version) throws IOException {
+        if (!buffer.hasRemaining()) {
+            roll();
+        }
+        long seq = nextSeq++;
+        ByteBuffer view = ByteBuffer.wrap(record);
+        view.putLong(0, seq);
+        view.putLong(8, eventId);
+        view.putLong(16, seatId);
+        view.putLong(24, version);
+        view.putShort(32, status);
+        view.putShort(34, (short) 0);
+        view.putInt(36, checksum());
+        buffer.put(record);
+        appended++;
+        return seq;
+    }
+    
+    /**
+     * First sequence of the segment currently appended to. Every record in older segments
+     * has a lower sequence.
+     */
+    synchronized long activeSegment() {
+        return segmentFirstSeq;
+    }
+    
+    synchronized long appendedRecords() {
+        return appended;
+    }
+    
+    /**
+     * Deletes the segments older than the one starting at the given sequence.
+     */
+    synchronized int deleteSegmentsBefore(long firstSeq) throws IOException {
+        int deleted = 0;
+        for (Path segment : segments()) {
+            if (firstSeqOf(segment) < firstSeq) {
+                Files.deleteIfExists(segment);
+                deleted++;
+            }
+        }
+        return deleted;
+    }
+    
+    @Override
+    public synchronized void close() throws IOException {
+        if (channel != null) {
+            buffer.force();
+            channel.close();
+            channel = null;
+        }
+    }
+    
+    // Checksum of the first 36 bytes of the current record
+    private int checksum() {
+        crc.reset();
+        crc.update(record, 0, 36);
+        return (int) crc.getValue();
+    }
+    
+    private void roll() throws IOException {
+        close();
+        segmentFirstSeq = nextSeq;
+        Path segment = dir.resolve(String.format("%s%020d%s", PREFIX, segmentFirstSeq, SUFFIX));
+        // A leftover segment with this name cannot hold any valid record, so it is overwritten
+        channel = FileChannel.open(segment, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) segmentRecords * RECORD_BYTES);
+        log.debug("Started seat journal segment {}", segment.getFileName());
+    }
+    
+    // Existing segments, oldest first
+    private List<Path> segments() throws IOException {
+        List<Path> segments = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, PREFIX + "*" + SUFFIX)) {
+            stream.forEach(segments::add);
+        }
+        segments.sort((a, b) -> Long.compare(firstSeqOf(a), firstSeqOf(b)));
+        return segments;
+    }
+    
+    private static long firstSeqOf(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+    }
+    
+    @FunctionalInterface
+    interface RecordHandler {
+        void handle(long seq, long eventId, long seatId, short status, long version);
+    }
+}
@@ -0,0 +1,454 @@
+package com.ticketing.seatingservice.state;
+
+import com.ticketing.seatingservice.event.SeatTransition;
+import com.ticketing.seatingservice.event.SeatsChangedEvent;
+import com.ticketing.seatingservice.layout.EventSeatLoader;
+import com.ticketing.seatingservice.model.SeatStatus;
+import com.ticketing.seatingservice.state.EventSeatState.Rows;
+import com.ticketing.seatingservice.state.EventSeatState.Snapshot;
+import com.ticketing.seatingservice.state.LoadedEvent.ApplyResult;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.*;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Keeps the status of every seat of the most recently used events in memory.
+ *
+ * An event is read from the database the first time it is asked for and then follows the
+ * seat transitions carried by SeatsChangedEvent. Every applied transition is appended to
+ * a memory-mapped journal (SeatJournal), and each changed event is periodically written
+ * to a compact binary snapshot file. On startup the snapshots are loaded and the journal
+ * tail is replayed on top of them, so hot events are back without a full read per event.
+ *
+ * The database stays the source of truth. Recovered events may have missed changes made
+ * while the process was down, so each one is compared with its rows by seat version before
+ * it is first served; until then countByStatus does not answer for it. A background check
+ * also compares every event held in memory with its rows and repairs what differs.
+ * Mutations that do not report their transitions drop the event, which is then read again
+ * on next use.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SeatStateStore {
+    
+    private static final int SNAPSHOT_MAGIC = 0x53454154; // "SEAT"
+    private static final short SNAPSHOT_FORMAT = 1;
+    private static final String SNAPSHOT_PREFIX = "event-";
+    private static final String SNAPSHOT_SUFFIX = ".snap";
+    
+    private final EventSeatLoader eventSeatLoader;
+    private final MeterRegistry meterRegistry;
+    
+    @Value("${seating.state.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${seating.state.dir:data/seat-state}")
+    private String stateDir;
+    
+    @Value("${seating.state.max-events:64}")
+    private int maxEvents;
+    
+    @Value("${seating.state.journal-segment-bytes:16777216}")
+    private int journalSegmentBytes;
+    
+    private EventLoadingCache<EventSeatState> states;
+    
+    private Path dir;
+    private SeatJournal journal;
+    
+    // When the oldest snapshot read on startup was written
+    private volatile Instant recoveredAsOf;
+    
+    private Counter loads;
+    private Counter journalRecords;
+    private Counter mismatches;
+    
+    @PostConstruct
+    void recover() {
+        states = new EventLoadingCache<>(maxEvents, EventSeatState::new, this::load, this::discard);
+        if (!enabled) {
+            return;
+        }
+        
+        loads = Counter.builder("seat_state_loads")
+                .description("Events read into the in-memory seat state from the database")
+                .register(meterRegistry);
+        journalRecords = Counter.builder("seat_state_journal_records")
+                .description("Seat transitions appended to the journal")
+                .register(meterRegistry);
+        mismatches = Counter.builder("seat_state_mismatches")
+                .description("Seats whose in-memory state differed from the database and were repaired")
+                .register(meterRegistry);
+        Gauge.builder("seat_state_events", this, SeatStateStore::eventCount)
+                .description("Events held in the in-memory seat state")
+                .register(meterRegistry);
+        
+        long start = System.nanoTime();
+        try {
+            dir = Paths.get(stateDir);
+            Files.createDirectories(dir);
+            journal = new SeatJournal(dir, journalSegmentBytes);
+            
+            Map<Long, EventSeatState> recovered = readSnapshots();
+            Set<Long> broken = new HashSet<>();
+            long replayed = journal.replay((seq, eventId, seatId, status, version) -> {
+                EventSeatState state = recovered.get(eventId);
+                if (state != null && seq > state.getLastSeq()) {
+                    if (state.apply(seatId, status, version) == ApplyResult.UNKNOWN_SEAT) {
+                        broken.add(eventId);
+                    }
+                    state.advanceTo(seq);
+                }
+            });
+            journal.start();
+            
+            for (Long eventId : broken) {
+                recovered.remove(eventId);
+                deleteSnapshot(eventId);
+            }
+            
+            // Keep the events that changed last
+            List<EventSeatState> recent = new ArrayList<>(recovered.values());
+            recent.sort(Comparator.comparingLong(EventSeatState::getLastSeq).reversed());
+            for (EventSeatState state : recent) {
+                if (!states.addIfRoom(state)) {
+                    deleteSnapshot(state.getEventId());
+                }
+            }
+            
+            // Folds the replayed records into the snapshots and drops the old segments
+            writeSnapshots();
+            
+            log.info("Recovered seat state of {} events ({} journal records) in {} ms",
+                    eventCount(), replayed, (System.nanoTime() - start) / 1_000_000);
+        } catch (IOException e) {
+            log.error("Seat state journal unavailable in {}, serving seat state from the database: {}",
+                    stateDir, e.getMessage());
+            enabled = false;
+        }
+    }
+    
+    @PreDestroy
+    void close() {
+        if (!enabled) {
+            return;
+        }
+        writeSnapshots();
+        try {
+            journal.close();
+        } catch (IOException e) {
+            log.warn("Failed to close seat journal: {}", e.getMessage());
+        }
+    }
+    
+    /**
+     * When the oldest snapshot recovered on startup was written, or null if none was. The
+     * recovered events may lack seat changes committed since then by other replicas.
+     */
+    public Instant getRecoveredAsOf() {
+        return recoveredAsOf;
+    }
+    
+    /**
+     * Calls the visitor for each of the given seats of the event, reading the event into
+     * memory if needed. Returns false when the seat state is disabled or the event has no
+     * seats, in which case the visitor was not called.
+     */
+    public boolean forEachSeat(Long eventId, Collection<Long> seatIds, SeatVisitor visitor) {
+        if (!enabled) {
+            return false;
+        }
+        EventSeatState state = acquire(eventId);
+        if (state == null) {
+            return false;
+        }
+        state.forEachSeat(seatIds, visitor);
+        return true;
+    }
+    
+    /**
+     * Returns the event's seat counts per status, indexed by SeatStatus ordinal, if the
+     * event is held in memory and verified, or null otherwise. Never reads the event from
+     * the database.
+     */
+    public long[] countByStatus(Long eventId) {
+        if (!enabled) {
+            return null;
+        }
+        EventSeatState state = states.get(eventId);
+        if (state == null || !state.hasSeats() || !state.isVerified()) {
+            return null;
+        }
+        return state.countByStatus();
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSeatsChanged(SeatsChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        if (!event.hasTransitions()) {
+            event.getEventIds().forEach(this::invalidate);
+            return;
+        }
+        
+        for (SeatTransition transition : event.getTransitions()) {
+            EventSeatState state = states.get(transition.getEventId());
+            if (state != null) {
+                apply(state, transition);
+            }
+        }
+    }
+    
+    /**
+     * Drops the event's in-memory state and snapshot; it is read again on next use.
+     */
+    public void invalidate(Long eventId) {
+        EventSeatState state = states.remove(eventId);
+        if (state != null) {
+            discard(state);
+        }
+    }
+    
+    /**
+     * Writes a snapshot of every event that changed since its last one, then deletes the
+     * journal segments all of whose records are covered by snapshots.
+     */
+    @Scheduled(fixedDelayString = "${seating.state.snapshot-interval-ms:30000}")
+    public void writeSnapshots() {
+        if (!enabled) {
+            return;
+        }
+        
+        long boundary = journal.activeSegment();
+        boolean complete = true;
+        int written = 0;
+        for (EventSeatState state : states.loaded()) {
+            if (!state.isDirty()) {
+                continue;
+            }
+            try {
+                if (writeSnapshot(state)) {
+                    written++;
+                }
+            } catch (IOException e) {
+                log.warn("Failed to write seat state snapshot of event {}: {}", state.getEventId(), e.getMessage());
+                state.markDirty();
+                complete = false;
+            }
+        }
+        
+        if (complete) {
+            try {
+                int deleted = journal.deleteSegmentsBefore(boundary);
+                if (written > 0 || deleted > 0) {
+                    log.debug("Wrote {} seat state snapshots, deleted {} journal segments", written, deleted);
+                }
+            } catch (IOException e) {
+                log.warn("Failed to delete old seat journal segments: {}", e.getMessage());
+            }
+        }
+    }
+    
+    /**
+     * Compares every event held in memory with the database and repairs any difference.
+     */
+    @Scheduled(fixedDelayString = "${seating.state.verify-interval-ms:300000}",
+               initialDelayString = "${seating.state.verify-initial-delay-ms:10000}")
+    public void verify() {
+        if (!enabled) {
+            return;
+        }
+        
+        for (EventSeatState state : states.loaded()) {
+            reconcile(state);
+        }
+    }
+    
+    // Adopts the event's rows where they are newer; false if the event has no seats any more
+    private boolean reconcile(EventSeatState state) {
+        Rows rows = readSeats(state.getEventId());
+        if (rows.size == 0) {
+            invalidate(state.getEventId());
+            return false;
+        }
+        
+        int differing = state.reconcile(rows);
+        if (differing > 0) {
+            log.warn("Seat state of event {} differed from the database in {} seats, repaired",
+                    state.getEventId(), differing);
+            mismatches.increment(differing);
+        }
+        return true;
+    }
+    
+    private EventSeatState acquire(Long eventId) {
+        EventSeatState state = states.acquire(eventId);
+        if (state == null) {
+            return null;
+        }
+        
+        // Recovered from disk: catch up with what changed while the process was down first
+        if (!state.isVerified() && !reconcile(state)) {
+            return null;
+        }
+        return state;
+    }
+    
+    private void apply(EventSeatState state, SeatTransition transition) {
+        ApplyResult result;
+        synchronized (state) {
+            result = state.apply(transition.getSeatId(), transition.getStatus().getCode(), transition.getVersion());
+            if (result == ApplyResult.APPLIED) {
+                try {
+                    state.advanceTo(journal.append(transition.getEventId(), transition.getSeatId(),
+                            transition.getStatus().getCode(), transition.getVersion()));
+                    journalRecords.increment();
+                } catch (IOException e) {
+                    // The next snapshot still captures the change
+                    log.warn("Failed to journal transition of seat {}: {}", transition.getSeatId(), e.getMessage());
+                }
+            }
+        }
+        if (result == ApplyResult.UNKNOWN_SEAT) {
+            invalidate(transition.getEventId());
+        }
+    }
+    
+    private boolean load(EventSeatState state) {
+        Rows rows = readSeats(state.getEventId());
+        if (rows.size == 0) {
+            return false;
+        }
+        state.load(rows);
+        loads.increment();
+        return true;
+    }
+    
+    private Rows readSeats(Long eventId) {
+        Rows rows = new Rows(256);
+        eventSeatLoader.load(eventId, (id, version, status, priceInCents, type, section, rowNumber, seatNumber) ->
+                rows.add(id, version, status, priceInCents, seatNumber));
+        return rows;
+    }
+    
+    private void discard(EventSeatState state) {
+        // Serialised with writeSnapshot, so a snapshot in progress cannot bring the file back
+        synchronized (state) {
+            state.discard();
+            deleteSnapshot(state.getEventId());
+        }
+    }
+    
+    private double eventCount() {
+        return states.size();
+    }
+    
+    // Snapshot file: magic, format, EventSeatState.Snapshot, CRC32 of everything before it
+    private boolean writeSnapshot(EventSeatState state) throws IOException {
+        Snapshot snapshot = state.takeSnapshot();
+        if (snapshot == null) {
+            return false;
+        }
+        
+        Path target = snapshotPath(snapshot.eventId);
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        CRC32 crc = new CRC32();
+        try (DataOutputStream out = new DataOutputStream(new CheckedOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(temp), 65536), crc))) {
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeShort(SNAPSHOT_FORMAT);
+            snapshot.writeTo(out);
+            out.writeInt((int) crc.getValue());
+        }
+        
+        synchronized (state) {
+            if (state.isDiscarded()) {
+                Files.deleteIfExists(temp);
+                return false;
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+        return true;
+    }
+    
+    private Map<Long, EventSeatState> readSnapshots() throws IOException {
+        Map<Long, EventSeatState> recovered = new HashMap<>();
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, SNAPSHOT_PREFIX + "*")) {
+            stream.forEach(files::add);
+        }
+        
+        for (Path file : files) {
+            if (!file.getFileName().toString().endsWith(SNAPSHOT_SUFFIX)) {
+                // Left behind by a snapshot that was being written when the process stopped
+                Files.deleteIfExists(file);
+                continue;
+            }
+            CRC32 crc = new CRC32();
+            try (DataInputStream in = new DataInputStream(new CheckedInputStream(
+                    new BufferedInputStream(Files.newInputStream(file), 65536), crc))) {
+                if (in.readInt() != SNAPSHOT_MAGIC || in.readShort() != SNAPSHOT_FORMAT) {
+                    throw new IOException("unknown snapshot format");
+                }
+                Snapshot snapshot = Snapshot.readFrom(in);
+                int expected = (int) crc.getValue();
+                if (in.readInt() != expected) {
+                    throw new IOException("checksum mismatch");
+                }
+                recovered.put(snapshot.eventId, EventSeatState.fromSnapshot(snapshot));
+                Instant writtenAt = Files.getLastModifiedTime(file).toInstant();
+                if (recoveredAsOf == null || writtenAt.isBefore(recoveredAsOf)) {
+                    recoveredAsOf = writtenAt;
+                }
+            } catch (IOException e) {
+                log.warn("Ignoring unreadable seat state snapshot {}: {}", file.getFileName(), e.getMessage());
+                Files.deleteIfExists(file);
+            }
+        }
+        return recovered;
+    }
+    
+    private void deleteSnapshot(long eventId) {
+        try {
+            Files.deleteIfExists(snapshotPath(eventId));
+        } catch (IOException e) {
+            log.warn("Failed to delete seat state snapshot of event {}: {}", eventId, e.getMessage());
+        }
+    }
+    
+    private Path snapshotPath(long eventId) {
+        return dir.resolve(SNAPSHOT_PREFIX + eventId + SNAPSHOT_SUFFIX);
+    }
+    
+    @FunctionalInterface
+    public interface SeatVisitor {
+        void visit(long id, SeatStatus status, BigDecimal price, String seatNumber);
+    }
+}
@@ -0,0 +1,94 @@
+-- Only events that are known to be over are archived.
+--
+-- Going by the age of an event's last seat change also picked events on sale far in the
+-- future that had not sold anything yet, and moved their seats out from under buyers. An
+-- event is now archived once it has been marked finished (POST .../archive, recorded in
+-- finished_events so the signal survives restarts), or once its partition was detached.
+-- Neither needs a scan of seats, so finding candidates no longer reads every partition.
+
+CREATE TABLE finished_events (
+    event_id    BIGINT    NOT NULL,
+    finished_at TIMESTAMP NOT NULL,
+    CONSTRAINT finished_events_pkey PRIMARY KEY (event_id)
+);
+
+DROP FUNCTION find_seat_archive_candidates(TIMESTAMP, INT);
+
+CREATE FUNCTION find_seat_archive_candidates(p_limit INT)
+RETURNS SETOF BIGINT
+LANGUAGE sql STABLE AS $$
+    (SELECT substring(c.relname FROM '^seats_event_(-?[0-9]+)$')::BIGINT
+     FROM pg_class c
+     WHERE c.relname ~ '^seats_event_-?[0-9]+$'
+       AND c.relkind = 'r'
+       AND c.relnamespace = (SELECT relnamespace FROM pg_class WHERE oid = 'seats'::regclass)
+       AND NOT EXISTS (SELECT 1 FROM pg_inherits i WHERE i.inhrelid = c.oid))
+    UNION
+    (SELECT event_id FROM finished_events ORDER BY finished_at LIMIT p_limit)
+    LIMIT p_limit;
+$$;
+
+-- A seat that is already in the archive is an error, not something to skip: the DELETE and
+-- the INSERT are one statement, so the whole batch is rolled back and the seats stay live
+CREATE OR REPLACE FUNCTION archive_seat_batch(p_event_id BIGINT, p_batch INT) RETURNS INT
+LANGUAGE plpgsql AS $$
+DECLARE
+    part   TEXT     := 'seats_event_' || p_event_id;
+    source REGCLASS := to_regclass(quote_ident(part));
+    moved  INT;
+BEGIN
+    IF source IS NULL OR EXISTS (SELECT 1 FROM pg_inherits WHERE inhrelid = source) THEN
+        source := 'seats'::regclass;
+    END IF;
+
+    EXECUTE format(
+        'WITH moved AS ('
+        '    DELETE FROM %s'
+        '    WHERE event_id = $1 AND status <> 1'
+        '      AND id IN (SELECT id FROM %s WHERE event_id = $1 AND status <> 1 LIMIT $2)'
+        '    RETURNING id, event_id, seat_number, row_number, section, type, price, status,'
+        '              reserved_by, order_id, created_at, updated_at'
+        ') '
+        'INSERT INTO seats_archive (id, event_id, seat_number, row_number, section, type, price,'
+        '                           status, reserved_by, order_id, created_at, updated_at) '
+        'SELECT * FROM moved',
+        source, source)
+    USING p_event_id, p_batch;
+
+    GET DIAGNOSTICS moved = ROW_COUNT;
+    RETURN moved;
+EXCEPTION WHEN unique_violation THEN
+    RAISE EXCEPTION 'Seats of event % are already in seats_archive, nothing was moved', p_event_id
+        USING ERRCODE = 'unique_violation', DETAIL = SQLERRM;
+END;
+$$;
+
+-- Finishing an archive also clears the event's finish signal
+CREATE OR REPLACE FUNCTION finish_seat_archive(p_event_id BIGINT) RETURNS BOOLEAN
+LANGUAGE plpgsql AS $$
+DECLARE
+    part   TEXT     := 'seats_event_' || p_event_id;
+    source REGCLASS := to_regclass(quote_ident(part));
+    remaining BOOLEAN;
+BEGIN
+    IF source IS NULL THEN
+        IF EXISTS (SELECT 1 FROM seats WHERE event_id = p_event_id) THEN
+            RETURN FALSE;
+        END IF;
+        DELETE FROM event_layouts WHERE event_id = p_event_id;
+        DELETE FROM finished_events WHERE event_id = p_event_id;
+        RETURN TRUE;
+    END IF;
+
+    EXECUTE format('SELECT EXISTS (SELECT 1 FROM %s)', source) INTO remaining;
+    IF remaining THEN
+        RETURN FALSE;
+    END IF;
+
+    PERFORM detach_seat_partition(p_event_id);
+    EXECUTE format('DROP TABLE %s', source);
+    DELETE FROM event_layouts WHERE event_id = p_event_id;
+    DELETE FROM finished_events WHERE event_id = p_event_id;
+    RETURN TRUE;
+END;
+$$;
@@ -0,0 +1,40 @@
+-- Partitions are detached with DETACH PARTITION ... CONCURRENTLY, which only takes a SHARE
+-- UPDATE EXCLUSIVE lock on seats instead of the ACCESS EXCLUSIVE lock that blocked every
+-- seat query of every event. PostgreSQL refuses it while seats has a default partition.
+--
+-- Every path that inserts seats creates the event's partition first, so seats_default only
+-- ever held rows from before V2. Those move to their own partitions and the default
+-- partition goes; an insert for an event without a partition now fails instead of landing
+-- in a table that every new partition had to be checked against.
+
+DO $$
+DECLARE
+    e BIGINT;
+BEGIN
+    FOR e IN SELECT DISTINCT event_id FROM seats_default LOOP
+        PERFORM ensure_seat_partition(e);
+    END LOOP;
+END;
+$$;
+
+DROP TABLE seats_default;
+
+CREATE OR REPLACE FUNCTION ensure_seat_partition(p_event_id BIGINT) RETURNS BOOLEAN
+LANGUAGE plpgsql AS $$
+DECLARE
+    part TEXT := 'seats_event_' || p_event_id;
+BEGIN
+    IF to_regclass(quote_ident(part)) IS NOT NULL THEN
+        RETURN FALSE;
+    END IF;
+
+    -- Serialise concurrent creators of the same partition
+    PERFORM pg_advisory_xact_lock(hashtextextended(part, 0));
+    IF to_regclass(quote_ident(part)) IS NOT NULL THEN
+        RETURN FALSE;
+    END IF;
+
+    EXECUTE format('CREATE TABLE %I PARTITION OF seats FOR VALUES IN (%s)', part, p_event_id);
+    RETURN TRUE;
+END;
+$$;
@@ -0,0 +1,127 @@
+-- Template seat claims no longer walk the whole section.
+--
+-- claim_template_seats (V9) visited every layout seat of the section in a PL/pgSQL loop and
+-- probed seats for each, so once a section was mostly sold every claim paid for all of its
+-- seats, and a sold-out section was scanned end to end only to find nothing.
+--
+-- Seats without a row are now found by an anti-join that walks the ordered section index
+-- and probes the seats primary key, LIMITed to the quantity asked for and repeated from
+-- the last seat it returned until enough are claimed. Below that, template_seat_cursors
+-- remembers per section the lowest seat index that may still have no row: every seat
+-- before it is materialised, and a seat row never goes away while the event is live, so
+-- the scan and the random start begin at the cursor. A claim moves the cursor past the run
+-- of materialised seats at it, in its own transaction, so a rolled back claim moves
+-- nothing. Only the claim that gets a transaction-level advisory lock on the cursor moves
+-- it; the others leave it for a later claim instead of waiting.
+
+CREATE TABLE template_seat_cursors (
+    event_id   BIGINT       NOT NULL,
+    section    VARCHAR(255) NOT NULL,
+    next_index INT          NOT NULL,
+    CONSTRAINT template_seat_cursors_pkey PRIMARY KEY (event_id, section),
+    CONSTRAINT template_seat_cursors_event_fkey FOREIGN KEY (event_id)
+        REFERENCES event_layouts (event_id) ON DELETE CASCADE
+);
+
+-- Moves the section's cursor to its first seat at or after p_from that this transaction
+-- sees without a row, or past the last seat when there is none
+CREATE FUNCTION advance_template_seat_cursor(p_event_id BIGINT, p_section VARCHAR, p_layout_id BIGINT,
+                                             p_from INT, p_last INT) RETURNS INT
+LANGUAGE plpgsql AS $$
+DECLARE
+    next_free INT;
+BEGIN
+    SELECT ls.seat_index INTO next_free
+    FROM venue_layout_seats ls
+    WHERE ls.layout_id = p_layout_id AND ls.section = p_section AND ls.seat_index >= p_from
+      AND NOT EXISTS (SELECT 1 FROM seats s
+                      WHERE s.event_id = p_event_id AND s.id = template_seat_id(p_event_id, ls.seat_index))
+    ORDER BY ls.seat_index
+    LIMIT 1;
+    next_free := coalesce(next_free, p_last + 1);
+
+    INSERT INTO template_seat_cursors (event_id, section, next_index)
+    VALUES (p_event_id, p_section, next_free)
+    ON CONFLICT (event_id, section) DO UPDATE
+        SET next_index = greatest(template_seat_cursors.next_index, excluded.next_index);
+    RETURN next_free;
+END;
+$$;
+
+CREATE OR REPLACE FUNCTION claim_template_seats(p_event_id BIGINT, p_section VARCHAR, p_quantity INT,
+                                                p_holder_id BIGINT, p_reservation_id UUID,
+                                                p_reserved_at TIMESTAMP, p_expires_at TIMESTAMP)
+RETURNS TABLE (seat_id BIGINT, seat_version BIGINT)
+LANGUAGE plpgsql AS $$
+DECLARE
+    layout      event_layouts%ROWTYPE;
+    first_index INT;
+    last_index  INT;
+    start_index INT;
+    range_from  INT;
+    range_to    INT;
+    candidate   venue_layout_seats%ROWTYPE;
+    batch       INT;
+    claimed     INT := 0;
+BEGIN
+    SELECT * INTO layout FROM event_layouts WHERE event_id = p_event_id;
+    IF NOT FOUND OR p_quantity < 1 THEN
+        RETURN;
+    END IF;
+
+    SELECT c.next_index INTO first_index
+    FROM template_seat_cursors c WHERE c.event_id = p_event_id AND c.section = p_section;
+    SELECT coalesce(first_index, min(ls.seat_index)), max(ls.seat_index) INTO first_index, last_index
+    FROM venue_layout_seats ls WHERE ls.layout_id = layout.layout_id AND ls.section = p_section;
+    IF first_index IS NULL OR first_index > last_index THEN
+        RETURN;
+    END IF;
+    start_index := first_index + floor(random() * (last_index - first_index + 1))::INT;
+
+    -- From the random start to the last seat, then from the cursor up to the start
+    range_from := start_index;
+    range_to := last_index;
+    <<scan>>
+    LOOP
+        batch := 0;
+        FOR candidate IN
+            SELECT * FROM venue_layout_seats ls
+            WHERE ls.layout_id = layout.layout_id AND ls.section = p_section
+              AND ls.seat_index BETWEEN range_from AND range_to
+              AND NOT EXISTS (SELECT 1 FROM seats s
+                              WHERE s.event_id = p_event_id AND s.id = template_seat_id(p_event_id, ls.seat_index))
+            ORDER BY ls.seat_index
+            LIMIT p_quantity
+        LOOP
+            batch := batch + 1;
+            range_from := candidate.seat_index + 1;
+            CONTINUE WHEN NOT pg_try_advisory_xact_lock(p_event_id::INT, candidate.seat_index);
+
+            seat_id := template_seat_id(p_event_id, candidate.seat_index);
+            INSERT INTO seats (id, event_id, seat_number, row_number, section, type, price, status, reserved_by,
+                               reserved_at, reservation_expires_at, reservation_id, version, created_at, updated_at)
+            VALUES (seat_id, p_event_id, candidate.seat_number, candidate.row_number, candidate.section,
+                    candidate.type, candidate.price, 1, p_holder_id, p_reserved_at, p_expires_at, p_reservation_id,
+                    1, layout.created_at, now())
+            ON CONFLICT DO NOTHING;
+            IF FOUND THEN
+                seat_version := 1;
+                RETURN NEXT;
+                claimed := claimed + 1;
+                EXIT scan WHEN claimed >= p_quantity;
+            END IF;
+        END LOOP;
+
+        -- A full batch may have skipped locked seats, the range can hold more
+        CONTINUE WHEN batch = p_quantity;
+        EXIT WHEN range_to < last_index;
+        range_from := first_index;
+        range_to := start_index - 1;
+    END LOOP;
+
+    IF claimed > 0 AND pg_try_advisory_xact_lock(hashtextextended('template_seat_cursors:' || p_event_id
+                                                                  || ':' || p_section, 0)) THEN
+        PERFORM advance_template_seat_cursor(p_event_id, p_section, layout.layout_id, first_index, last_index);
+    END IF;
+END;
+$$;
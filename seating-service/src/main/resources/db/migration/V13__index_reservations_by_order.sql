@@ -0,0 +1,7 @@
+-- Seats of an order are looked up within the order's event.
+--
+-- idx_seats_order_id (V5) exists once per partition, so a lookup by order id alone probes
+-- every event's partition. An allocated reservation records its order, and through it the
+-- event, which scopes the seat lookup to that event's partition.
+
+CREATE INDEX idx_reservations_order_id ON reservations (order_id) WHERE order_id IS NOT NULL;
@@ -0,0 +1,24 @@
+-- Baseline: the seats table as previously generated by Hibernate (ddl-auto: update).
+-- Databases created before migrations were introduced are baselined at this version.
+
+CREATE TABLE IF NOT EXISTS seats (
+    id                     BIGSERIAL PRIMARY KEY,
+    event_id               BIGINT         NOT NULL,
+    seat_number            VARCHAR(255)   NOT NULL,
+    row_number             VARCHAR(255)   NOT NULL,
+    section                VARCHAR(255)   NOT NULL,
+    type                   VARCHAR(255)   NOT NULL,
+    price                  NUMERIC(10, 2) NOT NULL,
+    status                 VARCHAR(255)   NOT NULL,
+    reserved_by            BIGINT,
+    order_id               VARCHAR(255),
+    reserved_at            TIMESTAMP,
+    reservation_expires_at TIMESTAMP,
+    version                BIGINT,
+    created_at             TIMESTAMP      NOT NULL,
+    updated_at             TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_event_id ON seats (event_id);
+CREATE INDEX IF NOT EXISTS idx_status ON seats (status);
+CREATE INDEX IF NOT EXISTS idx_event_status ON seats (event_id, status);
@@ -0,0 +1,117 @@
+-- Partition seats by event_id.
+--
+-- Every seating query is scoped to a single event, so seats is LIST-partitioned on
+-- event_id with one partition per event (seats_event_<id>). Queries that carry the
+-- event id prune to that partition, per-partition indexes only cover one event, and
+-- a finished event can be detached without rewriting or deleting any rows.
+-- Rows for events that do not have a dedicated partition yet land in seats_default.
+
+ALTER TABLE seats RENAME TO seats_unpartitioned;
+ALTER TABLE seats_unpartitioned RENAME CONSTRAINT seats_pkey TO seats_unpartitioned_pkey;
+ALTER TABLE seats_unpartitioned ALTER COLUMN id DROP DEFAULT;
+ALTER SEQUENCE seats_id_seq OWNED BY NONE;
+
+DROP INDEX IF EXISTS idx_event_id;
+DROP INDEX IF EXISTS idx_status;
+DROP INDEX IF EXISTS idx_event_status;
+
+CREATE TABLE seats (
+    id                     BIGINT         NOT NULL DEFAULT nextval('seats_id_seq'),
+    event_id               BIGINT         NOT NULL,
+    seat_number            VARCHAR(255)   NOT NULL,
+    row_number             VARCHAR(255)   NOT NULL,
+    section                VARCHAR(255)   NOT NULL,
+    type                   VARCHAR(255)   NOT NULL,
+    price                  NUMERIC(10, 2) NOT NULL,
+    status                 VARCHAR(255)   NOT NULL,
+    reserved_by            BIGINT,
+    order_id               VARCHAR(255),
+    reserved_at            TIMESTAMP,
+    reservation_expires_at TIMESTAMP,
+    version                BIGINT,
+    created_at             TIMESTAMP      NOT NULL,
+    updated_at             TIMESTAMP,
+    -- The partition key has to be part of the primary key; ids stay unique through the sequence
+    CONSTRAINT seats_pkey PRIMARY KEY (id, event_id)
+) PARTITION BY LIST (event_id);
+
+ALTER SEQUENCE seats_id_seq OWNED BY seats.id;
+
+CREATE TABLE seats_default PARTITION OF seats DEFAULT;
+
+-- Indexes on the parent are created on (and inherited by) every partition
+CREATE INDEX idx_event_id ON seats (event_id);
+CREATE INDEX idx_status ON seats (status);
+CREATE INDEX idx_event_status ON seats (event_id, status);
+
+-- Creates the dedicated partition for an event if it does not exist yet, moving any of
+-- the event's rows out of seats_default. Returns true when a partition was created.
+CREATE OR REPLACE FUNCTION ensure_seat_partition(p_event_id BIGINT) RETURNS BOOLEAN
+LANGUAGE plpgsql AS $$
+DECLARE
+    part TEXT := 'seats_event_' || p_event_id;
+BEGIN
+    IF to_regclass(quote_ident(part)) IS NOT NULL THEN
+        RETURN FALSE;
+    END IF;
+
+    -- Serialise concurrent creators of the same partition
+    PERFORM pg_advisory_xact_lock(hashtextextended(part, 0));
+    IF to_regclass(quote_ident(part)) IS NOT NULL THEN
+        RETURN FALSE;
+    END IF;
+
+    IF EXISTS (SELECT 1 FROM seats_default WHERE event_id = p_event_id) THEN
+        EXECUTE format('CREATE TABLE %I (LIKE seats INCLUDING DEFAULTS)', part);
+        EXECUTE format('WITH moved AS (DELETE FROM seats_default WHERE event_id = %s RETURNING *) '
+                       'INSERT INTO %I SELECT * FROM moved', p_event_id, part);
+        EXECUTE format('ALTER TABLE seats ATTACH PARTITION %I FOR VALUES IN (%s)', part, p_event_id);
+    ELSE
+        EXECUTE format('CREATE TABLE %I PARTITION OF seats FOR VALUES IN (%s)', part, p_event_id);
+    END IF;
+
+    RETURN TRUE;
+END;
+$$;
+
+-- Detaches an event's partition from seats. This only touches catalog entries, so it is
+-- cheap regardless of how many seats the event had; the detached table keeps its rows
+-- until it is archived or dropped. Returns false if the event has no attached partition.
+CREATE OR REPLACE FUNCTION detach_seat_partition(p_event_id BIGINT) RETURNS BOOLEAN
+LANGUAGE plpgsql AS $$
+DECLARE
+    part TEXT := 'seats_event_' || p_event_id;
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_inherits
+                   WHERE inhparent = 'seats'::regclass
+                     AND inhrelid = to_regclass(quote_ident(part))) THEN
+        RETURN FALSE;
+    END IF;
+
+    EXECUTE format('ALTER TABLE seats DETACH PARTITION %I', part);
+    RETURN TRUE;
+END;
+$$;
+
+-- Give every existing event its own partition and move the data across
+DO $$
+DECLARE
+    e BIGINT;
+BEGIN
+    FOR e IN SELECT DISTINCT event_id FROM seats_unpartitioned LOOP
+        PERFORM ensure_seat_partition(e);
+    END LOOP;
+END;
+$$;
+
+INSERT INTO seats (id, event_id, seat_number, row_number, section, type, price, status,
+                   reserved_by, order_id, reserved_at, reservation_expires_at, version,
+                   created_at, updated_at)
+SELECT id, event_id, seat_number, row_number, section, type, price, status,
+       reserved_by, order_id, reserved_at, reservation_expires_at, version,
+       created_at, updated_at
+FROM seats_unpartitioned;
+
+DROP TABLE seats_unpartitioned;
+
+ANALYZE seats;
@@ -0,0 +1,103 @@
+-- Cold store for seats of finished events.
+--
+-- Seats of events past the archive cutoff are moved out of the hot, partitioned seats
+-- table into seats_archive in small batches. The archive is append-only and packed
+-- (fillfactor 100), keeps only the columns still needed to answer order lookups, and
+-- has just the two indexes used by the archive read path.
+
+CREATE TABLE seats_archive (
+    id          BIGINT         NOT NULL,
+    event_id    BIGINT         NOT NULL,
+    seat_number VARCHAR(255)   NOT NULL,
+    row_number  VARCHAR(255)   NOT NULL,
+    section     VARCHAR(255)   NOT NULL,
+    type        VARCHAR(255)   NOT NULL,
+    price       NUMERIC(10, 2) NOT NULL,
+    status      VARCHAR(255)   NOT NULL,
+    reserved_by BIGINT,
+    order_id    VARCHAR(255),
+    created_at  TIMESTAMP      NOT NULL,
+    updated_at  TIMESTAMP,
+    archived_at TIMESTAMP      NOT NULL DEFAULT now(),
+    CONSTRAINT seats_archive_pkey PRIMARY KEY (id)
+) WITH (fillfactor = 100);
+
+CREATE INDEX idx_seats_archive_order_id ON seats_archive (order_id) WHERE order_id IS NOT NULL;
+CREATE INDEX idx_seats_archive_event_id ON seats_archive (event_id);
+
+-- Events that are ready to be archived: events whose seats have not changed since the
+-- cutoff and hold no open reservation, plus partitions that were detached from seats.
+CREATE OR REPLACE FUNCTION find_seat_archive_candidates(p_cutoff TIMESTAMP, p_limit INT)
+RETURNS SETOF BIGINT
+LANGUAGE sql STABLE AS $$
+    (SELECT substring(c.relname FROM '^seats_event_(-?[0-9]+)$')::BIGINT
+     FROM pg_class c
+     WHERE c.relname ~ '^seats_event_-?[0-9]+$'
+       AND c.relkind = 'r'
+       AND c.relnamespace = (SELECT relnamespace FROM pg_class WHERE oid = 'seats'::regclass)
+       AND NOT EXISTS (SELECT 1 FROM pg_inherits i WHERE i.inhrelid = c.oid))
+    UNION
+    (SELECT event_id
+     FROM seats
+     GROUP BY event_id
+     HAVING max(COALESCE(updated_at, created_at)) < p_cutoff
+        AND count(*) FILTER (WHERE status = 'RESERVED') = 0)
+    LIMIT p_limit;
+$$;
+
+-- Moves up to p_batch seats of an event into seats_archive and returns how many were
+-- moved. Reads from the event's detached partition if there is one, otherwise from seats.
+CREATE OR REPLACE FUNCTION archive_seat_batch(p_event_id BIGINT, p_batch INT) RETURNS INT
+LANGUAGE plpgsql AS $$
+DECLARE
+    part   TEXT     := 'seats_event_' || p_event_id;
+    source REGCLASS := to_regclass(quote_ident(part));
+    moved  INT;
+BEGIN
+    IF source IS NULL OR EXISTS (SELECT 1 FROM pg_inherits WHERE inhrelid = source) THEN
+        source := 'seats'::regclass;
+    END IF;
+
+    EXECUTE format(
+        'WITH moved AS ('
+        '    DELETE FROM %s'
+        '    WHERE event_id = $1 AND status <> ''RESERVED'''
+        '      AND id IN (SELECT id FROM %s WHERE event_id = $1 AND status <> ''RESERVED'' LIMIT $2)'
+        '    RETURNING id, event_id, seat_number, row_number, section, type, price, status,'
+        '              reserved_by, order_id, created_at, updated_at'
+        ') '
+        'INSERT INTO seats_archive (id, event_id, seat_number, row_number, section, type, price,'
+        '                           status, reserved_by, order_id, created_at, updated_at) '
+        'SELECT * FROM moved '
+        'ON CONFLICT (id) DO NOTHING',
+        source, source)
+    USING p_event_id, p_batch;
+
+    GET DIAGNOSTICS moved = ROW_COUNT;
+    RETURN moved;
+END;
+$$;
+
+-- Drops the event's (attached or detached) partition once it has been emptied by the
+-- archiver. Returns true when the event has no seats left in the hot table.
+CREATE OR REPLACE FUNCTION finish_seat_archive(p_event_id BIGINT) RETURNS BOOLEAN
+LANGUAGE plpgsql AS $$
+DECLARE
+    part   TEXT     := 'seats_event_' || p_event_id;
+    source REGCLASS := to_regclass(quote_ident(part));
+    remaining BOOLEAN;
+BEGIN
+    IF source IS NULL THEN
+        RETURN NOT EXISTS (SELECT 1 FROM seats WHERE event_id = p_event_id);
+    END IF;
+
+    EXECUTE format('SELECT EXISTS (SELECT 1 FROM %s)', source) INTO remaining;
+    IF remaining THEN
+        RETURN FALSE;
+    END IF;
+
+    PERFORM detach_seat_partition(p_event_id);
+    EXECUTE format('DROP TABLE %s', source);
+    RETURN TRUE;
+END;
+$$;
@@ -0,0 +1,25 @@
+-- Cluster mode: replica membership and per-event ownership leases.
+--
+-- Every replica heartbeats into seating_nodes; the live nodes form a consistent hash ring
+-- that assigns each event to one replica. The replica that serves an event holds a
+-- time-bounded lease in event_leases, so ownership stays unique while the ring rebalances.
+-- All lease timestamps use the database clock.
+
+CREATE TABLE seating_nodes (
+    node_id      VARCHAR(255) NOT NULL,
+    base_url     VARCHAR(255) NOT NULL,
+    started_at   TIMESTAMP    NOT NULL,
+    heartbeat_at TIMESTAMP    NOT NULL,
+    CONSTRAINT seating_nodes_pkey PRIMARY KEY (node_id)
+);
+
+CREATE TABLE event_leases (
+    event_id      BIGINT       NOT NULL,
+    owner_node_id VARCHAR(255) NOT NULL,
+    owner_url     VARCHAR(255) NOT NULL,
+    acquired_at   TIMESTAMP    NOT NULL,
+    expires_at    TIMESTAMP    NOT NULL,
+    CONSTRAINT event_leases_pkey PRIMARY KEY (event_id)
+);
+
+CREATE INDEX idx_event_leases_owner ON event_leases (owner_node_id);
@@ -0,0 +1,156 @@
+-- Compact seat encoding and targeted indexes.
+--
+-- status and type move from VARCHAR enum names to SMALLINT codes (see SeatStatus and
+-- SeatType), which shrinks both the heap rows and every index containing them.
+--
+--   status: 0 = AVAILABLE, 1 = RESERVED, 2 = ALLOCATED, 3 = BLOCKED
+--   type:   0 = VIP, 1 = PREMIUM, 2 = REGULAR, 3 = ECONOMY
+--
+-- The broad status/event indexes are replaced by indexes matching the actual queries:
+--   idx_seats_reserved_expiry  partial index for the expiry sweep (status = RESERVED)
+--   idx_seats_availability     covering index for per-event availability by status and section
+--   idx_seats_order_id         partial index for order lookups, which had no index at all
+-- idx_event_id and idx_event_status are prefixes of idx_seats_availability; idx_status
+-- only ever served the expiry sweep.
+
+DROP INDEX IF EXISTS idx_event_id;
+DROP INDEX IF EXISTS idx_status;
+DROP INDEX IF EXISTS idx_event_status;
+
+ALTER TABLE seats
+    ALTER COLUMN status TYPE SMALLINT USING (CASE status
+        WHEN 'AVAILABLE' THEN 0
+        WHEN 'RESERVED'  THEN 1
+        WHEN 'ALLOCATED' THEN 2
+        WHEN 'BLOCKED'   THEN 3 END),
+    ALTER COLUMN type TYPE SMALLINT USING (CASE type
+        WHEN 'VIP'     THEN 0
+        WHEN 'PREMIUM' THEN 1
+        WHEN 'REGULAR' THEN 2
+        WHEN 'ECONOMY' THEN 3 END);
+
+-- Partitions detached from seats (waiting to be archived) get the same encoding
+DO $$
+DECLARE
+    part REGCLASS;
+BEGIN
+    FOR part IN
+        SELECT c.oid::regclass
+        FROM pg_class c
+        WHERE c.relname ~ '^seats_event_-?[0-9]+$'
+          AND c.relkind = 'r'
+          AND c.relnamespace = (SELECT relnamespace FROM pg_class WHERE oid = 'seats'::regclass)
+          AND NOT EXISTS (SELECT 1 FROM pg_inherits i WHERE i.inhrelid = c.oid)
+    LOOP
+        EXECUTE format('ALTER TABLE %s '
+                       'ALTER COLUMN status TYPE SMALLINT USING (CASE status '
+                       '  WHEN ''AVAILABLE'' THEN 0 WHEN ''RESERVED'' THEN 1 '
+                       '  WHEN ''ALLOCATED'' THEN 2 WHEN ''BLOCKED'' THEN 3 END), '
+                       'ALTER COLUMN type TYPE SMALLINT USING (CASE type '
+                       '  WHEN ''VIP'' THEN 0 WHEN ''PREMIUM'' THEN 1 '
+                       '  WHEN ''REGULAR'' THEN 2 WHEN ''ECONOMY'' THEN 3 END)', part);
+    END LOOP;
+END;
+$$;
+
+ALTER TABLE seats
+    ADD CONSTRAINT seats_status_check CHECK (status BETWEEN 0 AND 3),
+    ADD CONSTRAINT seats_type_check CHECK (type BETWEEN 0 AND 3);
+
+ALTER TABLE seats_archive
+    ALTER COLUMN status TYPE SMALLINT USING (CASE status
+        WHEN 'AVAILABLE' THEN 0
+        WHEN 'RESERVED'  THEN 1
+        WHEN 'ALLOCATED' THEN 2
+        WHEN 'BLOCKED'   THEN 3 END),
+    ALTER COLUMN type TYPE SMALLINT USING (CASE type
+        WHEN 'VIP'     THEN 0
+        WHEN 'PREMIUM' THEN 1
+        WHEN 'REGULAR' THEN 2
+        WHEN 'ECONOMY' THEN 3 END);
+
+CREATE INDEX idx_seats_reserved_expiry ON seats (reservation_expires_at) WHERE status = 1;
+CREATE INDEX idx_seats_availability ON seats (event_id, status, section) INCLUDE (id, price);
+CREATE INDEX idx_seats_order_id ON seats (order_id) WHERE order_id IS NOT NULL;
+
+-- Tables attached as partitions must carry the new CHECK constraints
+CREATE OR REPLACE FUNCTION ensure_seat_partition(p_event_id BIGINT) RETURNS BOOLEAN
+LANGUAGE plpgsql AS $$
+DECLARE
+    part TEXT := 'seats_event_' || p_event_id;
+BEGIN
+    IF to_regclass(quote_ident(part)) IS NOT NULL THEN
+        RETURN FALSE;
+    END IF;
+
+    -- Serialise concurrent creators of the same partition
+    PERFORM pg_advisory_xact_lock(hashtextextended(part, 0));
+    IF to_regclass(quote_ident(part)) IS NOT NULL THEN
+        RETURN FALSE;
+    END IF;
+
+    IF EXISTS (SELECT 1 FROM seats_default WHERE event_id = p_event_id) THEN
+        EXECUTE format('CREATE TABLE %I (LIKE seats INCLUDING DEFAULTS INCLUDING CONSTRAINTS)', part);
+        EXECUTE format('WITH moved AS (DELETE FROM seats_default WHERE event_id = %s RETURNING *) '
+                       'INSERT INTO %I SELECT * FROM moved', p_event_id, part);
+        EXECUTE format('ALTER TABLE seats ATTACH PARTITION %I FOR VALUES IN (%s)', part, p_event_id);
+    ELSE
+        EXECUTE format('CREATE TABLE %I PARTITION OF seats FOR VALUES IN (%s)', part, p_event_id);
+    END IF;
+
+    RETURN TRUE;
+END;
+$$;
+
+-- Archive functions compare against the new status codes
+
+CREATE OR REPLACE FUNCTION find_seat_archive_candidates(p_cutoff TIMESTAMP, p_limit INT)
+RETURNS SETOF BIGINT
+LANGUAGE sql STABLE AS $$
+    (SELECT substring(c.relname FROM '^seats_event_(-?[0-9]+)$')::BIGINT
+     FROM pg_class c
+     WHERE c.relname ~ '^seats_event_-?[0-9]+$'
+       AND c.relkind = 'r'
+       AND c.relnamespace = (SELECT relnamespace FROM pg_class WHERE oid = 'seats'::regclass)
+       AND NOT EXISTS (SELECT 1 FROM pg_inherits i WHERE i.inhrelid = c.oid))
+    UNION
+    (SELECT event_id
+     FROM seats
+     GROUP BY event_id
+     HAVING max(COALESCE(updated_at, created_at)) < p_cutoff
+        AND count(*) FILTER (WHERE status = 1) = 0)
+    LIMIT p_limit;
+$$;
+
+CREATE OR REPLACE FUNCTION archive_seat_batch(p_event_id BIGINT, p_batch INT) RETURNS INT
+LANGUAGE plpgsql AS $$
+DECLARE
+    part   TEXT     := 'seats_event_' || p_event_id;
+    source REGCLASS := to_regclass(quote_ident(part));
+    moved  INT;
+BEGIN
+    IF source IS NULL OR EXISTS (SELECT 1 FROM pg_inherits WHERE inhrelid = source) THEN
+        source := 'seats'::regclass;
+    END IF;
+
+    EXECUTE format(
+        'WITH moved AS ('
+        '    DELETE FROM %s'
+        '    WHERE event_id = $1 AND status <> 1'
+        '      AND id IN (SELECT id FROM %s WHERE event_id = $1 AND status <> 1 LIMIT $2)'
+        '    RETURNING id, event_id, seat_number, row_number, section, type, price, status,'
+        '              reserved_by, order_id, created_at, updated_at'
+        ') '
+        'INSERT INTO seats_archive (id, event_id, seat_number, row_number, section, type, price,'
+        '                           status, reserved_by, order_id, created_at, updated_at) '
+        'SELECT * FROM moved '
+        'ON CONFLICT (id) DO NOTHING',
+        source, source)
+    USING p_event_id, p_batch;
+
+    GET DIAGNOSTICS moved = ROW_COUNT;
+    RETURN moved;
+END;
+$$;
+
+ANALYZE seats;
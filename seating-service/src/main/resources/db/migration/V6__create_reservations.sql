@@ -0,0 +1,33 @@
+-- Reservations as a first-class aggregate.
+--
+-- A reservation links a holder, a set of seats of one event, a hold expiry and the
+-- total price. Seats point back at their reservation through seats.reservation_id, so
+-- allocating, releasing or extending a reservation is one primary-key lookup on
+-- reservations plus one indexed update of the event's seats, instead of re-locking and
+-- re-validating every seat id sent by the caller.
+--
+--   status: 0 = ACTIVE, 1 = ALLOCATED, 2 = RELEASED, 3 = EXPIRED
+
+CREATE TABLE reservations (
+    id          UUID           NOT NULL,
+    event_id    BIGINT         NOT NULL,
+    holder_id   BIGINT         NOT NULL,
+    status      SMALLINT       NOT NULL,
+    seat_count  INT            NOT NULL,
+    total_price NUMERIC(12, 2) NOT NULL,
+    order_id    VARCHAR(255),
+    expires_at  TIMESTAMP      NOT NULL,
+    version     BIGINT,
+    created_at  TIMESTAMP      NOT NULL,
+    updated_at  TIMESTAMP,
+    CONSTRAINT reservations_pkey PRIMARY KEY (id),
+    CONSTRAINT reservations_status_check CHECK (status BETWEEN 0 AND 3)
+);
+
+-- Expiry works per reservation; only active reservations are ever swept
+CREATE INDEX idx_reservations_active_expiry ON reservations (expires_at) WHERE status = 0;
+
+-- Added on the parent, so every attached partition gets the column and the index
+ALTER TABLE seats ADD COLUMN reservation_id UUID;
+
+CREATE INDEX idx_seats_reservation_id ON seats (event_id, reservation_id) WHERE reservation_id IS NOT NULL;
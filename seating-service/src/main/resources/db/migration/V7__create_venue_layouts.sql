@@ -0,0 +1,93 @@
+-- Venue layout templates.
+--
+-- A layout describes the seats of a venue once: section, row, seat number, type and price
+-- per seat index. An event created from a layout starts without any seat rows. Its seats
+-- are the layout's seats under synthetic ids that stay below 2^53, so JSON clients keep
+-- them exact:
+--
+--   id = 2^52 | event_id << 24 | seat_index
+--
+-- A seat row is written (materialised) under that id the first time the seat is reserved
+-- or blocked. effective_seats combines the seat rows with the layout seats of events that
+-- have no row for them yet, which are AVAILABLE at version 0. Reads of an event's seats go
+-- through the view; writes keep going to seats.
+
+CREATE TABLE venue_layouts (
+    id         BIGSERIAL    NOT NULL,
+    name       VARCHAR(255) NOT NULL,
+    seat_count INT          NOT NULL,
+    created_at TIMESTAMP    NOT NULL,
+    CONSTRAINT venue_layouts_pkey PRIMARY KEY (id)
+);
+
+CREATE TABLE venue_layout_seats (
+    layout_id   BIGINT         NOT NULL,
+    seat_index  INT            NOT NULL,
+    seat_number VARCHAR(255)   NOT NULL,
+    row_number  VARCHAR(255)   NOT NULL,
+    section     VARCHAR(255)   NOT NULL,
+    type        SMALLINT       NOT NULL,
+    price       NUMERIC(10, 2) NOT NULL,
+    CONSTRAINT venue_layout_seats_pkey PRIMARY KEY (layout_id, seat_index),
+    CONSTRAINT venue_layout_seats_layout_fkey FOREIGN KEY (layout_id) REFERENCES venue_layouts (id),
+    CONSTRAINT venue_layout_seats_index_check CHECK (seat_index BETWEEN 0 AND 16777215),
+    CONSTRAINT venue_layout_seats_type_check CHECK (type BETWEEN 0 AND 3)
+);
+
+CREATE TABLE event_layouts (
+    event_id   BIGINT    NOT NULL,
+    layout_id  BIGINT    NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    CONSTRAINT event_layouts_pkey PRIMARY KEY (event_id),
+    CONSTRAINT event_layouts_layout_fkey FOREIGN KEY (layout_id) REFERENCES venue_layouts (id),
+    CONSTRAINT event_layouts_event_id_check CHECK (event_id BETWEEN 0 AND 268435455)
+);
+
+CREATE FUNCTION template_seat_id(p_event_id BIGINT, p_seat_index INT) RETURNS BIGINT
+LANGUAGE sql IMMUTABLE AS $$
+    SELECT (1::BIGINT << 52) | (p_event_id << 24) | p_seat_index;
+$$;
+
+-- A filter on event_id is pushed into both branches, so reading one event touches its own
+-- partition plus its layout's seats
+CREATE VIEW effective_seats AS
+SELECT id, event_id, seat_number, row_number, section, type, price, status, reserved_by, order_id,
+       reserved_at, reservation_expires_at, version, created_at, updated_at, reservation_id
+FROM seats
+UNION ALL
+SELECT template_seat_id(el.event_id, ls.seat_index), el.event_id, ls.seat_number, ls.row_number, ls.section,
+       ls.type, ls.price, 0::SMALLINT, NULL::BIGINT, NULL::VARCHAR, NULL::TIMESTAMP, NULL::TIMESTAMP,
+       0::BIGINT, el.created_at, NULL::TIMESTAMP, NULL::UUID
+FROM event_layouts el
+JOIN venue_layout_seats ls ON ls.layout_id = el.layout_id
+WHERE NOT EXISTS (SELECT 1 FROM seats s
+                  WHERE s.event_id = el.event_id AND s.id = template_seat_id(el.event_id, ls.seat_index));
+
+-- Finishing an archive also drops the event's layout link, otherwise its template seats
+-- would show up again as available
+CREATE OR REPLACE FUNCTION finish_seat_archive(p_event_id BIGINT) RETURNS BOOLEAN
+LANGUAGE plpgsql AS $$
+DECLARE
+    part   TEXT     := 'seats_event_' || p_event_id;
+    source REGCLASS := to_regclass(quote_ident(part));
+    remaining BOOLEAN;
+BEGIN
+    IF source IS NULL THEN
+        IF EXISTS (SELECT 1 FROM seats WHERE event_id = p_event_id) THEN
+            RETURN FALSE;
+        END IF;
+        DELETE FROM event_layouts WHERE event_id = p_event_id;
+        RETURN TRUE;
+    END IF;
+
+    EXECUTE format('SELECT EXISTS (SELECT 1 FROM %s)', source) INTO remaining;
+    IF remaining THEN
+        RETURN FALSE;
+    END IF;
+
+    PERFORM detach_seat_partition(p_event_id);
+    EXECUTE format('DROP TABLE %s', source);
+    DELETE FROM event_layouts WHERE event_id = p_event_id;
+    RETURN TRUE;
+END;
+$$;
@@ -0,0 +1,42 @@
+-- Seat change channel between replicas.
+--
+-- Every transaction that changes seats records one row per affected event, from the
+-- replica that made the change, and sends the same change on the seat_changes channel.
+-- NOTIFY is only delivered once the transaction commits, so a replica never hears about
+-- a change it cannot read yet. The row id is the event's version: it grows with every
+-- change of the event.
+--
+-- Replicas LISTEN on the channel. While their listening connection is down they poll the
+-- log instead, which is why rows are kept for a while (see SeatChangeSubscriber).
+--
+--   transitions: seatId:status:version entries separated by ';', or '*' when the change
+--                did not record them and the event has to be invalidated as a whole
+--   payload:     id|event_id|origin|epoch millis|transitions
+
+CREATE TABLE seat_change_log (
+    id          BIGSERIAL   NOT NULL,
+    event_id    BIGINT      NOT NULL,
+    origin      VARCHAR(64) NOT NULL,
+    transitions TEXT        NOT NULL,
+    created_at  TIMESTAMP   NOT NULL,
+    CONSTRAINT seat_change_log_pkey PRIMARY KEY (id)
+);
+
+-- Polling and pruning both go by age
+CREATE INDEX idx_seat_change_log_created_at ON seat_change_log (created_at);
+
+CREATE FUNCTION record_seat_change(p_event_id BIGINT, p_origin VARCHAR, p_transitions TEXT) RETURNS BIGINT
+LANGUAGE plpgsql AS $$
+DECLARE
+    changed_at TIMESTAMPTZ := clock_timestamp();
+    change_id  BIGINT;
+BEGIN
+    INSERT INTO seat_change_log (event_id, origin, transitions, created_at)
+    VALUES (p_event_id, p_origin, p_transitions, changed_at)
+    RETURNING id INTO change_id;
+
+    PERFORM pg_notify('seat_changes', change_id || '|' || p_event_id || '|' || p_origin || '|'
+            || (extract(epoch FROM changed_at) * 1000)::BIGINT || '|' || p_transitions);
+    RETURN change_id;
+END;
+$$;
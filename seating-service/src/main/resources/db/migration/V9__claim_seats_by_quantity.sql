@@ -0,0 +1,71 @@
+-- Reservations by quantity ("any 4 seats in section GA").
+--
+-- Buyers asking for a quantity must never wait for each other. Seat rows are claimed with
+-- FOR UPDATE SKIP LOCKED (see SeatRepository.claimAvailableSeats), so a row another buyer
+-- is claiming is passed over instead of waited for.
+--
+-- Seats of events created from a venue layout may have no row yet (see V7). For them the
+-- insert of the row is the claim: claim_template_seats inserts the row already RESERVED.
+-- Two buyers inserting the same seat would make the second wait on the unique index for the
+-- first to commit, so each seat is first taken with a transaction-level advisory lock on
+-- (event_id, seat_index); a seat whose lock is held is skipped like a locked row. The scan
+-- starts at a random seat of the section, which keeps concurrent buyers apart.
+--
+-- Seats materialised by a reservation of specific seat ids take no advisory lock and can
+-- still make a claim wait, for as long as that reservation's transaction runs.
+
+-- Section scans of a layout in seat order
+CREATE INDEX idx_venue_layout_seats_section ON venue_layout_seats (layout_id, section, seat_index);
+
+CREATE FUNCTION claim_template_seats(p_event_id BIGINT, p_section VARCHAR, p_quantity INT, p_holder_id BIGINT,
+                                     p_reservation_id UUID, p_reserved_at TIMESTAMP, p_expires_at TIMESTAMP)
+RETURNS TABLE (seat_id BIGINT, seat_version BIGINT)
+LANGUAGE plpgsql AS $$
+DECLARE
+    layout      event_layouts%ROWTYPE;
+    first_index INT;
+    last_index  INT;
+    start_index INT;
+    candidate   venue_layout_seats%ROWTYPE;
+    claimed     INT := 0;
+BEGIN
+    SELECT * INTO layout FROM event_layouts WHERE event_id = p_event_id;
+    IF NOT FOUND OR p_quantity < 1 THEN
+        RETURN;
+    END IF;
+
+    SELECT min(seat_index), max(seat_index) INTO first_index, last_index
+    FROM venue_layout_seats WHERE layout_id = layout.layout_id AND section = p_section;
+    IF first_index IS NULL THEN
+        RETURN;
+    END IF;
+    start_index := first_index + floor(random() * (last_index - first_index + 1))::INT;
+
+    FOR candidate IN
+        (SELECT * FROM venue_layout_seats
+         WHERE layout_id = layout.layout_id AND section = p_section AND seat_index >= start_index
+         ORDER BY seat_index)
+        UNION ALL
+        (SELECT * FROM venue_layout_seats
+         WHERE layout_id = layout.layout_id AND section = p_section AND seat_index < start_index
+         ORDER BY seat_index)
+    LOOP
+        seat_id := template_seat_id(p_event_id, candidate.seat_index);
+        CONTINUE WHEN EXISTS (SELECT 1 FROM seats s WHERE s.event_id = p_event_id AND s.id = seat_id);
+        CONTINUE WHEN NOT pg_try_advisory_xact_lock(p_event_id::INT, candidate.seat_index);
+
+        INSERT INTO seats (id, event_id, seat_number, row_number, section, type, price, status, reserved_by,
+                           reserved_at, reservation_expires_at, reservation_id, version, created_at, updated_at)
+        VALUES (seat_id, p_event_id, candidate.seat_number, candidate.row_number, candidate.section, candidate.type,
+                candidate.price, 1, p_holder_id, p_reserved_at, p_expires_at, p_reservation_id, 1,
+                layout.created_at, now())
+        ON CONFLICT DO NOTHING;
+        IF FOUND THEN
+            seat_version := 1;
+            RETURN NEXT;
+            claimed := claimed + 1;
+            EXIT WHEN claimed >= p_quantity;
+        END IF;
+    END LOOP;
+END;
+$$;
@@ -0,0 +1,83 @@
+package com.ticketing.seatingservice.contention;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CountMinSketchTest {
+    
+    private static final int WIDTH = 256;
+    private static final int DEPTH = 4;
+    
+    @Test
+    void countsASingleKeyExactly() {
+        CountMinSketch sketch = new CountMinSketch(WIDTH, DEPTH);
+        sketch.add("seat-1", 3);
+        sketch.add("seat-1", 4);
+        
+        assertThat(sketch.estimate("seat-1")).isEqualTo(7);
+        assertThat(sketch.getTotal()).isEqualTo(7);
+    }
+    
+    @Test
+    void neverUnderestimates() {
+        CountMinSketch sketch = new CountMinSketch(WIDTH, DEPTH);
+        Map<String, Long> truth = feed(sketch, 50_000, 5_000, 1);
+        
+        truth.forEach((key, count) -> assertThat(sketch.estimate(key)).as(key).isGreaterThanOrEqualTo(count));
+    }
+    
+    @Test
+    void overestimatesByMoreThanTwoOverWidthOfTheTotalOnlyRarely() {
+        CountMinSketch sketch = new CountMinSketch(WIDTH, DEPTH);
+        Map<String, Long> truth = feed(sketch, 50_000, 5_000, 2);
+        long bound = 2 * sketch.getTotal() / WIDTH;
+        
+        long misses = truth.entrySet().stream()
+                .filter(e -> sketch.estimate(e.getKey()) - e.getValue() > bound)
+                .count();
+        
+        // Each key misses the bound with probability at most (1/2)^depth
+        assertThat((double) misses / truth.size()).isLessThanOrEqualTo(Math.pow(0.5, DEPTH));
+    }
+    
+    @Test
+    void decayHalvesEstimatesAndTotal() {
+        CountMinSketch sketch = new CountMinSketch(WIDTH, DEPTH);
+        sketch.add("seat-1", 10);
+        sketch.add("seat-2", 5);
+        
+        sketch.decay();
+        
+        assertThat(sketch.estimate("seat-1")).isEqualTo(5);
+        assertThat(sketch.getTotal()).isEqualTo(7);
+    }
+    
+    @Test
+    void clearForgetsEverything() {
+        CountMinSketch sketch = new CountMinSketch(WIDTH, DEPTH);
+        feed(sketch, 1_000, 100, 3);
+        
+        sketch.clear();
+        
+        assertThat(sketch.getTotal()).isZero();
+        assertThat(sketch.estimate("seat-0")).isZero();
+    }
+    
+    private static Map<String, Long> feed(CountMinSketch sketch, int events, int keys, long seed) {
+        Random random = new Random(seed);
+        Map<String, Long> truth = new HashMap<>();
+        for (int n = 0; n < events; n++) {
+            // Squaring skews the draws towards the low keys
+            double draw = random.nextDouble();
+            String key = "seat-" + (int) (draw * draw * keys);
+            sketch.add(key, 1);
+            truth.merge(key, 1L, Long::sum);
+        }
+        return truth;
+    }
+}
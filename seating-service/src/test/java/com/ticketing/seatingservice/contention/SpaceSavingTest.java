@@ -0,0 +1,106 @@
+package com.ticketing.seatingservice.contention;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SpaceSavingTest {
+    
+    private static final int CAPACITY = 20;
+    
+    @Test
+    void countsExactlyWhileEveryKeyHasACounter() {
+        SpaceSaving topK = new SpaceSaving(CAPACITY);
+        topK.add("a", 5);
+        topK.add("b", 2);
+        topK.add("a", 1);
+        
+        List<HeavyHitter> top = topK.top(10);
+        
+        assertThat(top).extracting(HeavyHitter::getKey).containsExactly("a", "b");
+        assertThat(top).extracting(HeavyHitter::getCount).containsExactly(6L, 2L);
+        assertThat(top).extracting(HeavyHitter::getError).containsOnly(0L);
+    }
+    
+    @Test
+    void boundsTheTrueFrequencyOfEveryTrackedKey() {
+        SpaceSaving topK = new SpaceSaving(CAPACITY);
+        Map<String, Long> truth = feedSkewedStream(topK, 20_000, 500, 1);
+        
+        for (HeavyHitter hitter : topK.top(CAPACITY)) {
+            long actual = truth.getOrDefault(hitter.getKey(), 0L);
+            assertThat(hitter.getGuaranteed()).as(hitter.getKey()).isLessThanOrEqualTo(actual);
+            assertThat(hitter.getCount()).as(hitter.getKey()).isGreaterThanOrEqualTo(actual);
+        }
+    }
+    
+    @Test
+    void keepsEveryKeyMoreFrequentThanTotalOverCapacity() {
+        SpaceSaving topK = new SpaceSaving(CAPACITY);
+        Map<String, Long> truth = feedSkewedStream(topK, 20_000, 500, 2);
+        long total = truth.values().stream().mapToLong(Long::longValue).sum();
+        
+        List<String> tracked = topK.top(CAPACITY).stream().map(HeavyHitter::getKey).collect(Collectors.toList());
+        List<String> frequent = truth.entrySet().stream()
+                .filter(e -> e.getValue() > total / CAPACITY)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+        
+        assertThat(frequent).isNotEmpty();
+        assertThat(tracked).containsAll(frequent);
+        // The smallest counter, which a newcomer inherits as its error, never exceeds total / capacity
+        assertThat(topK.top(CAPACITY)).allSatisfy(h -> assertThat(h.getError()).isLessThanOrEqualTo(total / CAPACITY));
+    }
+    
+    @Test
+    void neverHoldsMoreThanItsCapacity() {
+        SpaceSaving topK = new SpaceSaving(CAPACITY);
+        for (int i = 0; i < 1000; i++) {
+            topK.add("key-" + i, 1);
+        }
+        
+        assertThat(topK.size()).isEqualTo(CAPACITY);
+        assertThat(topK.top(Integer.MAX_VALUE)).hasSize(CAPACITY);
+    }
+    
+    @Test
+    void decayHalvesCountsAndDropsKeysThatReachZero() {
+        SpaceSaving topK = new SpaceSaving(CAPACITY);
+        topK.add("hot", 9);
+        topK.add("cold", 1);
+        
+        topK.decay();
+        
+        assertThat(topK.size()).isEqualTo(1);
+        assertThat(topK.top(1).get(0).getCount()).isEqualTo(4);
+    }
+    
+    // Zipf-like stream: key i is drawn with a probability proportional to 1 / (i + 1)
+    private static Map<String, Long> feedSkewedStream(SpaceSaving topK, int events, int keys, long seed) {
+        double[] cumulative = new double[keys];
+        double sum = 0;
+        for (int i = 0; i < keys; i++) {
+            sum += 1.0 / (i + 1);
+            cumulative[i] = sum;
+        }
+        Random random = new Random(seed);
+        Map<String, Long> truth = new HashMap<>();
+        for (int n = 0; n < events; n++) {
+            double draw = random.nextDouble() * sum;
+            int i = 0;
+            while (cumulative[i] < draw) {
+                i++;
+            }
+            String key = "seat-" + i;
+            topK.add(key, 1);
+            truth.merge(key, 1L, Long::sum);
+        }
+        return truth;
+    }
+}
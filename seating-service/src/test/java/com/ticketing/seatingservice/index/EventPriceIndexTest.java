@@ -0,0 +1,81 @@
+package com.ticketing.seatingservice.index;
+
+import com.ticketing.seatingservice.index.EventPriceIndex.SeatRow;
+import com.ticketing.seatingservice.model.SeatStatus;
+import com.ticketing.seatingservice.model.SeatType;
+import com.ticketing.seatingservice.state.LoadedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EventPriceIndexTest {
+    
+    private static final short AVAILABLE = SeatStatus.AVAILABLE.getCode();
+    private static final short RESERVED = SeatStatus.RESERVED.getCode();
+    
+    private EventPriceIndex index;
+    
+    @BeforeEach
+    void setUp() {
+        index = new EventPriceIndex(1, 0);
+        index.load(List.of(
+                seat(1, 1000, SeatType.ECONOMY, "A"),
+                seat(2, 1000, SeatType.ECONOMY, "B"),
+                seat(3, 2500, SeatType.REGULAR, "A"),
+                seat(4, 5000, SeatType.VIP, "A"),
+                seat(5, 5000, SeatType.VIP, "B")));
+    }
+    
+    @Test
+    void countsTheWholePriceRange() {
+        assertThat(index.countInRange(1000, 5000, null, null)).isEqualTo(5);
+        assertThat(index.countInRange(0, Long.MAX_VALUE, null, null)).isEqualTo(5);
+    }
+    
+    @Test
+    void boundsAreInclusiveAtTheCheapestAndDearestLevels() {
+        assertThat(index.countInRange(1000, 1000, null, null)).isEqualTo(2);
+        assertThat(index.countInRange(5000, 5000, null, null)).isEqualTo(2);
+    }
+    
+    @Test
+    void boundsBetweenLevelsSnapToTheLevelsInside() {
+        assertThat(index.countInRange(1001, 4999, null, null)).isEqualTo(1);
+        assertThat(index.countInRange(1001, 2499, null, null)).isZero();
+    }
+    
+    @Test
+    void rangesOutsideThePricesAreEmpty() {
+        assertThat(index.countInRange(0, 999, null, null)).isZero();
+        assertThat(index.countInRange(5001, Long.MAX_VALUE, null, null)).isZero();
+        assertThat(index.countInRange(5000, 1000, null, null)).isZero();
+    }
+    
+    @Test
+    void countsOnlyTheRequestedGroup() {
+        assertThat(index.countInRange(0, Long.MAX_VALUE, SeatType.VIP, null)).isEqualTo(2);
+        assertThat(index.countInRange(0, Long.MAX_VALUE, null, "A")).isEqualTo(3);
+        assertThat(index.countInRange(0, Long.MAX_VALUE, SeatType.ECONOMY, "B")).isEqualTo(1);
+        assertThat(index.countInRange(0, Long.MAX_VALUE, SeatType.PREMIUM, null)).isZero();
+    }
+    
+    @Test
+    void followsStatusChanges() {
+        index.apply(4, RESERVED, 2);
+        assertThat(index.countInRange(5000, 5000, null, null)).isEqualTo(1);
+        
+        // A change older than the seat's version is ignored
+        assertThat(index.apply(4, AVAILABLE, 1)).isEqualTo(LoadedEvent.ApplyResult.STALE);
+        assertThat(index.countInRange(5000, 5000, null, null)).isEqualTo(1);
+        
+        index.apply(4, AVAILABLE, 3);
+        assertThat(index.countInRange(5000, 5000, SeatType.VIP, "A")).isEqualTo(1);
+    }
+    
+    private static SeatRow seat(long id, long priceInCents, SeatType type, String section) {
+        return new SeatRow(id, 1, AVAILABLE, priceInCents, type, section, "1", String.valueOf(id));
+    }
+}
@@ -0,0 +1,92 @@
+package com.ticketing.seatingservice.index;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FenwickTreeTest {
+    
+    private static final long[] VALUES = {3, 0, 5, 1, 7, 2, 4, 6};
+    
+    @Test
+    void rangeSumMatchesANaiveSumForEveryRange() {
+        FenwickTree tree = filled();
+        
+        for (int from = 0; from < VALUES.length; from++) {
+            for (int to = from; to < VALUES.length; to++) {
+                assertThat(tree.rangeSum(from, to)).as("[%d, %d]", from, to).isEqualTo(naiveSum(from, to));
+            }
+        }
+    }
+    
+    @Test
+    void rangeSumStartingAtTheFirstSlot() {
+        FenwickTree tree = filled();
+        
+        assertThat(tree.rangeSum(0, 0)).isEqualTo(3);
+        assertThat(tree.rangeSum(0, VALUES.length - 1)).isEqualTo(naiveSum(0, VALUES.length - 1));
+    }
+    
+    @Test
+    void rangeSumOfTheLastSlot() {
+        FenwickTree tree = filled();
+        int last = VALUES.length - 1;
+        
+        assertThat(tree.rangeSum(last, last)).isEqualTo(6);
+        assertThat(tree.prefixSum(last)).isEqualTo(naiveSum(0, last));
+    }
+    
+    @Test
+    void emptyRangeIsZero() {
+        FenwickTree tree = filled();
+        
+        assertThat(tree.rangeSum(5, 4)).isZero();
+        assertThat(tree.rangeSum(VALUES.length - 1, 0)).isZero();
+        // What a price search below the cheapest level yields
+        assertThat(tree.rangeSum(0, -1)).isZero();
+    }
+    
+    @Test
+    void prefixSumIsClampedToTheLastSlot() {
+        FenwickTree tree = filled();
+        
+        assertThat(tree.prefixSum(VALUES.length + 10)).isEqualTo(naiveSum(0, VALUES.length - 1));
+        assertThat(tree.prefixSum(-1)).isZero();
+    }
+    
+    @Test
+    void negativeDeltasRemoveCounts() {
+        FenwickTree tree = filled();
+        tree.add(4, -7);
+        tree.add(0, -3);
+        
+        assertThat(tree.rangeSum(0, 0)).isZero();
+        assertThat(tree.rangeSum(3, 5)).isEqualTo(3);
+        assertThat(tree.rangeSum(0, VALUES.length - 1)).isEqualTo(naiveSum(0, VALUES.length - 1) - 10);
+    }
+    
+    @Test
+    void singleSlotTree() {
+        FenwickTree tree = new FenwickTree(1);
+        tree.add(0, 4);
+        
+        assertThat(tree.rangeSum(0, 0)).isEqualTo(4);
+        assertThat(tree.rangeSum(1, 0)).isZero();
+    }
+    
+    private static FenwickTree filled() {
+        FenwickTree tree = new FenwickTree(VALUES.length);
+        for (int i = 0; i < VALUES.length; i++) {
+            tree.add(i, VALUES[i]);
+        }
+        return tree;
+    }
+    
+    private static long naiveSum(int from, int to) {
+        long sum = 0;
+        for (int i = from; i <= to; i++) {
+            sum += VALUES[i];
+        }
+        return sum;
+    }
+}
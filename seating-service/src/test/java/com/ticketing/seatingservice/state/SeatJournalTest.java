@@ -0,0 +1,124 @@
+package com.ticketing.seatingservice.state;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SeatJournalTest {
+    
+    private static final int SEGMENT_BYTES = 10 * SeatJournal.RECORD_BYTES;
+    
+    @TempDir
+    Path dir;
+    
+    @Test
+    void replaysEveryRecordOfACleanJournal() throws IOException {
+        write(25);
+        
+        List<Long> seqs = replay();
+        
+        assertThat(seqs).hasSize(25);
+        assertThat(seqs).isSorted().startsWith(1L).endsWith(25L);
+    }
+    
+    @Test
+    void stopsAtATornRecordAndContinuesAfterTheLastValidOne() throws IOException {
+        write(5);
+        // A crash halfway through the fourth record leaves its checksum stale
+        corrupt(segments().get(0), 3 * SeatJournal.RECORD_BYTES + 10);
+        
+        SeatJournal journal = new SeatJournal(dir, SEGMENT_BYTES);
+        List<Long> seqs = new ArrayList<>();
+        assertThat(journal.replay((seq, eventId, seatId, status, version) -> seqs.add(seq))).isEqualTo(3);
+        assertThat(seqs).containsExactly(1L, 2L, 3L);
+        
+        journal.start();
+        assertThat(journal.append(1, 1, (short) 1, 1)).isEqualTo(4);
+        journal.close();
+    }
+    
+    @Test
+    void ignoresAPartialRecordAtTheEndOfATruncatedSegment() throws IOException {
+        write(5);
+        Path segment = segments().get(0);
+        try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+            file.setLength(2L * SeatJournal.RECORD_BYTES + SeatJournal.RECORD_BYTES / 2);
+        }
+        
+        assertThat(replay()).containsExactly(1L, 2L);
+    }
+    
+    @Test
+    void stopsAtTheZeroFilledTailOfAPreallocatedSegment() throws IOException {
+        write(3);
+        
+        assertThat(Files.size(segments().get(0))).isEqualTo(SEGMENT_BYTES);
+        assertThat(replay()).containsExactly(1L, 2L, 3L);
+    }
+    
+    @Test
+    void laterSegmentsAreStillReplayedAfterATornOne() throws IOException {
+        write(15);
+        corrupt(segments().get(0), 9 * SeatJournal.RECORD_BYTES + 20);
+        
+        List<Long> seqs = replay();
+        
+        assertThat(seqs).hasSize(14).doesNotContain(10L);
+        assertThat(seqs).contains(9L, 11L, 15L);
+    }
+    
+    @Test
+    void replayPreservesTheRecordFields() throws IOException {
+        SeatJournal journal = new SeatJournal(dir, SEGMENT_BYTES);
+        journal.start();
+        journal.append(42, 7_000_000_001L, (short) 2, 9);
+        journal.close();
+        
+        List<long[]> records = new ArrayList<>();
+        new SeatJournal(dir, SEGMENT_BYTES).replay((seq, eventId, seatId, status, version) ->
+                records.add(new long[]{seq, eventId, seatId, status, version}));
+        
+        assertThat(records).hasSize(1);
+        assertThat(records.get(0)).containsExactly(1, 42, 7_000_000_001L, 2, 9);
+    }
+    
+    private void write(int records) throws IOException {
+        SeatJournal journal = new SeatJournal(dir, SEGMENT_BYTES);
+        journal.start();
+        for (int i = 0; i < records; i++) {
+            journal.append(1, i, (short) 1, i);
+        }
+        journal.close();
+    }
+    
+    private List<Long> replay() throws IOException {
+        List<Long> seqs = new ArrayList<>();
+        new SeatJournal(dir, SEGMENT_BYTES).replay((seq, eventId, seatId, status, version) -> seqs.add(seq));
+        return seqs;
+    }
+    
+    private void corrupt(Path segment, long offset) throws IOException {
+        try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+            file.seek(offset);
+            int b = file.read();
+            file.seek(offset);
+            file.write(b ^ 0xFF);
+        }
+    }
+    
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.sorted().collect(Collectors.toList());
+        }
+    }
+}
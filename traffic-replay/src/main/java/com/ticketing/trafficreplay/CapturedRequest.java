@@ -0,0 +1,31 @@
+package com.ticketing.trafficreplay;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+/**
+ * A request as recorded by the services' TrafficCaptureFilter, one per NDJSON line.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class CapturedRequest {
+    public long ts;
+    public String method;
+    public String path;
+    public String query;
+    public String contentType;
+    public String idempotencyKey;
+    public String body;
+    public String bodyHash;
+    public long bodyBytes;
+    public int status;
+    public String responseHash;
+    public long responseBytes;
+    public long durationMicros;
+    
+    boolean isReplayable() {
+        return bodyBytes == 0 || body != null;
+    }
+    
+    String uri() {
+        return query != null ? path + "?" + query : path;
+    }
+}
@@ -0,0 +1,86 @@
+package com.ticketing.trafficreplay;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Command line options of the replay.
+ */
+class ReplayOptions {
+    
+    static final String USAGE = String.join("\n",
+            "Usage: java -jar traffic-replay.jar [options] <capture file or directory>...",
+            "",
+            "  --target <url>          service to replay against (default http://localhost:8082)",
+            "  --speed <factor>        1 replays at the captured pace, 2 twice as fast, 0 as fast as possible (default 1)",
+            "  --max-in-flight <n>     requests outstanding at once (default 256)",
+            "  --timeout-ms <ms>       per-request timeout (default 30000)",
+            "  --limit <n>             replay only the first n requests",
+            "  --password <value>      sent in place of redacted fields (default password)",
+            "  --divergences <file>    write every divergent response there as NDJSON",
+            "  --compare-bodies        also write 2xx responses whose body differs from the captured one to --divergences");
+    
+    String target = "http://localhost:8082";
+    double speed = 1.0;
+    int maxInFlight = 256;
+    long timeoutMs = 30000;
+    long limit = Long.MAX_VALUE;
+    String password = "password";
+    Path divergences;
+    boolean compareBodies;
+    final List<Path> inputs = new ArrayList<>();
+    
+    static ReplayOptions parse(String[] args) {
+        ReplayOptions options = new ReplayOptions();
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            switch (arg) {
+                case "--target":
+                    options.target = value(args, ++i, arg).replaceAll("/+$", "");
+                    break;
+                case "--speed":
+                    options.speed = Double.parseDouble(value(args, ++i, arg));
+                    break;
+                case "--max-in-flight":
+                    options.maxInFlight = Integer.parseInt(value(args, ++i, arg));
+                    break;
+                case "--timeout-ms":
+                    options.timeoutMs = Long.parseLong(value(args, ++i, arg));
+                    break;
+                case "--limit":
+                    options.limit = Long.parseLong(value(args, ++i, arg));
+                    break;
+                case "--password":
+                    options.password = value(args, ++i, arg);
+                    break;
+                case "--divergences":
+                    options.divergences = Paths.get(value(args, ++i, arg));
+                    break;
+                case "--compare-bodies":
+                    options.compareBodies = true;
+                    break;
+                default:
+                    if (arg.startsWith("--")) {
+                        throw new IllegalArgumentException("Unknown option " + arg);
+                    }
+                    options.inputs.add(Paths.get(arg));
+            }
+        }
+        if (options.inputs.isEmpty()) {
+            throw new IllegalArgumentException("No capture files given");
+        }
+        if (options.speed < 0 || options.maxInFlight < 1) {
+            throw new IllegalArgumentException("--speed must be at least 0 and --max-in-flight at least 1");
+        }
+        return options;
+    }
+    
+    private static String value(String[] args, int index, String option) {
+        if (index >= args.length) {
+            throw new IllegalArgumentException(option + " needs a value");
+        }
+        return args[index];
+    }
+}
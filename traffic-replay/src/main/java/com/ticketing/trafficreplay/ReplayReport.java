@@ -0,0 +1,118 @@
+package com.ticketing.trafficreplay;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.PrintStream;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Latency distributions and divergences of a replay, per endpoint. Requests are grouped by
+ * method and path with ids, UUIDs and lookup keys replaced by placeholders, so
+ * GET /v1/seats/42 and GET /v1/seats/43 count as GET /v1/seats/{id}.
+ */
+class ReplayReport {
+    
+    private static final Pattern ID = Pattern.compile("\\d+|[0-9a-fA-F-]{32,36}|[^/]*@[^/]*");
+    // Path segments whose next segment is a lookup key, as in /v1/users/username/{key}
+    private static final Pattern KEYED = Pattern.compile("username|email|order|reservations");
+    
+    private final Map<String, Endpoint> endpoints = new ConcurrentSkipListMap<>();
+    private final Histogram scheduleLag = new ConcurrentHistogram(3);
+    private final LongAdder skipped = new LongAdder();
+    
+    static String endpointOf(CapturedRequest request) {
+        StringBuilder endpoint = new StringBuilder(request.method).append(' ');
+        String[] segments = request.path.split("/");
+        boolean keyNext = false;
+        for (int i = 1; i < segments.length; i++) {
+            endpoint.append('/');
+            if (keyNext) {
+                endpoint.append("{key}");
+            } else if (ID.matcher(segments[i]).matches()) {
+                endpoint.append("{id}");
+            } else {
+                endpoint.append(segments[i]);
+            }
+            keyNext = KEYED.matcher(segments[i]).matches();
+        }
+        return endpoint.toString();
+    }
+    
+    void skipped() {
+        skipped.increment();
+    }
+    
+    void scheduleLag(long nanos) {
+        scheduleLag.recordValue(Math.max(0, nanos / 1000));
+    }
+    
+    void completed(CapturedRequest request, long latencyNanos, int status, boolean bodyDiverged) {
+        Endpoint endpoint = endpoint(request);
+        endpoint.latency.recordValue(latencyNanos / 1000);
+        endpoint.captured.recordValue(Math.max(0, request.durationMicros));
+        if (status != request.status) {
+            endpoint.statusDivergences.increment();
+            endpoint.statusChanges.computeIfAbsent(request.status + "->" + status, key -> new LongAdder()).increment();
+        } else if (bodyDiverged) {
+            endpoint.bodyDivergences.increment();
+        }
+    }
+    
+    void failed(CapturedRequest request, Throwable error) {
+        Endpoint endpoint = endpoint(request);
+        endpoint.errors.increment();
+        Throwable cause = error.getCause() != null ? error.getCause() : error;
+        endpoint.errorTypes.computeIfAbsent(cause.getClass().getSimpleName(), key -> new LongAdder()).increment();
+    }
+    
+    long count() {
+        return endpoints.values().stream().mapToLong(e -> e.latency.getTotalCount() + e.errors.sum()).sum();
+    }
+    
+    void print(PrintStream out, double elapsedSeconds, ReplayOptions options) {
+        out.printf("Replayed %d requests in %.1f s at %s against %s, %d skipped (body not captured)%n%n",
+                count(), elapsedSeconds, options.speed == 0 ? "full speed" : options.speed + "x", options.target,
+                skipped.sum());
+        out.printf("%-44s %7s %8s %8s %8s %9s %8s %9s %7s %6s %6s%n", "endpoint", "count", "p50 ms", "p90 ms",
+                "p99 ms", "p99.9 ms", "max ms", "capt p99", "status", "body", "errors");
+        for (Map.Entry<String, Endpoint> entry : endpoints.entrySet()) {
+            Endpoint endpoint = entry.getValue();
+            Histogram latency = endpoint.latency;
+            out.printf("%-44s %7d %8.1f %8.1f %8.1f %9.1f %8.1f %9.1f %7d %6d %6d%n", entry.getKey(),
+                    latency.getTotalCount(), millis(latency, 50), millis(latency, 90), millis(latency, 99),
+                    millis(latency, 99.9), latency.getMaxValue() / 1000.0, millis(endpoint.captured, 99),
+                    endpoint.statusDivergences.sum(), endpoint.bodyDivergences.sum(), endpoint.errors.sum());
+            endpoint.statusChanges.forEach((change, count) ->
+                    out.printf("    status %s: %d%n", change, count.sum()));
+            endpoint.errorTypes.forEach((type, count) ->
+                    out.printf("    %s: %d%n", type, count.sum()));
+        }
+        out.printf("%nSchedule lag (how late requests were sent): p50 %.1f ms, p99 %.1f ms, max %.1f ms%n",
+                millis(scheduleLag, 50), millis(scheduleLag, 99), scheduleLag.getMaxValue() / 1000.0);
+        out.println("A growing lag means the replay could not keep the pace; raise --max-in-flight or lower --speed.");
+    }
+    
+    private Endpoint endpoint(CapturedRequest request) {
+        return endpoints.computeIfAbsent(endpointOf(request), key -> new Endpoint());
+    }
+    
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getTotalCount() == 0 ? 0 : histogram.getValueAtPercentile(percentile) / 1000.0;
+    }
+    
+    private static class Endpoint {
+        // Microseconds
+        final Histogram latency = new ConcurrentHistogram(3);
+        final Histogram captured = new ConcurrentHistogram(3);
+        final LongAdder statusDivergences = new LongAdder();
+        final LongAdder bodyDivergences = new LongAdder();
+        final LongAdder errors = new LongAdder();
+        final Map<String, LongAdder> statusChanges = new ConcurrentHashMap<>();
+        final Map<String, LongAdder> errorTypes = new ConcurrentHashMap<>();
+    }
+}
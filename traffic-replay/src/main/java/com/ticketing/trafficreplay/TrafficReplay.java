@@ -0,0 +1,261 @@
+package com.ticketing.trafficreplay;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.EOFException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Re-drives captured traffic against a service and reports how it behaved.
+ *
+ * The captured requests of all inputs are merged by arrival time and sent at the captured
+ * pace, divided by --speed, each with its original method, path, query, body and
+ * Idempotency-Key. Latency is measured per endpoint from sending to the complete response
+ * and shown next to the latency captured in production. A response diverges when its
+ * status differs from the captured one, or, for equal 2xx statuses, when its body hash does.
+ * Requests whose body was too large to capture are skipped.
+ */
+public class TrafficReplay {
+    
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+    private static final String REDACTED = "\"[REDACTED]\"";
+    
+    private final ReplayOptions options;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ReplayReport report = new ReplayReport();
+    private final HttpClient client;
+    private final Semaphore inFlight;
+    private BufferedWriter divergences;
+    
+    TrafficReplay(ReplayOptions options) {
+        this.options = options;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        this.inFlight = new Semaphore(options.maxInFlight);
+    }
+    
+    public static void main(String[] args) throws Exception {
+        ReplayOptions options;
+        try {
+            options = ReplayOptions.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(ReplayOptions.USAGE);
+            System.exit(2);
+            return;
+        }
+        new TrafficReplay(options).run();
+    }
+    
+    void run() throws IOException, InterruptedException {
+        List<CapturedRequest> requests = load();
+        System.out.printf("Loaded %d captured requests%n", requests.size());
+        if (requests.isEmpty()) {
+            return;
+        }
+        if (options.divergences != null) {
+            divergences = Files.newBufferedWriter(options.divergences);
+        }
+        
+        long firstTs = requests.get(0).ts;
+        long start = System.nanoTime();
+        for (CapturedRequest request : requests) {
+            if (!request.isReplayable()) {
+                report.skipped();
+                continue;
+            }
+            long due = options.speed == 0 ? System.nanoTime()
+                    : start + (long) (TimeUnit.MILLISECONDS.toNanos(request.ts - firstTs) / options.speed);
+            long wait = due - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            inFlight.acquire();
+            long sent = System.nanoTime();
+            report.scheduleLag(sent - due);
+            send(request, sent);
+        }
+        inFlight.acquire(options.maxInFlight);
+        double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+        
+        if (divergences != null) {
+            divergences.close();
+        }
+        report.print(System.out, elapsedSeconds, options);
+    }
+    
+    private void send(CapturedRequest request, long sent) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(options.target + request.uri()))
+                .timeout(Duration.ofMillis(options.timeoutMs));
+        if (request.body != null) {
+            builder.method(request.method, HttpRequest.BodyPublishers.ofString(replaceRedacted(request.body)));
+        } else {
+            builder.method(request.method, HttpRequest.BodyPublishers.noBody());
+        }
+        if (request.contentType != null) {
+            builder.header("Content-Type", request.contentType);
+        }
+        if (request.idempotencyKey != null) {
+            builder.header("Idempotency-Key", request.idempotencyKey);
+        }
+        
+        client.sendAsync(builder.build(), HttpResponse.BodyHandlers.ofByteArray())
+                .whenComplete((response, error) -> {
+                    try {
+                        if (error != null) {
+                            report.failed(request, error);
+                            return;
+                        }
+                        long latency = System.nanoTime() - sent;
+                        String hash = hash(response.body());
+                        // Error bodies carry timestamps, so only successful bodies are compared
+                        boolean bodyDiverged = response.statusCode() / 100 == 2 && request.responseHash != null
+                                && !request.responseHash.equals(hash);
+                        report.completed(request, latency, response.statusCode(), bodyDiverged);
+                        if (response.statusCode() != request.status || (bodyDiverged && options.compareBodies)) {
+                            writeDivergence(request, response, hash);
+                        }
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+    }
+    
+    private String replaceRedacted(String body) {
+        return body.contains(REDACTED) ? body.replace(REDACTED, quote(options.password)) : body;
+    }
+    
+    private synchronized void writeDivergence(CapturedRequest request, HttpResponse<byte[]> response, String hash) {
+        if (divergences == null) {
+            return;
+        }
+        Map<String, Object> line = new LinkedHashMap<>();
+        line.put("ts", request.ts);
+        line.put("method", request.method);
+        line.put("uri", request.uri());
+        line.put("capturedStatus", request.status);
+        line.put("status", response.statusCode());
+        line.put("capturedHash", request.responseHash);
+        line.put("hash", hash);
+        byte[] body = response.body();
+        line.put("body", new String(body, 0, Math.min(body.length, 512), StandardCharsets.UTF_8));
+        try {
+            divergences.write(objectMapper.writeValueAsString(line));
+            divergences.newLine();
+        } catch (IOException e) {
+            System.err.println("Failed to write divergence: " + e.getMessage());
+        }
+    }
+    
+    private List<CapturedRequest> load() throws IOException {
+        List<Path> files = new ArrayList<>();
+        for (Path input : options.inputs) {
+            if (Files.isDirectory(input)) {
+                try (Stream<Path> listing = Files.list(input)) {
+                    files.addAll(listing.filter(f -> f.toString().endsWith(".ndjson") || f.toString().endsWith(".ndjson.gz"))
+                            .sorted()
+                            .collect(Collectors.toList()));
+                }
+            } else {
+                files.add(input);
+            }
+        }
+        
+        List<CapturedRequest> requests = new ArrayList<>();
+        for (Path file : files) {
+            try (InputStream raw = Files.newInputStream(file);
+                 InputStream in = file.toString().endsWith(".gz") ? new TruncatedGzipInputStream(raw) : raw;
+                 BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (!line.isBlank()) {
+                        requests.add(objectMapper.readValue(line, CapturedRequest.class));
+                    }
+                }
+            }
+        }
+        requests.sort(Comparator.comparingLong(r -> r.ts));
+        return requests.size() > options.limit ? requests.subList(0, (int) options.limit) : requests;
+    }
+    
+    /**
+     * Reads a gzip file that may still be written to, or was cut short by a crash: the
+     * services flush complete records, so a missing end is treated as the end of the file.
+     */
+    private static class TruncatedGzipInputStream extends FilterInputStream {
+        
+        TruncatedGzipInputStream(InputStream in) throws IOException {
+            super(new GZIPInputStream(in));
+        }
+        
+        @Override
+        public int read() throws IOException {
+            try {
+                return super.read();
+            } catch (EOFException e) {
+                return -1;
+            }
+        }
+        
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            try {
+                return super.read(b, off, len);
+            } catch (EOFException e) {
+                return -1;
+            }
+        }
+    }
+    
+    private String quote(String value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+    
+    // Same encoding as the services' TrafficCaptureFilter: first 16 bytes of SHA-256 in hex
+    private static String hash(byte[] body) {
+        byte[] digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256").digest(body);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        char[] chars = new char[32];
+        for (int i = 0; i < 16; i++) {
+            chars[i * 2] = HEX[(digest[i] >> 4) & 0xf];
+            chars[i * 2 + 1] = HEX[digest[i] & 0xf];
+        }
+        return new String(chars);
+    }
+}
@@ -0,0 +1,104 @@
+package com.ticketing.userservice.capture;
+
+import javax.servlet.ReadListener;
+import javax.servlet.ServletInputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+/**
+ * Request wrapper that hashes the body while the application reads it and keeps its first
+ * bytes, so capturing never reads the body ahead of the application or buffers more than
+ * the configured limit.
+ */
+class DigestingRequestWrapper extends HttpServletRequestWrapper {
+    
+    private final MessageDigest digest = TrafficCaptureFilter.sha256();
+    private final ByteArrayOutputStream kept = new ByteArrayOutputStream();
+    private final int keepBytes;
+    private long bytes;
+    private ServletInputStream inputStream;
+    private BufferedReader reader;
+    
+    DigestingRequestWrapper(HttpServletRequest request, int keepBytes) {
+        super(request);
+        this.keepBytes = keepBytes;
+    }
+    
+    long getBodyBytes() {
+        return bytes;
+    }
+    
+    // The whole body, or null when it was larger than the limit
+    byte[] getKeptBody() {
+        return bytes <= keepBytes ? kept.toByteArray() : null;
+    }
+    
+    byte[] getBodyDigest() {
+        return digest.digest();
+    }
+    
+    @Override
+    public ServletInputStream getInputStream() throws IOException {
+        if (inputStream == null) {
+            ServletInputStream in = super.getInputStream();
+            inputStream = new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return in.isFinished();
+                }
+                
+                @Override
+                public boolean isReady() {
+                    return in.isReady();
+                }
+                
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    in.setReadListener(listener);
+                }
+                
+                @Override
+                public int read() throws IOException {
+                    int b = in.read();
+                    if (b >= 0) {
+                        record(new byte[] {(byte) b}, 0, 1);
+                    }
+                    return b;
+                }
+                
+                @Override
+                public int read(byte[] b, int off, int len) throws IOException {
+                    int read = in.read(b, off, len);
+                    if (read > 0) {
+                        record(b, off, read);
+                    }
+                    return read;
+                }
+            };
+        }
+        return inputStream;
+    }
+    
+    @Override
+    public BufferedReader getReader() throws IOException {
+        if (reader == null) {
+            String encoding = getCharacterEncoding() != null ? getCharacterEncoding() : StandardCharsets.UTF_8.name();
+            reader = new BufferedReader(new InputStreamReader(getInputStream(), encoding));
+        }
+        return reader;
+    }
+    
+    private void record(byte[] b, int off, int len) {
+        digest.update(b, off, len);
+        if (bytes + len <= keepBytes) {
+            kept.write(b, off, len);
+        }
+        bytes += len;
+    }
+}
@@ -0,0 +1,99 @@
+package com.ticketing.userservice.capture;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+
+/**
+ * Response wrapper that hashes the body as it is written, without buffering it.
+ */
+class DigestingResponseWrapper extends HttpServletResponseWrapper {
+    
+    private final MessageDigest digest = TrafficCaptureFilter.sha256();
+    private long bytes;
+    private ServletOutputStream outputStream;
+    private PrintWriter writer;
+    
+    DigestingResponseWrapper(HttpServletResponse response) {
+        super(response);
+    }
+    
+    synchronized long getBodyBytes() {
+        return bytes;
+    }
+    
+    synchronized byte[] getBodyDigest() {
+        if (writer != null) {
+            writer.flush();
+        }
+        return digest.digest();
+    }
+    
+    @Override
+    public synchronized ServletOutputStream getOutputStream() throws IOException {
+        if (outputStream == null) {
+            ServletOutputStream out = super.getOutputStream();
+            outputStream = new ServletOutputStream() {
+                @Override
+                public boolean isReady() {
+                    return out.isReady();
+                }
+                
+                @Override
+                public void setWriteListener(WriteListener listener) {
+                    out.setWriteListener(listener);
+                }
+                
+                @Override
+                public void write(int b) throws IOException {
+                    out.write(b);
+                    record(new byte[] {(byte) b}, 0, 1);
+                }
+                
+                @Override
+                public void write(byte[] b, int off, int len) throws IOException {
+                    out.write(b, off, len);
+                    record(b, off, len);
+                }
+                
+                @Override
+                public void flush() throws IOException {
+                    out.flush();
+                }
+                
+                @Override
+                public void close() throws IOException {
+                    out.close();
+                }
+            };
+        }
+        return outputStream;
+    }
+    
+    @Override
+    public synchronized PrintWriter getWriter() throws IOException {
+        if (writer == null) {
+            writer = new PrintWriter(new OutputStreamWriter(getOutputStream(), Charset.forName(getCharacterEncoding())));
+        }
+        return writer;
+    }
+    
+    @Override
+    public void flushBuffer() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        }
+        super.flushBuffer();
+    }
+    
+    private synchronized void record(byte[] b, int off, int len) {
+        digest.update(b, off, len);
+        bytes += len;
+    }
+}
@@ -0,0 +1,203 @@
+package com.ticketing.userservice.capture;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Records the requests of the user API for replay (capture.enabled).
+ *
+ * For each sampled request it keeps the method, path, query, arrival time, Idempotency-Key,
+ * the request body (or only its hash beyond max-body-bytes), the status, a hash of the
+ * response body and the time taken. Bodies are hashed while the application reads and
+ * writes them, so nothing is read ahead or buffered. Async requests are recorded once their
+ * response is complete. JSON fields named in redact-fields are replaced before the body is
+ * kept or hashed, so passwords never reach the capture; the replay tool fills in its own.
+ * Runs first, ahead of the security filters.
+ */
+@Component
+@ConditionalOnProperty(name = "capture.enabled", havingValue = "true")
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@RequiredArgsConstructor
+@Slf4j
+public class TrafficCaptureFilter extends OncePerRequestFilter {
+    
+    static final String REDACTED = "[REDACTED]";
+    
+    private static final int HASH_BYTES = 16;
+    // Largest body that is parsed for redaction
+    private static final int MAX_REDACT_BYTES = 65536;
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+    
+    private final TrafficCaptureWriter writer;
+    private final ObjectMapper objectMapper;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    
+    @Value("${capture.sample-rate:1.0}")
+    private double sampleRate;
+    
+    @Value("${capture.max-body-bytes:4096}")
+    private int maxBodyBytes;
+    
+    @Value("${capture.include-paths:/v1/users,/v1/users/**}")
+    private List<String> includePaths;
+    
+    @Value("${capture.exclude-paths:}")
+    private List<String> excludePaths;
+    
+    @Value("${capture.redact-fields:password}")
+    private Set<String> redactFields;
+    
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        return includePaths.stream().noneMatch(pattern -> pathMatcher.match(pattern, path))
+                || excludePaths.stream().anyMatch(pattern -> pathMatcher.match(pattern, path))
+                || (sampleRate < 1.0 && ThreadLocalRandom.current().nextDouble() >= sampleRate);
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long ts = System.currentTimeMillis();
+        long started = System.nanoTime();
+        DigestingRequestWrapper capturedRequest = new DigestingRequestWrapper(request,
+                redactFields.isEmpty() ? maxBodyBytes : Math.max(maxBodyBytes, MAX_REDACT_BYTES));
+        DigestingResponseWrapper capturedResponse = new DigestingResponseWrapper(response);
+        try {
+            chain.doFilter(capturedRequest, capturedResponse);
+        } finally {
+            if (capturedRequest.isAsyncStarted()) {
+                capturedRequest.getAsyncContext().addListener(new AsyncListener() {
+                    @Override
+                    public void onComplete(AsyncEvent event) {
+                        record(ts, started, capturedRequest, capturedResponse);
+                    }
+                    
+                    @Override
+                    public void onTimeout(AsyncEvent event) {
+                    }
+                    
+                    @Override
+                    public void onError(AsyncEvent event) {
+                    }
+                    
+                    @Override
+                    public void onStartAsync(AsyncEvent event) {
+                    }
+                });
+            } else {
+                record(ts, started, capturedRequest, capturedResponse);
+            }
+        }
+    }
+    
+    private void record(long ts, long started, DigestingRequestWrapper request, DigestingResponseWrapper response) {
+        try {
+            TrafficRecord.TrafficRecordBuilder record = TrafficRecord.builder()
+                    .ts(ts)
+                    .method(request.getMethod())
+                    .path(request.getRequestURI())
+                    .query(request.getQueryString())
+                    .contentType(request.getContentType())
+                    .idempotencyKey(request.getHeader("Idempotency-Key"))
+                    .bodyBytes(request.getBodyBytes())
+                    .status(response.getStatus())
+                    .responseHash(hex(response.getBodyDigest()))
+                    .responseBytes(response.getBodyBytes())
+                    .durationMicros((System.nanoTime() - started) / 1000);
+            
+            if (request.getBodyBytes() > 0) {
+                byte[] body = request.getKeptBody();
+                // With redaction only the redacted body is hashed; one too large to redact is recorded by its size
+                if (redactFields.isEmpty()) {
+                    record.bodyHash(hex(request.getBodyDigest()));
+                } else if (body != null) {
+                    body = redact(body);
+                    record.bodyHash(hex(sha256().digest(body)));
+                }
+                if (body != null && body.length <= maxBodyBytes) {
+                    record.body(new String(body, StandardCharsets.UTF_8));
+                }
+            }
+            writer.submit(record.build());
+        } catch (RuntimeException e) {
+            log.debug("Failed to capture {} {}: {}", request.getMethod(), request.getRequestURI(), e.getMessage());
+        }
+    }
+    
+    // Replaces the values of the redacted fields anywhere in a JSON body; other bodies are kept as they are
+    private byte[] redact(byte[] body) {
+        try {
+            JsonNode root = objectMapper.readTree(body);
+            if (root == null || !redactNode(root)) {
+                return body;
+            }
+            return objectMapper.writeValueAsBytes(root);
+        } catch (IOException e) {
+            return body;
+        }
+    }
+    
+    private boolean redactNode(JsonNode node) {
+        boolean changed = false;
+        if (node.isObject()) {
+            Iterator<String> names = node.fieldNames();
+            while (names.hasNext()) {
+                String name = names.next();
+                if (redactFields.contains(name)) {
+                    ((ObjectNode) node).put(name, REDACTED);
+                    changed = true;
+                } else {
+                    changed |= redactNode(node.get(name));
+                }
+            }
+        } else if (node.isArray()) {
+            for (JsonNode element : node) {
+                changed |= redactNode(element);
+            }
+        }
+        return changed;
+    }
+    
+    static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+    
+    private static String hex(byte[] digest) {
+        char[] chars = new char[HASH_BYTES * 2];
+        for (int i = 0; i < HASH_BYTES; i++) {
+            chars[i * 2] = HEX[(digest[i] >> 4) & 0xf];
+            chars[i * 2 + 1] = HEX[digest[i] & 0xf];
+        }
+        return new String(chars);
+    }
+}
@@ -1,5 +1,7 @@
 package com.ticketing.userservice.config;
 
+import com.ticketing.userservice.jfr.RecordingPasswordEncoder;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -13,9 +15,10 @@ import org.springframework.security.web.SecurityFilterChain;
 @EnableWebSecurity
 public class SecurityConfig {
     
+    // Raising the cost takes effect for stored passwords on their next login (see PasswordHasher)
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${password-hashing.bcrypt-strength:10}") int strength) {
+        return new RecordingPasswordEncoder(new BCryptPasswordEncoder(strength));
     }
     
     @Bean
@@ -0,0 +1,81 @@
+package com.ticketing.userservice.config;
+
+import com.ticketing.userservice.repository.UserRepository;
+import com.ticketing.userservice.security.JwtTokenProvider;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.EntityManagerFactory;
+
+/**
+ * Warms the application up before it reports ready. Runners complete before
+ * ApplicationReadyEvent, which is what flips /actuator/health/readiness to UP.
+ *
+ * Touching the repository builds the Hibernate metamodel and compiles its JPQL into the
+ * query plan cache, and a password hash and a token are computed so the first login does
+ * not pay for loading BCrypt and JWT. With execute-queries the login and lookup queries are
+ * then run a few times for a user that does not exist.
+ */
+@Component
+@ConditionalOnProperty(name = "startup.warmup.enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class WarmupRunner implements ApplicationRunner {
+    
+    private static final String MISSING_USER = "__warmup__";
+    
+    private final EntityManagerFactory entityManagerFactory;
+    private final UserRepository userRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final JwtTokenProvider jwtTokenProvider;
+    
+    @Value("${startup.warmup.execute-queries:true}")
+    private boolean executeQueries;
+    
+    @Value("${startup.warmup.iterations:5}")
+    private int iterations;
+    
+    @Override
+    public void run(ApplicationArguments args) {
+        long start = System.nanoTime();
+        
+        int entities = entityManagerFactory.getMetamodel().getEntities().size();
+        log.debug("Hibernate metamodel ready with {} entities, repository {}", entities,
+                userRepository.getClass().getSimpleName());
+        
+        // Hashing is deliberately slow, once is enough to load and link it
+        warm("password hashing", () -> passwordEncoder.matches(MISSING_USER, passwordEncoder.encode(MISSING_USER)));
+        warm("token signing", () -> {
+            for (int i = 0; i < iterations; i++) {
+                jwtTokenProvider.validateToken(jwtTokenProvider.generateToken(MISSING_USER));
+            }
+        });
+        if (executeQueries) {
+            warm("user queries", () -> {
+                for (int i = 0; i < iterations; i++) {
+                    userRepository.findByUsername(MISSING_USER);
+                    userRepository.findByEmail(MISSING_USER);
+                    userRepository.existsByUsername(MISSING_USER);
+                    userRepository.existsByEmail(MISSING_USER);
+                }
+            });
+        }
+        
+        log.info("Warm-up finished in {} ms", (System.nanoTime() - start) / 1_000_000);
+    }
+    
+    // Warming up is best effort, the service works without it
+    private void warm(String step, Runnable warmup) {
+        try {
+            warmup.run();
+        } catch (Exception e) {
+            log.warn("Warm-up of {} failed: {}", step, e.getMessage());
+        }
+    }
+}
@@ -14,6 +14,7 @@ import org.springframework.web.bind.annotation.*;
 
 import javax.validation.Valid;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/v1/users")
@@ -26,36 +27,39 @@ public class UserController {
     private final JwtTokenProvider jwtTokenProvider;
     private final MeterRegistry meterRegistry;
     
+    // Both hash a password, which happens on the PasswordHasher and releases the request thread
     @PostMapping("/register")
-    public ResponseEntity<AuthResponseDTO> registerUser(@Valid @RequestBody UserRegistrationDTO registrationDTO) {
+    public CompletableFuture<ResponseEntity<AuthResponseDTO>> registerUser(@Valid @RequestBody UserRegistrationDTO registrationDTO) {
         log.info("Received registration request for username: {}", registrationDTO.getUsername());
         
-        UserDTO userDTO = userService.registerUser(registrationDTO);
-        String token = jwtTokenProvider.generateToken(userDTO.getUsername());
-        
-        Counter.builder("user_registrations_total")
-                .description("Total number of user registrations")
-                .register(meterRegistry)
-                .increment();
-        
-        AuthResponseDTO response = new AuthResponseDTO(token, userDTO);
-        return new ResponseEntity<>(response, HttpStatus.CREATED);
+        return userService.registerUser(registrationDTO).thenApply(userDTO -> {
+            String token = jwtTokenProvider.generateToken(userDTO.getUsername());
+            
+            Counter.builder("user_registrations_total")
+                    .description("Total number of user registrations")
+                    .register(meterRegistry)
+                    .increment();
+            
+            AuthResponseDTO response = new AuthResponseDTO(token, userDTO);
+            return new ResponseEntity<>(response, HttpStatus.CREATED);
+        });
     }
     
     @PostMapping("/login")
-    public ResponseEntity<AuthResponseDTO> loginUser(@Valid @RequestBody LoginDTO loginDTO) {
+    public CompletableFuture<ResponseEntity<AuthResponseDTO>> loginUser(@Valid @RequestBody LoginDTO loginDTO) {
         log.info("Received login request for: {}", loginDTO.getUsernameOrEmail());
         
-        UserDTO userDTO = userService.authenticateUser(loginDTO);
-        String token = jwtTokenProvider.generateToken(userDTO.getUsername());
-        
-        Counter.builder("user_logins_total")
-                .description("Total number of user logins")
-                .register(meterRegistry)
-                .increment();
-        
-        AuthResponseDTO response = new AuthResponseDTO(token, userDTO);
-        return ResponseEntity.ok(response);
+        return userService.authenticateUser(loginDTO).thenApply(userDTO -> {
+            String token = jwtTokenProvider.generateToken(userDTO.getUsername());
+            
+            Counter.builder("user_logins_total")
+                    .description("Total number of user logins")
+                    .register(meterRegistry)
+                    .increment();
+            
+            AuthResponseDTO response = new AuthResponseDTO(token, userDTO);
+            return ResponseEntity.ok(response);
+        });
     }
     
     @GetMapping("/{id}")
@@ -0,0 +1,12 @@
+package com.ticketing.userservice.exception;
+
+/**
+ * Thrown when every password hashing thread is busy and the hashing queue is full.
+ * Answered with 503 Service Unavailable and a Retry-After header.
+ */
+public class PasswordHashingBusyException extends RuntimeException {
+    
+    public PasswordHashingBusyException() {
+        super("Too many logins and registrations at once, try again later");
+    }
+}
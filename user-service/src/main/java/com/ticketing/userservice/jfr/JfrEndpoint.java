@@ -0,0 +1,202 @@
+package com.ticketing.userservice.jfr;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Time-boxed Flight Recorder recordings on demand, at /actuator/jfr:
+ *
+ *   GET    /actuator/jfr           lists the recordings
+ *   POST   /actuator/jfr           starts one: {"durationSeconds": 60, "settings": "profile"}
+ *   GET    /actuator/jfr/{id}      downloads it, a snapshot while it is still running
+ *   DELETE /actuator/jfr/{id}      stops it early
+ *
+ * A recording stops by itself after its duration (at most users.jfr.max-duration-seconds)
+ * and only one runs at a time. Finished recordings stay in users.jfr.dir until more than
+ * max-recordings have been made. Besides the JDK events, recordings carry the service's own
+ * events in the Ticketing category (password hashing, JWT signing, transaction commits).
+ *
+ * The JDK events that copy the environment, the system properties and command lines are
+ * always switched off: they would put the database password and the JWT secret into every
+ * recording. The endpoint is not exposed unless added to management.endpoints.web.exposure.
+ */
+@Component
+@Endpoint(id = "jfr")
+@Slf4j
+public class JfrEndpoint {
+    
+    private static final List<String> SECRET_EVENTS = List.of(
+            "jdk.InitialEnvironmentVariable", "jdk.InitialSystemProperty", "jdk.JVMInformation", "jdk.SystemProcess");
+    
+    @Value("${users.jfr.dir:${java.io.tmpdir}/user-jfr}")
+    private String dir;
+    
+    @Value("${users.jfr.default-duration-seconds:60}")
+    private long defaultDurationSeconds;
+    
+    @Value("${users.jfr.max-duration-seconds:600}")
+    private long maxDurationSeconds;
+    
+    @Value("${users.jfr.max-recordings:5}")
+    private int maxRecordings;
+    
+    @Value("${users.jfr.max-size-bytes:268435456}")
+    private long maxSizeBytes;
+    
+    // By id, oldest first; guarded by "this"
+    private final Map<Long, Recording> recordings = new TreeMap<>();
+    
+    @ReadOperation
+    public synchronized List<RecordingInfo> list() {
+        List<RecordingInfo> infos = new ArrayList<>();
+        recordings.values().forEach(recording -> infos.add(RecordingInfo.of(recording)));
+        return infos;
+    }
+    
+    @WriteOperation
+    public synchronized RecordingInfo start(@Nullable Long durationSeconds, @Nullable String settings) {
+        long seconds = durationSeconds != null ? durationSeconds : defaultDurationSeconds;
+        if (seconds < 1 || seconds > maxDurationSeconds) {
+            String message = "durationSeconds must be between 1 and " + maxDurationSeconds;
+            throw new InvalidEndpointRequestException(message, message);
+        }
+        if (recordings.values().stream().anyMatch(r -> r.getState() == RecordingState.RUNNING)) {
+            throw new InvalidEndpointRequestException("A recording is already running", "A recording is already running");
+        }
+        
+        String settingsName = settings != null ? settings : "profile";
+        Configuration configuration;
+        try {
+            configuration = Configuration.getConfiguration(settingsName);
+        } catch (IOException | ParseException e) {
+            String message = "Unknown settings " + settingsName + ", use default or profile";
+            throw new InvalidEndpointRequestException(message, message);
+        }
+        
+        try {
+            Path directory = Files.createDirectories(Paths.get(dir));
+            Map<String, String> recordingSettings = new HashMap<>(configuration.getSettings());
+            SECRET_EVENTS.forEach(event -> recordingSettings.put(event + "#enabled", "false"));
+            Recording recording = new Recording(recordingSettings);
+            recording.setName("user-" + Instant.now().getEpochSecond());
+            recording.setToDisk(true);
+            recording.setDuration(Duration.ofSeconds(seconds));
+            recording.setMaxSize(maxSizeBytes);
+            recording.setDestination(directory.resolve(recording.getName() + ".jfr"));
+            recording.start();
+            recordings.put(recording.getId(), recording);
+            log.info("Started JFR recording {} for {} s with {} settings", recording.getId(), seconds, settingsName);
+            pruneRecordings();
+            return RecordingInfo.of(recording);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not start recording: " + e.getMessage(), e);
+        }
+    }
+    
+    @ReadOperation
+    public synchronized Resource download(@Selector long id) throws IOException {
+        Recording recording = recordings.get(id);
+        if (recording == null) {
+            return null;
+        }
+        if (recording.getState() != RecordingState.RUNNING) {
+            // Stopping writes the recording to its destination and closes it
+            Path destination = recording.getDestination();
+            return destination != null && Files.exists(destination) ? new FileSystemResource(destination) : null;
+        }
+        // Still running: a snapshot of what has been recorded so far
+        Path snapshot = Paths.get(dir).resolve(recording.getName() + "-snapshot.jfr");
+        recording.dump(snapshot);
+        return new FileSystemResource(snapshot);
+    }
+    
+    @DeleteOperation
+    public synchronized RecordingInfo stop(@Selector long id) {
+        Recording recording = recordings.get(id);
+        if (recording == null) {
+            return null;
+        }
+        if (recording.getState() == RecordingState.RUNNING) {
+            recording.stop();
+            log.info("Stopped JFR recording {}", id);
+        }
+        return RecordingInfo.of(recording);
+    }
+    
+    @PreDestroy
+    public synchronized void close() {
+        recordings.values().forEach(Recording::close);
+    }
+    
+    // Keeps the newest max-recordings, deleting the files of older ones
+    private void pruneRecordings() throws IOException {
+        while (recordings.size() > maxRecordings) {
+            Recording oldest = recordings.remove(recordings.keySet().iterator().next());
+            Path destination = oldest.getDestination();
+            oldest.close();
+            if (destination != null) {
+                Files.deleteIfExists(destination);
+                Files.deleteIfExists(destination.resolveSibling(oldest.getName() + "-snapshot.jfr"));
+            }
+        }
+    }
+    
+    @Getter
+    @AllArgsConstructor
+    public static class RecordingInfo {
+        private final long id;
+        private final String name;
+        private final String state;
+        private final Instant startTime;
+        private final Long durationSeconds;
+        private final long sizeBytes;
+        
+        static RecordingInfo of(Recording recording) {
+            return new RecordingInfo(recording.getId(), recording.getName(), recording.getState().name(),
+                    recording.getStartTime(), recording.getDuration() != null ? recording.getDuration().getSeconds() : null,
+                    sizeOf(recording));
+        }
+        
+        // A recording reports no size once it is closed, its file does
+        private static long sizeOf(Recording recording) {
+            Path destination = recording.getDestination();
+            if (recording.getState() == RecordingState.CLOSED && destination != null) {
+                try {
+                    return Files.exists(destination) ? Files.size(destination) : 0;
+                } catch (IOException e) {
+                    return 0;
+                }
+            }
+            return recording.getSize();
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.ticketing.userservice.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Building and signing one JWT.
+ */
+@Name("com.ticketing.user.JwtSign")
+@Label("JWT Sign")
+@Category({"Ticketing", "User"})
+@Description("Creation and HMAC signing of an access token")
+@StackTrace(false)
+public class JwtSignEvent extends Event {
+    
+    @Label("Algorithm")
+    String algorithm;
+    
+    @Label("Token Length")
+    int length;
+    
+    public static JwtSignEvent begin(String algorithm) {
+        JwtSignEvent event = new JwtSignEvent();
+        if (event.isEnabled()) {
+            event.algorithm = algorithm;
+            event.begin();
+        }
+        return event;
+    }
+    
+    public void end(String token) {
+        if (shouldCommit()) {
+            this.length = token.length();
+            commit();
+        }
+    }
+}
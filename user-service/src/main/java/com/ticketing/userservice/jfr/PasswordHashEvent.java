@@ -0,0 +1,42 @@
+package com.ticketing.userservice.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One BCrypt hash or verification. These take tens of milliseconds of CPU each, so
+ * they dominate registration and login latency.
+ */
+@Name("com.ticketing.user.PasswordHash")
+@Label("Password Hash")
+@Category({"Ticketing", "User"})
+@Description("BCrypt hashing or verification of a password")
+@StackTrace(false)
+public class PasswordHashEvent extends Event {
+    
+    @Label("Operation")
+    String operation;
+    
+    @Label("Matched")
+    boolean matched;
+    
+    public static PasswordHashEvent begin(String operation) {
+        PasswordHashEvent event = new PasswordHashEvent();
+        if (event.isEnabled()) {
+            event.operation = operation;
+            event.begin();
+        }
+        return event;
+    }
+    
+    public void end(boolean matched) {
+        if (shouldCommit()) {
+            this.matched = matched;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.ticketing.userservice.jfr;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * PasswordEncoder that records each encode and match as a PasswordHashEvent.
+ */
+@RequiredArgsConstructor
+public class RecordingPasswordEncoder implements PasswordEncoder {
+    
+    private final PasswordEncoder delegate;
+    
+    @Override
+    public String encode(CharSequence rawPassword) {
+        PasswordHashEvent event = PasswordHashEvent.begin("encode");
+        String encoded = delegate.encode(rawPassword);
+        event.end(true);
+        return encoded;
+    }
+    
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        PasswordHashEvent event = PasswordHashEvent.begin("verify");
+        boolean matched = delegate.matches(rawPassword, encodedPassword);
+        event.end(matched);
+        return matched;
+    }
+    
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+}
@@ -0,0 +1,28 @@
+package com.ticketing.userservice.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Commit of a JPA transaction, including Hibernate's flush of pending changes.
+ */
+@Name("com.ticketing.user.TransactionCommit")
+@Label("Transaction Commit")
+@Category({"Ticketing", "User"})
+@Description("Commit of a JPA transaction")
+@StackTrace(false)
+public class TransactionCommitEvent extends Event {
+    
+    @Label("Transaction")
+    String transaction;
+    
+    @Label("Read Only")
+    boolean readOnly;
+    
+    @Label("Succeeded")
+    boolean succeeded;
+}
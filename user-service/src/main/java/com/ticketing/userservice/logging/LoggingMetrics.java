@@ -0,0 +1,68 @@
+package com.ticketing.userservice.logging;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.Appender;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.Iterator;
+
+/**
+ * Metrics of the prod logging setup in logback-spring.xml: the log events dropped by
+ * EndpointSamplingTurboFilter, and the room left in the queue of the async appender, which
+ * discards INFO and lower events once it is nearly full rather than blocking requests.
+ * Nothing is registered when the configuration has neither, as in the default profile.
+ */
+@Component
+@RequiredArgsConstructor
+public class LoggingMetrics {
+    
+    private final MeterRegistry meterRegistry;
+    
+    @PostConstruct
+    void registerMetrics() {
+        if (!(LoggerFactory.getILoggerFactory() instanceof LoggerContext)) {
+            return;
+        }
+        LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        
+        for (TurboFilter filter : context.getTurboFilterList()) {
+            if (filter instanceof EndpointSamplingTurboFilter) {
+                EndpointSamplingTurboFilter sampling = (EndpointSamplingTurboFilter) filter;
+                FunctionCounter.builder("log_events_dropped", sampling, EndpointSamplingTurboFilter::getSampledOut)
+                        .description("Log events dropped before being formatted")
+                        .tag("reason", "sampled")
+                        .register(meterRegistry);
+                FunctionCounter.builder("log_events_dropped", sampling, EndpointSamplingTurboFilter::getRateLimited)
+                        .description("Log events dropped before being formatted")
+                        .tag("reason", "rate_limited")
+                        .register(meterRegistry);
+            }
+        }
+        
+        Iterator<Appender<ILoggingEvent>> appenders = context.getLogger(Logger.ROOT_LOGGER_NAME).iteratorForAppenders();
+        while (appenders.hasNext()) {
+            Appender<ILoggingEvent> appender = appenders.next();
+            if (appender instanceof AsyncAppender) {
+                AsyncAppender async = (AsyncAppender) appender;
+                Gauge.builder("log_async_queue_remaining", async, AsyncAppender::getRemainingCapacity)
+                        .description("Log events the async appender can still queue")
+                        .tag("appender", async.getName())
+                        .register(meterRegistry);
+                Gauge.builder("log_async_queue_capacity", async, AsyncAppender::getQueueSize)
+                        .description("Log events the async appender queues at most")
+                        .tag("appender", async.getName())
+                        .register(meterRegistry);
+            }
+        }
+    }
+}
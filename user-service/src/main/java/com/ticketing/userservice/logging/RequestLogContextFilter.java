@@ -0,0 +1,74 @@
+package com.ticketing.userservice.logging;
+
+import org.slf4j.MDC;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+/**
+ * Puts the request id and endpoint of each request in the MDC, for the JSON log lines of
+ * the prod profile and for EndpointSamplingTurboFilter, which samples and rate-limits the
+ * log events per endpoint.
+ *
+ * The request id comes from the X-Request-Id header, or is generated and returned in it.
+ * The endpoint is the method and the path with its numeric and UUID segments replaced by
+ * {id}, and the username or email of a lookup by {value}, so all requests for one route
+ * share it and no user data ends up in it.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RequestLogContextFilter extends OncePerRequestFilter {
+    
+    public static final String REQUEST_ID_HEADER = "X-Request-Id";
+    public static final String REQUEST_ID = "requestId";
+    public static final String ENDPOINT = "endpoint";
+    
+    private static final Pattern ID_SEGMENT = Pattern.compile(
+            "/(\\d+|[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12})(?=/|$)");
+    private static final Pattern LOOKUP_SEGMENT = Pattern.compile("/(username|email)/[^/]+");
+    private static final String REQUEST_ID_ATTRIBUTE = RequestLogContextFilter.class.getName() + ".requestId";
+    private static final int MAX_REQUEST_ID_LENGTH = 64;
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String requestId = (String) request.getAttribute(REQUEST_ID_ATTRIBUTE);
+        if (requestId == null) {
+            requestId = request.getHeader(REQUEST_ID_HEADER);
+            if (requestId == null || requestId.isBlank() || requestId.length() > MAX_REQUEST_ID_LENGTH) {
+                requestId = UUID.randomUUID().toString();
+            }
+            request.setAttribute(REQUEST_ID_ATTRIBUTE, requestId);
+            response.setHeader(REQUEST_ID_HEADER, requestId);
+        }
+        
+        MDC.put(REQUEST_ID, requestId);
+        MDC.put(ENDPOINT, endpoint(request));
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            MDC.remove(REQUEST_ID);
+            MDC.remove(ENDPOINT);
+        }
+    }
+    
+    // Async dispatches run on another thread, which needs the same context again
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+    
+    static String endpoint(HttpServletRequest request) {
+        String path = LOOKUP_SEGMENT.matcher(request.getRequestURI()).replaceAll("/$1/{value}");
+        return request.getMethod() + " " + ID_SEGMENT.matcher(path).replaceAll("/{id}");
+    }
+}
@@ -1,11 +1,16 @@
 package com.ticketing.userservice.repository;
 
+import com.ticketing.userservice.dto.UserDTO;
 import com.ticketing.userservice.model.User;
 import com.ticketing.userservice.model.UserStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -31,4 +36,37 @@ public interface UserRepository extends JpaRepository<User, Long> {
            "LOWER(u.lastName) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
            "LOWER(u.email) LIKE LOWER(CONCAT('%', :searchTerm, '%')))")
     List<User> searchActiveUsers(String searchTerm);
+    
+    // Read-only projections straight into UserDTO, bypassing entity hydration and dirty-checking
+    // snapshots. Arguments follow the field order of UserDTO's all-args constructor.
+    String USER_DTO_PROJECTION = "SELECT new com.ticketing.userservice.dto.UserDTO(" +
+            "u.id, u.username, u.email, u.firstName, u.lastName, u.phoneNumber, u.address, u.city, " +
+            "u.state, u.zipCode, u.country, u.role, u.status, u.createdAt, u.updatedAt, u.lastLogin) " +
+            "FROM User u ";
+    
+    @Query(USER_DTO_PROJECTION)
+    List<UserDTO> findAllDtos();
+    
+    @Query(USER_DTO_PROJECTION + "WHERE u.status = :status")
+    List<UserDTO> findDtosByStatus(@Param("status") UserStatus status);
+    
+    @Query(USER_DTO_PROJECTION + "WHERE u.status = 'ACTIVE' AND " +
+           "(LOWER(u.firstName) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
+           "LOWER(u.lastName) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
+           "LOWER(u.email) LIKE LOWER(CONCAT('%', :searchTerm, '%')))")
+    List<UserDTO> searchActiveUserDtos(@Param("searchTerm") String searchTerm);
+    
+    // A login only touches these columns, so it does not write back a user it read before the
+    // password was verified. The password is only replaced if it is still the verified one.
+    @Modifying
+    @Transactional
+    @Query("UPDATE User u SET u.lastLogin = :lastLogin, u.updatedAt = :lastLogin WHERE u.id = :id")
+    int recordLogin(@Param("id") Long id, @Param("lastLogin") LocalDateTime lastLogin);
+    
+    @Modifying
+    @Transactional
+    @Query("UPDATE User u SET u.lastLogin = :lastLogin, u.updatedAt = :lastLogin, u.password = :password " +
+           "WHERE u.id = :id AND u.password = :verified")
+    int recordLoginWithRehash(@Param("id") Long id, @Param("lastLogin") LocalDateTime lastLogin,
+                              @Param("verified") String verified, @Param("password") String password);
 }
@@ -1,5 +1,6 @@
 package com.ticketing.userservice.security;
 
+import com.ticketing.userservice.jfr.JwtSignEvent;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
 import lombok.extern.slf4j.Slf4j;
@@ -26,12 +27,15 @@ public class JwtTokenProvider {
         
         SecretKey key = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
         
-        return Jwts.builder()
+        JwtSignEvent event = JwtSignEvent.begin(SignatureAlgorithm.HS512.getValue());
+        String token = Jwts.builder()
                 .setSubject(username)
                 .setIssuedAt(now)
                 .setExpiration(expiryDate)
                 .signWith(key, SignatureAlgorithm.HS512)
                 .compact();
+        event.end(token);
+        return token;
     }
     
     public String getUsernameFromToken(String token) {
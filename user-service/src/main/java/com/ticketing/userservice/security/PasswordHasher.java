@@ -0,0 +1,200 @@
+package com.ticketing.userservice.security;
+
+import com.ticketing.userservice.exception.PasswordHashingBusyException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs BCrypt off the request threads, on a pool sized to the CPUs.
+ *
+ * Hashing is deliberately slow and CPU-bound, so a burst of logins on Tomcat's threads would
+ * leave none for cheap requests such as user lookups. Here at most password-hashing.threads
+ * hashes run at once and password-hashing.queue more wait; beyond that the work is refused
+ * with PasswordHashingBusyException straight away, which the client sees as 503.
+ *
+ * Futures complete on a separate pool of password-hashing.completion-threads, with the MDC of
+ * the caller, so what callers chain onto them (saving the user, recording the login, signing
+ * the token) never takes a hashing thread. When database stalls back that pool's queue up,
+ * the hashing thread runs the completion itself, which slows hashing down and turns new
+ * requests away instead of letting completions pile up.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PasswordHasher {
+    
+    private final PasswordEncoder passwordEncoder;
+    private final MeterRegistry meterRegistry;
+    
+    // 0: one per available processor
+    @Value("${password-hashing.threads:0}")
+    private int threads;
+    
+    // 0: four per thread
+    @Value("${password-hashing.queue:0}")
+    private int queue;
+    
+    // 0: as many as hashing threads
+    @Value("${password-hashing.completion-threads:0}")
+    private int completionThreads;
+    
+    private ThreadPoolExecutor executor;
+    private ThreadPoolExecutor completionExecutor;
+    private Counter rejections;
+    private Timer queueWait;
+    private Timer encodeTime;
+    private Timer verifyTime;
+    
+    @PostConstruct
+    void start() {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        int queueSize = queue > 0 ? queue : poolSize * 4;
+        executor = new ThreadPoolExecutor(poolSize, poolSize, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueSize), threadFactory("password-hashing-"),
+                new ThreadPoolExecutor.AbortPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        int completionSize = completionThreads > 0 ? completionThreads : poolSize;
+        completionExecutor = new ThreadPoolExecutor(completionSize, completionSize, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueSize), threadFactory("password-hashing-completion-"),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        completionExecutor.allowCoreThreadTimeOut(true);
+        
+        rejections = Counter.builder("password_hashing_rejections")
+                .description("Password hashes refused because the hashing queue was full")
+                .register(meterRegistry);
+        queueWait = Timer.builder("password_hashing_queue_wait")
+                .description("Time password hashes waited for a hashing thread")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        encodeTime = Timer.builder("password_hashing_duration")
+                .description("Time spent hashing passwords")
+                .tag("operation", "encode")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        verifyTime = Timer.builder("password_hashing_duration")
+                .description("Time spent hashing passwords")
+                .tag("operation", "verify")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        Gauge.builder("password_hashing_active_threads", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Hashing threads computing a hash")
+                .register(meterRegistry);
+        Gauge.builder("password_hashing_queued", executor, e -> e.getQueue().size())
+                .description("Password hashes waiting for a hashing thread")
+                .register(meterRegistry);
+        Gauge.builder("password_hashing_queue_capacity", executor, e -> queueSize)
+                .description("Password hashes queued at most before refusing more")
+                .register(meterRegistry);
+        Gauge.builder("password_hashing_completions_queued", completionExecutor, e -> e.getQueue().size())
+                .description("Hashed passwords waiting for a completion thread")
+                .register(meterRegistry);
+        log.debug("Password hashing: {} threads, queue of {}, {} completion threads",
+                poolSize, queueSize, completionSize);
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        // Hashing first, its last results still go through the completion pool
+        shutdown(executor);
+        shutdown(completionExecutor);
+    }
+    
+    /**
+     * @throws PasswordHashingBusyException if the hashing queue is full
+     */
+    public CompletableFuture<String> encode(CharSequence rawPassword) {
+        return submit(encodeTime, () -> passwordEncoder.encode(rawPassword));
+    }
+    
+    /**
+     * @throws PasswordHashingBusyException if the hashing queue is full
+     */
+    public CompletableFuture<Boolean> matches(CharSequence rawPassword, String encodedPassword) {
+        return submit(verifyTime, () -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+    
+    /**
+     * True if the hash was made with a lower cost than the configured one. Cheap, it only
+     * reads the hash's prefix.
+     */
+    public boolean needsRehash(String encodedPassword) {
+        return passwordEncoder.upgradeEncoding(encodedPassword);
+    }
+    
+    private <T> CompletableFuture<T> submit(Timer timer, Supplier<T> work) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        long queuedAt = System.nanoTime();
+        Map<String, String> mdc = MDC.getCopyOfContextMap();
+        try {
+            executor.execute(() -> {
+                queueWait.record(System.nanoTime() - queuedAt, TimeUnit.NANOSECONDS);
+                Runnable completion;
+                try {
+                    T result = timer.record(work);
+                    completion = () -> future.complete(result);
+                } catch (Throwable e) {
+                    completion = () -> future.completeExceptionally(e);
+                }
+                completionExecutor.execute(withMdc(mdc, completion));
+            });
+        } catch (RejectedExecutionException e) {
+            rejections.increment();
+            throw new PasswordHashingBusyException();
+        }
+        return future;
+    }
+    
+    private static Runnable withMdc(Map<String, String> mdc, Runnable task) {
+        return () -> {
+            if (mdc != null) {
+                MDC.setContextMap(mdc);
+            }
+            try {
+                task.run();
+            } finally {
+                MDC.clear();
+            }
+        };
+    }
+    
+    private static ThreadFactory threadFactory(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+    
+    private static void shutdown(ThreadPoolExecutor pool) {
+        pool.shutdown();
+        try {
+            if (!pool.awaitTermination(10, TimeUnit.SECONDS)) {
+                pool.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            pool.shutdownNow();
+        }
+    }
+}
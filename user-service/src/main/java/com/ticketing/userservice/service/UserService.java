@@ -3,21 +3,26 @@ package com.ticketing.userservice.service;
 import com.ticketing.userservice.dto.LoginDTO;
 import com.ticketing.userservice.dto.UserDTO;
 import com.ticketing.userservice.dto.UserRegistrationDTO;
+import com.ticketing.userservice.exception.PasswordHashingBusyException;
 import com.ticketing.userservice.exception.ResourceNotFoundException;
 import com.ticketing.userservice.exception.UserAlreadyExistsException;
 import com.ticketing.userservice.model.User;
 import com.ticketing.userservice.model.UserStatus;
 import com.ticketing.userservice.repository.UserRepository;
+import com.ticketing.userservice.security.PasswordHasher;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.modelmapper.ModelMapper;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import javax.annotation.PostConstruct;
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 @RequiredArgsConstructor
@@ -26,10 +31,28 @@ import java.util.stream.Collectors;
 public class UserService {
     
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
     private final ModelMapper modelMapper;
+    private final PasswordHasher passwordHasher;
+    private final MeterRegistry meterRegistry;
     
-    public UserDTO registerUser(UserRegistrationDTO registrationDTO) {
+    private Counter rehashes;
+    
+    @PostConstruct
+    void registerMetrics() {
+        rehashes = Counter.builder("password_rehashes")
+                .description("Passwords hashed again on login because the bcrypt cost was raised")
+                .register(meterRegistry);
+    }
+    
+    /**
+     * Checks that the username and email are free, hashes the password on the PasswordHasher
+     * and then saves the user. No transaction is held while hashing; the unique constraints
+     * catch a registration that took the username or email in the meantime.
+     *
+     * @throws PasswordHashingBusyException if the hashing queue is full
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public CompletableFuture<UserDTO> registerUser(UserRegistrationDTO registrationDTO) {
         log.info("Registering new user: {}", registrationDTO.getUsername());
         
         if (userRepository.existsByUsername(registrationDTO.getUsername())) {
@@ -40,28 +63,38 @@ public class UserService {
             throw new UserAlreadyExistsException("Email already exists: " + registrationDTO.getEmail());
         }
         
-        User user = User.builder()
-                .username(registrationDTO.getUsername())
-                .email(registrationDTO.getEmail())
-                .password(passwordEncoder.encode(registrationDTO.getPassword()))
-                .firstName(registrationDTO.getFirstName())
-                .lastName(registrationDTO.getLastName())
-                .phoneNumber(registrationDTO.getPhoneNumber())
-                .address(registrationDTO.getAddress())
-                .city(registrationDTO.getCity())
-                .state(registrationDTO.getState())
-                .zipCode(registrationDTO.getZipCode())
-                .country(registrationDTO.getCountry())
-                .status(UserStatus.ACTIVE)
-                .build();
-        
-        User savedUser = userRepository.save(user);
-        log.info("User registered successfully: {}", savedUser.getId());
-        
-        return convertToDTO(savedUser);
+        return passwordHasher.encode(registrationDTO.getPassword()).thenApply(password -> {
+            User user = User.builder()
+                    .username(registrationDTO.getUsername())
+                    .email(registrationDTO.getEmail())
+                    .password(password)
+                    .firstName(registrationDTO.getFirstName())
+                    .lastName(registrationDTO.getLastName())
+                    .phoneNumber(registrationDTO.getPhoneNumber())
+                    .address(registrationDTO.getAddress())
+                    .city(registrationDTO.getCity())
+                    .state(registrationDTO.getState())
+                    .zipCode(registrationDTO.getZipCode())
+                    .country(registrationDTO.getCountry())
+                    .status(UserStatus.ACTIVE)
+                    .build();
+            
+            User savedUser = userRepository.save(user);
+            log.info("User registered successfully: {}", savedUser.getId());
+            
+            return convertToDTO(savedUser);
+        });
     }
     
-    public UserDTO authenticateUser(LoginDTO loginDTO) {
+    /**
+     * Verifies the password on the PasswordHasher, outside of any transaction, and records
+     * the login. A password hashed with a lower cost than the configured one is hashed again
+     * and replaced on the way.
+     *
+     * @throws PasswordHashingBusyException if the hashing queue is full
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public CompletableFuture<UserDTO> authenticateUser(LoginDTO loginDTO) {
         log.info("Authenticating user: {}", loginDTO.getUsernameOrEmail());
         
         User user = userRepository.findByUsernameOrEmail(
@@ -69,16 +102,39 @@ public class UserService {
                 loginDTO.getUsernameOrEmail()
         ).orElseThrow(() -> new ResourceNotFoundException("User not found"));
         
-        if (!passwordEncoder.matches(loginDTO.getPassword(), user.getPassword())) {
-            throw new RuntimeException("Invalid credentials");
-        }
-        
-        if (user.getStatus() != UserStatus.ACTIVE) {
-            throw new RuntimeException("User account is not active");
+        String verified = user.getPassword();
+        return passwordHasher.matches(loginDTO.getPassword(), verified).thenCompose(matched -> {
+            if (!matched) {
+                throw new RuntimeException("Invalid credentials");
+            }
+            
+            if (user.getStatus() != UserStatus.ACTIVE) {
+                throw new RuntimeException("User account is not active");
+            }
+            
+            if (!passwordHasher.needsRehash(verified)) {
+                return CompletableFuture.completedFuture(recordLogin(user, verified, null));
+            }
+            try {
+                return passwordHasher.encode(loginDTO.getPassword())
+                        .thenApply(rehashed -> recordLogin(user, verified, rehashed));
+            } catch (PasswordHashingBusyException e) {
+                // Rehashing can wait for the next login, the password has been verified
+                return CompletableFuture.completedFuture(recordLogin(user, verified, null));
+            }
+        });
+    }
+    
+    private UserDTO recordLogin(User user, String verified, String rehashed) {
+        LocalDateTime now = LocalDateTime.now();
+        if (rehashed != null && userRepository.recordLoginWithRehash(user.getId(), now, verified, rehashed) > 0) {
+            rehashes.increment();
+            log.debug("Password of user {} hashed again with the current cost", user.getId());
+        } else {
+            userRepository.recordLogin(user.getId(), now);
         }
-        
-        user.setLastLogin(LocalDateTime.now());
-        userRepository.save(user);
+        user.setLastLogin(now);
+        user.setUpdatedAt(now);
         
         log.info("User authenticated successfully: {}", user.getId());
         return convertToDTO(user);
@@ -111,25 +167,19 @@ public class UserService {
     @Transactional(readOnly = true)
     public List<UserDTO> getAllUsers() {
         log.info("Fetching all users");
-        return userRepository.findAll().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return userRepository.findAllDtos();
     }
     
     @Transactional(readOnly = true)
     public List<UserDTO> getActiveUsers() {
         log.info("Fetching active users");
-        return userRepository.findByStatus(UserStatus.ACTIVE).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return userRepository.findDtosByStatus(UserStatus.ACTIVE);
     }
     
     @Transactional(readOnly = true)
     public List<UserDTO> searchUsers(String searchTerm) {
         log.info("Searching users with term: {}", searchTerm);
-        return userRepository.searchActiveUsers(searchTerm).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return userRepository.searchActiveUserDtos(searchTerm);
     }
     
     public UserDTO updateUser(Long id, UserDTO userDTO) {